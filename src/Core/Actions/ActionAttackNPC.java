@@ -2,58 +2,55 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.combat.Combat; // For potentially turning auto-retaliate on/off
-import org.dreambot.api.methods.interactive.NPCs;
-import org.dreambot.api.methods.interactive.Players;
-import org.dreambot.api.methods.map.Area; // Optional
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
+import org.dreambot.api.methods.map.Area;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.Character; // For interacting character
-import org.dreambot.api.wrappers.interactive.NPC;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.methods.filter.Filter;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Predicate;
 
-import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREAS;
+import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREA_INDEX;
 
 /**
  * Action to find and attack a specific NPC.
  */
 public class ActionAttackNPC implements Action {
 
+    private final GameApi api;
     private final String npcName; // Can be null if using predicate
-    private final Predicate<NPC> npcPredicate; // Can be null if using name
+    private final Predicate<EntityRef> npcPredicate; // Can be null if using name
     private final Area combatArea; // Optional area constraint
 
     // Optional: State changes anticipated by the planner
     private final Map<WorldStateKey, Object> effectsMap;
 
     // Internal state
-    private NPC currentTarget = null;
+    private EntityRef currentTarget = null;
     private long combatStartTime = 0;
     private long combatTimeout = 120000; // 2 minutes timeout per fight? Adjust as needed.
 
+    private final ConditionSet preconditionSet;
+
     /** Constructor using NPC Name */
-    public ActionAttackNPC(String npcName, Area combatArea, Map<WorldStateKey, Object> effects) {
-        this(npcName, null, combatArea, effects);
+    public ActionAttackNPC(GameApi api, String npcName, Area combatArea, Map<WorldStateKey, Object> effects) {
+        this(api, npcName, null, combatArea, effects);
     }
 
     /** Constructor using Predicate */
-    public ActionAttackNPC(Predicate<NPC> predicate, Area combatArea, Map<WorldStateKey, Object> effects) {
-        this(null, predicate, combatArea, effects);
+    public ActionAttackNPC(GameApi api, Predicate<EntityRef> predicate, Area combatArea, Map<WorldStateKey, Object> effects) {
+        this(api, null, predicate, combatArea, effects);
     }
 
     // Private constructor
-    private ActionAttackNPC(String name, Predicate<NPC> predicate, Area area, Map<WorldStateKey, Object> effects) {
+    private ActionAttackNPC(GameApi api, String name, Predicate<EntityRef> predicate, Area area, Map<WorldStateKey, Object> effects) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.npcName = name;
         this.npcPredicate = predicate;
         this.combatArea = area; // Can be null
@@ -66,6 +63,7 @@ public class ActionAttackNPC implements Action {
         if (!this.effectsMap.containsKey(WorldStateKey.COMBAT_IS_IN_COMBAT)) {
             this.effectsMap.put(WorldStateKey.COMBAT_IS_IN_COMBAT, false);
         }
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -86,6 +84,11 @@ public class ActionAttackNPC implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         // Effects: Target NPC is dead (hard to guarantee, rely on observer)
@@ -101,38 +104,22 @@ public class ActionAttackNPC implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Don't start attacking if already in combat with something else
-        if (state.getBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT)) {
-            Character interacting = Players.getLocal().getInteractingCharacter();
-            // Allow if already fighting the correct type of NPC
-            if (interacting instanceof NPC) {
-                NPC currentOpponent = (NPC) interacting;
-                boolean nameMatch = npcName != null && npcName.equals(currentOpponent.getName());
-                boolean predicateMatch = npcPredicate != null && npcPredicate.test(currentOpponent);
-                if (nameMatch || predicateMatch) return false; // Already fighting correct target type
-            }
-            // Otherwise, don't start a new fight if busy
-            return false;
-        }
-
-        // Check area if specified
-        if (combatArea != null && !getAreaName().equals(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME))) {
-            return false;
-        }
+        // Don't start attacking if already in combat, check area if specified
+        return state.satisfies(preconditionSet);
+    }
 
-        // Check if a suitable target exists
+    @Override
+    public boolean canExecute(WorldState currentState) {
+        // Runtime check: Is a suitable target around?
         return findTargetNPC() != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // --- Check if already in combat ---
-        if (localPlayer.isInCombat()) {
-            Character interactingChar = localPlayer.getInteractingCharacter();
-            if (interactingChar instanceof NPC) {
-                NPC currentOpponent = (NPC) interactingChar;
+        if (api.player().isInCombat()) {
+            EntityRef currentOpponent = api.player().getInteracting();
+            if (currentOpponent != null) {
                 // Check if fighting the type we intended OR if our specific target is still alive
                 boolean nameMatch = npcName != null && npcName.equals(currentOpponent.getName());
                 boolean predicateMatch = npcPredicate != null && npcPredicate.test(currentOpponent);
@@ -140,10 +127,10 @@ public class ActionAttackNPC implements Action {
 
                 if (nameMatch || predicateMatch || specificTargetMatch) {
                     // We are fighting the correct type or the specific target
-                    if (combatStartTime == 0) combatStartTime = System.currentTimeMillis(); // Start timer if just entered combat
+                    if (combatStartTime == 0) combatStartTime = GameClock.millis(); // Start timer if just entered combat
 
                     // Check timeout
-                    if (System.currentTimeMillis() - combatStartTime > combatTimeout) {
+                    if (GameClock.millis() - combatStartTime > combatTimeout) {
                         Logger.log(getName() + ": Combat timed out against " + currentOpponent.getName());
                         resetCombatState();
                         currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, false);
@@ -151,7 +138,7 @@ public class ActionAttackNPC implements Action {
                     }
 
                     // Check if opponent is dead or no longer interacting
-                    if (currentOpponent.getHealthPercent() <= 0 || !currentOpponent.exists() || !currentOpponent.equals(localPlayer.getInteractingCharacter())) {
+                    if (currentOpponent.getHealthPercent() <= 0 || !currentOpponent.exists() || !currentOpponent.equals(api.player().getInteracting())) {
                         Logger.log(getName() + ": Target " + currentOpponent.getName() + " defeated or interaction ended.");
                         resetCombatState();
                         currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, false);
@@ -182,21 +169,21 @@ public class ActionAttackNPC implements Action {
         }
 
         // Walk if needed
-        if (!currentTarget.isOnScreen() || currentTarget.distance() > 10) { // Increase distance for combat
+        if (!currentTarget.isOnScreen() || api.player().distanceTo(currentTarget.getTile()) > 10) { // Increase distance for combat
             Logger.log(getName() + ": Walking to target " + currentTarget.getName());
-            if (Walking.walk(currentTarget)) {
-                Sleep.sleepUntil(currentTarget::isOnScreen, 4000);
+            if (api.walking().walk(currentTarget.getTile())) {
+                api.sleep().sleepUntil(currentTarget::isOnScreen, 4000);
             }
         }
 
         Logger.log(getName() + ": Interacting 'Attack' with " + currentTarget.getName());
         if (currentTarget.interact("Attack")) {
             // Wait for combat state to change
-            boolean startedCombat = Sleep.sleepUntil(() -> Players.getLocal().isInCombat(), 5000);
+            boolean startedCombat = api.sleep().sleepUntil(() -> api.player().isInCombat(), 5000);
 
             if (startedCombat) {
                 Logger.log(getName() + ": Successfully initiated combat with " + currentTarget.getName());
-                combatStartTime = System.currentTimeMillis(); // Start timer
+                combatStartTime = GameClock.millis(); // Start timer
                 currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -213,13 +200,12 @@ public class ActionAttackNPC implements Action {
     }
 
     /** Finds the closest valid NPC target based on name or predicate */
-    private NPC findTargetNPC() {
-        // Define the filter using DreamBot's Filter interface
-        Filter<NPC> filter = npc -> {
+    private EntityRef findTargetNPC() {
+        Predicate<EntityRef> filter = npc -> {
             if (npc == null || !npc.exists() || npc.isInCombat() || npc.getHealthPercent() <= 0 || !npc.hasAction("Attack")) {
                 return false; // Basic validity checks
             }
-            if (combatArea != null && !combatArea.contains(npc)) {
+            if (combatArea != null && !combatArea.contains(npc.getTile())) {
                 return false; // Check area constraint
             }
             // Apply specific name or predicate check
@@ -232,18 +218,18 @@ public class ActionAttackNPC implements Action {
             return false; // Should have name or predicate if we reach here
         };
 
-        // Call the closest method that accepts DreamBot's Filter
-        return NPCs.closest(filter);
+        return api.npcs().closest(filter);
     }
 
     private String getAreaName() {
-        // Crude way to get area name string if needed for preconditions
-        if (combatArea != null) {
-            for (Map.Entry<String, Area> entry : TUTORIAL_AREAS.entrySet()) { // Assumes TUTORIAL_AREAS is accessible
-                if (entry.getValue().equals(combatArea)) return entry.getKey();
-            }
-        }
-        return "UnknownCombatArea";
+        // Reverse lookup of the area's name in the shared tutorial area index
+        String name = TUTORIAL_AREA_INDEX.nameOf(combatArea);
+        return name != null ? name : "UnknownCombatArea";
+    }
+
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(combatStartTime, combatTimeout);
     }
 
     private void resetCombatState() {
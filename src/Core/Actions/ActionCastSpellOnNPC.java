@@ -4,41 +4,31 @@ import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.combat.Combat;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.filter.Filter;
-import org.dreambot.api.methods.interactive.NPCs;
-import org.dreambot.api.methods.interactive.Players;
-import org.dreambot.api.methods.magic.Magic; // Import Magic class
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.magic.Normal; // Import Normal spell enum (or other spellbooks if needed)
 import org.dreambot.api.methods.magic.Spell; // Import Spell interface
 import org.dreambot.api.methods.map.Area;
 import org.dreambot.api.methods.tabs.Tab;
-import org.dreambot.api.methods.tabs.Tabs;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.Character;
-import org.dreambot.api.wrappers.interactive.NPC;
-import org.dreambot.api.wrappers.interactive.Player;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Predicate;
 
-import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREAS;
+import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREA_INDEX;
 
 /**
  * Action to cast a specific Normal spell on a target NPC.
  */
 public class ActionCastSpellOnNPC implements Action {
 
+    private final GameApi api;
     private final Spell spellToCast;
     private final String targetNpcName; // Can be null if using predicate
-    private final Predicate<NPC> targetNpcPredicate; // Can be null if using name
+    private final Predicate<EntityRef> targetNpcPredicate; // Can be null if using name
     private final Area combatArea; // Optional area constraint
 
     // Keys for required runes (example for Wind Strike)
@@ -49,22 +39,23 @@ public class ActionCastSpellOnNPC implements Action {
     private final Map<WorldStateKey, Object> effectsMap;
 
     // Internal state
-    private NPC currentTarget = null;
+    private EntityRef currentTarget = null;
     private long combatStartTime = 0;
     private long combatTimeout = 60000; // Timeout for spell combat
 
     /** Constructor using Spell enum and NPC Name */
-    public ActionCastSpellOnNPC(Spell spell, String npcName, Area combatArea, Map<WorldStateKey, Object> effects) {
-        this(spell, npcName, null, combatArea, effects);
+    public ActionCastSpellOnNPC(GameApi api, Spell spell, String npcName, Area combatArea, Map<WorldStateKey, Object> effects) {
+        this(api, spell, npcName, null, combatArea, effects);
     }
 
     /** Constructor using Spell enum and NPC Predicate */
-    public ActionCastSpellOnNPC(Spell spell, Predicate<NPC> predicate, Area combatArea, Map<WorldStateKey, Object> effects) {
-        this(spell, null, predicate, combatArea, effects);
+    public ActionCastSpellOnNPC(GameApi api, Spell spell, Predicate<EntityRef> predicate, Area combatArea, Map<WorldStateKey, Object> effects) {
+        this(api, spell, null, predicate, combatArea, effects);
     }
 
     // Private constructor
-    private ActionCastSpellOnNPC(Spell spell, String name, Predicate<NPC> predicate, Area area, Map<WorldStateKey, Object> effects) {
+    private ActionCastSpellOnNPC(GameApi api, Spell spell, String name, Predicate<EntityRef> predicate, Area area, Map<WorldStateKey, Object> effects) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.spellToCast = Objects.requireNonNull(spell, "Spell cannot be null");
         this.targetNpcName = name;
         this.targetNpcPredicate = predicate;
@@ -124,11 +115,20 @@ public class ActionCastSpellOnNPC implements Action {
         if (!state.getBoolean(hasAirRuneKey) || !state.getBoolean(hasMindRuneKey)) {
             return false;
         }
+        // Check area if specified
+        if (combatArea != null && !getAreaName().equals(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME))) {
+            return false;
+        }
+        // Being in combat is only a problem if the opponent is the wrong one, checked in canExecute()
+        return true;
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if already in combat with wrong target
-        if (state.getBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT)) {
-            Character interacting = Players.getLocal().getInteractingCharacter();
-            if (interacting instanceof NPC) {
-                NPC currentOpponent = (NPC) interacting;
+        if (currentState.getBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT)) {
+            EntityRef currentOpponent = api.player().getInteracting();
+            if (currentOpponent != null) {
                 boolean nameMatch = targetNpcName != null && targetNpcName.equals(currentOpponent.getName());
                 boolean predicateMatch = targetNpcPredicate != null && targetNpcPredicate.test(currentOpponent);
                 if (!nameMatch && !predicateMatch) return false; // Fighting wrong target
@@ -136,37 +136,30 @@ public class ActionCastSpellOnNPC implements Action {
                 return false; // Fighting player?
             }
         }
-        // Check area if specified
-        if (combatArea != null && !getAreaName().equals(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME))) {
-            return false;
-        }
         // Check if target exists
         return findTargetNPC() != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // --- Check if already in combat with the correct target ---
-        if (localPlayer.isInCombat()) {
-            Character interactingChar = localPlayer.getInteractingCharacter();
-            if (interactingChar instanceof NPC) {
-                NPC currentOpponent = (NPC) interactingChar;
+        if (api.player().isInCombat()) {
+            EntityRef currentOpponent = api.player().getInteracting();
+            if (currentOpponent != null) {
                 boolean nameMatch = targetNpcName != null && targetNpcName.equals(currentOpponent.getName());
                 boolean predicateMatch = targetNpcPredicate != null && targetNpcPredicate.test(currentOpponent);
                 boolean specificTargetMatch = currentTarget != null && currentTarget.equals(currentOpponent);
 
                 if (nameMatch || predicateMatch || specificTargetMatch) {
                     // Monitor existing combat
-                    if (combatStartTime == 0) combatStartTime = System.currentTimeMillis();
-                    if (System.currentTimeMillis() - combatStartTime > combatTimeout) {
+                    if (combatStartTime == 0) combatStartTime = GameClock.millis();
+                    if (GameClock.millis() - combatStartTime > combatTimeout) {
                         Logger.log(getName() + ": Combat timed out against " + currentOpponent.getName());
                         resetCombatState();
                         currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, false);
                         return ActionResult.FAILURE;
                     }
-                    if (currentOpponent.getHealthPercent() <= 0 || !currentOpponent.exists() || !currentOpponent.equals(localPlayer.getInteractingCharacter())) {
+                    if (currentOpponent.getHealthPercent() <= 0 || !currentOpponent.exists() || !currentOpponent.equals(api.player().getInteracting())) {
                         Logger.log(getName() + ": Target " + currentOpponent.getName() + " defeated or interaction ended.");
                         resetCombatState();
                         currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, false);
@@ -192,29 +185,29 @@ public class ActionCastSpellOnNPC implements Action {
 
         // Check runes again just before casting
         // Example for Wind Strike:
-        if (!Inventory.contains("Air rune") || !Inventory.contains("Mind rune")) {
+        if (!api.inventory().contains("Air rune") || !api.inventory().contains("Mind rune")) {
             Logger.log(getName() + ": Missing required runes.");
-            currentState.setBoolean(hasAirRuneKey, Inventory.contains("Air rune"));
-            currentState.setBoolean(hasMindRuneKey, Inventory.contains("Mind rune"));
+            currentState.setBoolean(hasAirRuneKey, api.inventory().contains("Air rune"));
+            currentState.setBoolean(hasMindRuneKey, api.inventory().contains("Mind rune"));
             return ActionResult.FAILURE;
         }
 
         // Walk if needed
-        if (!currentTarget.isOnScreen() || currentTarget.distance() > 10) {
+        if (!currentTarget.isOnScreen() || api.player().distanceTo(currentTarget.getTile()) > 10) {
             Logger.log(getName() + ": Walking to target " + currentTarget.getName());
-            if (Walking.walk(currentTarget)) {
-                Sleep.sleepUntil(currentTarget::isOnScreen, 4000);
+            if (api.walking().walk(currentTarget.getTile())) {
+                api.sleep().sleepUntil(currentTarget::isOnScreen, 4000);
             }
         }
 
         Logger.log(getName() + ": Casting " + spellToCast.toString() + " on " + currentTarget.getName());
-        if (Magic.castSpellOn(spellToCast, currentTarget)) {
+        if (api.magic().castSpellOn(spellToCast, currentTarget)) {
             // Wait for combat state to change or target health to drop
-            boolean combatStarted = Sleep.sleepUntil(() -> Players.getLocal().isInCombat() || (currentTarget.exists() && currentTarget.getHealthPercent() < 100), 5000);
+            boolean combatStarted = api.sleep().sleepUntil(() -> api.player().isInCombat() || (currentTarget.exists() && currentTarget.getHealthPercent() < 100), 5000);
 
             if (combatStarted) {
                 Logger.log(getName() + ": Successfully cast spell and initiated combat/damage.");
-                combatStartTime = System.currentTimeMillis();
+                combatStartTime = GameClock.millis();
                 currentState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, true);
                 return ActionResult.IN_PROGRESS; // Monitor the fight
             } else {
@@ -223,9 +216,9 @@ public class ActionCastSpellOnNPC implements Action {
                 return ActionResult.FAILURE;
             }
         } else {
-            Logger.log(getName() + ": Magic.castSpellOn() failed.");
+            Logger.log(getName() + ": Casting " + spellToCast + " failed.");
             // Check if spellbook needed opening
-            if (!Tabs.isOpen(Tab.MAGIC)) {
+            if (!api.widgets().isTabOpen(Tab.MAGIC)) {
                 Logger.log(getName() + ": Magic tab wasn't open, attempting to open.");
                 // Could return FAILURE and let ActionOpenTab handle it, or try opening here.
                 // For simplicity, let's fail and assume planner will insert ActionOpenTab if needed.
@@ -237,12 +230,12 @@ public class ActionCastSpellOnNPC implements Action {
     }
 
     /** Finds the closest valid NPC target based on name or predicate */
-    private NPC findTargetNPC() {
-        Filter<NPC> filter = npc -> {
+    private EntityRef findTargetNPC() {
+        Predicate<EntityRef> filter = npc -> {
             if (npc == null || !npc.exists() || npc.isInCombat() || npc.getHealthPercent() <= 0 || !npc.hasAction("Attack")) {
                 return false;
             }
-            if (combatArea != null && !combatArea.contains(npc)) {
+            if (combatArea != null && !combatArea.contains(npc.getTile())) {
                 return false;
             }
             if (targetNpcPredicate != null) {
@@ -253,17 +246,18 @@ public class ActionCastSpellOnNPC implements Action {
             }
             return false;
         };
-        return NPCs.closest(filter);
+        return api.npcs().closest(filter);
     }
 
     private String getAreaName() {
-        // Crude way to get area name string if needed for preconditions
-        if (combatArea != null) {
-            for (Map.Entry<String, Area> entry : TUTORIAL_AREAS.entrySet()) { // Assumes TUTORIAL_AREAS is accessible
-                if (entry.getValue().equals(combatArea)) return entry.getKey();
-            }
-        }
-        return "UnknownCombatArea";
+        // Reverse lookup of the area's name in the shared tutorial area index
+        String name = TUTORIAL_AREA_INDEX.nameOf(combatArea);
+        return name != null ? name : "UnknownCombatArea";
+    }
+
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(combatStartTime, combatTimeout);
     }
 
     private void resetCombatState() {
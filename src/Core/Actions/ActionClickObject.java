@@ -2,18 +2,14 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Tile;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,9 +22,10 @@ import java.util.function.Predicate;
  */
 public class ActionClickObject implements Action {
 
+    private final GameApi api;
     private final String objectName; // Can be null if using ID or predicate
     private final int objectId;      // Can be -1 if using name or predicate
-    private final Predicate<GameObject> objectPredicate; // Can be null if using name/ID
+    private final Predicate<EntityRef> objectPredicate; // Can be null if using name/ID
     private final String interaction; // The action string to click (e.g., "Climb-down", "Smith")
     private final Tile specificTile; // Optional: Exact tile for targeting specific instance
 
@@ -40,35 +37,38 @@ public class ActionClickObject implements Action {
     private long animationStartTime = 0;
     private long animationTimeout = 8000; // Default timeout
 
+    private final ConditionSet preconditionSet;
+
     /** Constructor using Object Name */
-    public ActionClickObject(String objName, String interaction, Map<WorldStateKey, Object> effects, int animId) {
-        this(objName, -1, null, null, interaction, effects, animId);
+    public ActionClickObject(GameApi api, String objName, String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this(api, objName, -1, null, null, interaction, effects, animId);
     }
 
     /** Constructor using Object ID */
-    public ActionClickObject(int objId, String interaction, Map<WorldStateKey, Object> effects, int animId) {
-        this(null, objId, null, null, interaction, effects, animId);
+    public ActionClickObject(GameApi api, int objId, String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this(api, null, objId, null, null, interaction, effects, animId);
     }
 
     /** Constructor using Object Name and specific Tile */
-    public ActionClickObject(String objName, Tile tile, String interaction, Map<WorldStateKey, Object> effects, int animId) {
-        this(objName, -1, tile, null, interaction, effects, animId);
+    public ActionClickObject(GameApi api, String objName, Tile tile, String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this(api, objName, -1, tile, null, interaction, effects, animId);
     }
 
     /** Constructor using Object ID and specific Tile */
-    public ActionClickObject(int objId, Tile tile, String interaction, Map<WorldStateKey, Object> effects, int animId) {
-        this(null, objId, tile, null, interaction, effects, animId);
+    public ActionClickObject(GameApi api, int objId, Tile tile, String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this(api, null, objId, tile, null, interaction, effects, animId);
     }
 
     /** Constructor using Predicate */
-    public ActionClickObject(Predicate<GameObject> predicate, String interaction, Map<WorldStateKey, Object> effects, int animId) {
-        this(null, -1, null, predicate, interaction, effects, animId);
+    public ActionClickObject(GameApi api, Predicate<EntityRef> predicate, String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this(api, null, -1, null, predicate, interaction, effects, animId);
     }
 
 
     // Private master constructor
-    private ActionClickObject(String name, int id, Tile tile, Predicate<GameObject> predicate,
+    private ActionClickObject(GameApi api, String name, int id, Tile tile, Predicate<EntityRef> predicate,
                               String interaction, Map<WorldStateKey, Object> effects, int animId) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.objectName = name;
         this.objectId = id;
         this.specificTile = tile;
@@ -87,6 +87,7 @@ public class ActionClickObject implements Action {
             // If no animation expected, ensure effect doesn't claim we start animating
             // This might be redundant if preconditions already check this
         }
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -104,6 +105,11 @@ public class ActionClickObject implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         // Return the effects provided during construction
@@ -112,30 +118,30 @@ public class ActionClickObject implements Action {
 
     @Override
     public double getCost() {
-        GameObject obj = findObject();
-        double distance = (obj != null) ? Players.getLocal().distance(obj) : 10.0; // Estimate distance if obj not found yet
-        return 1.0 + (distance / 5.0); // Base cost + distance
+        // Flat cost (an object ~10 tiles away); finding the object is left to canExecute()/perform()
+        return 3.0;
     }
 
     @Override
     public boolean isApplicable(WorldState state) {
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING) || state.getBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN)) {
-            return false;
-        }
+        // Not animating, no dialogue open
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if the object exists and has the required action
-        GameObject obj = findObject();
+        EntityRef obj = findObject();
         return obj != null && obj.hasAction(interaction);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already performing the relevant animation
-        if (expectedAnimationId != -1 && localPlayer.isAnimating() && localPlayer.getAnimation() == expectedAnimationId) {
-            if (animationStartTime == 0) animationStartTime = System.currentTimeMillis();
+        if (expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId) {
+            if (animationStartTime == 0) animationStartTime = GameClock.millis();
 
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Animation timed out.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -164,7 +170,7 @@ public class ActionClickObject implements Action {
         // If not animating (or no animation expected), try to interact
         resetAnimationState();
 
-        GameObject targetObject = findObject();
+        EntityRef targetObject = findObject();
         if (targetObject == null) {
             Logger.log(getName() + ": Target object not found.");
             return ActionResult.FAILURE;
@@ -175,10 +181,10 @@ public class ActionClickObject implements Action {
         }
 
         // Walk if needed
-        if (!targetObject.isOnScreen() || targetObject.distance() > 8) {
+        if (!targetObject.isOnScreen() || api.player().distanceTo(targetObject.getTile()) > 8) {
             Logger.log(getName() + ": Walking to target object at " + targetObject.getTile());
-            if (Walking.walk(targetObject)) {
-                Sleep.sleepUntil(targetObject::isOnScreen, 3000);
+            if (api.walking().walk(targetObject.getTile())) {
+                api.sleep().sleepUntil(targetObject::isOnScreen, 3000);
             } else {
                 Logger.log(getName() + ": Walking failed.");
                 return ActionResult.FAILURE;
@@ -188,20 +194,20 @@ public class ActionClickObject implements Action {
         Logger.log(getName() + ": Interacting '" + interaction + "' with " + targetObject.getName());
         if (targetObject.interact(interaction)) {
             // Wait for animation start OR player position change (e.g., after climbing ladder)
-            Tile startingTile = localPlayer.getTile();
-            boolean conditionMet = Sleep.sleepUntil(() -> {
-                boolean isAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
-                boolean positionChanged = !Players.getLocal().getTile().equals(startingTile);
+            Tile startingTile = api.player().getTile();
+            boolean conditionMet = api.sleep().sleepUntil(() -> {
+                boolean isAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
+                boolean positionChanged = !api.player().getTile().equals(startingTile);
                 return isAnimating || positionChanged;
             }, 5000); // Adjust timeout as needed
 
             if (conditionMet) {
-                boolean stillAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
-                boolean positionChanged = !Players.getLocal().getTile().equals(startingTile);
+                boolean stillAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
+                boolean positionChanged = !api.player().getTile().equals(startingTile);
 
                 if (stillAnimating) {
                     Logger.log(getName() + ": Started animation...");
-                    animationStartTime = System.currentTimeMillis();
+                    animationStartTime = GameClock.millis();
                     currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                     return ActionResult.IN_PROGRESS;
                 } else if (positionChanged) {
@@ -219,7 +225,7 @@ public class ActionClickObject implements Action {
             } else {
                 Logger.log(getName() + ": Timed out waiting for animation/position change after interaction.");
                 // Check if maybe the state *did* change despite no animation/movement
-                GameObject postInteractionObject = findObject();
+                EntityRef postInteractionObject = findObject();
                 if (postInteractionObject == null || !postInteractionObject.hasAction(interaction)) {
                     Logger.log(getName() + ": Object state changed after timeout, assuming success.");
                     currentState.applyEffects(getEffects());
@@ -234,15 +240,15 @@ public class ActionClickObject implements Action {
     }
 
     /** Helper method to find the specific GameObject */
-    private GameObject findObject() {
-        Predicate<GameObject> basePredicate = obj -> obj != null && (objectId <= 0 || obj.getID() == objectId) && (objectName == null || obj.getName().equals(objectName)) && (specificTile == null || obj.getTile().equals(specificTile));
+    private EntityRef findObject() {
+        Predicate<EntityRef> basePredicate = obj -> obj != null && (objectId <= 0 || obj.getId() == objectId) && (objectName == null || objectName.equals(obj.getName())) && (specificTile == null || specificTile.equals(obj.getTile()));
 
         if (objectPredicate != null) {
             // Combine the provided predicate with the base checks
-            Predicate<GameObject> combined = basePredicate.and(objectPredicate);
-            return GameObjects.closest(obj -> combined.test(obj)); // Use lambda directly with closest
+            Predicate<EntityRef> combined = basePredicate.and(objectPredicate);
+            return api.objects().closest(obj -> combined.test(obj)); // Use lambda directly with closest
         } else {
-            return GameObjects.closest(obj -> basePredicate.test(obj)); // Use lambda directly with closest
+            return api.objects().closest(obj -> basePredicate.test(obj)); // Use lambda directly with closest
         }
     }
 
@@ -2,14 +2,12 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.widget.Widgets;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.widgets.WidgetChild;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -21,6 +19,7 @@ import java.util.Objects;
  */
 public class ActionClickWidget implements Action {
 
+    private final GameApi api;
     private final int[] widgetPath; // Array of IDs [parentId, childId, grandchildId, ...]
     private final String actionName; // Optional: Specific action to click if widget has multiple
     private final String description; // For logging/naming
@@ -28,24 +27,29 @@ public class ActionClickWidget implements Action {
     // Optional: State changes anticipated by the planner
     private final Map<WorldStateKey, Object> effectsMap;
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor to click a widget with its default action.
+     * @param api The game access port.
      * @param widgetPath The path of IDs to the target WidgetChild.
      * @param description A short description for the action name.
      * @param effects The expected effects on the WorldState.
      */
-    public ActionClickWidget(int[] widgetPath, String description, Map<WorldStateKey, Object> effects) {
-        this(widgetPath, null, description, effects); // Default action is null (left-click)
+    public ActionClickWidget(GameApi api, int[] widgetPath, String description, Map<WorldStateKey, Object> effects) {
+        this(api, widgetPath, null, description, effects); // Default action is null (left-click)
     }
 
     /**
      * Constructor to click a widget with a specific action name.
+     * @param api The game access port.
      * @param widgetPath The path of IDs to the target WidgetChild.
      * @param actionName The specific action text to interact with (if not default left-click).
      * @param description A short description for the action name.
      * @param effects The expected effects on the WorldState.
      */
-    public ActionClickWidget(int[] widgetPath, String actionName, String description, Map<WorldStateKey, Object> effects) {
+    public ActionClickWidget(GameApi api, int[] widgetPath, String actionName, String description, Map<WorldStateKey, Object> effects) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.widgetPath = Objects.requireNonNull(widgetPath, "Widget path cannot be null");
         if (widgetPath.length == 0) {
             throw new IllegalArgumentException("Widget path cannot be empty");
@@ -53,6 +57,7 @@ public class ActionClickWidget implements Action {
         this.actionName = actionName; // Can be null for default interaction
         this.description = Objects.requireNonNull(description, "Description cannot be null");
         this.effectsMap = (effects != null) ? new HashMap<>(effects) : new HashMap<>();
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -70,6 +75,11 @@ public class ActionClickWidget implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         // Return the effects provided during construction
@@ -83,19 +93,19 @@ public class ActionClickWidget implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN)) {
-            return false;
-        }
+        // No dialogue open
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if the widget exists and is visible
-        WidgetChild widget = Widgets.get(widgetPath);
-        return widget != null && widget.isVisible();
+        return api.widgets().isChildVisible(widgetPath);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        WidgetChild widget = Widgets.get(widgetPath);
-
-        if (widget == null || !widget.isVisible()) {
+        if (!api.widgets().isChildVisible(widgetPath)) {
             Logger.log(getName() + ": Target widget not found or not visible. Path: " + Arrays.toString(widgetPath));
             return ActionResult.FAILURE;
         }
@@ -103,9 +113,9 @@ public class ActionClickWidget implements Action {
         String interaction = (actionName != null) ? actionName : "Click"; // Default to "Click" if no specific action given
         Logger.log(getName() + ": Interacting '" + interaction + "' with widget.");
 
-        if (widget.interact(interaction)) {
+        if (api.widgets().interactChild(widgetPath, interaction)) {
             // Clicking widgets is usually fast, but a small sleep can help ensure state changes register
-            Sleep.sleep(Calculations.random(300, 600));
+            api.sleep().sleep(Calculations.random(300, 600));
             // We assume success if the interact method returns true.
             // Verifying the *result* of the click (e.g., interface changing)
             // is usually the job of the *next* action's preconditions or the observer.
@@ -2,15 +2,16 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.dialogues.Dialogues;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Action to continue the current dialogue by clicking the continue prompt
@@ -18,22 +19,29 @@ import java.util.Map;
  */
 public class ActionContinueDialogue implements Action {
 
+    private final GameApi api;
     private final String expectedNpc; // Optional: Only continue if talking to specific NPC
     private long dialogueTimeout = 3000; // Timeout for the continue action itself
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor to continue dialogue with any NPC.
+     * @param api The game access port.
      */
-    public ActionContinueDialogue() {
-        this.expectedNpc = null; // Continue any dialogue
+    public ActionContinueDialogue(GameApi api) {
+        this(api, null); // Continue any dialogue
     }
 
     /**
      * Constructor to continue dialogue only if talking to a specific NPC.
+     * @param api The game access port.
      * @param npcName The name of the NPC expected to be in dialogue with.
      */
-    public ActionContinueDialogue(String npcName) {
+    public ActionContinueDialogue(GameApi api, String npcName) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.expectedNpc = npcName;
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
 
@@ -53,6 +61,11 @@ public class ActionContinueDialogue implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -79,20 +92,18 @@ public class ActionContinueDialogue implements Action {
     @Override
     public boolean isApplicable(WorldState state) {
         // Check if dialogue is open and potentially with the correct NPC
-        boolean dialogueOpen = state.getBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN);
-        if (!dialogueOpen) return false;
-
-        if (expectedNpc != null && !expectedNpc.equals(state.getString(WorldStateKey.INTERACT_NPC_NAME))) {
-            return false; // Dialogue open, but wrong NPC
-        }
+        return state.satisfies(preconditionSet);
+    }
 
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if dialogue can actually be continued
-        return Dialogues.canContinue();
+        return api.widgets().canContinueDialogue();
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        if (!Dialogues.canContinue()) {
+        if (!api.widgets().canContinueDialogue()) {
             Logger.log(getName() + ": Cannot continue dialogue right now.");
             // This might happen if waiting for options or if dialogue closed between checks.
             // Returning IN_PROGRESS might cause a loop if options appear.
@@ -101,13 +112,13 @@ public class ActionContinueDialogue implements Action {
         }
 
         Logger.log(getName() + ": Attempting to continue dialogue...");
-        if (Dialogues.continueDialogue()) {
+        if (api.widgets().continueDialogue()) {
             // Wait briefly to allow the dialogue state to potentially update
-            Sleep.sleep(Calculations.random(400, 700));
+            api.sleep().sleep(Calculations.random(400, 700));
             // Check if dialogue is *still* continuable or completely closed
-            boolean stillInDialogue = Dialogues.inDialogue(); // Use broader check after continuing
+            boolean stillInDialogue = api.widgets().inDialogue(); // Use broader check after continuing
 
-            if (stillInDialogue && Dialogues.canContinue()) {
+            if (stillInDialogue && api.widgets().canContinueDialogue()) {
                 Logger.log(getName() + ": Dialogue advanced, more continues available.");
                 return ActionResult.IN_PROGRESS; // Still more dialogue to continue
             } else if (!stillInDialogue) {
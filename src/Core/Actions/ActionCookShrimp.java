@@ -2,20 +2,15 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Tile;
 import org.dreambot.api.methods.skills.Skill; // For checking Cooking level/XP gain
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +21,7 @@ import java.util.Objects;
  */
 public class ActionCookShrimp implements Action {
 
+    private final GameApi api;
     private final String RAW_SHRIMP_NAME = "Raw shrimps";
     private final String COOKED_SHRIMP_NAME = "Shrimps";
     private final String FIRE_NAME = "Fire"; // Or "Cooking range"
@@ -42,8 +38,12 @@ public class ActionCookShrimp implements Action {
     private int initialRawCount = -1;
     private int initialCookedCount = -1;
 
-    public ActionCookShrimp() {
+    private final ConditionSet preconditionSet;
+
+    public ActionCookShrimp(GameApi api) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         // Assumes area check is handled by preconditions/applicability
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -62,6 +62,11 @@ public class ActionCookShrimp implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -82,31 +87,29 @@ public class ActionCookShrimp implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Check inventory
-        if (!state.getBoolean(HAS_RAW_KEY)) return false;
-        // Check if animating
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING)) return false;
-        // Check if in the right area
-        if (!REQUIRED_AREA_NAME.equals(state.getString(AREA_KEY))) return false;
+        // Check inventory, fire, area and animation state
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if a cooking source is available nearby
         return findCookingSource() != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already cooking
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == COOKING_ANIMATION_ID) {
+        if (api.player().isAnimating() && api.player().getAnimation() == COOKING_ANIMATION_ID) {
             if (animationStartTime == 0 || initialCookedCount == -1) {
-                animationStartTime = System.currentTimeMillis();
-                initialRawCount = Inventory.count(RAW_SHRIMP_NAME);
-                initialCookedCount = Inventory.count(COOKED_SHRIMP_NAME);
+                animationStartTime = GameClock.millis();
+                initialRawCount = api.inventory().count(RAW_SHRIMP_NAME);
+                initialCookedCount = api.inventory().count(COOKED_SHRIMP_NAME);
                 Logger.log(getName() + ": Continuing cooking animation. Initial counts - Raw: " + initialRawCount + ", Cooked: " + initialCookedCount);
             }
 
             // Check for timeout
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Cooking animation timed out.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -114,14 +117,14 @@ public class ActionCookShrimp implements Action {
             }
 
             // Check if shrimp was cooked (raw count decreased OR cooked count increased)
-            int currentRawCount = Inventory.count(RAW_SHRIMP_NAME);
-            int currentCookedCount = Inventory.count(COOKED_SHRIMP_NAME);
+            int currentRawCount = api.inventory().count(RAW_SHRIMP_NAME);
+            int currentCookedCount = api.inventory().count(COOKED_SHRIMP_NAME);
 
             if (currentRawCount < initialRawCount || currentCookedCount > initialCookedCount) {
                 Logger.log(getName() + ": Successfully cooked shrimp.");
                 resetAnimationState();
                 currentState.setBoolean(HAS_COOKED_KEY, true); // Update state
-                currentState.setBoolean(HAS_RAW_KEY, Inventory.contains(RAW_SHRIMP_NAME)); // Update raw state
+                currentState.setBoolean(HAS_RAW_KEY, api.inventory().contains(RAW_SHRIMP_NAME)); // Update raw state
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                 // Check if fire still exists (important for subsequent cooks)
                 currentState.setBoolean(IS_FIRE_LIT_KEY, findCookingSource() != null);
@@ -136,10 +139,10 @@ public class ActionCookShrimp implements Action {
         // If not animating, try to start
         resetAnimationState();
 
-        Item rawShrimp = Inventory.get(RAW_SHRIMP_NAME);
-        GameObject cookingSource = findCookingSource();
+        boolean hasRawShrimp = api.inventory().contains(RAW_SHRIMP_NAME);
+        EntityRef cookingSource = findCookingSource();
 
-        if (rawShrimp == null) {
+        if (!hasRawShrimp) {
             Logger.log(getName() + ": No raw shrimp found.");
             return ActionResult.FAILURE;
         }
@@ -150,15 +153,15 @@ public class ActionCookShrimp implements Action {
         }
 
         Logger.log(getName() + ": Using " + RAW_SHRIMP_NAME + " on " + cookingSource.getName());
-        if (rawShrimp.useOn(cookingSource)) {
+        if (api.inventory().useOn(RAW_SHRIMP_NAME, cookingSource)) {
             // Wait for cooking animation to start
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == COOKING_ANIMATION_ID, 4000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == COOKING_ANIMATION_ID, 4000);
 
             if (startedAnimating) {
                 Logger.log(getName() + ": Started cooking animation.");
-                animationStartTime = System.currentTimeMillis();
-                initialRawCount = Inventory.count(RAW_SHRIMP_NAME);
-                initialCookedCount = Inventory.count(COOKED_SHRIMP_NAME);
+                animationStartTime = GameClock.millis();
+                initialRawCount = api.inventory().count(RAW_SHRIMP_NAME);
+                initialCookedCount = api.inventory().count(COOKED_SHRIMP_NAME);
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -174,20 +177,25 @@ public class ActionCookShrimp implements Action {
     }
 
     /** Finds the nearest usable cooking source (Fire on player tile, or Range) */
-    private GameObject findCookingSource() {
-        Tile playerTile = Players.getLocal().getTile();
+    private EntityRef findCookingSource() {
+        Tile playerTile = api.player().getTile();
         // Prioritize fire on current tile
-        GameObject fire = GameObjects.closest(obj -> obj != null && obj.getName().equals(FIRE_NAME) && obj.getTile().equals(playerTile) && obj.hasAction("Cook"));
+        EntityRef fire = api.objects().closest(obj -> obj != null && FIRE_NAME.equals(obj.getName()) && obj.getTile().equals(playerTile) && obj.hasAction("Cook"));
         if (fire != null) {
             return fire;
         }
         // TODO: Add check for "Cooking range" if needed later
-        // GameObject range = GameObjects.closest("Cooking range");
+        // EntityRef range = api.objects().closest(obj -> "Cooking range".equals(obj.getName()));
         // if (range != null && range.canReach()) return range;
         return null;
     }
 
 
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(animationStartTime, animationTimeout);
+    }
+
     private void resetAnimationState() {
         animationStartTime = 0;
         initialRawCount = -1;
@@ -2,29 +2,26 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Area; // Optional for area constraint
 import org.dreambot.api.methods.skills.Skill;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Action to find and chop a nearby tree to obtain logs.
  */
 public class ActionCutTree implements Action {
 
+    private final GameApi api;
     private final String TREE_NAME = "Tree"; // Standard tree name
     private final String AXE_NAME = "Bronze axe"; // Axe needed for tutorial
     private final WorldStateKey HAS_LOGS_KEY = WorldStateKey.S1_HAS_LOGS;
@@ -39,17 +36,22 @@ public class ActionCutTree implements Action {
     private long animationTimeout = 15000; // Timeout if animation doesn't start/finish
     private int initialLogCount = -1; // Track inventory changes
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor for cutting trees.
+     * @param api The game access port.
      * @param woodcuttingArea Optional area where trees should be located. Can be null.
      */
-    public ActionCutTree(Area woodcuttingArea) {
+    public ActionCutTree(GameApi api, Area woodcuttingArea) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.woodcuttingArea = woodcuttingArea;
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     /** Simpler constructor without area constraint */
-    public ActionCutTree() {
-        this(null);
+    public ActionCutTree(GameApi api) {
+        this(api, null);
     }
 
     @Override
@@ -71,6 +73,11 @@ public class ActionCutTree implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -89,36 +96,36 @@ public class ActionCutTree implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Check preconditions from state
-        if (!state.getBoolean(HAS_AXE_KEY)) return false;
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING)) return false; // Don't interrupt other animations
+        // Check preconditions from state: needs an axe, don't interrupt other animations
+        return state.satisfies(preconditionSet);
+    }
 
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Optional Area Check
-        if (woodcuttingArea != null && !woodcuttingArea.contains(Players.getLocal())) {
+        if (woodcuttingArea != null && !api.player().isIn(woodcuttingArea)) {
             return false;
         }
 
         // Runtime check: Is there a tree nearby?
-        return GameObjects.closest(TREE_NAME) != null;
+        return api.objects().closest(obj -> TREE_NAME.equals(obj.getName())) != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already animating woodcutting
         // Use the verified animation ID
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == WOODCUTTING_ANIMATION_ID) {
+        if (api.player().isAnimating() && api.player().getAnimation() == WOODCUTTING_ANIMATION_ID) {
             // If we just started animating (or re-checking), record time and initial count
             if (animationStartTime == 0 || initialLogCount == -1) {
-                animationStartTime = System.currentTimeMillis();
+                animationStartTime = GameClock.millis();
                 // *** CORRECTED LOG COUNT CHECK ***
-                initialLogCount = Inventory.count(LOGS_ITEM_NAME); // Use item name
+                initialLogCount = api.inventory().count(LOGS_ITEM_NAME); // Use item name
                 Logger.log(getName() + ": Started/Continuing animation. Initial log count: " + initialLogCount);
             }
 
             // Check for timeout
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Animation timed out.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false); // Update state on timeout
@@ -127,7 +134,7 @@ public class ActionCutTree implements Action {
 
             // Check if we received logs
             // *** CORRECTED LOG COUNT CHECK ***
-            int currentLogCount = Inventory.count(LOGS_ITEM_NAME); // Use item name
+            int currentLogCount = api.inventory().count(LOGS_ITEM_NAME); // Use item name
             if (currentLogCount > initialLogCount) {
                 Logger.log(getName() + ": Successfully obtained logs (" + initialLogCount + " -> " + currentLogCount + ").");
                 resetAnimationState();
@@ -144,7 +151,7 @@ public class ActionCutTree implements Action {
         // If not animating woodcutting, try to start
         resetAnimationState(); // Reset timer if we are not animating WC
 
-        GameObject tree = GameObjects.closest(obj -> obj != null && obj.getName().equals(TREE_NAME) && obj.hasAction("Chop down") && (woodcuttingArea == null || woodcuttingArea.contains(obj)));
+        EntityRef tree = api.objects().closest(obj -> obj != null && TREE_NAME.equals(obj.getName()) && obj.hasAction("Chop down") && (woodcuttingArea == null || woodcuttingArea.contains(obj.getTile())));
 
         if (tree == null) {
             Logger.log(getName() + ": No suitable tree found nearby.");
@@ -152,7 +159,7 @@ public class ActionCutTree implements Action {
         }
 
         // Walk if needed (logic remains the same)
-        if (!tree.isOnScreen() || tree.distance() > 6) {
+        if (!tree.isOnScreen() || api.player().distanceTo(tree.getTile()) > 6) {
             // ... walking logic ...
         }
 
@@ -160,13 +167,13 @@ public class ActionCutTree implements Action {
         if (tree.interact("Chop down")) {
             // Wait a bit for the animation to potentially start
             // Use the verified animation ID
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == WOODCUTTING_ANIMATION_ID, 4000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == WOODCUTTING_ANIMATION_ID, 4000);
 
             if (startedAnimating) {
                 Logger.log(getName() + ": Started chopping animation.");
                 // Set initial state for tracking within the IN_PROGRESS block next loop
-                animationStartTime = System.currentTimeMillis();
-                initialLogCount = Inventory.count(LOGS_ITEM_NAME); // Record initial count
+                animationStartTime = GameClock.millis();
+                initialLogCount = api.inventory().count(LOGS_ITEM_NAME); // Record initial count
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -179,6 +186,11 @@ public class ActionCutTree implements Action {
         }
     }
 
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(animationStartTime, animationTimeout);
+    }
+
     private void resetAnimationState() {
         animationStartTime = 0;
         initialLogCount = -1; // Reset log count tracking
@@ -2,16 +2,11 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.container.impl.equipment.Equipment; // Import Equipment
-import org.dreambot.api.methods.interactive.Players;
-import org.dreambot.api.script.ScriptManager;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,20 +17,28 @@ import java.util.Objects;
  */
 public class ActionEquipItem implements Action {
 
+    private static final String[] EQUIP_ACTIONS = {"Wield", "Wear", "Equip"}; // "Wield" for weapons
+
+    private final GameApi api;
     private final String itemName;
     private final WorldStateKey hasItemKey; // Key for having the item in inventory
     private final WorldStateKey isItemEquippedKey; // Key for having the item equipped
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor for equipping an item.
+     * @param api The game access port.
      * @param itemName The exact name of the item to equip.
      * @param hasItemKey The WorldStateKey representing possession of the item in inventory.
      * @param isItemEquippedKey The WorldStateKey representing the equipped state of the item.
      */
-    public ActionEquipItem(String itemName, WorldStateKey hasItemKey, WorldStateKey isItemEquippedKey) {
+    public ActionEquipItem(GameApi api, String itemName, WorldStateKey hasItemKey, WorldStateKey isItemEquippedKey) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.itemName = Objects.requireNonNull(itemName);
         this.hasItemKey = Objects.requireNonNull(hasItemKey);
         this.isItemEquippedKey = Objects.requireNonNull(isItemEquippedKey);
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -55,6 +58,11 @@ public class ActionEquipItem implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -74,13 +82,13 @@ public class ActionEquipItem implements Action {
     @Override
     public boolean isApplicable(WorldState state) {
         // Check inventory and equipped state
-        return state.getBoolean(hasItemKey) && !state.getBoolean(isItemEquippedKey) && !state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING);
+        return state.satisfies(preconditionSet);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
         // Double check if already equipped (state might be delayed)
-        if (Equipment.contains(itemName)) {
+        if (api.inventory().isEquipped(itemName)) {
             Logger.log(getName() + ": Item already equipped.");
             currentState.setBoolean(isItemEquippedKey, true); // Correct state
             // Also update inventory state if it wasn't stackable
@@ -90,25 +98,25 @@ public class ActionEquipItem implements Action {
             return ActionResult.SUCCESS;
         }
 
-        Item itemToEquip = Inventory.get(itemName);
-        if (itemToEquip == null) {
+        if (!api.inventory().contains(itemName)) {
             Logger.log(getName() + ": Item '" + itemName + "' not found in inventory.");
             currentState.setBoolean(hasItemKey, false); // Correct state
             return ActionResult.FAILURE;
         }
 
-        // Determine interaction action ("Wield", "Wear", "Equip")
-        String interactionAction = "Wield"; // Default for weapons
-        if (itemToEquip.hasAction("Wear")) {
-            interactionAction = "Wear";
-        } else if (itemToEquip.hasAction("Equip")) {
-            interactionAction = "Equip";
-        } // Add other actions if needed
+        // Try the interaction actions in turn; an item only offers one of them
+        String interactionAction = null;
+        for (String action : EQUIP_ACTIONS) {
+            if (api.inventory().interact(itemName, action)) {
+                interactionAction = action;
+                break;
+            }
+        }
 
-        Logger.log(getName() + ": Attempting to '" + interactionAction + "' " + itemName);
-        if (itemToEquip.interact(interactionAction)) {
+        if (interactionAction != null) {
+            Logger.log(getName() + ": Used '" + interactionAction + "' on " + itemName);
             // Wait for the item to appear in equipment
-            boolean equipped = Sleep.sleepUntil(() -> Equipment.contains(itemName), 3000);
+            boolean equipped = api.sleep().sleepUntil(() -> api.inventory().isEquipped(itemName), 3000);
 
             if (equipped) {
                 Logger.log(getName() + ": Successfully equipped " + itemName);
@@ -120,7 +128,7 @@ public class ActionEquipItem implements Action {
             } else {
                 Logger.log(getName() + ": Failed to confirm item equipped after interaction.");
                 // Check if item is gone from inventory anyway (might indicate equip but API lag)
-                if (!Inventory.contains(itemName) && !isStackable(itemName)) {
+                if (!api.inventory().contains(itemName) && !isStackable(itemName)) {
                     Logger.log(getName() + ": Item removed from inventory, assuming equip succeeded despite confirmation timeout.");
                     currentState.setBoolean(isItemEquippedKey, true);
                     currentState.setBoolean(hasItemKey, false);
@@ -129,7 +137,7 @@ public class ActionEquipItem implements Action {
                 return ActionResult.FAILURE;
             }
         } else {
-            Logger.log(getName() + ": Interaction '" + interactionAction + "' failed on " + itemName);
+            Logger.log(getName() + ": No equip interaction succeeded on " + itemName);
             return ActionResult.FAILURE;
         }
     }
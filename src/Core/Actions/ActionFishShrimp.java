@@ -2,26 +2,20 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.NPCs;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Area; // Use Area
 import org.dreambot.api.methods.skills.Skill;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.NPC;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Objects;
 
 /**
@@ -29,6 +23,7 @@ import java.util.Objects;
  */
 public class ActionFishShrimp implements Action {
 
+    private final GameApi api;
     private final String NET_NAME = "Small fishing net";
     private final String SHRIMP_NAME = "Raw shrimps";
     private final String FISHING_SPOT_NAME = "Fishing spot"; // Name of the NPC/Object
@@ -43,8 +38,12 @@ public class ActionFishShrimp implements Action {
     private long animationTimeout = 60000; // Fishing can take a while, allow 60s timeout
     private int initialShrimpCount = -1;
 
-    public ActionFishShrimp() {
+    private final ConditionSet preconditionSet;
+
+    public ActionFishShrimp(GameApi api) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         // Assumes area check is handled by preconditions/applicability
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -63,6 +62,19 @@ public class ActionFishShrimp implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
+    @Override
+    public Set<WorldStateKey> getReadKeys() {
+        // isApplicable() also checks INV_SPACE, which is not an equality precondition
+        Set<WorldStateKey> keys = new HashSet<>(preconditionSet.asMap().keySet());
+        keys.add(WorldStateKey.INV_SPACE);
+        return keys;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -82,37 +94,33 @@ public class ActionFishShrimp implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Check inventory for net and space
-        if (!state.getBoolean(HAS_NET_KEY) || state.getInteger(WorldStateKey.INV_SPACE) <= 0) {
-            return false;
-        }
-        // Check if already animating
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING)) {
-            return false;
-        }
-        // Check if in the correct area
-        if (!REQUIRED_AREA_NAME.equals(state.getString(AREA_KEY))) {
+        // Check net, area and animation state
+        if (!state.satisfies(preconditionSet)) {
             return false;
         }
+        // Check inventory space (not expressible as an equality precondition)
+        return state.getInteger(WorldStateKey.INV_SPACE) > 0;
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Runtime check: Is there a fishing spot nearby?
         // Fishing spots are NPCs in OSRS
-        return NPCs.closest(FISHING_SPOT_NAME) != null;
+        return api.npcs().closest(spot -> FISHING_SPOT_NAME.equals(spot.getName())) != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already fishing
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == FISHING_ANIMATION_ID) {
+        if (api.player().isAnimating() && api.player().getAnimation() == FISHING_ANIMATION_ID) {
             if (animationStartTime == 0 || initialShrimpCount == -1) {
-                animationStartTime = System.currentTimeMillis();
-                initialShrimpCount = Inventory.count(SHRIMP_NAME);
+                animationStartTime = GameClock.millis();
+                initialShrimpCount = api.inventory().count(SHRIMP_NAME);
                 Logger.log(getName() + ": Continuing fishing animation. Initial shrimp count: " + initialShrimpCount);
             }
 
             // Check for timeout (e.g., spot moved or depleted)
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Fishing animation timed out or spot depleted.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -120,21 +128,21 @@ public class ActionFishShrimp implements Action {
             }
 
             // Check if we caught a shrimp
-            int currentShrimpCount = Inventory.count(SHRIMP_NAME);
+            int currentShrimpCount = api.inventory().count(SHRIMP_NAME);
             if (currentShrimpCount > initialShrimpCount) {
                 Logger.log(getName() + ": Successfully caught shrimp (" + initialShrimpCount + " -> " + currentShrimpCount + ").");
                 resetAnimationState();
                 currentState.setBoolean(HAS_SHRIMP_KEY, true); // Update state
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                 // Check if inventory is now full
-                if (Inventory.isFull()) {
+                if (api.inventory().isFull()) {
                     currentState.setInteger(WorldStateKey.INV_SPACE, 0);
                 }
                 return ActionResult.SUCCESS; // Goal is usually just to catch *one* for tutorial
             }
 
             // Check if inventory is full - if so, we can't fish more, action fails for planning purposes
-            if (Inventory.isFull()) {
+            if (api.inventory().isFull()) {
                 Logger.log(getName() + ": Inventory full, cannot fish more.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false); // Not animating anymore
@@ -152,11 +160,11 @@ public class ActionFishShrimp implements Action {
         resetAnimationState();
 
         // Find necessary items/objects
-        Item fishingNet = Inventory.get(NET_NAME);
+        boolean hasFishingNet = api.inventory().contains(NET_NAME);
         // Fishing spots are NPCs
-        NPC fishingSpot = NPCs.closest(spot -> spot != null && spot.getName().equals(FISHING_SPOT_NAME) && spot.hasAction("Net")); // Ensure it has the "Net" action
+        EntityRef fishingSpot = api.npcs().closest(spot -> spot != null && FISHING_SPOT_NAME.equals(spot.getName()) && spot.hasAction("Net")); // Ensure it has the "Net" action
 
-        if (fishingNet == null) {
+        if (!hasFishingNet) {
             Logger.log(getName() + ": Fishing net not found in inventory.");
             return ActionResult.FAILURE; // Should be caught by isApplicable
         }
@@ -166,10 +174,10 @@ public class ActionFishShrimp implements Action {
         }
 
         // Walk if needed
-        if (!fishingSpot.isOnScreen() || fishingSpot.distance() > 5) {
+        if (!fishingSpot.isOnScreen() || api.player().distanceTo(fishingSpot.getTile()) > 5) {
             Logger.log(getName() + ": Walking to fishing spot.");
-            if (Walking.walk(fishingSpot)) {
-                Sleep.sleepUntil(fishingSpot::isOnScreen, 3000);
+            if (api.walking().walk(fishingSpot.getTile())) {
+                api.sleep().sleepUntil(fishingSpot::isOnScreen, 3000);
             }
         }
 
@@ -177,12 +185,12 @@ public class ActionFishShrimp implements Action {
         // Interact with the spot directly using the "Net" action
         if (fishingSpot.interact("Net")) {
             // Wait for animation to start
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == FISHING_ANIMATION_ID, 5000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == FISHING_ANIMATION_ID, 5000);
 
             if (startedAnimating) {
                 Logger.log(getName() + ": Started fishing animation.");
-                animationStartTime = System.currentTimeMillis();
-                initialShrimpCount = Inventory.count(SHRIMP_NAME);
+                animationStartTime = GameClock.millis();
+                initialShrimpCount = api.inventory().count(SHRIMP_NAME);
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -196,6 +204,11 @@ public class ActionFishShrimp implements Action {
         }
     }
 
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(animationStartTime, animationTimeout);
+    }
+
     private void resetAnimationState() {
         animationStartTime = 0;
         initialShrimpCount = -1;
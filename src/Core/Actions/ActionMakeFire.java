@@ -2,20 +2,15 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Tile; // May need Tile for ground check
 import org.dreambot.api.methods.skills.Skill; // For checking Firemaking level/XP gain
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.wrappers.items.Item;
-import org.dreambot.api.methods.interactive.GameObjects; // To check if fire exists after
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +21,7 @@ import java.util.Objects;
  */
 public class ActionMakeFire implements Action {
 
+    private final GameApi api;
     private final String TINDERBOX_NAME = "Tinderbox";
     private final String LOGS_NAME = "Logs";
     private final WorldStateKey HAS_TINDERBOX_KEY = WorldStateKey.S1_HAS_TINDERBOX;
@@ -37,8 +33,12 @@ public class ActionMakeFire implements Action {
     private long animationStartTime = 0;
     private long animationTimeout = 8000; // Timeout for firemaking animation
 
-    public ActionMakeFire() {
+    private final ConditionSet preconditionSet;
+
+    public ActionMakeFire(GameApi api) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         // No specific area needed usually, done from inventory
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -59,6 +59,11 @@ public class ActionMakeFire implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -78,17 +83,15 @@ public class ActionMakeFire implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Check inventory for items
-        if (!state.getBoolean(HAS_TINDERBOX_KEY) || !state.getBoolean(HAS_LOGS_KEY)) {
-            return false;
-        }
-        // Check if already animating
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING)) {
-            return false;
-        }
+        // Check inventory for items and that we are not already animating
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if standing on an existing fire (prevents making fire on top of another)
-        Tile playerTile = Players.getLocal().getTile();
-        GameObject existingFire = GameObjects.closest(obj -> obj != null && obj.getName().equals("Fire") && obj.getTile().equals(playerTile));
+        Tile playerTile = api.player().getTile();
+        EntityRef existingFire = api.objects().closest(obj -> obj != null && "Fire".equals(obj.getName()) && obj.getTile().equals(playerTile));
         if (existingFire != null) {
             Logger.log(getName() + ": Already standing on a fire.");
             return false;
@@ -99,25 +102,24 @@ public class ActionMakeFire implements Action {
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-        Tile playerTile = localPlayer.getTile();
+        Tile playerTile = api.player().getTile();
 
         // Check if already doing the firemaking animation
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == FIREMAKING_ANIMATION_ID) {
+        if (api.player().isAnimating() && api.player().getAnimation() == FIREMAKING_ANIMATION_ID) {
             if (animationStartTime == 0) {
-                animationStartTime = System.currentTimeMillis();
+                animationStartTime = GameClock.millis();
                 Logger.log(getName() + ": Continuing firemaking animation.");
             }
             // Check for timeout
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Animation timed out.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                 return ActionResult.FAILURE;
             }
             // Check if fire appeared and logs are gone
-            GameObject fire = GameObjects.closest(obj -> obj != null && obj.getName().equals("Fire") && obj.getTile().equals(playerTile));
-            boolean logsGone = !Inventory.contains(LOGS_NAME);
+            EntityRef fire = api.objects().closest(obj -> obj != null && "Fire".equals(obj.getName()) && obj.getTile().equals(playerTile));
+            boolean logsGone = !api.inventory().contains(LOGS_NAME);
 
             if (fire != null && logsGone) {
                 Logger.log(getName() + ": Fire successfully created.");
@@ -135,22 +137,19 @@ public class ActionMakeFire implements Action {
         // If not animating, try to start
         resetAnimationState();
 
-        Item tinderbox = Inventory.get(TINDERBOX_NAME);
-        Item logs = Inventory.get(LOGS_NAME);
-
-        if (tinderbox == null || logs == null) {
+        if (!api.inventory().contains(TINDERBOX_NAME) || !api.inventory().contains(LOGS_NAME)) {
             Logger.log(getName() + ": Missing Tinderbox or Logs.");
             return ActionResult.FAILURE; // Should have been caught by isApplicable, but safety check
         }
 
         Logger.log(getName() + ": Using Tinderbox on Logs.");
-        if (tinderbox.useOn(logs)) {
+        if (api.inventory().useOn(TINDERBOX_NAME, LOGS_NAME)) {
             // Wait for animation to start
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == FIREMAKING_ANIMATION_ID, 4000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == FIREMAKING_ANIMATION_ID, 4000);
 
             if (startedAnimating) {
                 Logger.log(getName() + ": Started firemaking animation.");
-                animationStartTime = System.currentTimeMillis();
+                animationStartTime = GameClock.millis();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -2,34 +2,31 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.filter.Filter;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Area; // Optional
 import org.dreambot.api.methods.skills.Skill;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Objects;
 import java.util.function.Predicate;
 
-import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREAS;
+import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREA_INDEX;
 
 /**
  * Action to find and mine a specific type of ore rock.
  */
 public class ActionMineOre implements Action {
 
+    private final GameApi api;
     private final String rockName; // e.g., "Tin rocks", "Copper rocks"
     private final String oreItemName; // e.g., "Tin ore", "Copper ore"
     private final WorldStateKey hasOreKey;
@@ -44,20 +41,23 @@ public class ActionMineOre implements Action {
     private long animationStartTime = 0;
     private long animationTimeout = 20000; // Mining can take longer if contested/low level
     private int initialOreCount = -1;
-    private GameObject targetRock = null; // Track the specific rock being mined
+    private EntityRef targetRock = null; // Track the specific rock being mined
+
+    private final ConditionSet preconditionSet;
 
     /** Constructor using rock name */
-    public ActionMineOre(String rockName, String oreItemName, WorldStateKey hasOreKey, WorldStateKey hasPickaxeKey, Area miningArea) {
-        this(rockName, oreItemName, hasOreKey, hasPickaxeKey, miningArea, null);
+    public ActionMineOre(GameApi api, String rockName, String oreItemName, WorldStateKey hasOreKey, WorldStateKey hasPickaxeKey, Area miningArea) {
+        this(api, rockName, oreItemName, hasOreKey, hasPickaxeKey, miningArea, null);
     }
 
     /** Constructor using rock IDs */
-    public ActionMineOre(int[] rockIds, String oreItemName, WorldStateKey hasOreKey, WorldStateKey hasPickaxeKey, Area miningArea) {
-        this(null, oreItemName, hasOreKey, hasPickaxeKey, miningArea, rockIds);
+    public ActionMineOre(GameApi api, int[] rockIds, String oreItemName, WorldStateKey hasOreKey, WorldStateKey hasPickaxeKey, Area miningArea) {
+        this(api, null, oreItemName, hasOreKey, hasPickaxeKey, miningArea, rockIds);
     }
 
     // Private constructor
-    private ActionMineOre(String rName, String oName, WorldStateKey hOK, WorldStateKey hPK, Area area, int[] rIds) {
+    private ActionMineOre(GameApi api, String rName, String oName, WorldStateKey hOK, WorldStateKey hPK, Area area, int[] rIds) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.rockName = rName;
         this.oreItemName = Objects.requireNonNull(oName);
         this.hasOreKey = Objects.requireNonNull(hOK);
@@ -68,6 +68,7 @@ public class ActionMineOre implements Action {
         if (rName == null && (rIds == null || rIds.length == 0)) {
             throw new IllegalArgumentException("Must provide rock name or IDs for ActionMineOre");
         }
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
 
@@ -89,6 +90,19 @@ public class ActionMineOre implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
+    @Override
+    public Set<WorldStateKey> getReadKeys() {
+        // isApplicable() also checks INV_SPACE, which is not an equality precondition
+        Set<WorldStateKey> keys = new HashSet<>(preconditionSet.asMap().keySet());
+        keys.add(WorldStateKey.INV_SPACE);
+        return keys;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -105,30 +119,28 @@ public class ActionMineOre implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        if (!state.getBoolean(hasPickaxeKey) || state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING) || state.getInteger(WorldStateKey.INV_SPACE) <= 0) {
-            return false;
-        }
-        if (miningArea != null && !getAreaName().equals(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME))) {
-            return false;
-        }
+        // Pickaxe, animation state and area (if set) are in the compiled preconditions
+        return state.satisfies(preconditionSet) && state.getInteger(WorldStateKey.INV_SPACE) > 0;
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if a suitable rock exists nearby
         return findRock() != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already mining the correct type of rock
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == MINING_ANIMATION_ID) {
+        if (api.player().isAnimating() && api.player().getAnimation() == MINING_ANIMATION_ID) {
             if (animationStartTime == 0 || initialOreCount == -1) {
-                animationStartTime = System.currentTimeMillis();
-                initialOreCount = Inventory.count(oreItemName);
+                animationStartTime = GameClock.millis();
+                initialOreCount = api.inventory().count(oreItemName);
                 Logger.log(getName() + ": Continuing mining animation. Initial ore count: " + initialOreCount);
             }
 
             // Check for timeout (rock depleted, player moved)
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Mining animation timed out or rock depleted.");
                 resetMiningState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -136,18 +148,18 @@ public class ActionMineOre implements Action {
             }
 
             // Check if we received ore
-            int currentOreCount = Inventory.count(oreItemName);
+            int currentOreCount = api.inventory().count(oreItemName);
             if (currentOreCount > initialOreCount) {
                 Logger.log(getName() + ": Successfully obtained " + oreItemName + " (" + initialOreCount + " -> " + currentOreCount + ").");
                 resetMiningState();
                 currentState.setBoolean(hasOreKey, true); // Update state
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
-                if (Inventory.isFull()) currentState.setInteger(WorldStateKey.INV_SPACE, 0);
+                if (api.inventory().isFull()) currentState.setInteger(WorldStateKey.INV_SPACE, 0);
                 return ActionResult.SUCCESS; // Tutorial usually needs one
             }
 
             // Check if inventory is full
-            if (Inventory.isFull()) {
+            if (api.inventory().isFull()) {
                 Logger.log(getName() + ": Inventory full, cannot mine more.");
                 resetMiningState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -179,22 +191,22 @@ public class ActionMineOre implements Action {
         }
 
         // Walk if needed
-        if (!targetRock.isOnScreen() || targetRock.distance() > 6) {
+        if (!targetRock.isOnScreen() || api.player().distanceTo(targetRock.getTile()) > 6) {
             Logger.log(getName() + ": Walking to rock at " + targetRock.getTile());
-            if (Walking.walk(targetRock)) {
-                Sleep.sleepUntil(targetRock::isOnScreen, 3000);
+            if (api.walking().walk(targetRock.getTile())) {
+                api.sleep().sleepUntil(targetRock::isOnScreen, 3000);
             }
         }
 
         Logger.log(getName() + ": Interacting 'Mine' with " + targetRock.getName());
         if (targetRock.interact("Mine")) {
             // Wait for animation to start
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == MINING_ANIMATION_ID, 5000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == MINING_ANIMATION_ID, 5000);
 
             if (startedAnimating) {
                 Logger.log(getName() + ": Started mining animation.");
-                animationStartTime = System.currentTimeMillis();
-                initialOreCount = Inventory.count(oreItemName);
+                animationStartTime = GameClock.millis();
+                initialOreCount = api.inventory().count(oreItemName);
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
@@ -210,38 +222,36 @@ public class ActionMineOre implements Action {
     }
 
     /** Finds the closest suitable rock based on constructor parameters */
-    private GameObject findRock() {
-        // Use DreamBot's Filter interface
-        Filter<GameObject> filter = obj -> {
+    private EntityRef findRock() {
+        Predicate<EntityRef> filter = obj -> {
             if (obj == null) return false;
-            boolean nameMatch = rockName != null && obj.getName().equals(rockName);
+            boolean nameMatch = rockName != null && rockName.equals(obj.getName());
             boolean idMatch = false;
             if (rockIds != null) {
                 for (int id : rockIds) {
-                    if (obj.getID() == id) {
+                    if (obj.getId() == id) {
                         idMatch = true;
                         break;
                     }
                 }
             }
-            boolean areaMatch = miningArea == null || miningArea.contains(obj);
+            boolean areaMatch = miningArea == null || miningArea.contains(obj.getTile());
             // Ensure it's actually a mineable rock (has "Mine" action)
             return (nameMatch || idMatch) && areaMatch && obj.hasAction("Mine");
         };
 
-        // Call the closest method that accepts DreamBot's Filter
-        return GameObjects.closest(filter);
+        return api.objects().closest(filter);
     }
 
     private String getAreaName() {
-        // Helper to get a string name for the area if needed for preconditions
-        // This is crude; a better way would be to pass the area name string directly
-        if (miningArea != null) {
-            for (Map.Entry<String, Area> entry : TUTORIAL_AREAS.entrySet()) { // Assumes TUTORIAL_AREAS is accessible
-                if (entry.getValue().equals(miningArea)) return entry.getKey();
-            }
-        }
-        return "UnknownMiningArea";
+        // Reverse lookup of the area's name in the shared tutorial area index
+        String name = TUTORIAL_AREA_INDEX.nameOf(miningArea);
+        return name != null ? name : "UnknownMiningArea";
+    }
+
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(animationStartTime, animationTimeout);
     }
 
     private void resetMiningState() {
@@ -2,16 +2,14 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
 import org.dreambot.api.methods.map.Tile;
-import org.dreambot.api.methods.walking.impl.Walking; // If needed for walking to object
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +20,7 @@ import java.util.Objects;
  */
 public class ActionOpenDoor implements Action {
 
+    private final GameApi api;
     private final String objectName; // e.g., "Door", "Gate"
     private final Tile objectTile;   // Exact tile of the object for precise targeting
     private final int objectId;      // Optional: ID for more specific targeting
@@ -30,30 +29,35 @@ public class ActionOpenDoor implements Action {
 
     private long interactionTimeout = 5000;
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor using name and exact tile.
+     * @param api The game access port.
      * @param objectName Name of the door/gate.
      * @param objectTile Exact tile location.
      * @param openStateKey The WorldStateKey that will be true when this door is open.
      * @param targetStageName The stage name achieved after opening this door.
      */
-    public ActionOpenDoor(String objectName, Tile objectTile, WorldStateKey openStateKey, String targetStageName) {
-        this(objectName, objectTile, -1, openStateKey, targetStageName); // Use -1 for invalid ID
+    public ActionOpenDoor(GameApi api, String objectName, Tile objectTile, WorldStateKey openStateKey, String targetStageName) {
+        this(api, objectName, objectTile, -1, openStateKey, targetStageName); // Use -1 for invalid ID
     }
 
     /**
      * Constructor using ID and exact tile.
+     * @param api The game access port.
      * @param objectId ID of the door/gate.
      * @param objectTile Exact tile location.
      * @param openStateKey The WorldStateKey that will be true when this door is open.
      * @param targetStageName The stage name achieved after opening this door.
      */
-    public ActionOpenDoor(int objectId, Tile objectTile, WorldStateKey openStateKey, String targetStageName) {
-        this(null, objectTile, objectId, openStateKey, targetStageName); // Use null for name if using ID
+    public ActionOpenDoor(GameApi api, int objectId, Tile objectTile, WorldStateKey openStateKey, String targetStageName) {
+        this(api, null, objectTile, objectId, openStateKey, targetStageName); // Use null for name if using ID
     }
 
     // Private constructor for internal use
-    private ActionOpenDoor(String name, Tile tile, int id, WorldStateKey key, String stage) {
+    private ActionOpenDoor(GameApi api, String name, Tile tile, int id, WorldStateKey key, String stage) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.objectName = name;
         this.objectTile = Objects.requireNonNull(tile, "Object Tile cannot be null");
         this.objectId = id;
@@ -63,6 +67,7 @@ public class ActionOpenDoor implements Action {
         if (name == null && id <= 0) {
             throw new IllegalArgumentException("Must provide either a valid object name or ID for ActionOpenDoor");
         }
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
 
@@ -83,6 +88,11 @@ public class ActionOpenDoor implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -97,28 +107,29 @@ public class ActionOpenDoor implements Action {
 
     @Override
     public double getCost() {
-        // Cost might depend on distance to the door
-        double distance = Players.getLocal().distance(objectTile);
-        return 1.0 + (distance / 5.0); // Base cost + cost for distance
+        // Flat cost: the planned route already walks up to the door, the live distance is checked in perform()
+        return 1.5;
     }
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Check preconditions from state
-        if (state.getBoolean(openStateKey)) return false; // Already open
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN)) return false; // In dialogue
-
         // Optional: Check readiness state if applicable
         // if (!state.getBoolean(WorldStateKey.TUT_S0_READY_FOR_DOOR)) return false;
 
+        // Check preconditions from state: not already open, not in dialogue
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Runtime check: Is the object actually present?
-        GameObject door = findDoor();
+        EntityRef door = findDoor();
         return door != null && door.hasAction("Open"); // Check if present and has "Open" action
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        GameObject door = findDoor();
+        EntityRef door = findDoor();
 
         if (door == null) {
             Logger.log(getName() + ": Door/Gate object not found at " + objectTile);
@@ -135,10 +146,10 @@ public class ActionOpenDoor implements Action {
         }
 
         // Walk closer if needed
-        if (!door.isOnScreen() || door.distance() > 6) {
+        if (!door.isOnScreen() || api.player().distanceTo(objectTile) > 6) {
             Logger.log(getName() + ": Walking closer to door at " + objectTile);
-            if (Walking.walk(door)) {
-                Sleep.sleepUntil(door::isOnScreen, 3000);
+            if (api.walking().walk(objectTile)) {
+                api.sleep().sleepUntil(door::isOnScreen, 3000);
             }
         }
 
@@ -146,10 +157,10 @@ public class ActionOpenDoor implements Action {
         if (door.interact("Open")) {
             // Wait for the door state to change (either object disappears, changes ID, or loses "Open" action)
             // Or wait for player to potentially start moving through it
-            boolean opened = Sleep.sleepUntil(() -> {
-                GameObject updatedDoor = findDoor(); // Re-check the door
+            boolean opened = api.sleep().sleepUntil(() -> {
+                EntityRef updatedDoor = findDoor(); // Re-check the door
                 return updatedDoor == null || !updatedDoor.hasAction("Open");
-                // Could also add: || Players.getLocal().isMoving()
+                // Could also add: || api.player().isMoving()
             }, interactionTimeout);
 
             if (opened) {
@@ -167,13 +178,13 @@ public class ActionOpenDoor implements Action {
     }
 
     /** Helper method to find the specific door/gate object */
-    private GameObject findDoor() {
+    private EntityRef findDoor() {
         if (objectId > 0) {
             // Prioritize finding by ID and Tile
-            return GameObjects.closest(obj -> obj != null && obj.getID() == objectId && obj.getTile().equals(objectTile));
+            return api.objects().closest(obj -> obj.getId() == objectId && objectTile.equals(obj.getTile()));
         } else if (objectName != null) {
             // Fallback to finding by Name and Tile
-            return GameObjects.closest(obj -> obj != null && obj.getName().equals(objectName) && obj.getTile().equals(objectTile));
+            return api.objects().closest(obj -> objectName.equals(obj.getName()) && objectTile.equals(obj.getTile()));
         }
         return null; // Invalid parameters
     }
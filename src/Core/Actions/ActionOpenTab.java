@@ -2,13 +2,13 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.methods.Calculations;
 import org.dreambot.api.methods.tabs.Tab; // Import Tab enum
-import org.dreambot.api.methods.tabs.Tabs; // Import Tabs class
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,17 +19,23 @@ import java.util.Objects;
  */
 public class ActionOpenTab implements Action {
 
+    private final GameApi api;
     private final Tab targetTab;
     private final WorldStateKey tabOpenKey; // The key representing this tab's open state
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor for opening a tab.
+     * @param api The game access port.
      * @param targetTab The specific Tab enum constant to open.
      * @param tabOpenKey The WorldStateKey representing the open state of this tab.
      */
-    public ActionOpenTab(Tab targetTab, WorldStateKey tabOpenKey) {
+    public ActionOpenTab(GameApi api, Tab targetTab, WorldStateKey tabOpenKey) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.targetTab = Objects.requireNonNull(targetTab, "Target Tab cannot be null");
         this.tabOpenKey = Objects.requireNonNull(tabOpenKey, "Tab Open Key cannot be null");
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -45,6 +51,11 @@ public class ActionOpenTab implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -62,25 +73,25 @@ public class ActionOpenTab implements Action {
     @Override
     public boolean isApplicable(WorldState state) {
         // Applicable only if the tab is not currently open
-        return !state.getBoolean(tabOpenKey);
-        // We could also use Tabs.isOpen(targetTab) for a direct runtime check,
+        return state.satisfies(preconditionSet);
+        // We could also use api.widgets().isTabOpen(targetTab) for a direct runtime check,
         // but relying on the WorldState is the standard GOAP way.
-        // return !Tabs.isOpen(targetTab);
+        // return !api.widgets().isTabOpen(targetTab);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
         // Double-check if already open (state might be slightly delayed)
-        if (Tabs.isOpen(targetTab)) {
+        if (api.widgets().isTabOpen(targetTab)) {
             Logger.log(getName() + ": Tab already open.");
             currentState.setBoolean(tabOpenKey, true); // Correct state if needed
             return ActionResult.SUCCESS;
         }
 
         Logger.log(getName() + ": Attempting to open " + targetTab.name() + " tab.");
-        if (Tabs.open(targetTab)) {
+        if (api.widgets().openTab(targetTab)) {
             // Wait briefly for the tab to visually open
-            boolean opened = Sleep.sleepUntil(() -> Tabs.isOpen(targetTab), 2000);
+            boolean opened = api.sleep().sleepUntil(() -> api.widgets().isTabOpen(targetTab), 2000);
             if (opened) {
                 Logger.log(getName() + ": Tab opened successfully.");
                 currentState.setBoolean(tabOpenKey, true); // Update state
@@ -90,7 +101,7 @@ public class ActionOpenTab implements Action {
                 return ActionResult.FAILURE;
             }
         } else {
-            Logger.log(getName() + ": Tabs.open() command failed for " + targetTab.name());
+            Logger.log(getName() + ": Open tab command failed for " + targetTab.name());
             return ActionResult.FAILURE;
         }
     }
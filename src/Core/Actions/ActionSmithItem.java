@@ -2,18 +2,13 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.skills.Skill;
-import org.dreambot.api.methods.widget.helpers.Smithing; // Import Smithing helper
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,10 +16,11 @@ import java.util.Objects;
 
 /**
  * Action to smith an item using the Smithing interface (e.g., making a dagger on an anvil).
- * Uses the high-level Smithing helper class.
+ * Uses the smithing interface helper behind WidgetsApi.smith().
  */
 public class ActionSmithItem implements Action {
 
+    private final GameApi api;
     private final String itemName; // Item to smith (e.g., "Bronze dagger")
     private final String barItemName; // Bar required (e.g., "Bronze bar")
     private final WorldStateKey hasBarKey;
@@ -38,23 +34,29 @@ public class ActionSmithItem implements Action {
     private long animationTimeout = 15000; // Allow time for smithing
     private int initialResultCount = -1;
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor for smithing a specific amount.
+     * @param api The game access port.
      */
-    public ActionSmithItem(String itemName, String barItemName, WorldStateKey hasBarKey, WorldStateKey hasHammerKey, WorldStateKey hasResultKey, int amount) {
+    public ActionSmithItem(GameApi api, String itemName, String barItemName, WorldStateKey hasBarKey, WorldStateKey hasHammerKey, WorldStateKey hasResultKey, int amount) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.itemName = Objects.requireNonNull(itemName);
         this.barItemName = Objects.requireNonNull(barItemName);
         this.hasBarKey = Objects.requireNonNull(hasBarKey);
         this.hasHammerKey = Objects.requireNonNull(hasHammerKey);
         this.hasResultKey = Objects.requireNonNull(hasResultKey);
         this.amountToMake = amount;
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     /**
      * Constructor for using Make All.
+     * @param api The game access port.
      */
-    public ActionSmithItem(String itemName, String barItemName, WorldStateKey hasBarKey, WorldStateKey hasHammerKey, WorldStateKey hasResultKey) {
-        this(itemName, barItemName, hasBarKey, hasHammerKey, hasResultKey, -1); // Use -1 to signify makeAll
+    public ActionSmithItem(GameApi api, String itemName, String barItemName, WorldStateKey hasBarKey, WorldStateKey hasHammerKey, WorldStateKey hasResultKey) {
+        this(api, itemName, barItemName, hasBarKey, hasHammerKey, hasResultKey, -1); // Use -1 to signify makeAll
     }
 
 
@@ -73,6 +75,11 @@ public class ActionSmithItem implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -91,34 +98,30 @@ public class ActionSmithItem implements Action {
     public boolean isApplicable(WorldState state) {
         // Check inventory and animation state
         // Note: Smithing helper might handle anvil proximity check internally
-        return state.getBoolean(hasBarKey) &&
-                state.getBoolean(hasHammerKey) &&
-                !state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING);
+        return state.satisfies(preconditionSet);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already smithing
-        if (localPlayer.isAnimating() && localPlayer.getAnimation() == expectedAnimationId) {
+        if (api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId) {
             if (animationStartTime == 0 || initialResultCount == -1) {
-                animationStartTime = System.currentTimeMillis();
-                initialResultCount = Inventory.count(itemName); // Track result item count
+                animationStartTime = GameClock.millis();
+                initialResultCount = api.inventory().count(itemName); // Track result item count
                 Logger.log(getName() + ": Continuing smithing animation. Initial result count: " + initialResultCount);
             }
 
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Smithing animation timed out (maybe out of bars?).");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                 // Check if we actually made *any* before timeout
-                return Inventory.count(itemName) > initialResultCount ? ActionResult.SUCCESS : ActionResult.FAILURE;
+                return api.inventory().count(itemName) > initialResultCount ? ActionResult.SUCCESS : ActionResult.FAILURE;
             }
 
             // Check if we successfully created the item(s)
-            int currentResultCount = Inventory.count(itemName);
-            boolean barsRemaining = Inventory.contains(barItemName);
+            int currentResultCount = api.inventory().count(itemName);
+            boolean barsRemaining = api.inventory().contains(barItemName);
 
             if (currentResultCount > initialResultCount) {
                 // Successfully made at least one
@@ -151,38 +154,33 @@ public class ActionSmithItem implements Action {
             resetAnimationState();
             updateState(currentState); // Update state based on final inventory
             // Return success if we made at least one, even if interrupted
-            return Inventory.count(itemName) > initialResultCount ? ActionResult.SUCCESS : ActionResult.FAILURE;
+            return api.inventory().count(itemName) > initialResultCount ? ActionResult.SUCCESS : ActionResult.FAILURE;
         }
 
         // If not animating, try to start
         resetAnimationState();
 
-        if (!Inventory.contains(barItemName) || !Inventory.contains("Hammer")) {
+        if (!api.inventory().contains(barItemName) || !api.inventory().contains("Hammer")) {
             Logger.log(getName() + ": Missing bars or hammer.");
             return ActionResult.FAILURE;
         }
 
         Logger.log(getName() + ": Attempting to smith " + (amountToMake == -1 ? "all" : amountToMake) + " " + itemName);
-        boolean interactionSent;
-        if (amountToMake == -1) {
-            interactionSent = Smithing.makeAll(itemName);
-        } else {
-            interactionSent = Smithing.make(itemName, amountToMake);
-        }
+        boolean interactionSent = api.widgets().smith(itemName, amountToMake);
 
         if (interactionSent) {
             // Wait briefly for animation to start
-            boolean startedAnimating = Sleep.sleepUntil(() -> Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId, 4000);
+            boolean startedAnimating = api.sleep().sleepUntil(() -> api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId, 4000);
             if (startedAnimating) {
                 Logger.log(getName() + ": Started smithing animation.");
-                animationStartTime = System.currentTimeMillis();
-                initialResultCount = Inventory.count(itemName);
+                animationStartTime = GameClock.millis();
+                initialResultCount = api.inventory().count(itemName);
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                 return ActionResult.IN_PROGRESS;
             } else {
-                // Smithing.make might return true even if interface didn't open or animation didn't start immediately
+                // The smithing command might return true even if interface didn't open or animation didn't start immediately
                 // Could be successful if it made just one very quickly? Check inventory.
-                if (Inventory.count(itemName) > initialResultCount || !Inventory.contains(barItemName)) {
+                if (api.inventory().count(itemName) > initialResultCount || !api.inventory().contains(barItemName)) {
                     Logger.log(getName() + ": Smithing likely completed instantly or animation not detected.");
                     updateState(currentState);
                     return ActionResult.SUCCESS;
@@ -191,21 +189,26 @@ public class ActionSmithItem implements Action {
                 return ActionResult.FAILURE;
             }
         } else {
-            Logger.log(getName() + ": Smithing." + (amountToMake == -1 ? "makeAll" : "make") + "() command failed.");
+            Logger.log(getName() + ": Smithing command failed.");
             return ActionResult.FAILURE;
         }
     }
 
+    @Override
+    public long getWakeUpHint() {
+        return GameClock.remainingMillis(animationStartTime, animationTimeout);
+    }
+
     private void resetAnimationState() {
         animationStartTime = 0;
         initialResultCount = -1;
     }
 
     private void updateState(WorldState currentState) {
-        currentState.setBoolean(hasBarKey, Inventory.contains(barItemName));
-        currentState.setBoolean(hasResultKey, Inventory.contains(itemName));
+        currentState.setBoolean(hasBarKey, api.inventory().contains(barItemName));
+        currentState.setBoolean(hasResultKey, api.inventory().contains(itemName));
         currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
-        if (Inventory.isFull()) currentState.setInteger(WorldStateKey.INV_SPACE, 0);
+        if (api.inventory().isFull()) currentState.setInteger(WorldStateKey.INV_SPACE, 0);
     }
 
     @Override
@@ -2,18 +2,13 @@ package Core.Actions; // New package for Action implementations
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.dialogues.Dialogues;
-import org.dreambot.api.methods.interactive.NPCs;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.methods.map.Area; // Optional: If action requires being in a specific area
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager; // To check if script is running
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.NPC;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,27 +19,33 @@ import java.util.Objects;
  */
 public class ActionTalkToNPC implements Action {
 
+    private final GameApi api;
     private final String npcName;
     private final String targetStageName; // The stage this action helps achieve
     private final Area requiredArea; // Optional: Area where the NPC must be or player must be
     private long interactionTimeout = 5000; // Timeout for interaction attempt
     private long dialogueTimeout = 8000; // Timeout for dialogue to appear
 
+    private final ConditionSet preconditionSet;
+
     /**
      * Constructor for talking to an NPC.
+     * @param api The game access port.
      * @param npcName The exact name of the NPC to talk to.
      * @param targetStageName The name of the tutorial stage this action corresponds to (for effects).
      * @param requiredArea Optional area constraint. If null, no area check is performed.
      */
-    public ActionTalkToNPC(String npcName, String targetStageName, Area requiredArea) {
+    public ActionTalkToNPC(GameApi api, String npcName, String targetStageName, Area requiredArea) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.npcName = Objects.requireNonNull(npcName);
         this.targetStageName = Objects.requireNonNull(targetStageName); // Used for effects
         this.requiredArea = requiredArea; // Can be null
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     /** Simpler constructor without area constraint */
-    public ActionTalkToNPC(String npcName, String targetStageName) {
-        this(npcName, targetStageName, null);
+    public ActionTalkToNPC(GameApi api, String npcName, String targetStageName) {
+        this(api, npcName, targetStageName, null);
     }
 
     @Override
@@ -66,6 +67,11 @@ public class ActionTalkToNPC implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -87,22 +93,23 @@ public class ActionTalkToNPC implements Action {
     @Override
     public boolean isApplicable(WorldState state) {
         // Check basic preconditions: not already in dialogue
-        if (state.getBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN)) {
-            return false;
-        }
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Optional: Check if player is in the required area
-        if (requiredArea != null && !requiredArea.contains(Players.getLocal())) {
+        if (requiredArea != null && !api.player().isIn(requiredArea)) {
             return false;
         }
         // Runtime check: Can we see the NPC?
-        NPC targetNpc = NPCs.closest(npc -> npc != null && npc.getName().equals(npcName));
-        return targetNpc != null; // Applicable if NPC is findable nearby
+        return findNpc() != null; // Executable if NPC is findable nearby
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
         // Find the NPC
-        NPC targetNpc = NPCs.closest(npc -> npc != null && npc.getName().equals(npcName));
+        EntityRef targetNpc = findNpc();
 
         if (targetNpc == null) {
             Logger.log(getName() + ": NPC not found.");
@@ -110,10 +117,10 @@ public class ActionTalkToNPC implements Action {
         }
 
         // Optional: Walk closer if needed (though interact should handle this)
-        if (!targetNpc.isOnScreen() || targetNpc.distance() > 8) {
+        if (!targetNpc.isOnScreen() || api.player().distanceTo(targetNpc.getTile()) > 8) {
             Logger.log(getName() + ": Walking closer to " + npcName);
-            if (Walking.walk(targetNpc)) {
-                Sleep.sleepUntil(() -> targetNpc.isOnScreen() && targetNpc.canReach(), 3000);
+            if (api.walking().walk(targetNpc.getTile())) {
+                api.sleep().sleepUntil(targetNpc::isOnScreen, 3000);
             }
         }
 
@@ -121,7 +128,7 @@ public class ActionTalkToNPC implements Action {
         Logger.log(getName() + ": Attempting interaction with " + npcName);
         if (targetNpc.interact("Talk-to")) {
             // Wait until dialogue is detected by the observer's logic
-            boolean dialogueStarted = Sleep.sleepUntil(() -> Dialogues.inDialogue() && Dialogues.canContinue(), dialogueTimeout);
+            boolean dialogueStarted = api.sleep().sleepUntil(() -> api.widgets().inDialogue() && api.widgets().canContinueDialogue(), dialogueTimeout);
 
             if (dialogueStarted) {
                 Logger.log(getName() + ": Dialogue started successfully with " + npcName);
@@ -142,4 +149,8 @@ public class ActionTalkToNPC implements Action {
             return ActionResult.FAILURE;
         }
     }
-}
\ No newline at end of file
+
+    private EntityRef findNpc() {
+        return api.npcs().closest(npc -> npcName.equals(npc.getName()));
+    }
+}
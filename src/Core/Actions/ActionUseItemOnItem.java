@@ -2,15 +2,11 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.interactive.Players; // Potentially check animation
-import org.dreambot.api.script.ScriptManager;
+import Core.GameIntegration.GameApi;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +18,7 @@ import java.util.Objects;
  */
 public class ActionUseItemOnItem implements Action {
 
+    private final GameApi api;
     private final String itemToUseName;
     private final String itemUsedOnName;
     private final WorldStateKey hasItemToUseKey;
@@ -34,10 +31,13 @@ public class ActionUseItemOnItem implements Action {
     private long animationStartTime = 0;
     private long animationTimeout = 5000;
 
-    public ActionUseItemOnItem(String itemToUseName, WorldStateKey hasItemToUseKey,
+    private final ConditionSet preconditionSet;
+
+    public ActionUseItemOnItem(GameApi api, String itemToUseName, WorldStateKey hasItemToUseKey,
                                String itemUsedOnName, WorldStateKey hasItemUsedOnKey,
                                String resultItemName, WorldStateKey hasResultItemKey,
                                int animationId) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.itemToUseName = Objects.requireNonNull(itemToUseName);
         this.hasItemToUseKey = Objects.requireNonNull(hasItemToUseKey);
         this.itemUsedOnName = Objects.requireNonNull(itemUsedOnName);
@@ -45,13 +45,14 @@ public class ActionUseItemOnItem implements Action {
         this.resultItemName = Objects.requireNonNull(resultItemName);
         this.hasResultItemKey = Objects.requireNonNull(hasResultItemKey);
         this.expectedAnimationId = animationId;
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     // Constructor without animation check
-    public ActionUseItemOnItem(String itemToUseName, WorldStateKey hasItemToUseKey,
+    public ActionUseItemOnItem(GameApi api, String itemToUseName, WorldStateKey hasItemToUseKey,
                                String itemUsedOnName, WorldStateKey hasItemUsedOnKey,
                                String resultItemName, WorldStateKey hasResultItemKey) {
-        this(itemToUseName, hasItemToUseKey, itemUsedOnName, hasItemUsedOnKey, resultItemName, hasResultItemKey, -1);
+        this(api, itemToUseName, hasItemToUseKey, itemUsedOnName, hasItemUsedOnKey, resultItemName, hasResultItemKey, -1);
     }
 
 
@@ -72,6 +73,11 @@ public class ActionUseItemOnItem implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -92,31 +98,29 @@ public class ActionUseItemOnItem implements Action {
     @Override
     public boolean isApplicable(WorldState state) {
         // Check inventory for both items and not animating
-        return state.getBoolean(hasItemToUseKey) &&
-                state.getBoolean(hasItemUsedOnKey) &&
-                !state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING);
+        return state.satisfies(preconditionSet);
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Item itemToUse = Inventory.get(itemToUseName);
-        Item itemUsedOn = Inventory.get(itemUsedOnName);
+        boolean hasItemToUse = api.inventory().contains(itemToUseName);
+        boolean hasItemUsedOn = api.inventory().contains(itemUsedOnName);
 
-        if (itemToUse == null || itemUsedOn == null) {
+        if (!hasItemToUse || !hasItemUsedOn) {
             Logger.log(getName() + ": Missing required items in inventory.");
             // Update state if items unexpectedly missing
-            currentState.setBoolean(hasItemToUseKey, itemToUse != null);
-            currentState.setBoolean(hasItemUsedOnKey, itemUsedOn != null);
+            currentState.setBoolean(hasItemToUseKey, hasItemToUse);
+            currentState.setBoolean(hasItemUsedOnKey, hasItemUsedOn);
             return ActionResult.FAILURE;
         }
 
         Logger.log(getName() + ": Attempting to use " + itemToUseName + " on " + itemUsedOnName);
-        if (itemToUse.useOn(itemUsedOn)) {
+        if (api.inventory().useOn(itemToUseName, itemUsedOnName)) {
             // Wait for items to be consumed or result item to appear, or animation
-            boolean successConditionMet = Sleep.sleepUntil(() -> {
-                boolean itemsConsumed = !Inventory.contains(itemToUseName) || !Inventory.contains(itemUsedOnName);
-                boolean resultAppeared = Inventory.contains(resultItemName);
-                boolean isAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
+            boolean successConditionMet = api.sleep().sleepUntil(() -> {
+                boolean itemsConsumed = !api.inventory().contains(itemToUseName) || !api.inventory().contains(itemUsedOnName);
+                boolean resultAppeared = api.inventory().contains(resultItemName);
+                boolean isAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
                 // Success if result appears OR if items are consumed (even if no result item, like lighting logs)
                 // OR if expected animation starts
                 return resultAppeared || itemsConsumed || isAnimating;
@@ -124,13 +128,13 @@ public class ActionUseItemOnItem implements Action {
 
             if (successConditionMet) {
                 // Double check final state
-                boolean resultExists = Inventory.contains(resultItemName);
-                boolean stillAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
+                boolean resultExists = api.inventory().contains(resultItemName);
+                boolean stillAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
 
                 if (resultExists) {
                     Logger.log(getName() + ": Successfully created " + resultItemName);
-                    currentState.setBoolean(hasItemToUseKey, Inventory.contains(itemToUseName));
-                    currentState.setBoolean(hasItemUsedOnKey, Inventory.contains(itemUsedOnName));
+                    currentState.setBoolean(hasItemToUseKey, api.inventory().contains(itemToUseName));
+                    currentState.setBoolean(hasItemUsedOnKey, api.inventory().contains(itemUsedOnName));
                     currentState.setBoolean(hasResultItemKey, true);
                     currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false); // Assume animation finished if item appeared
                     return ActionResult.SUCCESS;
@@ -142,8 +146,8 @@ public class ActionUseItemOnItem implements Action {
                     // Items might have been consumed without result or animation (e.g. failed attempt?)
                     // Or animation finished but result didn't appear?
                     Logger.log(getName() + ": Interaction occurred, but result item '" + resultItemName + "' not found and not animating.");
-                    currentState.setBoolean(hasItemToUseKey, Inventory.contains(itemToUseName));
-                    currentState.setBoolean(hasItemUsedOnKey, Inventory.contains(itemUsedOnName));
+                    currentState.setBoolean(hasItemToUseKey, api.inventory().contains(itemToUseName));
+                    currentState.setBoolean(hasItemUsedOnKey, api.inventory().contains(itemUsedOnName));
                     currentState.setBoolean(hasResultItemKey, false);
                     currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                     return ActionResult.FAILURE; // Treat as failure if result isn't there
@@ -2,21 +2,14 @@ package Core.Actions;
 
 import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.filter.Filter;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
+import Core.GameIntegration.EntityRef;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.map.Tile;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.interactive.Player;
-import org.dreambot.api.wrappers.items.Item;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,11 +24,12 @@ import java.util.Comparator;
  */
 public class ActionUseItemOnObject implements Action {
 
+    private final GameApi api;
     private final String itemName;
     private final WorldStateKey hasItemKey;
     private final String objectName; // Can be null if using ID or predicate
     private final int objectId;      // Can be -1 if using name or predicate
-    private final Predicate<GameObject> objectPredicate; // Can be null if using name/ID
+    private final Predicate<EntityRef> objectPredicate; // Can be null if using name/ID
     private final String resultItemName; // Can be null if item is just consumed
     private final WorldStateKey hasResultKey; // Can be null
     private final String actionName; // The interaction name, e.g., "Use", "Smelt"
@@ -45,33 +39,36 @@ public class ActionUseItemOnObject implements Action {
     private long animationStartTime = 0;
     private long animationTimeout = 10000; // Default timeout
 
+    private final ConditionSet preconditionSet;
+
     /** Simplified constructor using Item Name and Object Name */
-    public ActionUseItemOnObject(String itemName, WorldStateKey hasItemKey,
+    public ActionUseItemOnObject(GameApi api, String itemName, WorldStateKey hasItemKey,
                                  String objectName, String actionName,
                                  String resultItemName, WorldStateKey hasResultKey,
                                  int animationId) {
-        this(itemName, hasItemKey, objectName, -1, null, actionName, resultItemName, hasResultKey, animationId);
+        this(api, itemName, hasItemKey, objectName, -1, null, actionName, resultItemName, hasResultKey, animationId);
     }
 
     /** Constructor using Item Name and Object ID */
-    public ActionUseItemOnObject(String itemName, WorldStateKey hasItemKey,
+    public ActionUseItemOnObject(GameApi api, String itemName, WorldStateKey hasItemKey,
                                  int objectId, String actionName,
                                  String resultItemName, WorldStateKey hasResultKey,
                                  int animationId) {
-        this(itemName, hasItemKey, null, objectId, null, actionName, resultItemName, hasResultKey, animationId);
+        this(api, itemName, hasItemKey, null, objectId, null, actionName, resultItemName, hasResultKey, animationId);
     }
 
     /** Flexible constructor using a Predicate for the object */
-    public ActionUseItemOnObject(String itemName, WorldStateKey hasItemKey,
-                                 Predicate<GameObject> objectPredicate, String actionName,
+    public ActionUseItemOnObject(GameApi api, String itemName, WorldStateKey hasItemKey,
+                                 Predicate<EntityRef> objectPredicate, String actionName,
                                  String resultItemName, WorldStateKey hasResultKey,
                                  int animationId) {
-        this(itemName, hasItemKey, null, -1, objectPredicate, actionName, resultItemName, hasResultKey, animationId);
+        this(api, itemName, hasItemKey, null, -1, objectPredicate, actionName, resultItemName, hasResultKey, animationId);
     }
 
     // Private master constructor
-    private ActionUseItemOnObject(String item, WorldStateKey itemKey, String objName, int objId, Predicate<GameObject> predicate,
+    private ActionUseItemOnObject(GameApi api, String item, WorldStateKey itemKey, String objName, int objId, Predicate<EntityRef> predicate,
                                   String action, String resultName, WorldStateKey resultKey, int animId) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.itemName = Objects.requireNonNull(item);
         this.hasItemKey = Objects.requireNonNull(itemKey);
         this.objectName = objName;
@@ -85,6 +82,7 @@ public class ActionUseItemOnObject implements Action {
         if (objName == null && objId <= 0 && predicate == null) {
             throw new IllegalArgumentException("Must provide object name, ID, or predicate.");
         }
+        this.preconditionSet = ConditionSet.compile(getPreconditions());
     }
 
     @Override
@@ -102,6 +100,11 @@ public class ActionUseItemOnObject implements Action {
         return preconditions;
     }
 
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
     @Override
     public Map<WorldStateKey, Object> getEffects() {
         Map<WorldStateKey, Object> effects = new HashMap<>();
@@ -121,22 +124,23 @@ public class ActionUseItemOnObject implements Action {
 
     @Override
     public boolean isApplicable(WorldState state) {
-        if (!state.getBoolean(hasItemKey) || state.getBoolean(WorldStateKey.INTERACT_IS_ANIMATING)) {
-            return false;
-        }
+        // Have the item, not animating
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public boolean canExecute(WorldState currentState) {
         // Check if the target object exists nearby
         return findObject() != null;
     }
 
     @Override
     public ActionResult perform(WorldState currentState) {
-        Player localPlayer = Players.getLocal();
-
         // Check if already performing the relevant animation
-        if (expectedAnimationId != -1 && localPlayer.isAnimating() && localPlayer.getAnimation() == expectedAnimationId) {
-            if (animationStartTime == 0) animationStartTime = System.currentTimeMillis();
+        if (expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId) {
+            if (animationStartTime == 0) animationStartTime = GameClock.millis();
 
-            if (System.currentTimeMillis() - animationStartTime > animationTimeout) {
+            if (GameClock.millis() - animationStartTime > animationTimeout) {
                 Logger.log(getName() + ": Animation timed out.");
                 resetAnimationState();
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
@@ -144,13 +148,13 @@ public class ActionUseItemOnObject implements Action {
             }
 
             // Check if result item appeared (if applicable) or source item disappeared
-            boolean resultExists = hasResultKey != null && Inventory.contains(resultItemName);
-            boolean sourceGone = !Inventory.contains(itemName);
+            boolean resultExists = hasResultKey != null && api.inventory().contains(resultItemName);
+            boolean sourceGone = !api.inventory().contains(itemName);
 
             if (resultExists || sourceGone) {
                 Logger.log(getName() + ": Action completed (result/consumption detected).");
                 resetAnimationState();
-                currentState.setBoolean(hasItemKey, Inventory.contains(itemName)); // Update source state
+                currentState.setBoolean(hasItemKey, api.inventory().contains(itemName)); // Update source state
                 if(hasResultKey != null) currentState.setBoolean(hasResultKey, resultExists); // Update result state
                 currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                 return ActionResult.SUCCESS;
@@ -163,10 +167,9 @@ public class ActionUseItemOnObject implements Action {
         // If not animating, try to start
         resetAnimationState();
 
-        Item itemToUse = Inventory.get(itemName);
-        GameObject targetObject = findObject();
+        EntityRef targetObject = findObject();
 
-        if (itemToUse == null) {
+        if (!api.inventory().contains(itemName)) {
             Logger.log(getName() + ": Item '" + itemName + "' not found in inventory.");
             currentState.setBoolean(hasItemKey, false); // Correct state
             return ActionResult.FAILURE;
@@ -177,36 +180,36 @@ public class ActionUseItemOnObject implements Action {
         }
 
         // Walk if needed
-        if (!targetObject.isOnScreen() || targetObject.distance() > 7) {
+        if (!targetObject.isOnScreen() || api.player().distanceTo(targetObject.getTile()) > 7) {
             Logger.log(getName() + ": Walking to target object at " + targetObject.getTile());
-            if (Walking.walk(targetObject)) {
-                Sleep.sleepUntil(targetObject::isOnScreen, 3000);
+            if (api.walking().walk(targetObject.getTile())) {
+                api.sleep().sleepUntil(targetObject::isOnScreen, 3000);
             }
         }
 
         Logger.log(getName() + ": Using " + itemName + " on " + targetObject.getName() + " (Action: " + actionName + ")");
-        if (itemToUse.useOn(targetObject)) { // Use the item on the object
+        if (api.inventory().useOn(itemName, targetObject)) { // Use the item on the object
             // Wait for animation or item change
-            boolean conditionMet = Sleep.sleepUntil(() -> {
-                boolean isAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
-                boolean resultAppeared = hasResultKey != null && Inventory.contains(resultItemName);
-                boolean sourceGone = !Inventory.contains(itemName);
+            boolean conditionMet = api.sleep().sleepUntil(() -> {
+                boolean isAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
+                boolean resultAppeared = hasResultKey != null && api.inventory().contains(resultItemName);
+                boolean sourceGone = !api.inventory().contains(itemName);
                 return isAnimating || resultAppeared || sourceGone;
             }, animationTimeout);
 
             if (conditionMet) {
-                boolean resultExists = hasResultKey != null && Inventory.contains(resultItemName);
-                boolean stillAnimating = expectedAnimationId != -1 && Players.getLocal().isAnimating() && Players.getLocal().getAnimation() == expectedAnimationId;
+                boolean resultExists = hasResultKey != null && api.inventory().contains(resultItemName);
+                boolean stillAnimating = expectedAnimationId != -1 && api.player().isAnimating() && api.player().getAnimation() == expectedAnimationId;
 
-                if (resultExists || !Inventory.contains(itemName)) { // Success if result or consumption
+                if (resultExists || !api.inventory().contains(itemName)) { // Success if result or consumption
                     Logger.log(getName() + ": Action likely successful (result/consumption detected).");
-                    currentState.setBoolean(hasItemKey, Inventory.contains(itemName));
+                    currentState.setBoolean(hasItemKey, api.inventory().contains(itemName));
                     if(hasResultKey != null) currentState.setBoolean(hasResultKey, resultExists);
                     currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, false);
                     return ActionResult.SUCCESS;
                 } else if (stillAnimating) {
                     Logger.log(getName() + ": Started animation...");
-                    animationStartTime = System.currentTimeMillis();
+                    animationStartTime = GameClock.millis();
                     currentState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, true);
                     return ActionResult.IN_PROGRESS;
                 } else {
@@ -222,49 +225,22 @@ public class ActionUseItemOnObject implements Action {
             return ActionResult.FAILURE;
         }
     }
-    /**
-     * Helper to find the target GameObject based on provided criteria
-     */
-//    private GameObject findObject() {
-//        Filter<GameObject> filter = null;
-//
-//        if (objectPredicate != null) {
-//            // Convert Predicate to Filter
-//            filter = object -> objectPredicate.test(object);
-//        } else if (objectId > 0) {
-//            filter = object -> object != null && object.getID() == objectId;
-//        } else if (objectName != null && !objectName.isEmpty()) {
-//            filter = object -> object != null && objectName.equals(object.getName());
-//        }
-//
-//        if (filter != null) {
-//            return GameObjects.closest(filter);  // Now valid
-//        }
-//
-//        Logger.log("Error in findObject: No valid object identifier (ID, Name, or Predicate) provided.");
-//        return null;
-//    }
-
-
-    /** Helper to find the target GameObject based on provided criteria */
-    private GameObject findObject() {
-        // Use DreamBot's Filter interface
-        Filter<GameObject> filter = null;
+    /** Helper to find the target game object based on provided criteria */
+    private EntityRef findObject() {
+        Predicate<EntityRef> filter = null;
 
         if (objectPredicate != null) {
-            // Convert the standard Java Predicate to DreamBot's Filter
             filter = obj -> obj != null && objectPredicate.test(obj); // Use the provided predicate logic
         } else if (objectId > 0) {
-            // Create a Filter lambda for ID check
-            filter = obj -> obj != null && obj.getID() == objectId;
+            // ID check
+            filter = obj -> obj != null && obj.getId() == objectId;
         } else if (objectName != null) {
-            // Create a Filter lambda for Name check
-            filter = obj -> obj != null && obj.getName().equals(objectName);
+            // Name check
+            filter = obj -> obj != null && objectName.equals(obj.getName());
         }
 
         if (filter != null) {
-            // Call the closest method that accepts DreamBot's Filter
-            return GameObjects.closest(filter);
+            return api.objects().closest(filter);
         }
 
         Logger.log("Error in ActionUseItemOnObject: No valid object identifier (ID, Name, or Predicate) provided.");
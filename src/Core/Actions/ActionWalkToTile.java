@@ -4,26 +4,35 @@ import Core.GOAP.Action;
 import Core.GOAP.ActionResult;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.DreamBotWorldObserver;
+import Core.GameIntegration.GameApi;
+import Core.GameIntegration.GameClock;
 import org.dreambot.api.methods.Calculations;
-import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.map.Area;
 import org.dreambot.api.methods.map.Tile;
-import org.dreambot.api.methods.walking.impl.Walking;
-import org.dreambot.api.script.ScriptManager;
 import org.dreambot.api.utilities.Logger;
-import org.dreambot.api.utilities.Sleep;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Action to walk to a specific destination Tile.
  */
 public class ActionWalkToTile implements Action {
 
+    private static final double MIN_COST = 1.0;       // Cost of a walk that is already (almost) there
+    private static final double TILES_PER_COST = 3.0; // Tiles walked per unit of cost
+    private static final double UNKNOWN_AREA_COST = 5.0; // Typical walk between tutorial areas (~12 tiles)
+    private static final double MAX_COST = 30.0;      // Cap for walks across levels (underground tiles are 6400 rows away)
+
+    private final GameApi api;
     private final Tile destinationTile;
     private final int acceptanceRadius; // How close is close enough?
     private final String targetAreaName; // Optional: Name of area we are walking to (for effects)
+    private final Map<String, Double> costFromArea; // Tutorial area name -> estimated cost of walking from its center
 
     // Internal state for IN_PROGRESS
     private boolean walkingInitiated = false;
@@ -32,19 +41,34 @@ public class ActionWalkToTile implements Action {
 
     /**
      * Constructor for walking to a tile.
+     * @param api The game access port.
      * @param destinationTile The target tile.
      * @param acceptanceRadius The distance within which the destination is considered reached.
      * @param targetAreaName Optional name of the area for WorldState effect (can be null).
      */
-    public ActionWalkToTile(Tile destinationTile, int acceptanceRadius, String targetAreaName) {
+    public ActionWalkToTile(GameApi api, Tile destinationTile, int acceptanceRadius, String targetAreaName) {
+        this.api = Objects.requireNonNull(api, "GameApi cannot be null");
         this.destinationTile = Objects.requireNonNull(destinationTile, "Destination Tile cannot be null");
         this.acceptanceRadius = Math.max(1, acceptanceRadius); // Ensure at least 1
         this.targetAreaName = targetAreaName; // Can be null
+        this.costFromArea = estimateCosts(this.destinationTile);
+    }
+
+    // Walk cost from the center of each tutorial area; area bounds are static data, so this needs no client
+    private static Map<String, Double> estimateCosts(Tile destination) {
+        Map<String, Double> costs = new HashMap<>();
+        for (Map.Entry<String, Area> entry : DreamBotWorldObserver.TUTORIAL_AREAS.entrySet()) {
+            Tile center = entry.getValue().getCenter();
+            if (center != null) {
+                costs.put(entry.getKey(), Math.min(MAX_COST, MIN_COST + center.distance(destination) / TILES_PER_COST));
+            }
+        }
+        return Collections.unmodifiableMap(costs);
     }
 
     /** Simpler constructor with default radius 3 and no area name */
-    public ActionWalkToTile(Tile destinationTile) {
-        this(destinationTile, 3, null);
+    public ActionWalkToTile(GameApi api, Tile destinationTile) {
+        this(api, destinationTile, 3, null);
     }
 
     @Override
@@ -77,23 +101,38 @@ public class ActionWalkToTile implements Action {
 
     @Override
     public double getCost() {
-        // Cost based on distance
-        double distance = Players.getLocal().distance(destinationTile);
-        return 1.0 + (distance / 3.0); // Base cost + distance factor
+        // Lower bound for the A* heuristic; planners use getCost(WorldState)
+        return MIN_COST;
+    }
+
+    @Override
+    public boolean hasStateDependentCost() {
+        return true;
+    }
+
+    @Override
+    public double getCost(WorldState state) {
+        // Estimated from the area the walk starts in; the live distance is checked in perform()
+        Double cost = costFromArea.get(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME));
+        return (cost != null) ? cost : UNKNOWN_AREA_COST;
     }
 
     @Override
     public boolean isApplicable(WorldState state) {
-        // Only applicable if we are not already at the destination (within radius)
-        return Players.getLocal().distance(destinationTile) > acceptanceRadius;
+        // Only useful if we are not already in the target area (when known).
+        // The exact distance check is done against the live client in perform().
+        return targetAreaName == null || !targetAreaName.equals(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME));
     }
 
     @Override
-    public ActionResult perform(WorldState currentState) {
-        Tile playerPos = Players.getLocal().getTile();
+    public Set<WorldStateKey> getReadKeys() {
+        return Collections.singleton(WorldStateKey.LOC_CURRENT_AREA_NAME);
+    }
 
+    @Override
+    public ActionResult perform(WorldState currentState) {
         // Check if already arrived (might happen between loops)
-        if (playerPos.distance(destinationTile) <= acceptanceRadius) {
+        if (api.player().distanceTo(destinationTile) <= acceptanceRadius) {
             Logger.log(getName() + ": Already at destination.");
             resetWalkState();
             currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, false); // Update state
@@ -101,15 +140,15 @@ public class ActionWalkToTile implements Action {
         }
 
         // Initiate walking if not already started or if player stopped moving unexpectedly
-        if (!walkingInitiated || !Players.getLocal().isMoving()) {
+        if (!walkingInitiated || !api.player().isMoving()) {
             Logger.log(getName() + ": Initiating walk to " + destinationTile);
-            if (Walking.walk(destinationTile)) {
+            if (api.walking().walk(destinationTile)) {
                 walkingInitiated = true;
-                walkStartTime = System.currentTimeMillis();
+                walkStartTime = GameClock.millis();
                 // Brief sleep to allow movement to start
-                Sleep.sleep(Calculations.random(300, 600));
+                api.sleep().sleep(Calculations.random(300, 600));
                 // Check immediately if we are now moving
-                if (Players.getLocal().isMoving()) {
+                if (api.player().isMoving()) {
                     currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, true); // Update state
                     return ActionResult.IN_PROGRESS;
                 } else {
@@ -119,7 +158,7 @@ public class ActionWalkToTile implements Action {
                     return ActionResult.FAILURE;
                 }
             } else {
-                Logger.log(getName() + ": Walking.walk() command failed.");
+                Logger.log(getName() + ": Walk command failed.");
                 resetWalkState();
                 return ActionResult.FAILURE;
             }
@@ -128,7 +167,7 @@ public class ActionWalkToTile implements Action {
         // If walking was initiated, check progress
         if (walkingInitiated) {
             // Check for timeout
-            if (System.currentTimeMillis() - walkStartTime > walkTimeout) {
+            if (GameClock.millis() - walkStartTime > walkTimeout) {
                 Logger.log(getName() + ": Walk timed out after " + walkTimeout + "ms.");
                 resetWalkState();
                 currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, false); // Update state
@@ -136,10 +175,10 @@ public class ActionWalkToTile implements Action {
             }
 
             // Check if still moving towards destination
-            if (Players.getLocal().isMoving()) {
+            if (api.player().isMoving()) {
                 currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, true); // Update state
                 // Still moving, check if destination reached during this check
-                if (Players.getLocal().distance(destinationTile) <= acceptanceRadius) {
+                if (api.player().distanceTo(destinationTile) <= acceptanceRadius) {
                     Logger.log(getName() + ": Reached destination while checking progress.");
                     resetWalkState();
                     currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, false); // Update state
@@ -149,7 +188,7 @@ public class ActionWalkToTile implements Action {
                 return ActionResult.IN_PROGRESS;
             } else {
                 // Stopped moving, but not at destination? Might be stuck or finished last step.
-                if (Players.getLocal().distance(destinationTile) <= acceptanceRadius) {
+                if (api.player().distanceTo(destinationTile) <= acceptanceRadius) {
                     Logger.log(getName() + ": Reached destination (detected after stopping).");
                     resetWalkState();
                     currentState.setBoolean(WorldStateKey.LOC_IS_WALKING, false); // Update state
@@ -170,6 +209,17 @@ public class ActionWalkToTile implements Action {
         return ActionResult.FAILURE;
     }
 
+    @Override
+    public long getWakeUpHint() {
+        if (!walkingInitiated) {
+            return -1;
+        }
+        // About one tile per 300 ms when running; the script wakes earlier if the player stops moving
+        double distance = api.player().distanceTo(destinationTile);
+        long eta = (long) (Math.max(0, distance - acceptanceRadius) * 300);
+        return Math.min(eta, GameClock.remainingMillis(walkStartTime, walkTimeout));
+    }
+
     private void resetWalkState() {
         walkingInitiated = false;
         walkStartTime = 0;
@@ -1,6 +1,7 @@
 package Core.GOAP; // Or your preferred package structure
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a single, discrete action that the GOAP agent can perform
@@ -27,6 +28,29 @@ public interface Action {
      */
     Map<WorldStateKey, Object> getPreconditions();
 
+    /**
+     * Gets the preconditions compiled for fast evaluation with WorldState.satisfies(ConditionSet).
+     * The default compiles getPreconditions() on every call; implementations whose preconditions
+     * do not change after construction (getPreconditions() only reads final fields) should compile
+     * once in the constructor and return the cached set.
+     *
+     * @return The compiled preconditions.
+     */
+    default ConditionSet getPreconditionSet() {
+        return ConditionSet.compile(getPreconditions());
+    }
+
+    /**
+     * Gets the WorldStateKeys that isApplicable() reads. The planner only re-tests an action
+     * when one of these keys may have changed, so actions whose isApplicable() looks at keys
+     * outside getPreconditions() must override this.
+     *
+     * @return The keys read by isApplicable(), or null if unknown (the action is then re-tested for every state).
+     */
+    default Set<WorldStateKey> getReadKeys() {
+        return getPreconditions().keySet();
+    }
+
     /**
      * Gets the changes to the WorldState that are expected to occur if this action
      * completes successfully. Used by the Planner to simulate state transitions.
@@ -41,22 +65,61 @@ public interface Action {
      * The Planner uses this to find the most efficient (lowest cost) plan.
      * Cost can represent time, resource consumption, risk, etc.
      * For MVP, a uniform cost of 1.0 is often sufficient.
+     * Must not query the live client: costs are read by the planners, which may run on a
+     * background thread. Use fixed values or the action's own configuration; distance checks
+     * against the live client belong in canExecute() or perform().
      *
      * @return The cost of the action as a double.
      */
     double getCost();
 
     /**
-     * Checks if this action is currently applicable given the provided WorldState.
-     * This typically involves checking if the state satisfies the action's preconditions.
-     * Can also include runtime checks not easily represented as simple preconditions
-     * (e.g., checking reachability of a target).
+     * Whether getCost(WorldState) should be used instead of the getCost() snapshot.
+     * The ActionIndex reads this once while it is built.
+     *
+     * @return true if the cost depends on the state the action is performed from.
+     */
+    default boolean hasStateDependentCost() {
+        return false;
+    }
+
+    /**
+     * Gets the cost of performing this action from the given state (e.g., a walk estimated from the
+     * area the plan is in). Only called if hasStateDependentCost() is true. Like getCost(), it is read
+     * by the planners on their own thread, so it must only look at the given state and the action's
+     * immutable configuration, never the live client. getCost() is still used as this action's
+     * lower bound by the A* heuristic, so it should not be more than any value returned here.
      *
-     * @param state The current WorldState.
-     * @return true if the action can be considered for planning or execution, false otherwise.
+     * @param state The state the action would be performed from.
+     * @return The cost of the action from that state.
+     */
+    default double getCost(WorldState state) {
+        return getCost();
+    }
+
+    /**
+     * Checks if this action is applicable in the provided WorldState.
+     * This is the planning check: it is called for simulated future states, so it must only
+     * look at the given state (typically its preconditions) and never query the live client.
+     * Checks that need the game (e.g., is the NPC visible) belong in canExecute().
+     *
+     * @param state The (possibly simulated) WorldState.
+     * @return true if the action can be considered for planning, false otherwise.
      */
     boolean isApplicable(WorldState state);
 
+    /**
+     * Runtime validation against the live game, called once by the ExecutionEngine right before
+     * the first perform() of this action (e.g., checking that the target object or NPC exists).
+     * If it returns false, the action is not started and the engine asks for a replan.
+     *
+     * @param currentState The current (observed) WorldState.
+     * @return true if the action can be executed now, false otherwise.
+     */
+    default boolean canExecute(WorldState currentState) {
+        return true;
+    }
+
     /**
      * Executes the action logic within the game using the DreamBot API.
      * This method contains the actual interaction with the game (clicks, walking, etc.).
@@ -72,6 +135,17 @@ public interface Action {
      */
     ActionResult perform(WorldState currentState);
 
+    /**
+     * Optional: While this action is IN_PROGRESS, how long the script can wait before performing it again
+     * (e.g., the walk ETA or the time left on an animation). The script still wakes up early when the
+     * observed game state changes, so an upper bound is fine.
+     *
+     * @return The wait in milliseconds, or -1 if unknown (the script's default loop delay is used).
+     */
+    default long getWakeUpHint() {
+        return -1;
+    }
+
     /**
      * Optional: Called when the ExecutionEngine starts executing this action instance.
      * Can be used for initialization specific to an execution attempt.
@@ -0,0 +1,243 @@
+package Core.GOAP;
+
+import java.util.*;
+
+/**
+ * Inverted index over an action set, built once and reused across planning calls:
+ * - key -> actions that read it (Action.getReadKeys(), i.e. what isApplicable() looks at)
+ * - key -> actions that write it (Action.getEffects())
+ * - action -> cost (Action.getCost(), read once while building the index), or the state-dependent
+ *   Action.getCost(WorldState) for actions that declare one
+ *
+ * The forward planner uses it to re-test only the actions whose read keys were written
+ * by the action just applied; the regressive planner uses it to look up the producers
+ * of an open condition directly instead of scanning every action.
+ * Actions are referred to by their position in getActions() so sets of them can be BitSets.
+ * Everything is read from the actions in the constructor, so an index built on the script thread
+ * can be handed to a planner thread, which then never calls into the actions except isApplicable().
+ */
+public class ActionIndex {
+
+    private final List<Action> actions;
+    private final List<Set<WorldStateKey>> readKeys; // Per action: declared read keys (null if unknown)
+    private final Map<WorldStateKey, BitSet> readers = new EnumMap<>(WorldStateKey.class);
+    private final Map<WorldStateKey, BitSet> writers = new EnumMap<>(WorldStateKey.class);
+    private final BitSet unknownReads = new BitSet(); // Actions without declared read keys (always re-tested)
+    private final BitSet[] affectedBy;                // Per action: actions whose applicability it may change
+    private final Map<Action, Double> costs = new IdentityHashMap<>(); // Cost snapshot (negative costs clamped to 0)
+    private final Set<Action> stateDependentCosts = Collections.newSetFromMap(new IdentityHashMap<Action, Boolean>());
+
+    /**
+     * Builds the index. The action list is copied.
+     *
+     * @param availableActions The action set to index.
+     */
+    public ActionIndex(List<Action> availableActions) {
+        this.actions = Collections.unmodifiableList(new ArrayList<>(availableActions));
+        this.readKeys = new ArrayList<>(actions.size());
+
+        for (int i = 0; i < actions.size(); i++) {
+            Action action = actions.get(i);
+            costs.put(action, Math.max(0.0, action.getCost()));
+            if (action.hasStateDependentCost()) {
+                stateDependentCosts.add(action);
+            }
+            Set<WorldStateKey> actionReads = action.getReadKeys();
+            if (actionReads == null) {
+                readKeys.add(null);
+                unknownReads.set(i);
+            } else {
+                EnumSet<WorldStateKey> reads = EnumSet.noneOf(WorldStateKey.class);
+                reads.addAll(actionReads);
+                readKeys.add(reads);
+                for (WorldStateKey key : actionReads) {
+                    bits(readers, key).set(i);
+                }
+            }
+            Map<WorldStateKey, Object> effects = action.getEffects();
+            if (effects != null) {
+                for (WorldStateKey key : effects.keySet()) {
+                    bits(writers, key).set(i);
+                }
+            }
+        }
+
+        this.affectedBy = new BitSet[actions.size()];
+        for (int i = 0; i < actions.size(); i++) {
+            BitSet affected = (BitSet) unknownReads.clone();
+            Map<WorldStateKey, Object> effects = actions.get(i).getEffects();
+            if (effects != null) {
+                for (WorldStateKey key : effects.keySet()) {
+                    BitSet keyReaders = readers.get(key);
+                    if (keyReaders != null) {
+                        affected.or(keyReaders);
+                    }
+                }
+            }
+            affectedBy[i] = affected;
+        }
+    }
+
+    private static BitSet bits(Map<WorldStateKey, BitSet> map, WorldStateKey key) {
+        BitSet set = map.get(key);
+        if (set == null) {
+            set = new BitSet();
+            map.put(key, set);
+        }
+        return set;
+    }
+
+    /**
+     * Checks if this index was built for exactly the given actions (same instances, same order).
+     */
+    public boolean indexes(List<Action> availableActions) {
+        if (availableActions.size() != actions.size()) {
+            return false;
+        }
+        for (int i = 0; i < actions.size(); i++) {
+            if (availableActions.get(i) != actions.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The indexed actions, in their original order.
+     */
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    /**
+     * @return The cost of an indexed action, as read when the index was built.
+     */
+    public double getCost(Action action) {
+        Double cost = costs.get(action);
+        if (cost == null) {
+            throw new IllegalArgumentException("Action is not indexed: " + action.getName());
+        }
+        return cost;
+    }
+
+    /**
+     * @return The cost of an indexed action performed from the given state: Action.getCost(WorldState)
+     *         for actions with a state-dependent cost, otherwise the getCost() snapshot.
+     */
+    public double getCost(Action action, WorldState state) {
+        double cost = getCost(action);
+        return stateDependentCosts.contains(action) ? Math.max(0.0, action.getCost(state)) : cost;
+    }
+
+    /**
+     * @return The actions that read the given key, in their original order.
+     */
+    public List<Action> readersOf(WorldStateKey key) {
+        return select(readers.get(key));
+    }
+
+    /**
+     * @return The actions that write the given key, in their original order.
+     */
+    public List<Action> writersOf(WorldStateKey key) {
+        return select(writers.get(key));
+    }
+
+    /**
+     * Collects the positions of all actions that write at least one of the given keys.
+     *
+     * @param keys The keys (e.g., the open conditions of a regression node).
+     * @return A new BitSet of action positions.
+     */
+    public BitSet writersOfAny(Collection<WorldStateKey> keys) {
+        BitSet result = new BitSet(actions.size());
+        for (WorldStateKey key : keys) {
+            BitSet keyWriters = writers.get(key);
+            if (keyWriters != null) {
+                result.or(keyWriters);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the keys that can influence a plan for the given goal keys: the goal keys themselves,
+     * plus the read keys of every action that writes a relevant key (transitively).
+     * Actions that cannot write any of these keys can never be part of a useful plan for the goal.
+     *
+     * @param goalKeys The keys of the goal conditions.
+     * @return The relevant keys, or every key if a relevant action does not declare its read keys.
+     */
+    public Set<WorldStateKey> relevantKeys(Collection<WorldStateKey> goalKeys) {
+        EnumSet<WorldStateKey> relevant = EnumSet.noneOf(WorldStateKey.class);
+        Deque<WorldStateKey> frontier = new ArrayDeque<>(goalKeys);
+        BitSet visitedActions = new BitSet(actions.size());
+        while (!frontier.isEmpty()) {
+            WorldStateKey key = frontier.poll();
+            if (!relevant.add(key)) {
+                continue;
+            }
+            BitSet keyWriters = writers.get(key);
+            if (keyWriters == null) {
+                continue;
+            }
+            for (int i = keyWriters.nextSetBit(0); i >= 0; i = keyWriters.nextSetBit(i + 1)) {
+                if (visitedActions.get(i)) {
+                    continue;
+                }
+                visitedActions.set(i);
+                Set<WorldStateKey> actionReads = readKeys.get(i);
+                if (actionReads == null) {
+                    return EnumSet.allOf(WorldStateKey.class);
+                }
+                frontier.addAll(actionReads);
+            }
+        }
+        return relevant;
+    }
+
+    /**
+     * Tests every action against a state.
+     *
+     * @return A new BitSet with the positions of the applicable actions.
+     */
+    public BitSet applicableIn(WorldState state) {
+        BitSet result = new BitSet(actions.size());
+        for (int i = 0; i < actions.size(); i++) {
+            if (actions.get(i).isApplicable(state)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Derives the applicable actions of a successor state from those of its parent.
+     * Only actions that read a key written by the applied action (or that declare no read keys)
+     * are re-tested; every other action keeps its parent result.
+     *
+     * @param parentApplicable The applicable actions of the parent state.
+     * @param appliedAction    Position of the action that produced the successor.
+     * @param nextState        The successor state.
+     * @return A new BitSet with the positions of the actions applicable in nextState.
+     */
+    public BitSet successorApplicable(BitSet parentApplicable, int appliedAction, WorldState nextState) {
+        BitSet result = (BitSet) parentApplicable.clone();
+        BitSet affected = affectedBy[appliedAction];
+        for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+            result.set(i, actions.get(i).isApplicable(nextState));
+        }
+        return result;
+    }
+
+    private List<Action> select(BitSet positions) {
+        if (positions == null) {
+            return Collections.emptyList();
+        }
+        List<Action> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(actions.get(i));
+        }
+        return result;
+    }
+}
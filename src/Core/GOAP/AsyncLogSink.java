@@ -0,0 +1,137 @@
+package Core.GOAP;
+
+import java.io.Closeable;
+import java.util.Objects;
+
+/**
+ * LogSink that hands messages to a background thread through a bounded ring buffer, so the script and
+ * planner threads never wait on console or client logger I/O.
+ *
+ * write() only stores the level and message reference in preallocated slots. When the buffer is full the
+ * message is dropped and counted instead of blocking the caller; the drop count is reported by the writer
+ * thread on its next write. close() drains the remaining messages and stops the thread.
+ */
+public class AsyncLogSink implements LogSink, Closeable {
+
+    private final LogSink delegate;
+    private final GoapLog.Level[] levels;
+    private final String[] messages;
+    private final int mask;
+    private final Object lock = new Object();
+    private final Thread writer;
+
+    // Guarded by lock
+    private long head = 0; // Next slot to read
+    private long tail = 0; // Next slot to write
+    private long dropped = 0;
+    private boolean writerWaiting = false;
+    private boolean closed = false;
+
+    /**
+     * @param delegate The sink that performs the actual output (called from the writer thread only).
+     * @param capacity Buffer size, rounded up to a power of two.
+     */
+    public AsyncLogSink(LogSink delegate, int capacity) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate sink cannot be null");
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.levels = new GoapLog.Level[size];
+        this.messages = new String[size];
+        this.mask = size - 1;
+        this.writer = new Thread(this::drainLoop, "GOAP-Log-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void write(GoapLog.Level level, String message) {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            if (tail - head == messages.length) {
+                dropped++;
+                return;
+            }
+            int slot = (int) (tail++ & mask);
+            levels[slot] = level;
+            messages[slot] = message;
+            if (writerWaiting) {
+                lock.notify();
+            }
+        }
+    }
+
+    /**
+     * @return The number of messages dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    private void drainLoop() {
+        GoapLog.Level[] batchLevels = new GoapLog.Level[messages.length];
+        String[] batchMessages = new String[messages.length];
+        long reportedDrops = 0;
+        while (true) {
+            int count = 0;
+            long drops;
+            boolean stop;
+            synchronized (lock) {
+                while (head == tail && !closed) {
+                    writerWaiting = true;
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                    writerWaiting = false;
+                }
+                while (head != tail) { // Copy the batch out so the output runs without the lock
+                    int slot = (int) (head++ & mask);
+                    batchLevels[count] = levels[slot];
+                    batchMessages[count++] = messages[slot];
+                    messages[slot] = null;
+                }
+                drops = dropped;
+                stop = closed;
+            }
+            if (drops > reportedDrops) {
+                deliver(GoapLog.Level.WARN, "LOG: Dropped " + (drops - reportedDrops) + " messages (buffer full).");
+                reportedDrops = drops;
+            }
+            for (int i = 0; i < count; i++) {
+                deliver(batchLevels[i], batchMessages[i]);
+                batchMessages[i] = null;
+            }
+            if (stop && count == 0) {
+                return;
+            }
+        }
+    }
+
+    private void deliver(GoapLog.Level level, String message) {
+        try {
+            delegate.write(level, message);
+        } catch (RuntimeException e) {
+            // A failing sink must not kill the writer thread
+        }
+    }
+
+    /**
+     * Stops accepting messages, writes out what is buffered and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notify();
+        }
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
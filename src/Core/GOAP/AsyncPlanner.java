@@ -0,0 +1,152 @@
+package Core.GOAP;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a Planner on a background thread so the script loop never blocks on a search.
+ * The caller submits a WorldState snapshot and a Goal, keeps ticking, and polls for the
+ * finished Plan on later loops. Only one request is tracked at a time: submitting a new
+ * request (or calling cancel()) interrupts the previous one, which the Planner checks between iterations.
+ * With a PlanCache, a cached plan is returned without running the Planner, and every plan found
+ * is added to the cache.
+ *
+ * The action set is indexed in submit(), on the caller's thread, and the background search only uses
+ * that index (including its cost snapshot), so the planner thread never calls getCost() on an action.
+ */
+public class AsyncPlanner {
+
+    private final Planner planner;
+    private final PlanCache planCache; // Can be null (no caching)
+    private final ExecutorService executor;
+    private ActionIndex actionIndex; // Index of the last submitted action set, built on the caller's thread
+
+    private Goal pendingGoal;         // Goal of the request currently tracked (null if none)
+    private Future<Plan> pendingPlan; // Result of the request currently tracked (null if none)
+
+    /**
+     * @param planner The planner used for every request. Must not be shared with other threads.
+     */
+    public AsyncPlanner(Planner planner) {
+        this(planner, null);
+    }
+
+    /**
+     * @param planner   The planner used for every request. Must not be shared with other threads.
+     * @param planCache Cache consulted before planning and filled with every plan found. Can be null.
+     */
+    public AsyncPlanner(Planner planner, PlanCache planCache) {
+        this.planner = Objects.requireNonNull(planner, "Planner cannot be null");
+        this.planCache = planCache;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GOAP-Planner");
+            thread.setDaemon(true); // Never keep the client alive because of a search
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a planning request. Any previous request is cancelled.
+     * The state and action list are copied, so the caller can keep mutating its own instances.
+     * Action costs are read here (when the action set changed), not on the planner thread.
+     *
+     * @param currentState     The current WorldState (copied as the planning snapshot).
+     * @param goal             The goal to plan for.
+     * @param availableActions The actions the planner may use.
+     */
+    public synchronized void submit(WorldState currentState, Goal goal, List<Action> availableActions) {
+        cancel();
+        final WorldState snapshot = currentState.copy();
+        if (actionIndex == null || !actionIndex.indexes(availableActions)) {
+            actionIndex = new ActionIndex(availableActions);
+        }
+        final ActionIndex index = actionIndex;
+        pendingGoal = Objects.requireNonNull(goal, "Goal cannot be null");
+        if (planCache != null) {
+            Plan cached = planCache.lookup(snapshot, goal, index);
+            if (cached != null) {
+                if (GoapLog.isEnabled(GoapLog.Level.INFO)) {
+                    GoapLog.info("ASYNC PLANNER: Using cached plan for goal: " + goal.getName() + " (" + planCache + ")");
+                }
+                pendingPlan = CompletableFuture.completedFuture(cached); // Ready on the next pollResult()
+                return;
+            }
+        }
+        pendingPlan = executor.submit(() -> {
+            Plan plan = planner.plan(snapshot, goal, index);
+            if (planCache != null && !Thread.currentThread().isInterrupted()) {
+                planCache.store(snapshot, goal, index, plan);
+            }
+            return plan;
+        });
+    }
+
+    /**
+     * Checks if a request for the given goal is still being searched.
+     *
+     * @param goal The goal to check.
+     * @return true if a matching request is in flight, false otherwise.
+     */
+    public synchronized boolean isPending(Goal goal) {
+        return pendingPlan != null && !pendingPlan.isDone() && Objects.equals(pendingGoal, goal);
+    }
+
+    /**
+     * Returns the finished plan for the given goal, if any, and forgets the request.
+     * A request made for a different goal is cancelled and discarded.
+     *
+     * @param goal The goal the caller currently wants a plan for.
+     * @return The finished Plan (empty if the search failed), or null if no finished result is available for this goal.
+     */
+    public synchronized Plan pollResult(Goal goal) {
+        if (pendingPlan == null) {
+            return null;
+        }
+        if (!Objects.equals(pendingGoal, goal)) {
+            cancel(); // Stale request for an old goal
+            return null;
+        }
+        if (!pendingPlan.isDone()) {
+            return null;
+        }
+        Future<Plan> finished = pendingPlan;
+        pendingPlan = null;
+        pendingGoal = null;
+        try {
+            Plan plan = finished.get();
+            return (plan != null) ? plan : new Plan(new LinkedList<>());
+        } catch (CancellationException | ExecutionException e) {
+            GoapLog.error("ASYNC PLANNER: Planning request failed: " + e);
+            return new Plan(new LinkedList<>());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Cancels the tracked request, if any. A running search is interrupted.
+     */
+    public synchronized void cancel() {
+        if (pendingPlan != null) {
+            pendingPlan.cancel(true);
+        }
+        pendingPlan = null;
+        pendingGoal = null;
+    }
+
+    /**
+     * Cancels any request and stops the background thread. Call from the script's onExit().
+     */
+    public synchronized void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,137 @@
+package Core.GOAP;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A condition map compiled once into the same layout WorldState uses, so it can be
+ * evaluated with a few mask operations and small array loops instead of a HashMap walk
+ * with boxed values. Goals compile their target conditions at construction; actions can
+ * compile their preconditions once and return them from Action.getPreconditionSet().
+ *
+ * Matching rules are identical to WorldState.satisfies(Map): a missing key satisfies
+ * a false or 0 condition, every other condition needs a value of the same type.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ConditionSet {
+
+    private static final int WORDS = (WorldStateKey.values().length + 63) >>> 6;
+
+    /** A condition set with no conditions (always satisfied). */
+    public static final ConditionSet EMPTY = compile(Collections.<WorldStateKey, Object>emptyMap());
+
+    // Boolean conditions as bitmasks over WorldStateKey.ordinal()
+    final long[] requireTrue;
+    final long[] requireFalse;
+
+    // Integer conditions (ordinal -> expected value)
+    final int[] intKeys;
+    final int[] intValues;
+
+    // String conditions (ordinal -> interned symbol id)
+    final int[] stringKeys;
+    final int[] stringSymbols;
+
+    // Anything else (Tile, ActionResult, null, ...) is checked the slow way
+    final WorldStateKey[] objectKeys;
+    final Object[] objectValues;
+
+    private final Map<WorldStateKey, Object> conditions; // Source map (read-only copy)
+
+    private ConditionSet(Map<WorldStateKey, Object> conditions) {
+        this.conditions = Collections.unmodifiableMap(new HashMap<>(conditions));
+        this.requireTrue = new long[WORDS];
+        this.requireFalse = new long[WORDS];
+
+        List<WorldStateKey> ints = new ArrayList<>();
+        List<WorldStateKey> strings = new ArrayList<>();
+        List<WorldStateKey> others = new ArrayList<>();
+        for (Map.Entry<WorldStateKey, Object> entry : this.conditions.entrySet()) {
+            int i = entry.getKey().ordinal();
+            Object value = entry.getValue();
+            if (value instanceof Boolean) {
+                if ((Boolean) value) {
+                    requireTrue[i >>> 6] |= 1L << i;
+                } else {
+                    requireFalse[i >>> 6] |= 1L << i;
+                }
+            } else if (value instanceof Integer) {
+                ints.add(entry.getKey());
+            } else if (value instanceof String) {
+                strings.add(entry.getKey());
+            } else {
+                others.add(entry.getKey());
+            }
+        }
+
+        this.intKeys = new int[ints.size()];
+        this.intValues = new int[ints.size()];
+        for (int n = 0; n < ints.size(); n++) {
+            intKeys[n] = ints.get(n).ordinal();
+            intValues[n] = (Integer) this.conditions.get(ints.get(n));
+        }
+
+        this.stringKeys = new int[strings.size()];
+        this.stringSymbols = new int[strings.size()];
+        for (int n = 0; n < strings.size(); n++) {
+            stringKeys[n] = strings.get(n).ordinal();
+            stringSymbols[n] = SymbolTable.intern((String) this.conditions.get(strings.get(n)));
+        }
+
+        this.objectKeys = others.toArray(new WorldStateKey[0]);
+        this.objectValues = new Object[objectKeys.length];
+        for (int n = 0; n < objectKeys.length; n++) {
+            objectValues[n] = this.conditions.get(objectKeys[n]);
+        }
+    }
+
+    /**
+     * Compiles a condition map. The map is copied, later changes to it are not seen.
+     *
+     * @param conditions The conditions to compile. Null is treated as empty.
+     * @return The compiled condition set.
+     */
+    public static ConditionSet compile(Map<WorldStateKey, Object> conditions) {
+        if (conditions == null || conditions.isEmpty()) {
+            return (EMPTY != null) ? EMPTY : new ConditionSet(Collections.<WorldStateKey, Object>emptyMap());
+        }
+        return new ConditionSet(conditions);
+    }
+
+    /**
+     * Gets the conditions this set was compiled from.
+     *
+     * @return An unmodifiable copy of the source map.
+     */
+    public Map<WorldStateKey, Object> asMap() {
+        return conditions;
+    }
+
+    public int size() {
+        return conditions.size();
+    }
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return conditions.equals(((ConditionSet) o).conditions);
+    }
+
+    @Override
+    public int hashCode() {
+        return conditions.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ConditionSet" + conditions;
+    }
+}
@@ -5,13 +5,21 @@ import Core.GOAP.ActionResult;
 import Core.GOAP.Plan;
 import Core.GOAP.WorldState;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages the execution of a Plan generated by the GOAP Planner.
  * It processes one action at a time based on the plan queue and handles
  * the results (SUCCESS, FAILURE, IN_PROGRESS) returned by the actions.
+ *
+ * By default each executeNextStep() performs one action. With setStepBudget() the engine keeps going
+ * after a SUCCESS and starts the next action in the same call (e.g., several instant UI clicks in one
+ * loop), until an action is IN_PROGRESS or fails, the plan ends, or the action/time budget is used up.
  */
 public class ExecutionEngine {
 
@@ -31,6 +39,15 @@ public class ExecutionEngine {
 
     private Plan currentPlan;
     private Action currentAction; // The action currently being executed (might span multiple ticks)
+    private String lastActionName; // The action performed in the last step, and its result
+    private ActionResult lastResult;
+    private Action lastAction;
+    private int maxActionsPerStep = 1;
+    private long stepBudgetNanos = Long.MAX_VALUE;
+    private int actionsPerformed; // Actions performed in the last executeNextStep() call
+    private final List<String> stepActionNames = new ArrayList<>(); // Every action performed in the last call, in order
+    private final List<ActionResult> stepResults = new ArrayList<>();
+    private List<Action> failedSuffix = Collections.emptyList(); // Failed action + rest of its plan, for PlanRepairer
 
     public ExecutionEngine() {
         // Initialize with an empty plan to avoid null checks later
@@ -38,6 +55,24 @@ public class ExecutionEngine {
         this.currentAction = null;
     }
 
+    /**
+     * Lets one executeNextStep() call chain successive successful actions.
+     * The next action is only started while both limits allow it, and only if it is applicable to the
+     * state predicted from the effects of the actions already completed in this call (the observer has
+     * not seen those yet) and its canExecute() passes; otherwise it stays queued, the engine yields
+     * (EXECUTING) and continues on the next call.
+     *
+     * @param maxActions The maximum number of actions performed per call (1 = no chaining).
+     * @param maxMillis  The time after which no further action is started in the same call.
+     */
+    public void setStepBudget(int maxActions, long maxMillis) {
+        if (maxActions < 1 || maxMillis < 0) {
+            throw new IllegalArgumentException("Invalid step budget: " + maxActions + " actions, " + maxMillis + " ms");
+        }
+        this.maxActionsPerStep = maxActions;
+        this.stepBudgetNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis); // Saturates instead of overflowing
+    }
+
     /**
      * Sets the plan for the engine to execute. If there's an existing plan,
      * it will be replaced. Any currently executing action will be aborted.
@@ -47,13 +82,18 @@ public class ExecutionEngine {
     public void setPlan(Plan plan) {
         if (this.currentAction != null) {
             // If an action was in progress, notify it that it's being aborted
-            System.out.println("ENGINE: Aborting action: " + currentAction.getName()); // Logging
+            if (GoapLog.isEnabled(GoapLog.Level.INFO)) {
+                GoapLog.info("ENGINE: Aborting action: " + currentAction.getName());
+            }
             this.currentAction.onAbort();
             this.currentAction = null;
         }
+        failedSuffix = Collections.emptyList();
         // Ensure plan is never null, use an empty plan if null is passed (Java 8 compatible)
         this.currentPlan = (plan != null) ? plan : new Plan(new LinkedList<>());
-        System.out.println("ENGINE: New plan set. Plan: " + this.currentPlan); // Logging
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("ENGINE: New plan set. Plan: " + this.currentPlan);
+        }
     }
 
     /**
@@ -73,6 +113,65 @@ public class ExecutionEngine {
         return (currentAction != null) ? currentAction.getName() : "Idle";
     }
 
+    /**
+     * @return The name of the (last) action performed in the last executeNextStep() call, or null if none was performed.
+     */
+    public String getLastActionName() {
+        return lastActionName;
+    }
+
+    /**
+     * @return The result of the (last) action performed in the last executeNextStep() call, or null if none was performed.
+     */
+    public ActionResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return The number of actions performed in the last executeNextStep() call (more than 1 when chaining).
+     */
+    public int getActionsPerformed() {
+        return actionsPerformed;
+    }
+
+    /**
+     * @return The names of all actions performed in the last executeNextStep() call, in order (read-only).
+     */
+    public List<String> getStepActionNames() {
+        return Collections.unmodifiableList(stepActionNames);
+    }
+
+    /**
+     * @return The results of all actions performed in the last executeNextStep() call, in the order of
+     *         getStepActionNames() (read-only).
+     */
+    public List<ActionResult> getStepResults() {
+        return Collections.unmodifiableList(stepResults);
+    }
+
+    /**
+     * After executeNextStep() returned REPLAN_NEEDED because an action failed or could not start,
+     * the failed action followed by the rest of the plan it was part of (for PlanRepairer).
+     *
+     * @return The unexecuted plan suffix, or an empty list if the last step did not fail this way.
+     */
+    public List<Action> getFailedSuffix() {
+        return failedSuffix;
+    }
+
+    /**
+     * Suggests how long the caller can wait before the next executeNextStep() has something useful to do.
+     *
+     * @return The current action's getWakeUpHint() while it is IN_PROGRESS, 0 if the next action of the plan
+     *         can start right away, or -1 if unknown or idle.
+     */
+    public long getWakeUpHint() {
+        if (currentAction != null) {
+            return currentAction.getWakeUpHint();
+        }
+        return (currentPlan != null && !currentPlan.isEmpty()) ? 0 : -1;
+    }
+
 
     /**
      * Executes the next step in the current plan based on the provided WorldState.
@@ -82,6 +181,37 @@ public class ExecutionEngine {
      * @return EngineStatus indicating the outcome of the step.
      */
     public EngineStatus executeNextStep(WorldState currentState) {
+        lastActionName = null;
+        lastResult = null;
+        lastAction = null;
+        actionsPerformed = 0;
+        stepActionNames.clear();
+        stepResults.clear();
+        failedSuffix = Collections.emptyList();
+        long start = System.nanoTime();
+        WorldState state = currentState;
+        boolean chained = false;
+        while (true) {
+            EngineStatus status = performAction(state, chained);
+            if (status != EngineStatus.EXECUTING || lastResult != ActionResult.SUCCESS
+                    || actionsPerformed >= maxActionsPerStep || System.nanoTime() - start >= stepBudgetNanos) {
+                return status;
+            }
+            // Chain into the next action on the predicted state (the caller's state is left untouched)
+            if (state == currentState) {
+                state = currentState.copy();
+            }
+            state.applyEffects(lastAction.getEffects());
+            Action next = currentPlan.peekNextAction();
+            if (next == null || !next.isApplicable(state) || !next.canExecute(state)) {
+                return status; // Stays queued, let the next observation decide
+            }
+            chained = true;
+        }
+    }
+
+    // Starts (if needed) and performs the current action once; a chained action already passed canExecute()
+    private EngineStatus performAction(WorldState currentState, boolean chained) {
         // If no action is currently being processed, try to get the next one from the plan
         if (currentAction == null) {
             // Check if the plan object itself is null OR if the queue inside is empty
@@ -93,24 +223,46 @@ public class ExecutionEngine {
 
             if (currentAction == null) {
                 // This case means the plan queue was empty after the check, indicating completion.
-                System.out.println("ENGINE: Plan queue is now empty. Plan Complete."); // Logging
+                if (GoapLog.isDebugEnabled()) {
+                    GoapLog.debug("ENGINE: Plan queue is now empty. Plan Complete.");
+                }
                 return EngineStatus.PLAN_COMPLETE;
             }
-            System.out.println("ENGINE: Starting action: " + currentAction.getName()); // Logging
+            // Runtime validation against the live game (planning only checked the symbolic state)
+            if (!chained && !currentAction.canExecute(currentState)) {
+                GoapLog.warn("ENGINE: Action '" + currentAction.getName() + "' cannot execute in the current game state. Replanning needed.");
+                keepFailedSuffix();
+                currentAction = null;
+                currentPlan.clear();
+                return EngineStatus.REPLAN_NEEDED;
+            }
+            if (GoapLog.isDebugEnabled()) {
+                GoapLog.debug("ENGINE: Starting action: " + currentAction.getName());
+            }
             currentAction.onStart(); // Call the optional onStart hook
         }
 
         // --- Execute the current action ---
         // Ensure currentAction is not null before calling perform (safety check)
         if (currentAction == null) {
-            System.err.println("ENGINE: Error - currentAction became null unexpectedly.");
+            GoapLog.error("ENGINE: Error - currentAction became null unexpectedly.");
             currentPlan.clear(); // Clear plan as state is inconsistent
             return EngineStatus.REPLAN_NEEDED;
         }
 
-        System.out.println("ENGINE: Performing action: " + currentAction.getName()); // Logging
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("ENGINE: Performing action: " + currentAction.getName());
+        }
         ActionResult result = currentAction.perform(currentState);
-        System.out.println("ENGINE: Action '" + currentAction.getName() + "' result: " + result); // Logging
+        lastAction = currentAction;
+        lastActionName = currentAction.getName();
+        lastResult = result;
+        actionsPerformed++;
+        stepActionNames.add(lastActionName);
+        stepResults.add(result);
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("ENGINE: Action '" + currentAction.getName() + "' result: " + result);
+        }
 
         // --- Process the result ---
         switch (result) {
@@ -120,23 +272,30 @@ public class ExecutionEngine {
                 currentAction = null; // Clear current action, ready for the next one
                 // Check again if the plan is now empty after completing this action
                 if (currentPlan.isEmpty()) {
-                    System.out.println("ENGINE: Action '" + completedAction.getName() + "' succeeded. Plan Complete."); // Logging
+                    if (GoapLog.isDebugEnabled()) {
+                        GoapLog.debug("ENGINE: Action '" + completedAction.getName() + "' succeeded. Plan Complete.");
+                    }
                     return EngineStatus.PLAN_COMPLETE;
                 } else {
-                    System.out.println("ENGINE: Action '" + completedAction.getName() + "' succeeded. Proceeding to next action."); // Logging
+                    if (GoapLog.isDebugEnabled()) {
+                        GoapLog.debug("ENGINE: Action '" + completedAction.getName() + "' succeeded. Proceeding to next action.");
+                    }
                     return EngineStatus.EXECUTING; // More actions in the plan
                 }
 
             case FAILURE:
                 currentAction.onFailure(); // Call optional hook
                 String failedActionName = currentAction.getName(); // Store name before clearing
+                keepFailedSuffix();
                 currentAction = null; // Clear the failed action
                 currentPlan.clear(); // Clear the rest of the plan as it's now invalid
-                System.err.println("ENGINE: Action '" + failedActionName + "' failed. Replanning needed."); // Logging
+                GoapLog.warn("ENGINE: Action '" + failedActionName + "' failed. Replanning needed.");
                 return EngineStatus.REPLAN_NEEDED; // Signal main loop to replan
 
             case IN_PROGRESS:
-                System.out.println("ENGINE: Action '" + currentAction.getName() + "' is IN_PROGRESS."); // Logging
+                if (GoapLog.isDebugEnabled()) {
+                    GoapLog.debug("ENGINE: Action '" + currentAction.getName() + "' is IN_PROGRESS.");
+                }
                 // Do nothing to currentAction or currentPlan.
                 // The same action will be executed again in the next call to executeNextStep.
                 return EngineStatus.EXECUTING; // Still working
@@ -144,11 +303,19 @@ public class ExecutionEngine {
             default:
                 // Should not happen if ActionResult enum is used correctly
                 String unknownActionName = (currentAction != null) ? currentAction.getName() : "Unknown";
-                System.err.println("ENGINE: Unknown ActionResult received from action: " + unknownActionName); // Logging
+                GoapLog.error("ENGINE: Unknown ActionResult received from action: " + unknownActionName);
                 if(currentAction != null) currentAction.onFailure(); // Treat as failure
                 currentAction = null;
                 currentPlan.clear();
                 return EngineStatus.REPLAN_NEEDED;
         }
     }
+
+    // Remembers the current action and the rest of the plan before the plan is cleared
+    private void keepFailedSuffix() {
+        List<Action> suffix = new ArrayList<>(currentPlan.size() + 1);
+        suffix.add(currentAction);
+        suffix.addAll(currentPlan.getActions());
+        failedSuffix = Collections.unmodifiableList(suffix);
+    }
 }
\ No newline at end of file
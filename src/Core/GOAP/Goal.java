@@ -1,5 +1,7 @@
 package Core.GOAP; // Or your preferred package structure
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -11,6 +13,7 @@ public class Goal {
 
     private final String name;
     private final Map<WorldStateKey, Object> targetConditions;
+    private final ConditionSet conditionSet; // targetConditions compiled once for fast checks
     private final int priority; // Optional: Can be used later for prioritizing goals
 
     /**
@@ -22,7 +25,10 @@ public class Goal {
      */
     public Goal(String name, Map<WorldStateKey, Object> targetConditions, int priority) {
         this.name = Objects.requireNonNull(name, "Goal name cannot be null");
-        this.targetConditions = Objects.requireNonNull(targetConditions, "Target conditions cannot be null");
+        // Copied and frozen so the compiled set can never go out of sync with the map
+        this.targetConditions = Collections.unmodifiableMap(
+                new HashMap<>(Objects.requireNonNull(targetConditions, "Target conditions cannot be null")));
+        this.conditionSet = ConditionSet.compile(this.targetConditions);
         this.priority = priority;
 
         if (targetConditions.isEmpty()) {
@@ -51,13 +57,21 @@ public class Goal {
     /**
      * Gets the map of target conditions that define this goal.
      *
-     * @return The map of target conditions.
+     * @return The map of target conditions (unmodifiable).
      */
     public Map<WorldStateKey, Object> getTargetConditions() {
-        // Consider returning an unmodifiable map if immutability is desired after creation
         return targetConditions;
     }
 
+    /**
+     * Gets the target conditions compiled for fast evaluation against a WorldState.
+     *
+     * @return The compiled target conditions.
+     */
+    public ConditionSet getConditionSet() {
+        return conditionSet;
+    }
+
     /**
      * Gets the priority of this goal.
      *
@@ -77,8 +91,8 @@ public class Goal {
         if (currentState == null) {
             return false; // Cannot satisfy a goal with a null state
         }
-        // Delegate the check to the WorldState's satisfies method
-        return currentState.satisfies(this.targetConditions);
+        // Delegate the check to the WorldState's satisfies method (compiled form)
+        return currentState.satisfies(this.conditionSet);
     }
 
     // --- Equality and Hashing (Optional but good practice if storing Goals) ---
@@ -0,0 +1,91 @@
+package Core.GOAP;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Level-gated logging facade for the GOAP core.
+ *
+ * A disabled level costs one volatile read: hot paths guard their messages with isDebugEnabled()/isEnabled()
+ * so the message string is never built. The Supplier overloads are for colder paths; they are lazy too,
+ * but a lambda that captures variables is itself allocated at the call site.
+ * Messages go to the configured LogSink (the console by default, see AsyncLogSink for a non-blocking one).
+ */
+public final class GoapLog {
+
+    /**
+     * Log levels in increasing severity. OFF disables all output.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static volatile Level level = Level.INFO;
+    private static volatile LogSink sink = LogSink.CONSOLE;
+
+    private GoapLog() {
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = Objects.requireNonNull(newLevel, "Level cannot be null");
+    }
+
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    /**
+     * @param newSink The sink to write to, or null to restore the console sink.
+     */
+    public static void setSink(LogSink newSink) {
+        sink = (newSink != null) ? newSink : LogSink.CONSOLE;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    public static boolean isDebugEnabled() {
+        return level == Level.DEBUG;
+    }
+
+    public static void log(Level messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            sink.write(messageLevel, message);
+        }
+    }
+
+    public static void log(Level messageLevel, Supplier<String> message) {
+        if (isEnabled(messageLevel)) {
+            sink.write(messageLevel, message.get());
+        }
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+}
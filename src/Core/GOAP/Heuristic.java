@@ -0,0 +1,49 @@
+package Core.GOAP;
+
+/**
+ * Estimates the remaining cost from a WorldState to a Goal.
+ * Used by the Planner in A* mode to order the open set by (cost so far + estimate).
+ * For the planner to return the cheapest plan, the estimate must be admissible,
+ * i.e. it must never overestimate the true remaining cost.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * Estimates the cost still needed to satisfy the goal from the given state.
+     *
+     * @param state The (simulated) WorldState being evaluated.
+     * @param goal  The goal the planner is searching for.
+     * @return A non-negative cost estimate. 0 means "goal might already be reached".
+     */
+    double estimate(WorldState state, Goal goal);
+
+    /**
+     * A heuristic that always returns 0. A* with this heuristic behaves like uniform-cost search.
+     */
+    static Heuristic zero() {
+        return (state, goal) -> 0.0;
+    }
+
+    /**
+     * Counts the goal conditions not yet met and multiplies by the cheapest action cost.
+     * Because a single action can satisfy several conditions at once, the count is divided
+     * by the largest number of effects any action has, which keeps the estimate admissible.
+     *
+     * @param cheapestActionCost The lowest cost of any action in the action set.
+     * @param maxEffectsPerAction The largest effects map size of any action in the action set.
+     * @return The heuristic.
+     */
+    static Heuristic unsatisfiedConditions(double cheapestActionCost, int maxEffectsPerAction) {
+        final double costPerStep = Math.max(0.0, cheapestActionCost);
+        final int fanOut = Math.max(1, maxEffectsPerAction);
+        return (state, goal) -> {
+            int unsatisfied = state.countUnsatisfied(goal.getConditionSet());
+            if (unsatisfied == 0) {
+                return 0.0;
+            }
+            int minimumSteps = (unsatisfied + fanOut - 1) / fanOut; // Ceiling division
+            return minimumSteps * costPerStep;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package Core.GOAP;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples (nanoseconds) and reports their distribution (count, mean, percentiles, max).
+ * Samples are kept in a growable long[]; not thread-safe.
+ */
+public class LatencyStats {
+
+    private final String name;
+    private long[] samples = new long[256];
+    private int count = 0;
+    private boolean sorted = true;
+
+    public LatencyStats(String name) {
+        this.name = name;
+    }
+
+    public void add(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    /**
+     * Adds all samples of another LatencyStats (e.g., to merge per-thread stats).
+     */
+    public void addAll(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.samples[i]);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * @param percentile Between 0 and 100 (e.g., 99 for p99).
+     * @return The nearest-rank percentile in nanoseconds, or 0 without samples.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return samples[Math.min(Math.max(rank, 1), count) - 1];
+    }
+
+    public long getMaxNanos() {
+        return getPercentileNanos(100);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{n=%d, mean=%.1fus, p50=%.1fus, p90=%.1fus, p99=%.1fus, max=%.1fus}",
+                name, count, getMeanNanos() / 1000.0,
+                getPercentileNanos(50) / 1000.0, getPercentileNanos(90) / 1000.0,
+                getPercentileNanos(99) / 1000.0, getMaxNanos() / 1000.0);
+    }
+}
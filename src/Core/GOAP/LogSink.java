@@ -0,0 +1,26 @@
+package Core.GOAP;
+
+/**
+ * Destination of GoapLog messages (console, DreamBot logger, async buffer, ...).
+ * Only called for messages whose level is enabled; implementations must be safe to call
+ * from the script thread and the planner thread at the same time.
+ */
+public interface LogSink {
+
+    /**
+     * @param level   The level of the message (never OFF).
+     * @param message The formatted message, including the component prefix (e.g., "ENGINE: ...").
+     */
+    void write(GoapLog.Level level, String message);
+
+    /**
+     * Writes INFO and DEBUG to System.out and WARN and ERROR to System.err (the core's original behaviour).
+     */
+    LogSink CONSOLE = (level, message) -> {
+        if (level.compareTo(GoapLog.Level.WARN) >= 0) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    };
+}
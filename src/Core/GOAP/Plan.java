@@ -1,6 +1,9 @@
 package Core.GOAP; // Or your preferred package structure
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.stream.Collectors;
 
@@ -63,6 +66,36 @@ public class Plan {
         return actionQueue.size();
     }
 
+    /**
+     * Returns a snapshot of the remaining actions, in execution order.
+     * Later changes to the plan (getNextAction(), clear()) are not reflected.
+     *
+     * @return An unmodifiable list of the remaining actions.
+     */
+    public List<Action> getActions() {
+        return Collections.unmodifiableList(new ArrayList<>(actionQueue));
+    }
+
+    /**
+     * Checks that the remaining actions still work from the given state: every action is applicable to
+     * the state reached by the previous actions' effects, and the goal is satisfied at the end.
+     * Used to validate plans that were not searched from this state (speculative or repaired plans).
+     *
+     * @param state The state the plan would start from (not modified).
+     * @param goal  The goal the plan should reach.
+     * @return true if the plan is valid from the state.
+     */
+    public boolean isValidFrom(WorldState state, Goal goal) {
+        WorldState simulated = state.copy();
+        for (Action action : actionQueue) {
+            if (!action.isApplicable(simulated)) {
+                return false;
+            }
+            simulated.applyEffects(action.getEffects());
+        }
+        return goal.isSatisfied(simulated);
+    }
+
     /**
      * Clears all actions from the plan.
      * Useful when replanning is required.
@@ -0,0 +1,171 @@
+package Core.GOAP;
+
+import java.util.*;
+
+/**
+ * Bounded LRU cache of plans, so replanning the same goal from an equivalent state skips the search.
+ * The key is (goal conditions, projection of the WorldState onto the relevant keys), where the
+ * relevant keys are the goal keys plus everything read by actions that can contribute to the goal
+ * (see ActionIndex.relevantKeys()). Keys outside that set cannot change the plan, so states that
+ * only differ there share an entry.
+ *
+ * Only non-empty plans are stored. A hit is replayed against the state (isApplicable() at every
+ * step, goal check at the end) before it is returned, and every hit returns a fresh Plan instance.
+ * All methods are synchronized: the cache is read on the script thread and filled on the planner thread.
+ * Both take the ActionIndex built by the caller (see AsyncPlanner), so the cache never calls into the
+ * actions beyond isApplicable() while replaying a hit.
+ */
+public class PlanCache {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Cache entry key. The projected state reuses WorldState's equals/hashCode.
+    private static final class Key {
+        final ConditionSet goalConditions;
+        final WorldState projectedState;
+        final int hash;
+
+        Key(ConditionSet goalConditions, WorldState projectedState) {
+            this.goalConditions = goalConditions;
+            this.projectedState = projectedState;
+            this.hash = 31 * goalConditions.hashCode() + projectedState.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return hash == that.hash && goalConditions.equals(that.goalConditions) && projectedState.equals(that.projectedState);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, List<Action>> entries;
+    private final Map<ConditionSet, WorldStateKey[]> relevantKeys = new HashMap<>(); // Per goal, for the current action set
+    private ActionIndex actionIndex; // Index of the action set the entries were made with
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public PlanCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of cached plans. The least recently used entry is evicted first.
+     */
+    public PlanCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, List<Action>>(16, 0.75f, true) { // Access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Action>> eldest) {
+                return size() > PlanCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Looks up a plan for the goal from the given state.
+     *
+     * @param state            The current WorldState.
+     * @param goal             The goal to plan for.
+     * @param index            Index of the action set the plan may use.
+     * @return A fresh Plan on a hit, or null on a miss.
+     */
+    public synchronized Plan lookup(WorldState state, Goal goal, ActionIndex index) {
+        Key key = keyFor(state, goal, index);
+        List<Action> actions = entries.get(key);
+        if (actions == null) {
+            misses++;
+            return null;
+        }
+        if (!replays(actions, state, goal)) {
+            entries.remove(key); // Should not happen unless an action reads undeclared keys
+            misses++;
+            return null;
+        }
+        hits++;
+        return new Plan(new LinkedList<>(actions));
+    }
+
+    /**
+     * Stores a plan found for the goal from the given state. Empty plans are ignored.
+     * Must be called before the plan is handed to the ExecutionEngine (which consumes it).
+     *
+     * @param state            The state the plan was made from.
+     * @param goal             The goal the plan achieves.
+     * @param index            Index of the action set the plan was made with.
+     * @param plan             The plan.
+     */
+    public synchronized void store(WorldState state, Goal goal, ActionIndex index, Plan plan) {
+        if (plan == null || plan.isEmpty()) {
+            return;
+        }
+        entries.put(keyFor(state, goal, index), plan.getActions());
+    }
+
+    private Key keyFor(WorldState state, Goal goal, ActionIndex index) {
+        if (index != actionIndex) {
+            if (actionIndex == null || !actionIndex.indexes(index.getActions())) {
+                // New action set: entries made with the old one are no longer valid
+                relevantKeys.clear();
+                entries.clear();
+            }
+            actionIndex = index;
+        }
+        ConditionSet goalConditions = goal.getConditionSet();
+        WorldStateKey[] keys = relevantKeys.get(goalConditions);
+        if (keys == null) {
+            keys = actionIndex.relevantKeys(goalConditions.asMap().keySet()).toArray(new WorldStateKey[0]);
+            relevantKeys.put(goalConditions, keys);
+        }
+        WorldState projected = new WorldState();
+        for (WorldStateKey key : keys) {
+            if (state.has(key)) {
+                projected.setObject(key, state.getObject(key));
+            }
+        }
+        return new Key(goalConditions, projected);
+    }
+
+    private static boolean replays(List<Action> actions, WorldState state, Goal goal) {
+        WorldState simulated = state.copy();
+        for (Action action : actions) {
+            if (!action.isApplicable(simulated)) {
+                return false;
+            }
+            simulated.applyEffects(action.getEffects());
+        }
+        return goal.isSatisfied(simulated);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PlanCache{size=" + entries.size() + "/" + capacity + ", hits=" + hits + ", misses=" + misses + '}';
+    }
+}
@@ -0,0 +1,112 @@
+package Core.GOAP;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Repairs a plan after an action failed, instead of searching the whole goal again.
+ *
+ * Takes the unexecuted suffix (the failed action and the rest of its plan, see
+ * ExecutionEngine.getFailedSuffix()) and tries the first few suffix actions in order as the point to
+ * rejoin: if that action is applicable already, the bridge is empty (plain retry); otherwise a short
+ * bridge is planned from the observed state to that action's preconditions. The result is
+ * bridge + suffix from the rejoin point, accepted only if it is valid from the observed state
+ * (Plan.isValidFrom). If no rejoin point works, repair() returns null and the caller replans fully.
+ *
+ * Bridge searches are depth-limited to maxBridgeLength (Planner.plan with maxDepth), so a bridge that does
+ * not exist is given up after that many levels instead of searching up to the planner's iteration limit.
+ */
+public class PlanRepairer {
+
+    private final Planner planner;
+    private final int maxRejoinPoints; // Suffix actions tried as the point to rejoin
+    private final int maxBridgeLength; // Longer bridges are treated as "needs a full replan"
+    private long repairs = 0;
+    private long fallbacks = 0;
+
+    /**
+     * Tries the first 3 suffix actions with bridges of up to 3 actions.
+     *
+     * @param planner The planner for bridge searches. Must not be shared with other threads.
+     */
+    public PlanRepairer(Planner planner) {
+        this(planner, 3, 3);
+    }
+
+    /**
+     * @param planner         The planner for bridge searches. Must not be shared with other threads.
+     * @param maxRejoinPoints How many suffix actions to try as the point to rejoin (at least 1).
+     * @param maxBridgeLength The longest bridge accepted (0 = only retry or skip ahead).
+     */
+    public PlanRepairer(Planner planner, int maxRejoinPoints, int maxBridgeLength) {
+        if (maxRejoinPoints < 1 || maxBridgeLength < 0) {
+            throw new IllegalArgumentException("Invalid repair limits: " + maxRejoinPoints + " rejoin points, bridge " + maxBridgeLength);
+        }
+        this.planner = Objects.requireNonNull(planner, "Planner cannot be null");
+        this.maxRejoinPoints = maxRejoinPoints;
+        this.maxBridgeLength = maxBridgeLength;
+    }
+
+    /**
+     * Builds a repaired plan for the goal.
+     *
+     * @param currentState     The observed state.
+     * @param goal             The goal of the failed plan.
+     * @param failedSuffix     The failed action followed by the rest of its plan.
+     * @param availableActions The actions bridges may use.
+     * @return The repaired plan, or null if the plan cannot be repaired (replan from scratch).
+     */
+    public Plan repair(WorldState currentState, Goal goal, List<Action> failedSuffix, List<Action> availableActions) {
+        int rejoinPoints = Math.min(maxRejoinPoints, failedSuffix.size());
+        for (int rejoin = 0; rejoin < rejoinPoints; rejoin++) {
+            Action rejoinAction = failedSuffix.get(rejoin);
+            List<Action> bridge = Collections.emptyList();
+            if (!rejoinAction.isApplicable(currentState)) {
+                Goal bridgeGoal = new Goal("Bridge_" + rejoinAction.getName(), rejoinAction.getPreconditions());
+                Plan bridgePlan = planner.plan(currentState, bridgeGoal, availableActions, maxBridgeLength);
+                // Empty: no bridge found (or the preconditions already hold but isApplicable() still says no)
+                if (bridgePlan == null || bridgePlan.isEmpty() || bridgePlan.size() > maxBridgeLength) {
+                    continue;
+                }
+                bridge = bridgePlan.getActions();
+            }
+            LinkedList<Action> actions = new LinkedList<>(bridge);
+            actions.addAll(failedSuffix.subList(rejoin, failedSuffix.size()));
+            Plan repaired = new Plan(actions);
+            if (repaired.isValidFrom(currentState, goal)) {
+                repairs++;
+                if (GoapLog.isDebugEnabled()) {
+                    GoapLog.debug("REPAIR: Rejoined at '" + rejoinAction.getName() + "' with a bridge of "
+                            + bridge.size() + " action(s): " + repaired);
+                }
+                return repaired;
+            }
+        }
+        fallbacks++;
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("REPAIR: No repair for goal " + goal.getName() + ", full replan needed.");
+        }
+        return null;
+    }
+
+    /**
+     * @return The number of successful repairs.
+     */
+    public long getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * @return The number of failures that could not be repaired.
+     */
+    public long getFallbacks() {
+        return fallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "PlanRepairer{repairs=" + repairs + ", fallbacks=" + fallbacks + "}";
+    }
+}
@@ -3,24 +3,94 @@ package Core.GOAP; // Or your preferred package structure
 import java.util.*;
 
 /**
- * Implements a GOAP planner using Breadth-First Search (BFS).
- * Finds the shortest plan (in terms of number of actions) to achieve a goal state
- * from a given initial state, considering a set of available actions.
+ * Implements a forward-search GOAP planner.
+ * Two search modes are supported:
+ * - BREADTH_FIRST: finds the shortest plan (in terms of number of actions).
+ * - A_STAR: finds the cheapest plan according to Action.getCost(), guided by a Heuristic.
+ * Both search from a given initial state, considering a set of available actions.
+ * A third mode, REGRESSIVE, delegates to RegressivePlanner and searches backwards from the goal.
+ *
+ * The action set is indexed once (ActionIndex) and reused while the same actions are passed in.
+ * Forward search keeps the applicable actions of every node and only re-tests, for a successor,
+ * the actions that read a key written by the action just applied.
  */
 public class Planner {
 
+    /**
+     * The search strategy used by plan().
+     */
+    public enum SearchMode {
+        /** Fewest actions. Ignores Action.getCost(). */
+        BREADTH_FIRST,
+        /** Lowest total Action.getCost(), ordered by cost so far + heuristic estimate. */
+        A_STAR,
+        /** Backward search from the goal conditions (see RegressivePlanner). Only goal-relevant actions are expanded. */
+        REGRESSIVE
+    }
+
     private static final int MAX_ITERATIONS = 1000; // Safety limit to prevent infinite loops
 
+    private final SearchMode searchMode;
+    private final Heuristic heuristic; // Null means: build the default heuristic from the action set
+    private final RegressivePlanner regressivePlanner = new RegressivePlanner();
+    private ActionIndex actionIndex; // Index of the last action set passed to plan()
+
+    /**
+     * Creates a BFS planner (original behaviour).
+     */
+    public Planner() {
+        this(SearchMode.BREADTH_FIRST);
+    }
+
+    /**
+     * Creates a planner using the given search mode. In A_STAR mode the default
+     * heuristic (Heuristic.unsatisfiedConditions) is built from the action set on every plan() call.
+     *
+     * @param searchMode The search strategy to use.
+     */
+    public Planner(SearchMode searchMode) {
+        this(searchMode, null);
+    }
+
+    /**
+     * Creates a planner using the given search mode and heuristic.
+     *
+     * @param searchMode The search strategy to use.
+     * @param heuristic  The heuristic used in A_STAR mode (ignored by BFS). Can be null to use the default.
+     */
+    public Planner(SearchMode searchMode, Heuristic heuristic) {
+        this.searchMode = Objects.requireNonNull(searchMode, "Search mode cannot be null");
+        this.heuristic = heuristic;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
     // Helper class to represent nodes in the search space
     private static class PlanNode {
         final WorldState state;
         final PlanNode parent; // Node from which this node was reached
         final Action action;   // Action taken to reach this state from the parent
+        final double costSoFar; // g: Sum of action costs from the start node (A* only)
+        final double estimatedTotal; // f: costSoFar + heuristic estimate (A* only)
+        final long order; // Insertion order, used to break ties in the A* open set
+        final BitSet applicable; // Positions (in the ActionIndex) of the actions applicable in 'state'
+        final int depth; // Actions from the start node
+
+        PlanNode(WorldState state, PlanNode parent, Action action, BitSet applicable) {
+            this(state, parent, action, applicable, 0.0, 0.0, 0L);
+        }
 
-        PlanNode(WorldState state, PlanNode parent, Action action) {
+        PlanNode(WorldState state, PlanNode parent, Action action, BitSet applicable, double costSoFar, double estimatedTotal, long order) {
             this.state = state;
             this.parent = parent;
             this.action = action;
+            this.depth = (parent != null) ? parent.depth + 1 : 0;
+            this.applicable = applicable;
+            this.costSoFar = costSoFar;
+            this.estimatedTotal = estimatedTotal;
+            this.order = order;
         }
 
         @Override
@@ -39,15 +109,75 @@ public class Planner {
      * @return A Plan object containing the sequence of actions, or an empty Plan if no solution is found.
      */
     public Plan plan(WorldState initialState, Goal goal, List<Action> availableActions) {
-        System.out.println("PLANNER: Starting planning..."); // Simple logging for now
-        System.out.println("PLANNER: Initial State Hash: " + initialState.hashCode());
-        System.out.println("PLANNER: Goal: " + goal.getName());
+        return plan(initialState, goal, indexFor(availableActions));
+    }
+
+    /**
+     * Same as plan(WorldState, Goal, List), using a prebuilt index of the action set.
+     * Action costs are taken from the index, so a planner on another thread never calls getCost();
+     * actions with a state-dependent cost are asked for getCost(WorldState) of the state they are applied to.
+     *
+     * @param initialState The starting state of the world.
+     * @param goal         The desired goal state.
+     * @param index        Index of all possible actions the agent can perform.
+     * @return A Plan object containing the sequence of actions, or an empty Plan if no solution is found.
+     */
+    public Plan plan(WorldState initialState, Goal goal, ActionIndex index) {
+        return plan(initialState, goal, index, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as plan(WorldState, Goal, List), but only looks for plans of at most maxDepth actions:
+     * nodes at that depth are not expanded, so a search for a short plan that does not exist ends early
+     * instead of running to MAX_ITERATIONS (e.g., PlanRepairer's bridges).
+     *
+     * @param maxDepth The most actions in the plan (0 = only succeeds if the goal already holds).
+     * @return A Plan object containing the sequence of actions, or an empty Plan if no solution is found.
+     */
+    public Plan plan(WorldState initialState, Goal goal, List<Action> availableActions, int maxDepth) {
+        return plan(initialState, goal, indexFor(availableActions), maxDepth);
+    }
+
+    private Plan plan(WorldState initialState, Goal goal, ActionIndex index, int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        if (searchMode == SearchMode.REGRESSIVE) {
+            return regressivePlanner.plan(initialState, goal, index, maxDepth);
+        }
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("PLANNER: Starting planning (" + searchMode + ")...");
+            GoapLog.debug("PLANNER: Initial State Hash: " + initialState.hashCode());
+            GoapLog.debug("PLANNER: Goal: " + goal.getName());
+        }
+
+        if (searchMode == SearchMode.A_STAR) {
+            return planAStar(initialState, goal, index, maxDepth);
+        }
+        return planBreadthFirst(initialState, goal, index, maxDepth);
+    }
+
+    /**
+     * Returns the index for the given action set, rebuilding it only if the set changed.
+     */
+    private ActionIndex indexFor(List<Action> availableActions) {
+        if (actionIndex == null || !actionIndex.indexes(availableActions)) {
+            actionIndex = new ActionIndex(availableActions);
+        }
+        return actionIndex;
+    }
+
+    /**
+     * BFS search. Returns the plan with the fewest actions.
+     */
+    private Plan planBreadthFirst(WorldState initialState, Goal goal, ActionIndex index, int maxDepth) {
+        List<Action> actions = index.getActions();
 
         Queue<PlanNode> openSet = new LinkedList<>();
         Set<WorldState> closedSet = new HashSet<>(); // Uses WorldState's hashCode/equals
 
         // 1.a Initialization
-        PlanNode startNode = new PlanNode(initialState, null, null);
+        PlanNode startNode = new PlanNode(initialState, null, null, index.applicableIn(initialState));
         openSet.add(startNode);
         closedSet.add(initialState);
 
@@ -55,6 +185,10 @@ public class Planner {
 
         // 1.b Loop
         while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
+            if (Thread.currentThread().isInterrupted()) {
+                GoapLog.info("PLANNER: Planning cancelled after " + iterations + " iterations.");
+                return new Plan(new LinkedList<>());
+            }
             // 1.b.i Dequeue
             PlanNode currentNode = openSet.poll();
             iterations++;
@@ -64,37 +198,131 @@ public class Planner {
 
             // 1.b.ii Goal Check
             if (goal.isSatisfied(currentNode.state)) {
-                System.out.println("PLANNER: Goal found after " + iterations + " iterations!");
+                if (GoapLog.isDebugEnabled()) {
+                    GoapLog.debug("PLANNER: Goal found after " + iterations + " iterations!");
+                }
                 return reconstructPlan(currentNode);
             }
 
-            // 1.b.iii Expand Node
-            for (Action action : availableActions) {
-                // 1. Check Applicability
-                if (action.isApplicable(currentNode.state)) {
-                    // 2. Simulate Effect
-                    WorldState nextState = currentNode.state.copy(); // Create a copy to modify
-                    nextState.applyEffects(action.getEffects());
-
-                    // 3. Cycle Check (using closedSet)
-                    if (!closedSet.contains(nextState)) {
-                        // 4. Enqueue
-                        closedSet.add(nextState); // Mark this state as visited
-                        PlanNode nextNode = new PlanNode(nextState, currentNode, action);
-                        openSet.add(nextNode);
-                        // System.out.println("PLANNER: Added node via action '" + action.getName() + "'. New state hash: " + nextState.hashCode());
-                    } else {
-                        // System.out.println("PLANNER: State already visited, skipping action '" + action.getName() + "'. State hash: " + nextState.hashCode());
-                    }
+            // 1.b.iii Expand Node (not beyond the depth limit)
+            if (currentNode.depth >= maxDepth) {
+                continue;
+            }
+            // 1. Applicable actions were computed when the node was created
+            BitSet applicable = currentNode.applicable;
+            for (int i = applicable.nextSetBit(0); i >= 0; i = applicable.nextSetBit(i + 1)) {
+                Action action = actions.get(i);
+                // 2. Simulate Effect
+                WorldState nextState = currentNode.state.copy(); // Create a copy to modify
+                nextState.applyEffects(action.getEffects());
+
+                // 3. Cycle Check (using closedSet)
+                if (!closedSet.contains(nextState)) {
+                    // 4. Enqueue
+                    closedSet.add(nextState); // Mark this state as visited
+                    PlanNode nextNode = new PlanNode(nextState, currentNode, action,
+                            index.successorApplicable(applicable, i, nextState));
+                    openSet.add(nextNode);
+                    // System.out.println("PLANNER: Added node via action '" + action.getName() + "'. New state hash: " + nextState.hashCode());
+                } else {
+                    // System.out.println("PLANNER: State already visited, skipping action '" + action.getName() + "'. State hash: " + nextState.hashCode());
                 }
             }
         }
 
         // 1.c Failure
         if (iterations >= MAX_ITERATIONS) {
-            System.err.println("PLANNER: Failed to find plan - Max iterations reached (" + MAX_ITERATIONS + ")");
+            GoapLog.warn("PLANNER: Failed to find plan - Max iterations reached (" + MAX_ITERATIONS + ")");
+        } else {
+            GoapLog.warn("PLANNER: Failed to find plan - Open set became empty after " + iterations + " iterations.");
+        }
+        return new Plan(new LinkedList<>()); // Return an empty plan on failure
+    }
+
+    /**
+     * A* search. Returns the plan with the lowest total cost, provided the heuristic is admissible.
+     * Action costs come from the index (read when it was built).
+     */
+    private Plan planAStar(WorldState initialState, Goal goal, ActionIndex index, int maxDepth) {
+        List<Action> availableActions = index.getActions();
+        double cheapestCost = Double.MAX_VALUE;
+        int maxEffects = 1;
+        for (Action action : availableActions) {
+            cheapestCost = Math.min(cheapestCost, index.getCost(action));
+            Map<WorldStateKey, Object> effects = action.getEffects();
+            if (effects != null) {
+                maxEffects = Math.max(maxEffects, effects.size());
+            }
+        }
+        if (availableActions.isEmpty()) {
+            cheapestCost = 0.0;
+        }
+        Heuristic h = (heuristic != null) ? heuristic : Heuristic.unsatisfiedConditions(cheapestCost, maxEffects);
+
+        PriorityQueue<PlanNode> openSet = new PriorityQueue<>(new Comparator<PlanNode>() {
+            @Override
+            public int compare(PlanNode a, PlanNode b) {
+                int byEstimate = Double.compare(a.estimatedTotal, b.estimatedTotal);
+                return (byEstimate != 0) ? byEstimate : Long.compare(a.order, b.order);
+            }
+        });
+        Map<WorldState, Double> bestCost = new HashMap<>(); // Cheapest known cost to reach each state
+        Set<WorldState> closedSet = new HashSet<>(); // States already expanded
+
+        long order = 0;
+        openSet.add(new PlanNode(initialState, null, null, index.applicableIn(initialState),
+                0.0, h.estimate(initialState, goal), order++));
+        bestCost.put(initialState, 0.0);
+
+        int iterations = 0;
+
+        while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
+            if (Thread.currentThread().isInterrupted()) {
+                GoapLog.info("PLANNER: Planning cancelled after " + iterations + " iterations.");
+                return new Plan(new LinkedList<>());
+            }
+            PlanNode currentNode = openSet.poll();
+
+            // Skip stale queue entries (a cheaper path to this state was found after it was queued)
+            if (!closedSet.add(currentNode.state)) {
+                continue;
+            }
+            iterations++;
+
+            if (goal.isSatisfied(currentNode.state)) {
+                if (GoapLog.isDebugEnabled()) {
+                    GoapLog.debug("PLANNER: Goal found after " + iterations + " iterations! Plan cost: " + currentNode.costSoFar);
+                }
+                return reconstructPlan(currentNode);
+            }
+            if (currentNode.depth >= maxDepth) {
+                continue;
+            }
+
+            BitSet applicable = currentNode.applicable;
+            for (int i = applicable.nextSetBit(0); i >= 0; i = applicable.nextSetBit(i + 1)) {
+                Action action = availableActions.get(i);
+                WorldState nextState = currentNode.state.copy();
+                nextState.applyEffects(action.getEffects());
+
+                if (closedSet.contains(nextState)) {
+                    continue;
+                }
+                double costSoFar = currentNode.costSoFar + index.getCost(action, currentNode.state);
+                Double knownCost = bestCost.get(nextState);
+                if (knownCost == null || costSoFar < knownCost) {
+                    bestCost.put(nextState, costSoFar);
+                    double estimatedTotal = costSoFar + h.estimate(nextState, goal);
+                    openSet.add(new PlanNode(nextState, currentNode, action, index.successorApplicable(applicable, i, nextState),
+                            costSoFar, estimatedTotal, order++));
+                }
+            }
+        }
+
+        if (iterations >= MAX_ITERATIONS) {
+            GoapLog.warn("PLANNER: Failed to find plan - Max iterations reached (" + MAX_ITERATIONS + ")");
         } else {
-            System.err.println("PLANNER: Failed to find plan - Open set became empty after " + iterations + " iterations.");
+            GoapLog.warn("PLANNER: Failed to find plan - Open set became empty after " + iterations + " iterations.");
         }
         return new Plan(new LinkedList<>()); // Return an empty plan on failure
     }
@@ -114,7 +342,9 @@ public class Planner {
             }
             current = current.parent;
         }
-        System.out.println("PLANNER: Plan reconstructed with " + actions.size() + " actions.");
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("PLANNER: Plan reconstructed with " + actions.size() + " actions.");
+        }
         return new Plan(actions); // Plan constructor expects a Queue
     }
 }
@@ -0,0 +1,226 @@
+package Core.GOAP;
+
+import java.util.*;
+
+/**
+ * Implements a regressive (backward-from-goal) GOAP planner.
+ * Search starts from the goal's target conditions and only chains actions whose effects
+ * satisfy one of the still-open conditions. Each step replaces the conditions the action
+ * achieves with the action's preconditions, until every remaining condition already holds
+ * in the initial state. Nodes are expanded cheapest-first (uniform cost on Action.getCost()).
+ * The states between the initial state and the goal are not known while searching backward, so actions
+ * with a state-dependent cost are costed from the initial state (e.g., a walk from the current area).
+ *
+ * Producers of the open conditions are looked up through an ActionIndex instead of scanning every action.
+ *
+ * Because preconditions maps do not always capture every check done in
+ * Action.isApplicable() (e.g., INV_SPACE > 0), each candidate plan is replayed forward from the initial state
+ * before it is returned. Candidates that fail this check are discarded and the search continues.
+ */
+public class RegressivePlanner {
+
+    private static final int MAX_ITERATIONS = 1000; // Safety limit to prevent infinite loops
+
+    // Helper class to represent nodes in the (backward) search space
+    private static class RegressionNode {
+        final Map<WorldStateKey, Object> openConditions; // Conditions that must hold before the actions below run
+        final RegressionNode next; // Node this one was regressed from (closer to the goal)
+        final Action action;       // Action that leads from this node to 'next'
+        final double costSoFar;    // Sum of action costs from the goal node
+        final int unmetInInitial;  // Open conditions not satisfied by the initial state (tie-breaker)
+        final long order;          // Insertion order (tie-breaker)
+        final int depth;           // Actions between this node and the goal
+
+        RegressionNode(Map<WorldStateKey, Object> openConditions, RegressionNode next, Action action,
+                       double costSoFar, int unmetInInitial, long order) {
+            this.openConditions = openConditions;
+            this.next = next;
+            this.action = action;
+            this.costSoFar = costSoFar;
+            this.unmetInInitial = unmetInInitial;
+            this.order = order;
+            this.depth = (next != null) ? next.depth + 1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "RegressionNode{action=" + (action != null ? action.getName() : "GOAL") + ", open=" + openConditions.keySet() + '}';
+        }
+    }
+
+    /**
+     * Attempts to find a sequence of actions (a plan) to reach the goal state by searching backwards.
+     *
+     * @param initialState     The starting state of the world.
+     * @param goal             The desired goal state.
+     * @param availableActions The list of all possible actions the agent can perform.
+     * @return A Plan object containing the sequence of actions, or an empty Plan if no solution is found.
+     */
+    public Plan plan(WorldState initialState, Goal goal, List<Action> availableActions) {
+        return plan(initialState, goal, new ActionIndex(availableActions));
+    }
+
+    /**
+     * Same as plan(WorldState, Goal, List), reusing a prebuilt index of the action set.
+     *
+     * @param initialState The starting state of the world.
+     * @param goal         The desired goal state.
+     * @param index        Index of all possible actions the agent can perform.
+     * @return A Plan object containing the sequence of actions, or an empty Plan if no solution is found.
+     */
+    public Plan plan(WorldState initialState, Goal goal, ActionIndex index) {
+        return plan(initialState, goal, index, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as plan(WorldState, Goal, ActionIndex), but only looks for plans of at most maxDepth actions
+     * (nodes at that depth are not regressed further).
+     */
+    public Plan plan(WorldState initialState, Goal goal, ActionIndex index, int maxDepth) {
+        List<Action> availableActions = index.getActions();
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("PLANNER: Starting regressive planning...");
+            GoapLog.debug("PLANNER: Goal: " + goal.getName());
+        }
+
+        PriorityQueue<RegressionNode> openSet = new PriorityQueue<>(new Comparator<RegressionNode>() {
+            @Override
+            public int compare(RegressionNode a, RegressionNode b) {
+                int byCost = Double.compare(a.costSoFar, b.costSoFar);
+                if (byCost != 0) return byCost;
+                int byUnmet = Integer.compare(a.unmetInInitial, b.unmetInInitial);
+                return (byUnmet != 0) ? byUnmet : Long.compare(a.order, b.order);
+            }
+        });
+        Map<Map<WorldStateKey, Object>, Double> bestCost = new HashMap<>();
+        Set<Map<WorldStateKey, Object>> closedSet = new HashSet<>();
+
+        long order = 0;
+        Map<WorldStateKey, Object> goalConditions = new HashMap<>(goal.getTargetConditions());
+        openSet.add(new RegressionNode(goalConditions, null, null, 0.0,
+                initialState.countUnsatisfied(goalConditions), order++));
+        bestCost.put(goalConditions, 0.0);
+
+        int iterations = 0;
+
+        while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
+            if (Thread.currentThread().isInterrupted()) {
+                GoapLog.info("PLANNER: Planning cancelled after " + iterations + " iterations.");
+                return new Plan(new LinkedList<>());
+            }
+            RegressionNode currentNode = openSet.poll();
+            if (!closedSet.add(currentNode.openConditions)) {
+                continue; // Stale entry, already expanded via a cheaper path
+            }
+            iterations++;
+
+            // Termination: every open condition already holds in the initial state
+            if (currentNode.unmetInInitial == 0) {
+                Plan candidate = validateForward(currentNode, initialState, goal);
+                if (candidate != null) {
+                    if (GoapLog.isDebugEnabled()) {
+                        GoapLog.debug("PLANNER: Goal regressed to initial state after " + iterations + " iterations! Plan cost: " + currentNode.costSoFar);
+                    }
+                    return candidate;
+                }
+                // Forward replay failed (check not captured by preconditions); keep searching
+            }
+            if (currentNode.depth >= maxDepth) {
+                continue;
+            }
+
+            // Only actions writing one of the open keys can be relevant
+            BitSet producers = index.writersOfAny(currentNode.openConditions.keySet());
+            for (int i = producers.nextSetBit(0); i >= 0; i = producers.nextSetBit(i + 1)) {
+                Action action = availableActions.get(i);
+                Map<WorldStateKey, Object> regressed = regress(currentNode.openConditions, action);
+                if (regressed == null || closedSet.contains(regressed)) {
+                    continue;
+                }
+                double costSoFar = currentNode.costSoFar + index.getCost(action, initialState);
+                Double knownCost = bestCost.get(regressed);
+                if (knownCost == null || costSoFar < knownCost) {
+                    bestCost.put(regressed, costSoFar);
+                    openSet.add(new RegressionNode(regressed, currentNode, action, costSoFar,
+                            initialState.countUnsatisfied(regressed), order++));
+                }
+            }
+        }
+
+        if (iterations >= MAX_ITERATIONS) {
+            GoapLog.warn("PLANNER: Failed to find plan - Max iterations reached (" + MAX_ITERATIONS + ")");
+        } else {
+            GoapLog.warn("PLANNER: Failed to find plan - Open set became empty after " + iterations + " iterations.");
+        }
+        return new Plan(new LinkedList<>()); // Return an empty plan on failure
+    }
+
+    /**
+     * Regresses a set of open conditions through an action.
+     * The action is relevant if at least one of its effects satisfies an open condition,
+     * and consistent if none of its effects or preconditions contradict the conditions that remain.
+     *
+     * @return The conditions that must hold before the action, or null if the action is irrelevant or inconsistent.
+     */
+    private Map<WorldStateKey, Object> regress(Map<WorldStateKey, Object> openConditions, Action action) {
+        Map<WorldStateKey, Object> effects = action.getEffects();
+        if (effects == null || effects.isEmpty()) {
+            return null;
+        }
+
+        boolean achievesSomething = false;
+        for (Map.Entry<WorldStateKey, Object> effect : effects.entrySet()) {
+            if (!openConditions.containsKey(effect.getKey())) {
+                continue;
+            }
+            if (!Objects.equals(openConditions.get(effect.getKey()), effect.getValue())) {
+                return null; // Action would undo a condition we still need
+            }
+            achievesSomething = true;
+        }
+        if (!achievesSomething) {
+            return null;
+        }
+
+        Map<WorldStateKey, Object> regressed = new HashMap<>(openConditions);
+        regressed.keySet().removeAll(effects.keySet());
+
+        Map<WorldStateKey, Object> preconditions = action.getPreconditions();
+        if (preconditions != null) {
+            for (Map.Entry<WorldStateKey, Object> pre : preconditions.entrySet()) {
+                if (regressed.containsKey(pre.getKey()) && !Objects.equals(regressed.get(pre.getKey()), pre.getValue())) {
+                    return null; // Precondition contradicts a condition that must persist through this action
+                }
+                regressed.put(pre.getKey(), pre.getValue());
+            }
+        }
+        return regressed;
+    }
+
+    /**
+     * Replays the candidate action chain forward from the initial state, checking
+     * Action.isApplicable() at every step and the goal at the end.
+     *
+     * @return The plan if the chain is valid, null otherwise.
+     */
+    private Plan validateForward(RegressionNode startNode, WorldState initialState, Goal goal) {
+        LinkedList<Action> actions = new LinkedList<>();
+        WorldState simulated = initialState.copy();
+        RegressionNode current = startNode;
+        while (current != null && current.action != null) {
+            if (!current.action.isApplicable(simulated)) {
+                return null;
+            }
+            simulated.applyEffects(current.action.getEffects());
+            actions.add(current.action);
+            current = current.next;
+        }
+        if (!goal.isSatisfied(simulated)) {
+            return null;
+        }
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("PLANNER: Plan reconstructed with " + actions.size() + " actions.");
+        }
+        return new Plan(actions);
+    }
+}
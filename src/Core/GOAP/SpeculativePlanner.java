@@ -0,0 +1,124 @@
+package Core.GOAP;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Plans the next goal while the current plan is still running, so a plan is ready the moment the goal
+ * switches instead of one loop later.
+ *
+ * The request is planned against the predicted end state of the running plan (the current state plus
+ * every action's effects and the current goal's conditions). When the goal switches, take() hands out the
+ * finished plan only if it still works from the real state (Plan.isValidFrom). Otherwise (or if the
+ * search has not finished) the speculation is dropped and the caller plans normally.
+ *
+ * Uses its own AsyncPlanner, i.e., its own Planner and background thread, so speculation never
+ * cancels or delays the caller's regular planning requests.
+ */
+public class SpeculativePlanner {
+
+    private final AsyncPlanner asyncPlanner;
+    private Goal speculativeGoal; // Goal of the request in flight or finished (null if none)
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param asyncPlanner The planner used for speculation only (not shared with the regular requests).
+     */
+    public SpeculativePlanner(AsyncPlanner asyncPlanner) {
+        this.asyncPlanner = Objects.requireNonNull(asyncPlanner, "AsyncPlanner cannot be null");
+    }
+
+    /**
+     * Predicts the state after a plan for the goal has run: the state plus each action's effects in order,
+     * then the goal's conditions (the plan is meant to reach them even if no effect states them directly).
+     *
+     * @return A new WorldState; the given state is not modified.
+     */
+    public static WorldState predictEndState(WorldState state, Plan plan, Goal goal) {
+        WorldState predicted = state.copy();
+        for (Action action : plan.getActions()) {
+            predicted.applyEffects(action.getEffects());
+        }
+        for (Map.Entry<WorldStateKey, Object> condition : goal.getTargetConditions().entrySet()) {
+            predicted.setObject(condition.getKey(), condition.getValue());
+        }
+        return predicted;
+    }
+
+    /**
+     * Starts planning the next goal against a predicted state. Replaces any earlier speculation.
+     * Does nothing if that goal is already being speculated on.
+     *
+     * @param predictedState   The predicted state when the next goal becomes current (copied).
+     * @param nextGoal         The goal expected after the current one.
+     * @param availableActions The actions the planner may use.
+     */
+    public void speculate(WorldState predictedState, Goal nextGoal, List<Action> availableActions) {
+        if (nextGoal.equals(speculativeGoal)) {
+            return;
+        }
+        speculativeGoal = nextGoal;
+        asyncPlanner.submit(predictedState, nextGoal, availableActions);
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("SPECULATIVE PLANNER: Planning ahead for goal: " + nextGoal.getName());
+        }
+    }
+
+    /**
+     * Takes the speculative plan for the goal that just became current, if it is finished and valid
+     * from the real state. A speculation for this goal is consumed either way; one for another goal
+     * is kept (e.g., the current goal is set again because the stage has not advanced yet).
+     *
+     * @param goal         The new current goal.
+     * @param currentState The observed state.
+     * @return The plan to install, or null if there is none (the caller plans normally).
+     */
+    public Plan take(Goal goal, WorldState currentState) {
+        if (speculativeGoal == null || !speculativeGoal.equals(goal)) {
+            return null;
+        }
+        Plan plan = asyncPlanner.pollResult(goal);
+        speculativeGoal = null;
+        asyncPlanner.cancel(); // Still searching: too late to help
+        if (plan != null && !plan.isEmpty() && plan.isValidFrom(currentState, goal)) {
+            hits++;
+            return plan;
+        }
+        misses++;
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("SPECULATIVE PLANNER: Dropped speculation for goal: " + goal.getName());
+        }
+        return null;
+    }
+
+    /**
+     * Drops the current speculation, if any.
+     */
+    public void cancel() {
+        speculativeGoal = null;
+        asyncPlanner.cancel();
+    }
+
+    /**
+     * Cancels any speculation and stops the background thread. Call from the script's onExit().
+     */
+    public void shutdown() {
+        speculativeGoal = null;
+        asyncPlanner.shutdown();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return "SpeculativePlanner{hits=" + hits + ", misses=" + misses + "}";
+    }
+}
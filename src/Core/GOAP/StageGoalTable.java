@@ -0,0 +1,136 @@
+package Core.GOAP;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable lookup table from a stage/progress value (e.g., the tutorial varp 281) to the Goal
+ * to pursue at that stage. Each entry covers the range from its start value up to the next
+ * entry's start value. Built once, then goalFor() is a binary search over an int[] that returns
+ * a shared Goal instance, so callers can compare goals by reference and nothing is allocated per lookup.
+ *
+ * Usage:
+ * <pre>
+ * StageGoalTable table = StageGoalTable.builder()
+ *         .from(Integer.MIN_VALUE, talkToGuide)
+ *         .from(2, openSettings)
+ *         .none(1000) // Finished, no goal from here on
+ *         .build();
+ * </pre>
+ */
+public final class StageGoalTable {
+
+    private final int[] starts; // Sorted range starts
+    private final Goal[] goals; // Goal per range (null = no goal)
+
+    private StageGoalTable(int[] starts, Goal[] goals) {
+        this.starts = starts;
+        this.goals = goals;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the goal for the given stage value.
+     *
+     * @param stage The current stage value.
+     * @return The goal of the range containing the stage, or null if the range has no goal
+     *         or the stage is below the first range.
+     */
+    public Goal goalFor(int stage) {
+        int index = indexFor(stage);
+        return (index >= 0) ? goals[index] : null;
+    }
+
+    /**
+     * Returns the range containing the given stage value, e.g. to look up the goal that follows it
+     * (getGoal(index + 1)).
+     *
+     * @param stage The current stage value.
+     * @return The range index, or -1 if the stage is below the first range.
+     */
+    public int indexFor(int stage) {
+        int index = Arrays.binarySearch(starts, stage);
+        return (index >= 0) ? index : -index - 2; // Insertion point - 1 = range whose start is below the stage
+    }
+
+    /**
+     * @return The number of ranges in the table.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * @param index The range index, from 0 to size() - 1 in increasing stage order.
+     * @return The first stage value of the range.
+     */
+    public int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @param index The range index, from 0 to size() - 1 in increasing stage order.
+     * @return The goal of the range, or null if the range has no goal.
+     */
+    public Goal getGoal(int index) {
+        return goals[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("StageGoalTable{");
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(starts[i]).append("=").append(goals[i] != null ? goals[i].getName() : "none");
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Builder for StageGoalTable. Ranges must be added in strictly increasing order of their start value.
+     */
+    public static final class Builder {
+        private final List<Integer> starts = new ArrayList<>();
+        private final List<Goal> goals = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Uses the goal for every stage from 'start' (inclusive) up to the start of the next range.
+         */
+        public Builder from(int start, Goal goal) {
+            return add(start, Objects.requireNonNull(goal, "Goal cannot be null (use none())"));
+        }
+
+        /**
+         * Marks every stage from 'start' (inclusive) up to the start of the next range as having no goal.
+         */
+        public Builder none(int start) {
+            return add(start, null);
+        }
+
+        private Builder add(int start, Goal goal) {
+            if (!starts.isEmpty() && start <= starts.get(starts.size() - 1)) {
+                throw new IllegalArgumentException("Stage ranges must be added in increasing order, got " + start
+                        + " after " + starts.get(starts.size() - 1));
+            }
+            starts.add(start);
+            goals.add(goal);
+            return this;
+        }
+
+        public StageGoalTable build() {
+            int[] startArray = new int[starts.size()];
+            for (int i = 0; i < startArray.length; i++) {
+                startArray[i] = starts.get(i);
+            }
+            return new StageGoalTable(startArray, goals.toArray(new Goal[0]));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Core.GOAP;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide table of interned strings used by WorldState.
+ * String values are stored as small integer ids so that copying, comparing and hashing
+ * a WorldState never touches the strings themselves.
+ * Ids are never reused; the table only grows (tutorial values are a small, bounded set).
+ * Safe to use from the script thread and the planner thread at the same time.
+ */
+final class SymbolTable {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int size = 0; // Guarded by SymbolTable.class
+
+    private SymbolTable() {
+    }
+
+    /**
+     * Returns the id of the given string, assigning a new one if needed.
+     */
+    static int intern(String value) {
+        Integer id = IDS.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (SymbolTable.class) {
+            id = IDS.get(value);
+            if (id != null) {
+                return id;
+            }
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = value;
+            names = current; // Volatile write publishes the new entry
+            IDS.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the id of the given string, or -1 if it was never interned
+     * (in which case no WorldState can hold it).
+     */
+    static int lookup(String value) {
+        Integer id = IDS.get(value);
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns the string for an id previously returned by intern().
+     */
+    static String name(int id) {
+        return names[id];
+    }
+}
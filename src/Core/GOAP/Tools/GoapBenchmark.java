@@ -0,0 +1,311 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.ConditionSet;
+import Core.GOAP.ExecutionEngine;
+import Core.GOAP.Goal;
+import Core.GOAP.Plan;
+import Core.GOAP.Planner;
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark suite for the GOAP core: WorldState copy/equals/hashCode/satisfies, Goal.isSatisfied,
+ * Planner.plan (tutorial fixtures from TutorialIslandSimulator, synthetic chain domains and SyntheticDomain
+ * scaling steps of growing key/action counts, per search mode) and ExecutionEngine.executeNextStep.
+ *
+ * Each benchmark runs warm-up rounds, then measured rounds of a fixed duration, and reports throughput
+ * (ops/s, mean and spread over the rounds) and the bytes allocated per operation on the benchmark thread
+ * (like the JMH gc profiler's gc.alloc.rate.norm). Core logging is muted while measuring.
+ *
+ * Run with: java Core.GOAP.Tools.GoapBenchmark [roundMillis] [filter]
+ */
+public class GoapBenchmark {
+
+    /**
+     * One benchmark body: performs the operation ops times and returns a value derived from the results.
+     */
+    interface Body {
+        long run(int ops);
+    }
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final long roundNanos;
+    private final String filter;
+    private final PrintStream out;
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    GoapBenchmark(long roundMillis, String filter, PrintStream out) {
+        this.roundNanos = roundMillis * 1_000_000L;
+        this.filter = filter;
+        this.out = out;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.allocationBean = (com.sun.management.ThreadMXBean) bean;
+            this.allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.allocationBean = null; // Allocation is reported as n/a
+        }
+    }
+
+    public static void main(String[] args) {
+        long roundMillis = (args.length > 0) ? Long.parseLong(args[0]) : 1000;
+        String filter = (args.length > 1) ? args[1] : "";
+        try (QuietConsole quiet = new QuietConsole()) {
+            GoapBenchmark benchmark = new GoapBenchmark(roundMillis, filter, quiet.console());
+            benchmark.runAll();
+        }
+    }
+
+    void runAll() {
+        out.printf("%-44s %14s %12s %12s%n", "Benchmark", "ops/s", "+/- (sd)", "B/op");
+
+        // --- WorldState ---
+        TutorialIslandSimulator simulator = TutorialIslandSimulator.createDefault();
+        List<TutorialIslandSimulator.PlanningCase> cases = simulator.capturePlanningCases();
+        // Inputs cycle over the captured tutorial states so the JIT cannot hoist the work out of the loop
+        int mask = 63;
+        WorldState[] states = new WorldState[mask + 1];
+        WorldState[] copies = new WorldState[mask + 1];
+        Goal[] goals = new Goal[mask + 1];
+        ConditionSet[] conditions = new ConditionSet[mask + 1];
+        for (int i = 0; i <= mask; i++) {
+            TutorialIslandSimulator.PlanningCase planningCase = cases.get(i % cases.size());
+            states[i] = planningCase.state;
+            copies[i] = planningCase.state.copy();
+            goals[i] = planningCase.goal;
+            conditions[i] = planningCase.goal.getConditionSet();
+        }
+
+        measure("WorldState.copy", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                sink += states[i & mask].copy().longHash();
+            }
+            return sink;
+        });
+        measure("WorldState.equals", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                sink += states[i & mask].equals(copies[i & mask]) ? 1 : 0;
+            }
+            return sink;
+        });
+        measure("WorldState.hashCode", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                sink += states[i & mask].hashCode();
+            }
+            return sink;
+        });
+        measure("WorldState.satisfies(ConditionSet)", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                sink += states[i & mask].satisfies(conditions[(i + 1) & mask]) ? 1 : 0;
+            }
+            return sink;
+        });
+        measure("Goal.isSatisfied", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                sink += goals[(i + 1) & mask].isSatisfied(states[i & mask]) ? 1 : 0;
+            }
+            return sink;
+        });
+
+        // --- Planner: tutorial fixtures (one plan per goal of the run, cycled) ---
+        List<Action> tutorialDomain = simulator.createDomain();
+        for (Planner.SearchMode mode : Planner.SearchMode.values()) {
+            Planner planner = new Planner(mode);
+            measure("Planner.plan tutorial " + mode, ops -> {
+                long sink = 0;
+                for (int i = 0; i < ops; i++) {
+                    TutorialIslandSimulator.PlanningCase planningCase = cases.get(i % cases.size());
+                    sink += planSize(planner.plan(planningCase.state, planningCase.goal, tutorialDomain));
+                }
+                return sink;
+            });
+        }
+
+        // --- Planner: synthetic chain domain ---
+        int[][] shapes = {{8, 4}, {16, 8}, {32, 3}};
+        for (int[] shape : shapes) {
+            int depth = shape[0];
+            int chains = shape[1];
+            List<Action> domain = createChainDomain(depth, chains);
+            WorldState start = createChainStart(depth, chains);
+            Goal chainGoal = new Goal("ChainEnd", Collections.singletonMap(chainKey(depth, 0, depth - 1), (Object) true));
+            for (Planner.SearchMode mode : new Planner.SearchMode[]{Planner.SearchMode.A_STAR, Planner.SearchMode.REGRESSIVE}) {
+                Planner planner = new Planner(mode);
+                measure("Planner.plan chain " + depth + "x" + chains + " " + mode, ops -> {
+                    long sink = 0;
+                    for (int i = 0; i < ops; i++) {
+                        sink += planSize(planner.plan(start, chainGoal, domain));
+                    }
+                    return sink;
+                });
+            }
+        }
+
+        // --- Planner: scaling over generated domains (keys, actions) ---
+        int[][] sizes = {{16, 50}, {32, 100}, {64, 200}, {100, 400}, {100, 800}};
+        for (int[] size : sizes) {
+            SyntheticDomain domain = SyntheticDomain.generate(SyntheticDomain.params()
+                    .keys(size[0]).actions(size[1]).planDepth(8).costs(1.0, 5.0).seed(size[1]));
+            WorldState start = domain.getInitialState();
+            for (Planner.SearchMode mode : new Planner.SearchMode[]{Planner.SearchMode.A_STAR, Planner.SearchMode.REGRESSIVE}) {
+                Planner planner = new Planner(mode);
+                measure("Planner.plan synthetic k" + size[0] + " a" + size[1] + " " + mode, ops -> {
+                    long sink = 0;
+                    for (int i = 0; i < ops; i++) {
+                        sink += planSize(planner.plan(start, domain.getGoal(), domain.getActions()));
+                    }
+                    return sink;
+                });
+            }
+        }
+
+        // --- ExecutionEngine: plans of always-successful actions ---
+        List<Action> steps = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            steps.add(new StaticAction("Step" + i, Collections.<WorldStateKey, Object>emptyMap(), Collections.<WorldStateKey, Object>emptyMap(), 1.0));
+        }
+        ExecutionEngine engine = new ExecutionEngine();
+        measure("ExecutionEngine.executeNextStep", ops -> {
+            long sink = 0;
+            for (int i = 0; i < ops; i++) {
+                if (!engine.isExecuting()) {
+                    engine.setPlan(new Plan(new LinkedList<>(steps)));
+                }
+                sink += engine.executeNextStep(states[i & mask]).ordinal();
+            }
+            return sink;
+        });
+    }
+
+    private static int planSize(Plan plan) {
+        return plan != null ? plan.size() : -1;
+    }
+
+    // --- Measurement ---
+
+    void measure(String name, Body body) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        int batch = calibrate(body);
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(body, batch, null);
+        }
+        double[] opsPerSecond = new double[MEASURED_ROUNDS];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long[] bytes = new long[1];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            long ops = runRound(body, batch, bytes);
+            opsPerSecond[round] = ops * 1e9 / (System.nanoTime() - start);
+            totalOps += ops;
+            totalBytes += bytes[0];
+        }
+        double mean = 0;
+        for (double value : opsPerSecond) {
+            mean += value;
+        }
+        mean /= MEASURED_ROUNDS;
+        double variance = 0;
+        for (double value : opsPerSecond) {
+            variance += (value - mean) * (value - mean);
+        }
+        double sd = Math.sqrt(variance / (MEASURED_ROUNDS - 1));
+        String allocation = (allocationBean != null) ? String.format("%.1f", (double) totalBytes / totalOps) : "n/a";
+        out.printf("%-44s %14.1f %12.1f %12s%n", name, mean, sd, allocation);
+    }
+
+    // Batch size so that one batch takes about 1 ms (keeps System.nanoTime() overhead negligible)
+    private int calibrate(Body body) {
+        int batch = 1;
+        while (batch < (1 << 24)) {
+            long start = System.nanoTime();
+            consume(body.run(batch));
+            if (System.nanoTime() - start >= 1_000_000L) {
+                break;
+            }
+            batch *= 2;
+        }
+        return batch;
+    }
+
+    private long runRound(Body body, int batch, long[] allocatedBytes) {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = (allocationBean != null) ? allocationBean.getThreadAllocatedBytes(threadId) : 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        do {
+            consume(body.run(batch));
+            ops += batch;
+        } while (System.nanoTime() - start < roundNanos);
+        if (allocatedBytes != null) {
+            allocatedBytes[0] = (allocationBean != null) ? allocationBean.getThreadAllocatedBytes(threadId) - bytesBefore : 0;
+        }
+        return ops;
+    }
+
+    private static volatile long blackhole; // Keeps the JIT from removing the loops
+
+    private static void consume(long value) {
+        blackhole ^= value;
+    }
+
+    // --- Synthetic chain domain ---
+
+    private static final WorldStateKey[] KEYS = WorldStateKey.values();
+
+    private static WorldStateKey chainKey(int depth, int chain, int index) {
+        return KEYS[(chain * depth + index) % KEYS.length];
+    }
+
+    /**
+     * Builds chains parallel chains of depth boolean keys; action i of a chain needs key i-1 and sets key i.
+     * Only chain 0 leads to the goal; the other chains are distractors for forward search.
+     * Keys wrap around WorldStateKey when depth * chains exceeds the enum size.
+     */
+    static List<Action> createChainDomain(int depth, int chains) {
+        List<Action> actions = new ArrayList<>();
+        for (int chain = 0; chain < chains; chain++) {
+            for (int index = 0; index < depth; index++) {
+                Map<WorldStateKey, Object> pre = new HashMap<>();
+                if (index > 0) {
+                    pre.put(chainKey(depth, chain, index - 1), true);
+                }
+                pre.put(chainKey(depth, chain, index), false);
+                Map<WorldStateKey, Object> effects = Collections.singletonMap(chainKey(depth, chain, index), (Object) true);
+                actions.add(new StaticAction("Chain" + chain + "_" + index, pre, effects, 1.0));
+            }
+        }
+        return actions;
+    }
+
+    static WorldState createChainStart(int depth, int chains) {
+        WorldState start = new WorldState();
+        for (int chain = 0; chain < chains; chain++) {
+            for (int index = 0; index < depth; index++) {
+                start.setBoolean(chainKey(depth, chain, index), false);
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,378 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.ExecutionEngine;
+import Core.GOAP.Goal;
+import Core.GOAP.Plan;
+import Core.GOAP.PlanRepairer;
+import Core.GOAP.Planner;
+import Core.GOAP.StageGoalTable;
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.DreamBotWorldObserver;
+import Core.GameIntegration.GameClock;
+import Core.GameIntegration.InMemoryGameApi;
+import Core.GameIntegration.TickClock;
+import Main.TutorialIslandActions;
+import Main.TutorialIslandGoals;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.tabs.Tab;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the script's real observer and action set (DreamBotWorldObserver, TutorialIslandActions) headless,
+ * over an InMemoryGameApi that plays the survival part of Tutorial Island (stages 0 to 120).
+ *
+ * The loop is the script's: observe, determine the goal, plan if idle, execute a step within the step
+ * budget, repair after failures. Each loop is one game tick; the world answers interactions (dialogues,
+ * the door and gate, tabs, chopping, fishing, firemaking, cooking, walking) and finishes animations a few
+ * ticks later. Where the action set has no plan for a goal, or a goal stalls, the driver moves the varp on
+ * to the next goal and reports it, so one run lists every gap instead of stopping at the first.
+ *
+ * Unlike TutorialIslandSimulator (a hand-written stand-in for the whole tutorial), this exercises the
+ * actions' own perform() code, so it catches port and action bugs the simulator cannot.
+ *
+ * Run with: java Core.GOAP.Tools.HeadlessScriptDriver [maxTicks] [verbose]
+ */
+public class HeadlessScriptDriver {
+
+    private static final int LAST_STAGE = 120; // The world below ends at the survival area's exit gate
+    private static final int STALL_TICKS = 100; // Ticks on one goal before the driver gives up on it
+
+    /**
+     * Outcome of one run.
+     */
+    public static final class Report {
+        private final List<String> reached = new ArrayList<>();
+        private final List<String> unplannable = new ArrayList<>();
+        private final List<String> stalled = new ArrayList<>();
+        private int ticks;
+        private int plans;
+        private int replans;
+        private int repairs;
+        private long interactions;
+        private boolean completed;
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public List<String> getUnplannable() {
+            return unplannable;
+        }
+
+        public List<String> getStalled() {
+            return stalled;
+        }
+
+        @Override
+        public String toString() {
+            return "Headless run: " + (completed ? "reached stage " + LAST_STAGE : "stopped") + " after " + ticks + " ticks"
+                    + "\n  goals reached by the actions: " + reached.size() + " " + reached
+                    + "\n  goals without a plan (skipped): " + unplannable.size() + " " + unplannable
+                    + "\n  goals stalled (skipped): " + stalled.size() + " " + stalled
+                    + "\n  plans=" + plans + ", replans=" + replans + ", repairs=" + repairs + ", interactions=" + interactions;
+        }
+    }
+
+    /**
+     * Tick clock advanced by the driver, so action timeouts count driver ticks instead of wall time.
+     */
+    private static final class DriverClock implements TickClock {
+        private long tick = 0;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        @Override
+        public long getTickStartMillis() {
+            return 1 + tick * TICK_MILLIS; // Never 0 (see GameClock.millis())
+        }
+    }
+
+    /**
+     * The survival part of the tutorial, answering interactions the way the game does (simplified).
+     */
+    private static final class SurvivalWorld implements InMemoryGameApi.InteractionHandler {
+        private static final int DIALOGUE_LINES = 3;
+        private static final int TASK_TICKS = 4;
+
+        private final InMemoryGameApi api = new InMemoryGameApi();
+        private final InMemoryGameApi.Entity door = new InMemoryGameApi.Entity(9398, "Door", new Tile(3097, 3107, 0), "Open");
+        private final InMemoryGameApi.Entity gate = new InMemoryGameApi.Entity(9470, "Gate", new Tile(3108, 3096, 0), "Open");
+        private int stage = 0;
+        private String dialogueNpc;
+        private int dialogueLines;
+        private Tile walkTarget;
+        private int busyTicks;
+        private Runnable busyResult; // Applied one tick before the animation ends, like the game's item drop
+
+        SurvivalWorld() {
+            api.setHandler(this);
+            api.setPlayerTile(new Tile(3098, 3109, 0));
+            api.addNpc(new InMemoryGameApi.Entity(3308, "Gielinor Guide", new Tile(3094, 3107, 0), "Talk-to"));
+            api.addNpc(new InMemoryGameApi.Entity(8503, "Survival Expert", new Tile(3103, 3095, 0), "Talk-to"));
+            api.addNpc(new InMemoryGameApi.Entity(3317, "Fishing spot", new Tile(3101, 3092, 0), "Net", "Bait"));
+            api.addObject(door);
+            api.addObject(gate);
+            api.addObject(new InMemoryGameApi.Entity(1276, "Tree", new Tile(3089, 3094, 0), "Chop down"));
+            setStage(0);
+        }
+
+        /**
+         * Advances walks and animations by one tick.
+         */
+        void tick() {
+            if (walkTarget != null) {
+                api.setPlayerTile(walkTarget); // Every walk arrives on the next tick
+                api.setMoving(false);
+                walkTarget = null;
+            }
+            if (busyTicks > 0 && --busyTicks <= 1) {
+                if (busyResult != null) {
+                    busyResult.run();
+                    busyResult = null;
+                }
+                if (busyTicks == 0) {
+                    api.setAnimating(false);
+                }
+            }
+        }
+
+        void setStage(int newStage) {
+            if (stage < 20 && newStage >= 20) {
+                api.addItem(303, "Small fishing net", 1);
+            }
+            if (stage < 60 && newStage >= 60) {
+                api.addItem(1351, "Bronze axe", 1);
+                api.addItem(590, "Tinderbox", 1);
+            }
+            stage = newStage;
+            api.setVarp(281, newStage);
+        }
+
+        private void advance(int from, int to) {
+            if (stage == from) {
+                setStage(to);
+            }
+        }
+
+        private boolean startTask(int animation, Runnable result) {
+            api.setAnimation(animation);
+            busyTicks = TASK_TICKS;
+            busyResult = result;
+            return true;
+        }
+
+        @Override
+        public boolean handle(String kind, Object target, String action) {
+            switch (kind) {
+                case "walk":
+                    walkTarget = (Tile) target;
+                    api.setMoving(true);
+                    return true;
+                case "continue":
+                    if (--dialogueLines > 0) {
+                        return true;
+                    }
+                    api.setDialogue(false, false);
+                    if ("Gielinor Guide".equals(dialogueNpc)) {
+                        advance(0, 1);
+                        advance(1, 2);
+                        advance(3, 7);
+                    } else if ("Survival Expert".equals(dialogueNpc)) {
+                        advance(10, 20);
+                        advance(50, 60);
+                    }
+                    dialogueNpc = null;
+                    return true;
+                case "openTab":
+                    advance(2, 3);
+                    if (target == Tab.INVENTORY) {
+                        advance(20, 30);
+                    } else if (target == Tab.SKILLS) {
+                        advance(40, 50);
+                    }
+                    return true;
+                case "interact":
+                    return interact((InMemoryGameApi.Entity) target, action);
+                case "useOn":
+                    return useOn(target, action);
+                default:
+                    return false;
+            }
+        }
+
+        private boolean interact(InMemoryGameApi.Entity entity, String action) {
+            if ("Talk-to".equals(action)) {
+                dialogueNpc = entity.getName();
+                dialogueLines = DIALOGUE_LINES;
+                api.setDialogue(true, true);
+                return true;
+            }
+            if ("Open".equals(action) && (entity == door || entity == gate)) {
+                entity.setActions("Close");
+                if (entity == door) {
+                    advance(7, 10);
+                } else {
+                    advance(90, LAST_STAGE);
+                }
+                return true;
+            }
+            if ("Chop down".equals(action)) {
+                return startTask(879, () -> {
+                    api.addItem(1511, "Logs", 1);
+                    advance(60, 70);
+                });
+            }
+            if ("Net".equals(action)) {
+                return startTask(621, () -> {
+                    api.addItem(2514, "Raw shrimps", 1);
+                    advance(30, 40);
+                });
+            }
+            return false;
+        }
+
+        private boolean useOn(Object target, String itemName) {
+            if ("Tinderbox".equals(itemName) && "Logs".equals(target)) {
+                return startTask(733, () -> {
+                    api.removeItem("Logs");
+                    api.addObject(new InMemoryGameApi.Entity(26185, "Fire", api.player().getTile(), "Cook"));
+                    advance(70, 80);
+                });
+            }
+            if ("Raw shrimps".equals(itemName) && target instanceof InMemoryGameApi.Entity
+                    && "Fire".equals(((InMemoryGameApi.Entity) target).getName())) {
+                return startTask(897, () -> {
+                    api.removeItem("Raw shrimps");
+                    api.addItem(315, "Shrimps", 1);
+                    advance(80, 90);
+                });
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Runs the script loop until the world's last stage or the tick limit.
+     *
+     * @param maxTicks Ticks after which the run stops.
+     */
+    public Report run(int maxTicks) {
+        SurvivalWorld world = new SurvivalWorld();
+        DriverClock clock = new DriverClock();
+        TickClock previousClock = GameClock.getClock();
+        GameClock.setClock(clock);
+        try {
+            return run(world, clock, maxTicks);
+        } finally {
+            GameClock.setClock(previousClock);
+        }
+    }
+
+    private Report run(SurvivalWorld world, DriverClock clock, int maxTicks) {
+        DreamBotWorldObserver observer = new DreamBotWorldObserver(null, world.api);
+        List<Action> actions = TutorialIslandActions.create(world.api);
+        StageGoalTable table = TutorialIslandGoals.createStageTable();
+        Planner planner = new Planner(Planner.SearchMode.REGRESSIVE);
+        ExecutionEngine engine = new ExecutionEngine();
+        engine.setStepBudget(TutorialIslandActions.STEP_BUDGET_ACTIONS, Long.MAX_VALUE); // No real time passes in memory
+        PlanRepairer repairer = new PlanRepairer(new Planner(Planner.SearchMode.REGRESSIVE));
+        WorldState state = new WorldState();
+        Report report = new Report();
+
+        Goal currentGoal = null;
+        long goalStartTick = 0;
+        List<Action> failedSuffix = null; // Repaired on the next loop, against the refreshed state
+        int consecutiveRepairs = 0;
+        int tick = 0;
+        for (; tick < maxTicks; tick++) {
+            clock.tick = tick;
+            world.tick();
+            observer.updateWorldState(state);
+            int stage = state.getInteger(WorldStateKey.TUT_STAGE_ID);
+            Goal goal = table.goalFor(stage);
+            if (goal != currentGoal) {
+                if (currentGoal != null && !report.unplannable.contains(currentGoal.getName())
+                        && !report.stalled.contains(currentGoal.getName())) {
+                    report.reached.add(currentGoal.getName());
+                }
+                currentGoal = goal;
+                goalStartTick = tick;
+                engine.setPlan(null);
+                failedSuffix = null;
+            }
+            if (stage >= LAST_STAGE || goal == null) {
+                report.completed = true;
+                break;
+            }
+            if (tick - goalStartTick > STALL_TICKS) {
+                report.stalled.add(goal.getName());
+                world.setStage(nextStage(table, stage));
+                continue;
+            }
+            if (failedSuffix != null) {
+                Plan repaired = (consecutiveRepairs < 2) ? repairer.repair(state, goal, failedSuffix, actions) : null;
+                failedSuffix = null;
+                if (repaired != null) {
+                    engine.setPlan(repaired);
+                    consecutiveRepairs++;
+                    report.repairs++;
+                } else {
+                    consecutiveRepairs = 0;
+                }
+            }
+            if (!engine.isExecuting()) {
+                Plan plan = planner.plan(state, goal, actions);
+                report.plans++;
+                if (plan == null || plan.isEmpty()) {
+                    report.unplannable.add(goal.getName());
+                    world.setStage(nextStage(table, stage));
+                    continue;
+                }
+                engine.setPlan(plan);
+            }
+            ExecutionEngine.EngineStatus status = engine.executeNextStep(state);
+            if (status == ExecutionEngine.EngineStatus.REPLAN_NEEDED) {
+                report.replans++;
+                failedSuffix = engine.getFailedSuffix();
+                observer.requestFullRefresh();
+            } else if (status == ExecutionEngine.EngineStatus.PLAN_COMPLETE) {
+                consecutiveRepairs = 0;
+            }
+        }
+        report.ticks = tick;
+        report.interactions = world.api.getInteractionCount();
+        return report;
+    }
+
+    // The first stage of the table entry after the one holding the stage
+    private static int nextStage(StageGoalTable table, int stage) {
+        for (int i = 0; i < table.size(); i++) {
+            if (table.getStart(i) > stage) {
+                return table.getStart(i);
+            }
+        }
+        return LAST_STAGE;
+    }
+
+    public static void main(String[] args) {
+        int maxTicks = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000;
+        boolean verbose = (args.length > 1) && Boolean.parseBoolean(args[1]);
+
+        System.out.println("--- Headless script run (real observer and actions on InMemoryGameApi), maxTicks=" + maxTicks + " ---");
+        if (verbose) {
+            System.out.println(new HeadlessScriptDriver().run(maxTicks));
+            return;
+        }
+        try (QuietConsole quiet = new QuietConsole()) {
+            Report report = new HeadlessScriptDriver().run(maxTicks);
+            quiet.console().println(report);
+        }
+    }
+}
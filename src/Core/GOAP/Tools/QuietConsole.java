@@ -0,0 +1,46 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.GoapLog;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Mutes GoapLog and System.out/System.err until closed, so bulk runs and benchmarks measure the core
+ * without its logging; results are printed to console() instead.
+ */
+final class QuietConsole implements AutoCloseable {
+
+    private final PrintStream out = System.out;
+    private final PrintStream err = System.err;
+    private final GoapLog.Level level = GoapLog.getLevel();
+
+    QuietConsole() {
+        GoapLog.setLevel(GoapLog.Level.OFF);
+        PrintStream muted = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        System.setOut(muted);
+        System.setErr(muted);
+    }
+
+    /**
+     * @return The original System.out.
+     */
+    PrintStream console() {
+        return out;
+    }
+
+    @Override
+    public void close() {
+        System.setOut(out);
+        System.setErr(err);
+        GoapLog.setLevel(level);
+    }
+}
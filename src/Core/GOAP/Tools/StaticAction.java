@@ -0,0 +1,70 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.ActionResult;
+import Core.GOAP.ConditionSet;
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+
+import java.util.Map;
+
+/**
+ * Planning-only action with fixed preconditions, effects and cost; perform() always succeeds.
+ * Used by the benchmarks and the synthetic domain generator.
+ */
+final class StaticAction implements Action {
+
+    private final String name;
+    private final Map<WorldStateKey, Object> preconditions;
+    private final Map<WorldStateKey, Object> effects;
+    private final ConditionSet preconditionSet;
+    private final double cost;
+
+    StaticAction(String name, Map<WorldStateKey, Object> preconditions, Map<WorldStateKey, Object> effects, double cost) {
+        this.name = name;
+        this.preconditions = preconditions;
+        this.effects = effects;
+        this.preconditionSet = ConditionSet.compile(preconditions);
+        this.cost = cost;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<WorldStateKey, Object> getPreconditions() {
+        return preconditions;
+    }
+
+    @Override
+    public ConditionSet getPreconditionSet() {
+        return preconditionSet;
+    }
+
+    @Override
+    public Map<WorldStateKey, Object> getEffects() {
+        return effects;
+    }
+
+    @Override
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean isApplicable(WorldState state) {
+        return state.satisfies(preconditionSet);
+    }
+
+    @Override
+    public ActionResult perform(WorldState currentState) {
+        return ActionResult.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
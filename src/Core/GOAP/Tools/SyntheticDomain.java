@@ -0,0 +1,236 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.Goal;
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates random but solvable GOAP domains for scaling tests: an initial WorldState, a Goal and a set of
+ * Actions usable by Planner and GoapBenchmark.
+ *
+ * Generation first walks a hidden solution of planDepth actions from the initial state (each action's
+ * preconditions hold in the state it is applied to, its effects change keys to new values), takes the goal
+ * from the keys that the walk changed, then adds random distractor actions up to the requested action count
+ * and shuffles everything. planDepth is therefore an upper bound of the optimal plan length.
+ *
+ * Keys are the first N WorldStateKey constants, so N is limited by the enum size; with valuesPerKey > 2
+ * keys hold ints 0..valuesPerKey-1 instead of booleans, which widens the state space without more keys.
+ * The same parameters (including the seed) always produce the same domain.
+ */
+public final class SyntheticDomain {
+
+    /**
+     * Generation parameters (fluent setters).
+     */
+    public static final class Params {
+        int keys = 32;
+        int actions = 100;
+        int preconditionFanOut = 2;
+        int effectFanOut = 2;
+        int planDepth = 8;
+        int valuesPerKey = 2;
+        double minCost = 1.0;
+        double maxCost = 1.0;
+        long seed = 1L;
+
+        public Params keys(int keys) { this.keys = keys; return this; }
+        public Params actions(int actions) { this.actions = actions; return this; }
+        public Params preconditionFanOut(int fanOut) { this.preconditionFanOut = fanOut; return this; }
+        public Params effectFanOut(int fanOut) { this.effectFanOut = fanOut; return this; }
+        public Params planDepth(int depth) { this.planDepth = depth; return this; }
+        public Params valuesPerKey(int values) { this.valuesPerKey = values; return this; }
+        public Params costs(double min, double max) { this.minCost = min; this.maxCost = max; return this; }
+        public Params seed(long seed) { this.seed = seed; return this; }
+
+        @Override
+        public String toString() {
+            return "keys=" + keys + ", actions=" + actions + ", pre=" + preconditionFanOut + ", eff=" + effectFanOut
+                    + ", depth=" + planDepth + ", values=" + valuesPerKey + ", cost=[" + minCost + "," + maxCost + "], seed=" + seed;
+        }
+    }
+
+    private static final WorldStateKey[] ALL_KEYS = WorldStateKey.values();
+
+    // Preconditions and effects of one generated action
+    private static final class ActionSpec {
+        final Map<WorldStateKey, Object> preconditions = new HashMap<>();
+        final Map<WorldStateKey, Object> effects = new HashMap<>();
+    }
+
+    private final Params params;
+    private final List<Action> actions;
+    private final List<Action> solution;
+    private final WorldState initialState;
+    private final Goal goal;
+
+    private SyntheticDomain(Params params, List<Action> actions, List<Action> solution, WorldState initialState, Goal goal) {
+        this.params = params;
+        this.actions = actions;
+        this.solution = solution;
+        this.initialState = initialState;
+        this.goal = goal;
+    }
+
+    public static Params params() {
+        return new Params();
+    }
+
+    /**
+     * @throws IllegalArgumentException If the parameters are out of range (e.g., more keys than WorldStateKey has,
+     *                                  fan-out above the key count, fewer actions than the plan depth).
+     */
+    public static SyntheticDomain generate(Params p) {
+        if (p.keys < 1 || p.keys > ALL_KEYS.length) {
+            throw new IllegalArgumentException("keys must be between 1 and " + ALL_KEYS.length + ": " + p.keys);
+        }
+        if (p.preconditionFanOut < 0 || p.preconditionFanOut > p.keys || p.effectFanOut < 1 || p.effectFanOut > p.keys) {
+            throw new IllegalArgumentException("Fan-out out of range for " + p.keys + " keys: " + p);
+        }
+        if (p.planDepth < 1 || p.actions < p.planDepth) {
+            throw new IllegalArgumentException("Need 1 <= planDepth <= actions: " + p);
+        }
+        if (p.valuesPerKey < 2 || p.minCost <= 0 || p.maxCost < p.minCost) {
+            throw new IllegalArgumentException("Need valuesPerKey >= 2 and 0 < minCost <= maxCost: " + p);
+        }
+
+        Random random = new Random(p.seed);
+        int[] start = new int[p.keys];
+        for (int k = 0; k < p.keys; k++) {
+            start[k] = random.nextInt(p.valuesPerKey);
+        }
+
+        // Hidden solution: re-rolled in the (unlikely) case that the walk returns every key to its start value
+        List<ActionSpec> path;
+        int[] end;
+        do {
+            path = new ArrayList<>();
+            end = start.clone();
+            for (int step = 0; step < p.planDepth; step++) {
+                ActionSpec spec = new ActionSpec();
+                for (int k : pickKeys(random, p.keys, p.preconditionFanOut)) {
+                    spec.preconditions.put(ALL_KEYS[k], value(p, end[k]));
+                }
+                for (int k : pickKeys(random, p.keys, p.effectFanOut)) {
+                    end[k] = (end[k] + 1 + random.nextInt(p.valuesPerKey - 1)) % p.valuesPerKey; // Always a new value
+                    spec.effects.put(ALL_KEYS[k], value(p, end[k]));
+                }
+                path.add(spec);
+            }
+        } while (Arrays.equals(start, end));
+
+        // Goal: the keys changed by the last step that differ from the start, else any changed key
+        Map<WorldStateKey, Object> goalConditions = new HashMap<>();
+        for (Map.Entry<WorldStateKey, Object> effect : path.get(p.planDepth - 1).effects.entrySet()) {
+            int k = effect.getKey().ordinal();
+            if (end[k] != start[k]) {
+                goalConditions.put(effect.getKey(), effect.getValue());
+            }
+        }
+        if (goalConditions.isEmpty()) {
+            for (int k = 0; k < p.keys; k++) {
+                if (end[k] != start[k]) {
+                    goalConditions.put(ALL_KEYS[k], value(p, end[k]));
+                    break;
+                }
+            }
+        }
+
+        // Actions: the solution plus random distractors, shuffled and named by position
+        List<ActionSpec> specs = new ArrayList<>(path);
+        for (int i = p.planDepth; i < p.actions; i++) {
+            ActionSpec spec = new ActionSpec();
+            for (int k : pickKeys(random, p.keys, p.preconditionFanOut)) {
+                spec.preconditions.put(ALL_KEYS[k], value(p, random.nextInt(p.valuesPerKey)));
+            }
+            for (int k : pickKeys(random, p.keys, p.effectFanOut)) {
+                spec.effects.put(ALL_KEYS[k], value(p, random.nextInt(p.valuesPerKey)));
+            }
+            specs.add(spec);
+        }
+        List<Integer> shuffled = new ArrayList<>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            shuffled.add(i);
+        }
+        Collections.shuffle(shuffled, random);
+
+        Action[] byIndex = new Action[specs.size()];
+        List<Action> actions = new ArrayList<>(specs.size());
+        for (int position = 0; position < shuffled.size(); position++) {
+            int index = shuffled.get(position);
+            double cost = p.minCost + random.nextDouble() * (p.maxCost - p.minCost);
+            ActionSpec spec = specs.get(index);
+            Action action = new StaticAction("Synthetic" + position,
+                    Collections.unmodifiableMap(spec.preconditions), Collections.unmodifiableMap(spec.effects), cost);
+            byIndex[index] = action;
+            actions.add(action);
+        }
+        List<Action> solution = new ArrayList<>(p.planDepth);
+        for (int step = 0; step < p.planDepth; step++) {
+            solution.add(byIndex[step]);
+        }
+
+        WorldState initialState = new WorldState();
+        for (int k = 0; k < p.keys; k++) {
+            initialState.setObject(ALL_KEYS[k], value(p, start[k]));
+        }
+        Goal goal = new Goal("SyntheticGoal", goalConditions);
+        return new SyntheticDomain(p, Collections.unmodifiableList(actions), Collections.unmodifiableList(solution), initialState, goal);
+    }
+
+    private static Object value(Params p, int value) {
+        return (p.valuesPerKey == 2) ? (Object) (value == 1) : (Object) value;
+    }
+
+    // Picks count distinct key indexes below keys (partial Fisher-Yates)
+    private static int[] pickKeys(Random random, int keys, int count) {
+        int[] pool = new int[keys];
+        for (int i = 0; i < keys; i++) {
+            pool[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(keys - i);
+            int swap = pool[i];
+            pool[i] = pool[j];
+            pool[j] = swap;
+        }
+        return Arrays.copyOf(pool, count);
+    }
+
+    public Params getParams() {
+        return params;
+    }
+
+    /**
+     * @return All actions (solution and distractors, shuffled).
+     */
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    /**
+     * @return The hidden solution the domain was built around, in order (a valid but not necessarily optimal plan).
+     */
+    public List<Action> getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return A copy of the initial state.
+     */
+    public WorldState getInitialState() {
+        return initialState.copy();
+    }
+
+    public Goal getGoal() {
+        return goal;
+    }
+}
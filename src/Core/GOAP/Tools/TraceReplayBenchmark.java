@@ -0,0 +1,48 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.Planner;
+import Core.GOAP.TraceReplayer;
+import Core.GameIntegration.InMemoryGameApi;
+import Main.TutorialIslandActions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Replays a trace recorded by the script (-Dgoap.trace=<file>) against the script's own action set and
+ * step budget, and prints the latency report of each round.
+ *
+ * The actions are built on an InMemoryGameApi: a replay only reads their names, preconditions and effects
+ * (costs come from the trace), so no client is needed. The first rounds warm up the JIT; compare the last
+ * ones between builds.
+ *
+ * Run with: java Core.GOAP.Tools.TraceReplayBenchmark traceFile [rounds] [searchMode]
+ */
+public class TraceReplayBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java Core.GOAP.Tools.TraceReplayBenchmark traceFile [rounds] [searchMode]");
+            System.exit(2);
+        }
+        File traceFile = new File(args[0]);
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        Planner.SearchMode searchMode = (args.length > 2) ? Planner.SearchMode.valueOf(args[2]) : Planner.SearchMode.REGRESSIVE;
+
+        TraceReplayer replayer = TraceReplayer.load(traceFile);
+        List<Action> actions = TutorialIslandActions.create(new InMemoryGameApi());
+        try (QuietConsole quiet = new QuietConsole()) {
+            PrintStream out = quiet.console();
+            out.println("--- Trace replay: " + traceFile + ", " + replayer.getTickCount() + " ticks, "
+                    + replayer.getRecordedCostCount() + " recorded costs, " + actions.size() + " actions, " + searchMode + " ---");
+            for (int round = 1; round <= rounds; round++) {
+                TraceReplayer.Report report = replayer.replay(new Planner(searchMode), actions,
+                        TutorialIslandActions.STEP_BUDGET_ACTIONS, TutorialIslandActions.STEP_BUDGET_MILLIS);
+                out.println("round " + round + ": " + report);
+            }
+        }
+    }
+}
@@ -0,0 +1,891 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.Action;
+import Core.GOAP.ActionResult;
+import Core.GOAP.ExecutionEngine;
+import Core.GOAP.Goal;
+import Core.GOAP.LatencyStats;
+import Core.GOAP.Plan;
+import Core.GOAP.PlanRepairer;
+import Core.GOAP.Planner;
+import Core.GOAP.StageGoalTable;
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+import Main.TutorialIslandGoals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless Tutorial Island simulator for bulk agent runs.
+ *
+ * Drives the real goal sequence (TutorialIslandGoals.createStageTable()) end-to-end against a simulated
+ * game: varp 281 advances through the table's stages, NPC dialogues take a number of continues (one per
+ * tick), tasks (doors/gates, gathering, cooking, smithing, combat) take a number of ticks, UI steps (tabs,
+ * inventory clicks, widgets) and NPC clicks complete in the tick they are performed, and items are granted
+ * and consumed as in the tutorial. Every stage is modelled as one step; its action effects are the goal's
+ * target conditions plus the next stage ID, so the Planner and ExecutionEngine run unchanged.
+ *
+ * Steps, NPCs and doors are placed in the tutorial areas (the centers of DreamBotWorldObserver's areas),
+ * and the agent walks between areas with WalkAction: walks take ticks in proportion to the distance and
+ * declare a state-dependent cost (Action.getCost(WorldState)), so plans chain instant steps after walks
+ * and tasks (compare actionsPerTick 1 and 5) and the planners see the walk distances.
+ *
+ * Each agent owns its simulated game, action instances, Planner and ExecutionEngine, so agents run in
+ * parallel without sharing mutable state. Misclicks (a configurable per-tick failure rate) make actions
+ * fail and exercise replanning.
+ *
+ * Only the goal table is the script's own. The rest is mirrored by hand and must be kept in step with the
+ * script when it changes:
+ * - the step list (createTutorialSteps()), which follows the NPCs, items and objects of TutorialIslandActions;
+ * - the action set (WalkAction per area, TalkAction per NPC, ContinueDialogueAction or TaskAction per stage);
+ * - the area positions (AREA_POSITIONS);
+ * - the observation (SimulatedGame.observe()), which sets the keys the DreamBotWorldObserver would.
+ * It stands in for the real actions because they cannot finish the tutorial yet: some stages are TODOs
+ * and ContinueDialogue has no effects. HeadlessScriptDriver runs the real observer and actions instead.
+ *
+ * Run with: java Core.GOAP.Tools.TutorialIslandSimulator [agents] [threads] [failRate] [seed] [actionsPerTick] [repair] [searchMode]
+ */
+public class TutorialIslandSimulator {
+
+    private static final int INVENTORY_SIZE = 28;
+    private static final int TILES_PER_TICK = 2; // Running
+    private static final int UNDERGROUND_Y = 6400; // Rows above this one are underground
+    private static final String START_AREA = "Guide_Start_Area";
+
+    // Area name -> center tile (x, y), as in DreamBotWorldObserver.TUTORIAL_AREAS
+    private static final Map<String, int[]> AREA_POSITIONS = createAreaPositions();
+
+    private static Map<String, int[]> createAreaPositions() {
+        Map<String, int[]> positions = new LinkedHashMap<>();
+        positions.put("Guide_Start_Area", new int[]{3098, 3109});
+        positions.put("Survival_Fishing_Area", new int[]{3103, 3096});
+        positions.put("Survival_Cooking_Area", new int[]{3089, 3094});
+        positions.put("Cooking_Range_Area", new int[]{3076, 3084});
+        positions.put("Quest_Guide_Area", new int[]{3087, 3121});
+        positions.put("Mining_Area", new int[]{3077, 9505});
+        positions.put("Mining_Smithing_Area", new int[]{3079, 9500});
+        positions.put("Combat_Area", new int[]{3110, 9508});
+        positions.put("Bank_Area", new int[]{3123, 3125});
+        positions.put("Financial_Advisor_Area", new int[]{3126, 3128});
+        positions.put("Prayer_Area", new int[]{3123, 3118});
+        positions.put("Magic_Area", new int[]{3141, 3087});
+        return Collections.unmodifiableMap(positions);
+    }
+
+    /**
+     * @return Ticks to walk between two areas, or -1 if there is no walk (unknown area, or a different level).
+     */
+    static int walkTicks(String from, String to) {
+        int[] a = AREA_POSITIONS.get(from);
+        int[] b = AREA_POSITIONS.get(to);
+        if (a == null || b == null || (a[1] > UNDERGROUND_Y) != (b[1] > UNDERGROUND_Y)) {
+            return -1;
+        }
+        double distance = Math.sqrt((double) (a[0] - b[0]) * (a[0] - b[0]) + (double) (a[1] - b[1]) * (a[1] - b[1]));
+        return Math.max(1, (int) Math.ceil(distance / TILES_PER_TICK));
+    }
+
+    /**
+     * How one stage is completed in the simulated game: a dialogue with an NPC (ticks = lines to continue)
+     * or a task (ticks = ticks until done, 1 for a click that completes at once), with the area it is done
+     * in, the area it leaves the player in (doors, gates, ladders), and the items it requires, consumes and grants.
+     */
+    public static final class StepSpec {
+        private final String npc; // null for tasks
+        private final String taskName;
+        private final int ticks;
+        private String area; // null: anywhere (UI steps)
+        private String movesTo;
+        private WorldStateKey[] requires = new WorldStateKey[0];
+        private WorldStateKey[] consumes = new WorldStateKey[0];
+        private WorldStateKey[] grants = new WorldStateKey[0];
+
+        private StepSpec(String npc, String taskName, int ticks) {
+            this.npc = npc;
+            this.taskName = taskName;
+            this.ticks = ticks;
+        }
+
+        public static StepSpec talk(String npc, int lines) {
+            return new StepSpec(npc, null, lines);
+        }
+
+        public static StepSpec task(String name, int ticks) {
+            return new StepSpec(null, name, ticks);
+        }
+
+        /** A click in the UI (tab, inventory item, widget) that completes in the tick it is done, anywhere. */
+        public static StepSpec ui(String name) {
+            return new StepSpec(null, name, 1);
+        }
+
+        public StepSpec at(String area) {
+            this.area = area;
+            return this;
+        }
+
+        public StepSpec movesTo(String area) {
+            this.movesTo = area;
+            return this;
+        }
+
+        public StepSpec requires(WorldStateKey... items) {
+            this.requires = items;
+            return this;
+        }
+
+        public StepSpec consumes(WorldStateKey... items) {
+            this.consumes = items;
+            return this;
+        }
+
+        public StepSpec grants(WorldStateKey... items) {
+            this.grants = items;
+            return this;
+        }
+    }
+
+    // One stage of the tutorial with its planning view (preconditions/effects), shared by all agents
+    private static final class Step {
+        final int stage;
+        final StepSpec spec;
+        final Map<WorldStateKey, Object> preconditions;
+        final Map<WorldStateKey, Object> effects;
+
+        Step(int stage, int nextStage, Goal goal, StepSpec spec) {
+            this.stage = stage;
+            this.spec = spec;
+
+            Map<WorldStateKey, Object> pre = new HashMap<>();
+            pre.put(WorldStateKey.TUT_STAGE_ID, stage);
+            if (spec.npc != null) {
+                pre.put(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, true);
+                pre.put(WorldStateKey.INTERACT_NPC_NAME, spec.npc);
+            } else if (spec.area != null) {
+                pre.put(WorldStateKey.LOC_CURRENT_AREA_NAME, spec.area);
+            }
+            for (WorldStateKey item : spec.requires) {
+                pre.put(item, true);
+            }
+            Map<WorldStateKey, Object> eff = new HashMap<>(goal.getTargetConditions());
+            for (WorldStateKey item : spec.consumes) {
+                eff.put(item, false);
+            }
+            if (spec.npc != null) {
+                eff.put(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, false);
+            }
+            if (spec.movesTo != null) {
+                eff.put(WorldStateKey.LOC_CURRENT_AREA_NAME, spec.movesTo);
+            }
+            eff.put(WorldStateKey.TUT_STAGE_ID, nextStage);
+            this.preconditions = Collections.unmodifiableMap(pre);
+            this.effects = Collections.unmodifiableMap(eff);
+        }
+    }
+
+    /**
+     * A planning problem met during a run: the observed state when a goal became active, and that goal.
+     */
+    public static final class PlanningCase {
+        public final WorldState state;
+        public final Goal goal;
+
+        PlanningCase(WorldState state, Goal goal) {
+            this.state = state;
+            this.goal = goal;
+        }
+    }
+
+    /**
+     * Outcome of one simulated agent.
+     */
+    public static final class AgentResult {
+        public boolean completed;
+        public int ticks;
+        public int plans;
+        public int planFailures;
+        public int replans;
+        public int repairs; // Replans avoided by PlanRepairer
+        public final LatencyStats planLatency = new LatencyStats("plan");
+    }
+
+    /**
+     * Aggregated outcome of a bulk run.
+     */
+    public static final class Report {
+        public int agents;
+        public int completed;
+        public long plans;
+        public long planFailures;
+        public long replans;
+        public long repairs;
+        public int maxReplans;
+        public long wallNanos;
+        public final LatencyStats planLatency = new LatencyStats("plan");
+        private int[] ticksToCompletion = new int[0];
+
+        public double getPlansPerSecond() {
+            return wallNanos > 0 ? plans * 1e9 / wallNanos : 0;
+        }
+
+        /**
+         * @param percentile Between 0 and 100.
+         * @return The nearest-rank percentile of ticks to completion over the completed agents, or 0 if none completed.
+         */
+        public int getTicksPercentile(double percentile) {
+            if (ticksToCompletion.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * ticksToCompletion.length);
+            return ticksToCompletion[Math.min(Math.max(rank, 1), ticksToCompletion.length) - 1];
+        }
+
+        @Override
+        public String toString() {
+            double meanTicks = 0;
+            for (int ticks : ticksToCompletion) {
+                meanTicks += ticks;
+            }
+            meanTicks = ticksToCompletion.length > 0 ? meanTicks / ticksToCompletion.length : 0;
+            return String.format("agents=%d, completed=%d, wall=%.2fs%n"
+                            + "ticks to completion: mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d%n"
+                            + "plans=%d (%.0f plans/sec), planFailures=%d, replans=%d (%.2f/agent, max %d), repaired=%d%n%s",
+                    agents, completed, wallNanos / 1e9,
+                    meanTicks, getTicksPercentile(50), getTicksPercentile(90), getTicksPercentile(99), getTicksPercentile(100),
+                    plans, getPlansPerSecond(), planFailures, replans, agents > 0 ? (double) replans / agents : 0, maxReplans, repairs,
+                    planLatency);
+        }
+    }
+
+    private final StageGoalTable table;
+    private final Step[] steps;
+    private final WorldStateKey[] observedKeys; // Keys the simulated game writes, copied into the agent's state each tick
+    private int actionsPerTick = 1; // ExecutionEngine step budget
+    private boolean repairPlans = true; // Repair failed plans like the script does, instead of always replanning
+    private Planner.SearchMode searchMode = Planner.SearchMode.REGRESSIVE; // The script's default
+
+    /**
+     * @param table The stage -> goal table to drive.
+     * @param specs How each goal of the table is completed.
+     * @throws IllegalArgumentException If a goal of the table has no spec.
+     */
+    public TutorialIslandSimulator(StageGoalTable table, Map<Goal, StepSpec> specs) {
+        this.table = table;
+        List<Step> stepList = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            Goal goal = table.getGoal(i);
+            if (goal == null) {
+                continue;
+            }
+            StepSpec spec = specs.get(goal);
+            if (spec == null) {
+                throw new IllegalArgumentException("No simulated step for goal " + goal.getName());
+            }
+            if (spec.npc != null && spec.area == null) {
+                throw new IllegalArgumentException("No area for the NPC of goal " + goal.getName());
+            }
+            int stage = Math.max(table.getStart(i), 0); // The first range starts below the initial varp value 0
+            int nextStage = (i + 1 < table.size()) ? table.getStart(i + 1) : stage + 1;
+            stepList.add(new Step(stage, nextStage, goal, spec));
+        }
+        this.steps = stepList.toArray(new Step[0]);
+
+        Set<WorldStateKey> keys = new LinkedHashSet<>();
+        keys.add(WorldStateKey.TUT_STAGE_ID);
+        keys.add(WorldStateKey.TUT_ISLAND_COMPLETED);
+        keys.add(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN);
+        keys.add(WorldStateKey.INTERACT_NPC_NAME);
+        keys.add(WorldStateKey.INV_SPACE);
+        keys.add(WorldStateKey.LOC_CURRENT_AREA_NAME);
+        for (Step step : steps) {
+            keys.addAll(step.preconditions.keySet());
+            keys.addAll(step.effects.keySet());
+            keys.addAll(Arrays.asList(step.spec.grants));
+        }
+        this.observedKeys = keys.toArray(new WorldStateKey[0]);
+    }
+
+    /**
+     * @return A simulator for the real Tutorial Island goal table.
+     */
+    public static TutorialIslandSimulator createDefault() {
+        return new TutorialIslandSimulator(TutorialIslandGoals.createStageTable(), createTutorialSteps());
+    }
+
+    /**
+     * The simulated steps for TutorialIslandGoals, following the NPCs, items, objects and areas used by the
+     * script's actions. Tick counts are rough in-game durations of the interaction itself; walking to the
+     * step's area is a separate WalkAction.
+     */
+    public static Map<Goal, StepSpec> createTutorialSteps() {
+        Map<Goal, StepSpec> specs = new IdentityHashMap<>();
+        String guide = "Guide_Start_Area";
+        String fishing = "Survival_Fishing_Area";
+        String survivalCooking = "Survival_Cooking_Area";
+        String chef = "Cooking_Range_Area";
+        String quest = "Quest_Guide_Area";
+        String mining = "Mining_Area";
+        String smithing = "Mining_Smithing_Area";
+        String combat = "Combat_Area";
+        String bank = "Bank_Area";
+        String advisor = "Financial_Advisor_Area";
+        String prayer = "Prayer_Area";
+        String magic = "Magic_Area";
+        // S0: Start
+        specs.put(TutorialIslandGoals.TALK_TO_GUIDE, StepSpec.talk("Gielinor Guide", 4).at(guide));
+        specs.put(TutorialIslandGoals.TALK_TO_GUIDE_POST_NAME, StepSpec.talk("Gielinor Guide", 2).at(guide));
+        specs.put(TutorialIslandGoals.OPEN_SETTINGS, StepSpec.ui("OpenSettingsTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_SETTINGS, StepSpec.talk("Gielinor Guide", 3).at(guide));
+        specs.put(TutorialIslandGoals.OPEN_START_DOOR, StepSpec.task("OpenStartDoor", 2).at(guide).movesTo(fishing));
+        // S1: Survival
+        specs.put(TutorialIslandGoals.TALK_TO_SURVIVAL_EXPERT, StepSpec.talk("Survival Expert", 3).at(fishing));
+        specs.put(TutorialIslandGoals.OPEN_INVENTORY, StepSpec.ui("OpenInventoryTab")
+                .grants(WorldStateKey.S1_HAS_FISHING_NET));
+        specs.put(TutorialIslandGoals.FISH_SHRIMP, StepSpec.task("FishShrimp", 5).at(fishing)
+                .requires(WorldStateKey.S1_HAS_FISHING_NET));
+        specs.put(TutorialIslandGoals.OPEN_SKILLS_TAB, StepSpec.ui("OpenSkillsTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_SKILLS, StepSpec.talk("Survival Expert", 3).at(fishing)
+                .grants(WorldStateKey.S1_HAS_AXE, WorldStateKey.S1_HAS_TINDERBOX));
+        specs.put(TutorialIslandGoals.CUT_TREE, StepSpec.task("CutTree", 4).at(survivalCooking)
+                .requires(WorldStateKey.S1_HAS_AXE));
+        specs.put(TutorialIslandGoals.MAKE_FIRE, StepSpec.task("MakeFire", 4).at(survivalCooking)
+                .requires(WorldStateKey.S1_HAS_LOGS, WorldStateKey.S1_HAS_TINDERBOX).consumes(WorldStateKey.S1_HAS_LOGS));
+        specs.put(TutorialIslandGoals.COOK_SHRIMP, StepSpec.task("CookShrimp", 3).at(survivalCooking)
+                .requires(WorldStateKey.S1_HAS_RAW_SHRIMP, WorldStateKey.S1_IS_FIRE_LIT).consumes(WorldStateKey.S1_HAS_RAW_SHRIMP));
+        specs.put(TutorialIslandGoals.EXIT_SURVIVAL_AREA, StepSpec.task("OpenGate1", 2).at(fishing));
+        // S2: Cooking
+        specs.put(TutorialIslandGoals.ENTER_CHEF_HOUSE, StepSpec.task("OpenGate2", 2).at(fishing).movesTo(chef));
+        specs.put(TutorialIslandGoals.TALK_TO_CHEF, StepSpec.talk("Master Chef", 3).at(chef)
+                .grants(WorldStateKey.S2_HAS_FLOUR, WorldStateKey.S2_HAS_BUCKET_OF_WATER));
+        specs.put(TutorialIslandGoals.MAKE_DOUGH, StepSpec.ui("MakeDough")
+                .requires(WorldStateKey.S2_HAS_FLOUR, WorldStateKey.S2_HAS_BUCKET_OF_WATER)
+                .consumes(WorldStateKey.S2_HAS_FLOUR, WorldStateKey.S2_HAS_BUCKET_OF_WATER));
+        specs.put(TutorialIslandGoals.COOK_BREAD, StepSpec.task("CookBread", 3).at(chef)
+                .requires(WorldStateKey.S2_HAS_DOUGH).consumes(WorldStateKey.S2_HAS_DOUGH));
+        specs.put(TutorialIslandGoals.EXIT_CHEF_HOUSE, StepSpec.task("OpenChefDoor", 2).at(chef));
+        // S3: Quest / Mining / Smithing (the ladder's goal is being in the mining area)
+        specs.put(TutorialIslandGoals.TALK_TO_QUEST_GUIDE, StepSpec.talk("Quest Guide", 3).at(quest));
+        specs.put(TutorialIslandGoals.OPEN_QUEST_TAB, StepSpec.ui("OpenQuestTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_QUEST_TAB, StepSpec.talk("Quest Guide", 3).at(quest));
+        specs.put(TutorialIslandGoals.CLIMB_LADDER, StepSpec.task("ClimbDownLadder", 3).at(quest));
+        specs.put(TutorialIslandGoals.TALK_TO_MINING_INSTRUCTOR, StepSpec.talk("Mining Instructor", 4).at(mining)
+                .grants(WorldStateKey.S3_HAS_PICKAXE));
+        specs.put(TutorialIslandGoals.MINE_TIN, StepSpec.task("MineTin", 4).at(mining)
+                .requires(WorldStateKey.S3_HAS_PICKAXE));
+        specs.put(TutorialIslandGoals.MINE_COPPER, StepSpec.task("MineCopper", 4).at(mining)
+                .requires(WorldStateKey.S3_HAS_PICKAXE));
+        specs.put(TutorialIslandGoals.SMELT_BAR, StepSpec.task("SmeltBronzeBar", 3).at(smithing)
+                .requires(WorldStateKey.S3_HAS_TIN_ORE, WorldStateKey.S3_HAS_COPPER_ORE)
+                .consumes(WorldStateKey.S3_HAS_TIN_ORE, WorldStateKey.S3_HAS_COPPER_ORE));
+        specs.put(TutorialIslandGoals.TALK_AFTER_SMELTING, StepSpec.talk("Mining Instructor", 3).at(mining)
+                .grants(WorldStateKey.S3_HAS_HAMMER));
+        specs.put(TutorialIslandGoals.CLICK_ANVIL, StepSpec.task("ClickAnvil", 1).at(smithing));
+        specs.put(TutorialIslandGoals.SMITH_DAGGER, StepSpec.task("SmithDagger", 3).at(smithing)
+                .requires(WorldStateKey.S3_HAS_BRONZE_BAR, WorldStateKey.S3_HAS_HAMMER).consumes(WorldStateKey.S3_HAS_BRONZE_BAR));
+        specs.put(TutorialIslandGoals.ENTER_COMBAT_CAVE, StepSpec.task("OpenMineGate", 2).at(mining).movesTo(combat));
+        // S4: Combat
+        specs.put(TutorialIslandGoals.TALK_TO_COMBAT_INSTRUCTOR, StepSpec.talk("Combat Instructor", 3).at(combat));
+        specs.put(TutorialIslandGoals.OPEN_EQUIP_TAB, StepSpec.ui("OpenEquipmentTab"));
+        specs.put(TutorialIslandGoals.OPEN_EQUIP_STATS, StepSpec.ui("OpenEquipmentStats"));
+        specs.put(TutorialIslandGoals.EQUIP_DAGGER, StepSpec.ui("EquipDagger")
+                .requires(WorldStateKey.S3_HAS_DAGGER).consumes(WorldStateKey.S3_HAS_DAGGER));
+        specs.put(TutorialIslandGoals.TALK_AFTER_DAGGER, StepSpec.talk("Combat Instructor", 3).at(combat));
+        specs.put(TutorialIslandGoals.EQUIP_SWORD_SHIELD, StepSpec.ui("EquipSwordAndShield"));
+        specs.put(TutorialIslandGoals.OPEN_COMBAT_STYLES, StepSpec.ui("OpenCombatStyles"));
+        specs.put(TutorialIslandGoals.ENTER_RAT_CAGE, StepSpec.task("OpenRatGate", 2).at(combat));
+        specs.put(TutorialIslandGoals.ATTACK_RAT_MELEE, StepSpec.task("AttackRatMelee", 8).at(combat));
+        specs.put(TutorialIslandGoals.WAIT_FOR_RAT_MELEE_DEATH, StepSpec.task("WaitForRatDeath", 3));
+        specs.put(TutorialIslandGoals.TALK_AFTER_MELEE, StepSpec.talk("Combat Instructor", 3).at(combat)
+                .grants(WorldStateKey.S4_HAS_BOW, WorldStateKey.S4_HAS_ARROWS));
+        specs.put(TutorialIslandGoals.EQUIP_RANGED_ATTACK_RAT, StepSpec.task("AttackRatRanged", 8).at(combat)
+                .requires(WorldStateKey.S4_HAS_BOW, WorldStateKey.S4_HAS_ARROWS));
+        specs.put(TutorialIslandGoals.WAIT_FOR_RAT_RANGED_DEATH, StepSpec.task("WaitForRatDeath", 3));
+        specs.put(TutorialIslandGoals.EXIT_COMBAT_AREA, StepSpec.task("ClimbUpLadder", 3).at(combat).movesTo(bank));
+        // S5: Bank / Financial advisor
+        specs.put(TutorialIslandGoals.OPEN_BANK, StepSpec.task("OpenBank", 1).at(bank));
+        specs.put(TutorialIslandGoals.OPEN_POLL_BOOTH, StepSpec.task("OpenPollBooth", 1).at(bank));
+        specs.put(TutorialIslandGoals.TALK_TO_ADVISOR, StepSpec.talk("Account Guide", 4).at(advisor));
+        specs.put(TutorialIslandGoals.OPEN_ACCOUNT_TAB, StepSpec.ui("OpenAccountTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_ACCOUNT_TAB, StepSpec.talk("Account Guide", 3).at(advisor));
+        specs.put(TutorialIslandGoals.EXIT_ADVISOR_ROOM, StepSpec.task("OpenAdvisorDoor", 2).at(advisor));
+        // S6: Prayer
+        specs.put(TutorialIslandGoals.TALK_TO_BROTHER, StepSpec.talk("Brother Brace", 3).at(prayer));
+        specs.put(TutorialIslandGoals.OPEN_PRAYER_TAB, StepSpec.ui("OpenPrayerTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_PRAYER_TAB, StepSpec.talk("Brother Brace", 3).at(prayer));
+        specs.put(TutorialIslandGoals.OPEN_FRIENDS_LIST, StepSpec.ui("OpenFriendsTab"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_FRIENDS_LIST, StepSpec.talk("Brother Brace", 3).at(prayer));
+        specs.put(TutorialIslandGoals.EXIT_CHAPEL, StepSpec.task("OpenChurchDoor", 2).at(prayer));
+        // S7: Magic
+        specs.put(TutorialIslandGoals.TALK_TO_MAGIC_INSTRUCTOR, StepSpec.talk("Magic Instructor", 3).at(magic)
+                .grants(WorldStateKey.S7_HAS_AIR_RUNE, WorldStateKey.S7_HAS_MIND_RUNE));
+        specs.put(TutorialIslandGoals.OPEN_SPELLBOOK, StepSpec.ui("OpenSpellbook"));
+        specs.put(TutorialIslandGoals.TALK_AFTER_SPELLBOOK, StepSpec.talk("Magic Instructor", 3).at(magic));
+        specs.put(TutorialIslandGoals.KILL_CHICKEN, StepSpec.task("CastWindStrikeOnChicken", 6).at(magic)
+                .requires(WorldStateKey.S7_HAS_AIR_RUNE, WorldStateKey.S7_HAS_MIND_RUNE));
+        specs.put(TutorialIslandGoals.READY_TO_LEAVE, StepSpec.talk("Magic Instructor", 3).at(magic));
+        specs.put(TutorialIslandGoals.LEAVE_TUTORIAL, StepSpec.talk("Magic Instructor", 4).at(magic));
+        return specs;
+    }
+
+    // --- Simulated game (one per agent) ---
+
+    private final class SimulatedGame {
+        private final WorldState truth = new WorldState();
+        private final Random random;
+        private final double failRate;
+        private int stepIndex = 0;
+        private String dialogueNpc;
+        private int linesLeft;
+
+        SimulatedGame(Random random, double failRate) {
+            this.random = random;
+            this.failRate = failRate;
+            for (WorldStateKey key : observedKeys) {
+                truth.setBoolean(key, false); // Items, flags and tabs start false
+            }
+            for (Step step : steps) {
+                for (Map.Entry<WorldStateKey, Object> effect : step.effects.entrySet()) {
+                    if (!(effect.getValue() instanceof Boolean)) {
+                        truth.setObject(effect.getKey(), null); // Int/string keys are unset until a step writes them
+                    }
+                }
+            }
+            truth.setObject(WorldStateKey.INTERACT_NPC_NAME, null);
+            truth.setInteger(WorldStateKey.TUT_STAGE_ID, 0);
+            truth.setInteger(WorldStateKey.INV_SPACE, INVENTORY_SIZE);
+            truth.setString(WorldStateKey.LOC_CURRENT_AREA_NAME, START_AREA);
+        }
+
+        void observe(WorldState into) {
+            for (WorldStateKey key : observedKeys) {
+                into.setObject(key, truth.getObject(key));
+            }
+        }
+
+        Step currentStep() {
+            return stepIndex < steps.length ? steps[stepIndex] : null;
+        }
+
+        String area() {
+            return truth.getString(WorldStateKey.LOC_CURRENT_AREA_NAME);
+        }
+
+        void moveTo(String area) {
+            truth.setString(WorldStateKey.LOC_CURRENT_AREA_NAME, area);
+        }
+
+        boolean misclick() {
+            return random.nextDouble() < failRate;
+        }
+
+        void openDialogue(String npc) {
+            Step step = currentStep();
+            dialogueNpc = npc;
+            linesLeft = (step != null && npc.equals(step.spec.npc)) ? step.spec.ticks : 1; // Small talk otherwise
+            truth.setBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, true);
+            truth.setString(WorldStateKey.INTERACT_NPC_NAME, npc);
+        }
+
+        /**
+         * @return true once the dialogue has closed.
+         */
+        boolean continueDialogue() {
+            if (--linesLeft > 0) {
+                return false;
+            }
+            Step step = currentStep();
+            String npc = dialogueNpc;
+            dialogueNpc = null;
+            truth.setBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, false);
+            truth.setObject(WorldStateKey.INTERACT_NPC_NAME, null);
+            if (step != null && npc.equals(step.spec.npc)) {
+                completeStep(step);
+            }
+            return true;
+        }
+
+        boolean inDialogueWith(String npc) {
+            return npc.equals(dialogueNpc);
+        }
+
+        boolean isCurrent(Step step) {
+            return currentStep() == step;
+        }
+
+        void completeStep(Step step) {
+            truth.applyEffects(step.effects); // Goal conditions, consumed items and the next varp 281 value
+            for (WorldStateKey item : step.spec.grants) {
+                truth.setBoolean(item, true);
+            }
+            int used = 0;
+            for (WorldStateKey key : observedKeys) {
+                if (key.name().contains("_HAS_") && truth.getBoolean(key)) {
+                    used++;
+                }
+            }
+            truth.setInteger(WorldStateKey.INV_SPACE, INVENTORY_SIZE - used);
+            stepIndex++;
+        }
+    }
+
+    // --- Simulated actions (one set per agent, bound to its game) ---
+
+    private static final class WalkAction implements Action {
+        private final SimulatedGame game;
+        private final String area;
+        private final Map<WorldStateKey, Object> effects;
+        private int ticks;
+        private int progress;
+
+        WalkAction(SimulatedGame game, String area) {
+            this.game = game;
+            this.area = area;
+            this.effects = Collections.singletonMap(WorldStateKey.LOC_CURRENT_AREA_NAME, area);
+        }
+
+        @Override public String getName() { return "WalkTo_" + area; }
+        @Override public Map<WorldStateKey, Object> getPreconditions() { return Collections.emptyMap(); }
+        @Override public Set<WorldStateKey> getReadKeys() { return effects.keySet(); }
+        @Override public Map<WorldStateKey, Object> getEffects() { return effects; }
+        @Override public double getCost() { return 1.0; } // Lower bound, the planners use getCost(WorldState)
+        @Override public boolean hasStateDependentCost() { return true; }
+        @Override public void onStart() { progress = 0; ticks = walkTicks(game.area(), area); }
+
+        @Override
+        public double getCost(WorldState state) {
+            return Math.max(1, walkTicks(state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME), area));
+        }
+
+        @Override
+        public boolean isApplicable(WorldState state) {
+            String from = state.getString(WorldStateKey.LOC_CURRENT_AREA_NAME);
+            return !area.equals(from) && walkTicks(from, area) > 0;
+        }
+
+        @Override
+        public ActionResult perform(WorldState currentState) {
+            if (ticks < 0 || game.misclick()) {
+                return ActionResult.FAILURE;
+            }
+            if (++progress < ticks) {
+                return ActionResult.IN_PROGRESS;
+            }
+            game.moveTo(area);
+            return ActionResult.SUCCESS;
+        }
+    }
+
+    private static final class TalkAction implements Action {
+        private final SimulatedGame game;
+        private final String npc;
+        private final String area;
+        private final Map<WorldStateKey, Object> preconditions;
+        private final Map<WorldStateKey, Object> effects;
+
+        TalkAction(SimulatedGame game, String npc, String area) {
+            this.game = game;
+            this.npc = npc;
+            this.area = area;
+            Map<WorldStateKey, Object> pre = new HashMap<>();
+            pre.put(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, false);
+            pre.put(WorldStateKey.LOC_CURRENT_AREA_NAME, area);
+            this.preconditions = pre;
+            Map<WorldStateKey, Object> eff = new HashMap<>();
+            eff.put(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, true);
+            eff.put(WorldStateKey.INTERACT_NPC_NAME, npc);
+            this.effects = eff;
+        }
+
+        @Override public String getName() { return "TalkTo_" + npc; }
+        @Override public Map<WorldStateKey, Object> getPreconditions() { return preconditions; }
+        @Override public Map<WorldStateKey, Object> getEffects() { return effects; }
+        @Override public double getCost() { return 1.0; }
+        @Override public boolean isApplicable(WorldState state) { return state.satisfies(preconditions); }
+
+        @Override
+        public ActionResult perform(WorldState currentState) {
+            // Clicking the NPC opens the dialogue in the same tick
+            if (!area.equals(game.area()) || game.misclick()) {
+                return ActionResult.FAILURE;
+            }
+            game.openDialogue(npc);
+            return ActionResult.SUCCESS;
+        }
+    }
+
+    private static final class ContinueDialogueAction implements Action {
+        private final SimulatedGame game;
+        private final Step step;
+
+        ContinueDialogueAction(SimulatedGame game, Step step) {
+            this.game = game;
+            this.step = step;
+        }
+
+        @Override public String getName() { return "ContinueDialogue_" + step.spec.npc + "@" + step.stage; }
+        @Override public Map<WorldStateKey, Object> getPreconditions() { return step.preconditions; }
+        @Override public Map<WorldStateKey, Object> getEffects() { return step.effects; }
+        @Override public double getCost() { return step.spec.ticks; }
+        @Override public boolean isApplicable(WorldState state) { return state.satisfies(step.preconditions); }
+
+        @Override
+        public ActionResult perform(WorldState currentState) {
+            if (!game.inDialogueWith(step.spec.npc)) {
+                return ActionResult.FAILURE;
+            }
+            if (game.misclick()) {
+                return ActionResult.IN_PROGRESS; // Wasted tick, the dialogue stays open
+            }
+            return game.continueDialogue() ? ActionResult.SUCCESS : ActionResult.IN_PROGRESS;
+        }
+    }
+
+    private static final class TaskAction implements Action {
+        private final SimulatedGame game;
+        private final Step step;
+        private int progress;
+
+        TaskAction(SimulatedGame game, Step step) {
+            this.game = game;
+            this.step = step;
+        }
+
+        @Override public String getName() { return step.spec.taskName + "@" + step.stage; }
+        @Override public Map<WorldStateKey, Object> getPreconditions() { return step.preconditions; }
+        @Override public Map<WorldStateKey, Object> getEffects() { return step.effects; }
+        @Override public double getCost() { return step.spec.ticks; }
+        @Override public boolean isApplicable(WorldState state) { return state.satisfies(step.preconditions); }
+        @Override public void onStart() { progress = 0; }
+
+        @Override
+        public ActionResult perform(WorldState currentState) {
+            if (!game.isCurrent(step) || (step.spec.area != null && !step.spec.area.equals(game.area())) || game.misclick()) {
+                return ActionResult.FAILURE;
+            }
+            if (++progress < step.spec.ticks) {
+                return ActionResult.IN_PROGRESS;
+            }
+            game.completeStep(step);
+            return ActionResult.SUCCESS;
+        }
+    }
+
+    private List<Action> createActions(SimulatedGame game) {
+        List<Action> actions = new ArrayList<>();
+        Map<String, String> npcAreas = new LinkedHashMap<>();
+        for (Step step : steps) {
+            if (step.spec.npc != null) {
+                npcAreas.putIfAbsent(step.spec.npc, step.spec.area);
+                actions.add(new ContinueDialogueAction(game, step));
+            } else {
+                actions.add(new TaskAction(game, step));
+            }
+        }
+        for (Map.Entry<String, String> npc : npcAreas.entrySet()) {
+            actions.add(new TalkAction(game, npc.getKey(), npc.getValue()));
+        }
+        for (String area : AREA_POSITIONS.keySet()) {
+            actions.add(new WalkAction(game, area));
+        }
+        return actions;
+    }
+
+    // --- Running agents ---
+
+    /**
+     * Runs one agent through the tutorial with the script's loop: observe, determine goal, plan if idle, execute one step.
+     *
+     * @param seed     Seed of the agent's misclick source.
+     * @param failRate Probability that an action attempt misclicks in a tick.
+     * @param maxTicks Ticks after which the agent gives up.
+     */
+    public AgentResult runAgent(long seed, double failRate, int maxTicks) {
+        return runAgent(seed, failRate, maxTicks, null);
+    }
+
+    /**
+     * Runs one agent without misclicks and returns the planning problem of every goal along the way,
+     * in tutorial order (fixtures for benchmarks).
+     */
+    public List<PlanningCase> capturePlanningCases() {
+        List<PlanningCase> cases = new ArrayList<>();
+        runAgent(0, 0.0, 20_000, cases);
+        return cases;
+    }
+
+    /**
+     * Lets each agent's engine chain up to this many successful actions per tick (see ExecutionEngine.setStepBudget).
+     */
+    public void setActionsPerTick(int actionsPerTick) {
+        if (actionsPerTick < 1) {
+            throw new IllegalArgumentException("actionsPerTick must be at least 1: " + actionsPerTick);
+        }
+        this.actionsPerTick = actionsPerTick;
+    }
+
+    /**
+     * Enables or disables plan repair after failures (see PlanRepairer); when disabled every failure is a full replan.
+     */
+    public void setRepairPlans(boolean repairPlans) {
+        this.repairPlans = repairPlans;
+    }
+
+    /**
+     * Sets the planners' search mode (default REGRESSIVE, like the script).
+     */
+    public void setSearchMode(Planner.SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    /**
+     * @return A fresh action set bound to its own simulated game, for planning-only use (benchmarks).
+     */
+    public List<Action> createDomain() {
+        return createActions(new SimulatedGame(new Random(0), 0.0));
+    }
+
+    private AgentResult runAgent(long seed, double failRate, int maxTicks, List<PlanningCase> capture) {
+        SimulatedGame game = new SimulatedGame(new Random(seed), failRate);
+        List<Action> actions = createActions(game);
+        Planner planner = new Planner(searchMode);
+        ExecutionEngine engine = new ExecutionEngine();
+        engine.setStepBudget(actionsPerTick, Long.MAX_VALUE); // Simulated actions take no real time
+        WorldState state = new WorldState();
+        AgentResult result = new AgentResult();
+        PlanRepairer repairer = repairPlans ? new PlanRepairer(new Planner(searchMode)) : null;
+        int consecutiveRepairs = 0; // Capped like in the script
+        List<Action> failedSuffix = null; // Repaired on the next tick, after observing, like in the script
+
+        Goal currentGoal = null;
+        int tick = 0;
+        for (; tick < maxTicks; tick++) {
+            game.observe(state);
+            Goal goal = table.goalFor(state.getInteger(WorldStateKey.TUT_STAGE_ID));
+            if (goal == null) {
+                result.completed = state.getBoolean(WorldStateKey.TUT_ISLAND_COMPLETED);
+                break;
+            }
+            if (goal != currentGoal) {
+                currentGoal = goal;
+                engine.setPlan(null);
+                failedSuffix = null;
+                if (capture != null) {
+                    capture.add(new PlanningCase(state.copy(), goal));
+                }
+            }
+            if (failedSuffix != null) {
+                Plan repaired = (consecutiveRepairs < 2) ? repairer.repair(state, goal, failedSuffix, actions) : null;
+                failedSuffix = null;
+                if (repaired != null) {
+                    engine.setPlan(repaired);
+                    consecutiveRepairs++;
+                    result.repairs++;
+                } else {
+                    consecutiveRepairs = 0;
+                }
+            }
+            if (!engine.isExecuting()) {
+                long start = System.nanoTime();
+                Plan plan = planner.plan(state, goal, actions);
+                result.planLatency.add(System.nanoTime() - start);
+                result.plans++;
+                if (plan == null || plan.isEmpty()) {
+                    result.planFailures++;
+                    continue;
+                }
+                engine.setPlan(plan);
+            }
+            ExecutionEngine.EngineStatus status = engine.executeNextStep(state);
+            if (status == ExecutionEngine.EngineStatus.REPLAN_NEEDED) {
+                result.replans++;
+                failedSuffix = (repairer != null) ? engine.getFailedSuffix() : null;
+            } else if (status == ExecutionEngine.EngineStatus.PLAN_COMPLETE) {
+                consecutiveRepairs = 0;
+            }
+        }
+        result.ticks = tick;
+        return result;
+    }
+
+    /**
+     * Runs agents in parallel and aggregates their results.
+     *
+     * @param agents   Number of simulated agents.
+     * @param threads  Worker threads.
+     * @param failRate Per-tick misclick probability.
+     * @param seed     Base seed; agent i uses seed + i.
+     * @param maxTicks Per-agent tick limit.
+     */
+    public Report run(int agents, int threads, double failRate, long seed, int maxTicks) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Report report = new Report();
+        report.agents = agents;
+        long start = System.nanoTime();
+        try {
+            List<Future<AgentResult>> futures = new ArrayList<>(agents);
+            for (int i = 0; i < agents; i++) {
+                final long agentSeed = seed + i;
+                futures.add(pool.submit(() -> runAgent(agentSeed, failRate, maxTicks)));
+            }
+            int[] ticks = new int[agents];
+            for (Future<AgentResult> future : futures) {
+                AgentResult result = future.get();
+                report.plans += result.plans;
+                report.planFailures += result.planFailures;
+                report.replans += result.replans;
+                report.repairs += result.repairs;
+                report.maxReplans = Math.max(report.maxReplans, result.replans);
+                report.planLatency.addAll(result.planLatency);
+                if (result.completed) {
+                    ticks[report.completed++] = result.ticks;
+                }
+            }
+            report.ticksToCompletion = Arrays.copyOf(ticks, report.completed);
+            Arrays.sort(report.ticksToCompletion);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulated agent failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        report.wallNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    public static void main(String[] args) {
+        int agents = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double failRate = (args.length > 2) ? Double.parseDouble(args[2]) : 0.02;
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 42L;
+        int actionsPerTick = (args.length > 4) ? Integer.parseInt(args[4]) : 1;
+        boolean repairPlans = (args.length <= 5) || Boolean.parseBoolean(args[5]);
+        Planner.SearchMode searchMode = (args.length > 6) ? Planner.SearchMode.valueOf(args[6]) : Planner.SearchMode.REGRESSIVE;
+
+        TutorialIslandSimulator simulator = createDefault();
+        simulator.setActionsPerTick(actionsPerTick);
+        simulator.setRepairPlans(repairPlans);
+        simulator.setSearchMode(searchMode);
+        System.out.println("--- Tutorial Island Simulation: " + agents + " agents, " + threads + " threads, failRate=" + failRate
+                + ", actionsPerTick=" + actionsPerTick + ", repair=" + repairPlans + ", " + searchMode + " ---");
+        try (QuietConsole quiet = new QuietConsole()) {
+            Report report = simulator.run(agents, threads, failRate, seed, 20_000);
+            quiet.console().println(report);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package Core.GOAP.Tools;
+
+import Core.GOAP.*;
+
+import java.util.*;
+
+/**
+ * Micro-benchmark for WorldState hashing on the planner's hot path
+ * (copy a state, apply one action's effects, hash the successor).
+ * Compares the incremental Zobrist hash against a full recompute and against
+ * the old HashMap-backed path (Objects.hash over the whole state map).
+ * Run with: java Core.GOAP.Tools.WorldStateHashBenchmark [iterations]
+ */
+public class WorldStateHashBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+
+        // --- Build a state that looks like a mid-tutorial snapshot ---
+        WorldStateKey[] keys = WorldStateKey.values();
+        WorldState state = new WorldState();
+        Map<WorldStateKey, Object> mapState = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            Object value;
+            if (i % 3 == 0) value = (i % 2 == 0);
+            else if (i % 3 == 1) value = i * 7;
+            else value = "value_" + i;
+            state.setObject(keys[i], value);
+            mapState.put(keys[i], value);
+        }
+
+        // A handful of small effect maps, like typical actions
+        List<Map<WorldStateKey, Object>> effects = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Map<WorldStateKey, Object> effect = new HashMap<>();
+            effect.put(keys[(i * 5) % keys.length], (i % 2 == 0));
+            effect.put(keys[(i * 11 + 3) % keys.length], i);
+            effects.add(effect);
+        }
+
+        // Sanity check: the incremental hash always matches a full recompute
+        WorldState check = state.copy();
+        for (Map<WorldStateKey, Object> effect : effects) {
+            check.applyEffects(effect);
+            if (check.longHash() != check.computeFullHash()) {
+                throw new IllegalStateException("Incremental hash diverged from full recompute");
+            }
+        }
+
+        System.out.println("--- WorldState hash benchmark (" + keys.length + " keys, " + iterations + " successors) ---");
+        for (int round = 1; round <= 3; round++) { // First rounds double as JIT warm-up
+            System.out.println("Round " + round + ":");
+            report("incremental (hashCode)", runIncremental(state, effects, iterations), iterations);
+            report("full recompute", runFullRecompute(state, effects, iterations), iterations);
+            report("HashMap Objects.hash", runMapHash(mapState, effects, iterations), iterations);
+        }
+    }
+
+    private static long runIncremental(WorldState state, List<Map<WorldStateKey, Object>> effects, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WorldState next = state.copy();
+            next.applyEffects(effects.get(i & 7));
+            sink += next.hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return elapsed;
+    }
+
+    private static long runFullRecompute(WorldState state, List<Map<WorldStateKey, Object>> effects, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WorldState next = state.copy();
+            next.applyEffects(effects.get(i & 7));
+            sink += next.computeFullHash();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return elapsed;
+    }
+
+    private static long runMapHash(Map<WorldStateKey, Object> mapState, List<Map<WorldStateKey, Object>> effects, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Map<WorldStateKey, Object> next = new HashMap<>(mapState);
+            next.putAll(effects.get(i & 7));
+            sink += Objects.hash(next);
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return elapsed;
+    }
+
+    private static void report(String label, long elapsedNanos, int iterations) {
+        System.out.printf("  %-24s %8.1f ns/successor%n", label, (double) elapsedNanos / iterations);
+    }
+
+    private static volatile long blackhole; // Keeps the JIT from removing the loops
+
+    private static void consume(long value) {
+        blackhole ^= value;
+    }
+}
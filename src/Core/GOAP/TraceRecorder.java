@@ -0,0 +1,167 @@
+package Core.GOAP;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Records a session as a trace file for offline replay (see TraceReplayer): per tick the observed
+ * WorldState as a delta against the previous tick, the active goal when it changes, and the results
+ * of the actions performed in that tick. The action costs the session planned with are recorded once,
+ * so a replay does not have to ask the actions again.
+ *
+ * Format (UTF-8, one record per line, tab separated):
+ * <pre>
+ * C  actionName  cost                       action cost (before the first tick)
+ * T  millisSinceStart                       start of a tick
+ * S  KEY  type  value                       key changed (type B/I/S), or "S KEY -" when removed
+ * G  name  KEY  type  value  ...            goal changed (name followed by its conditions)
+ * R  actionName  RESULT                     action result of this tick (one per action, in order, when the engine chains)
+ * </pre>
+ * Only boolean, integer and string values are recorded; other object values are skipped.
+ * Not thread-safe: call it from the script thread.
+ */
+public class TraceRecorder implements Closeable {
+
+    public static final String HEADER = "# GOAP trace v1";
+    private static final WorldStateKey[] KEYS = WorldStateKey.values();
+
+    private final Writer out;
+    private final long startMillis = System.currentTimeMillis();
+    private final Object[] previous = new Object[KEYS.length]; // Last recorded value per key
+    private Goal lastGoal;
+    private long ticks = 0;
+
+    public TraceRecorder(Writer out) throws IOException {
+        this.out = Objects.requireNonNull(out, "Writer cannot be null");
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    /**
+     * Opens a recorder writing to the given file (overwritten).
+     */
+    public static TraceRecorder open(File file) throws IOException {
+        return new TraceRecorder(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Records the cost of every action as snapshotted by the index. Call once, before the first tick.
+     *
+     * @param actionIndex The index of the session's action set.
+     */
+    public void recordCosts(ActionIndex actionIndex) throws IOException {
+        for (Action action : actionIndex.getActions()) {
+            out.write("C\t" + escape(action.getName()) + "\t" + actionIndex.getCost(action) + "\n");
+        }
+    }
+
+    /**
+     * Starts a tick and records the keys that changed since the previous tick.
+     *
+     * @param state The WorldState as observed this tick.
+     */
+    public void recordTick(WorldState state) throws IOException {
+        ticks++;
+        out.write("T\t" + (System.currentTimeMillis() - startMillis) + "\n");
+        for (WorldStateKey key : KEYS) {
+            Object value = recordable(state.getObject(key));
+            int i = key.ordinal();
+            if (!Objects.equals(value, previous[i])) {
+                previous[i] = value;
+                out.write("S\t" + key.name() + "\t" + (value == null ? "-" : encode(value)) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Records the active goal if it differs from the last recorded one (by reference).
+     */
+    public void recordGoal(Goal goal) throws IOException {
+        if (goal == null || goal == lastGoal) {
+            return;
+        }
+        lastGoal = goal;
+        StringBuilder line = new StringBuilder("G\t").append(escape(goal.getName()));
+        for (Map.Entry<WorldStateKey, Object> condition : goal.getTargetConditions().entrySet()) {
+            Object value = recordable(condition.getValue());
+            if (value != null) {
+                line.append('\t').append(condition.getKey().name()).append('\t').append(encode(value));
+            }
+        }
+        out.write(line.append('\n').toString());
+    }
+
+    /**
+     * Records the result of an action performed this tick (call once per action, in order).
+     */
+    public void recordResult(String actionName, ActionResult result) throws IOException {
+        if (actionName == null || result == null) {
+            return;
+        }
+        out.write("R\t" + escape(actionName) + "\t" + result.name() + "\n");
+    }
+
+    public long getTickCount() {
+        return ticks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static Object recordable(Object value) {
+        return (value instanceof Boolean || value instanceof Integer || value instanceof String) ? value : null;
+    }
+
+    // "type<TAB>value"
+    private static String encode(Object value) {
+        if (value instanceof Boolean) {
+            return "B\t" + value;
+        }
+        if (value instanceof Integer) {
+            return "I\t" + value;
+        }
+        return "S\t" + escape((String) value);
+    }
+
+    static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
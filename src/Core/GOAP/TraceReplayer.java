@@ -0,0 +1,301 @@
+package Core.GOAP;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays a trace written by TraceRecorder through a Planner and ExecutionEngine at full speed,
+ * measuring per-tick and per-plan latency.
+ *
+ * The whole trace is parsed up front, so file I/O is not part of the measurement. Each tick applies
+ * the recorded WorldState delta, switches goal if one was recorded, plans when the engine is idle and
+ * the goal is not satisfied, and executes one engine step (chaining within the given step budget, like
+ * the script). Actions are wrapped so perform() never touches the game: the n-th action performed in a
+ * tick returns the n-th result recorded for that tick if the recorded action has the same name, otherwise
+ * SUCCESS (such ticks are counted as divergent, e.g., when the planner now picks a different action than
+ * in the recorded session). getCost() answers from the costs recorded in the trace; actions without a
+ * recorded cost (e.g., added since) use their getCost() read once before the replay starts, so the
+ * planner never calls into the live actions while it is measured.
+ */
+public class TraceReplayer {
+
+    // One parsed tick of the trace
+    private static final class Tick {
+        final List<WorldStateKey> keys = new ArrayList<>(4);
+        final List<Object> values = new ArrayList<>(4); // null = removed
+        Goal goal;                                      // null = unchanged
+        final List<String> actionNames = new ArrayList<>(1); // Results in the order the actions ran
+        final List<ActionResult> results = new ArrayList<>(1);
+    }
+
+    /**
+     * Latency distributions and counters of one replay run.
+     */
+    public static final class Report {
+        public final LatencyStats tickLatency = new LatencyStats("tick");
+        public final LatencyStats planLatency = new LatencyStats("plan");
+        public int plansFound = 0;
+        public int plansFailed = 0;
+        public int divergentTicks = 0;
+
+        @Override
+        public String toString() {
+            return "Replay{" + tickLatency + ", " + planLatency + ", plansFound=" + plansFound
+                    + ", plansFailed=" + plansFailed + ", divergentTicks=" + divergentTicks + '}';
+        }
+    }
+
+    private final List<Tick> ticks;
+    private final Map<String, Double> recordedCosts; // Action name -> cost recorded by the session
+
+    private TraceReplayer(List<Tick> ticks, Map<String, Double> recordedCosts) {
+        this.ticks = ticks;
+        this.recordedCosts = recordedCosts;
+    }
+
+    public static TraceReplayer load(File file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a trace.
+     *
+     * @throws IOException If reading fails or the trace is malformed.
+     */
+    public static TraceReplayer parse(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        String header = reader.readLine();
+        if (!TraceRecorder.HEADER.equals(header)) {
+            throw new IOException("Not a GOAP trace (header: " + header + ")");
+        }
+        List<Tick> ticks = new ArrayList<>();
+        Map<String, Double> costs = new HashMap<>();
+        Tick current = null;
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            try {
+                if (fields[0].equals("C")) {
+                    costs.put(TraceRecorder.unescape(fields[1]), Double.valueOf(fields[2]));
+                    continue;
+                }
+                if (fields[0].equals("T")) {
+                    current = new Tick();
+                    ticks.add(current);
+                    continue;
+                }
+                if (current == null) {
+                    throw new IOException("Record before the first tick");
+                }
+                switch (fields[0]) {
+                    case "S":
+                        current.keys.add(WorldStateKey.valueOf(fields[1]));
+                        current.values.add(fields[2].equals("-") ? null : decode(fields[2], fields[3]));
+                        break;
+                    case "G":
+                        Map<WorldStateKey, Object> conditions = new HashMap<>();
+                        for (int i = 2; i + 2 < fields.length; i += 3) {
+                            conditions.put(WorldStateKey.valueOf(fields[i]), decode(fields[i + 1], fields[i + 2]));
+                        }
+                        current.goal = new Goal(TraceRecorder.unescape(fields[1]), conditions);
+                        break;
+                    case "R":
+                        current.actionNames.add(TraceRecorder.unescape(fields[1]));
+                        current.results.add(ActionResult.valueOf(fields[2]));
+                        break;
+                    default:
+                        throw new IOException("Unknown record type '" + fields[0] + "'");
+                }
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Malformed trace at line " + lineNumber + ": " + line, e);
+            }
+        }
+        return new TraceReplayer(ticks, costs);
+    }
+
+    private static Object decode(String type, String value) {
+        switch (type) {
+            case "B": return Boolean.valueOf(value);
+            case "I": return Integer.valueOf(value);
+            case "S": return TraceRecorder.unescape(value);
+            default: throw new IllegalArgumentException("Unknown value type " + type);
+        }
+    }
+
+    public int getTickCount() {
+        return ticks.size();
+    }
+
+    /**
+     * @return The number of action costs recorded in the trace.
+     */
+    public int getRecordedCostCount() {
+        return recordedCosts.size();
+    }
+
+    /**
+     * Replays the trace once, one action per engine step.
+     *
+     * @param planner          The planner under test.
+     * @param availableActions The action set (only names, preconditions and effects are used).
+     * @return The latency report.
+     */
+    public Report replay(Planner planner, List<Action> availableActions) {
+        return replay(planner, availableActions, 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Replays the trace once with the step budget the recorded session used (see ExecutionEngine.setStepBudget).
+     *
+     * @param planner          The planner under test.
+     * @param availableActions The action set (only names, preconditions and effects are used).
+     * @param maxActions       The most actions chained per engine step.
+     * @param maxMillis        The time after which no further action is chained in the same step.
+     * @return The latency report.
+     */
+    public Report replay(Planner planner, List<Action> availableActions, int maxActions, long maxMillis) {
+        Report report = new Report();
+        WorldState state = new WorldState();
+        ExecutionEngine engine = new ExecutionEngine();
+        engine.setStepBudget(maxActions, maxMillis);
+        Tick[] currentTick = new Tick[1];
+        int[] nextResult = new int[1]; // Index of the recorded result the next perform() answers with
+        boolean[] diverged = new boolean[1];
+
+        List<Action> replayActions = new ArrayList<>(availableActions.size());
+        for (Action action : availableActions) {
+            Double cost = recordedCosts.get(action.getName());
+            replayActions.add(new ReplayAction(action, (cost != null) ? cost : action.getCost(), currentTick, nextResult, diverged));
+        }
+
+        Goal goal = null;
+        for (Tick tick : ticks) {
+            currentTick[0] = tick;
+            nextResult[0] = 0;
+            diverged[0] = false;
+            for (int i = 0; i < tick.keys.size(); i++) {
+                state.setObject(tick.keys.get(i), tick.values.get(i));
+            }
+
+            long tickStart = System.nanoTime();
+            if (tick.goal != null && !tick.goal.equals(goal)) {
+                goal = tick.goal;
+                engine.setPlan(null);
+            }
+            if (goal != null && !engine.isExecuting() && !goal.isSatisfied(state)) {
+                long planStart = System.nanoTime();
+                Plan plan = planner.plan(state, goal, replayActions);
+                report.planLatency.add(System.nanoTime() - planStart);
+                if (plan != null) {
+                    report.plansFound++;
+                    engine.setPlan(plan);
+                } else {
+                    report.plansFailed++;
+                }
+            }
+            if (engine.isExecuting()) {
+                engine.executeNextStep(state);
+            }
+            report.tickLatency.add(System.nanoTime() - tickStart);
+            if (diverged[0]) {
+                report.divergentTicks++;
+            }
+        }
+        return report;
+    }
+
+    // Delegates the planning data to the real action; getCost() and perform() answer from the trace
+    private static final class ReplayAction implements Action {
+        private final Action delegate;
+        private final double cost;
+        private final Tick[] currentTick;
+        private final int[] nextResult;
+        private final boolean[] diverged;
+
+        ReplayAction(Action delegate, double cost, Tick[] currentTick, int[] nextResult, boolean[] diverged) {
+            this.delegate = delegate;
+            this.cost = cost;
+            this.currentTick = currentTick;
+            this.nextResult = nextResult;
+            this.diverged = diverged;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Map<WorldStateKey, Object> getPreconditions() {
+            return delegate.getPreconditions();
+        }
+
+        @Override
+        public ConditionSet getPreconditionSet() {
+            return delegate.getPreconditionSet();
+        }
+
+        @Override
+        public Set<WorldStateKey> getReadKeys() {
+            return delegate.getReadKeys();
+        }
+
+        @Override
+        public Map<WorldStateKey, Object> getEffects() {
+            return delegate.getEffects();
+        }
+
+        @Override
+        public double getCost() {
+            return cost;
+        }
+
+        @Override
+        public boolean hasStateDependentCost() {
+            return delegate.hasStateDependentCost();
+        }
+
+        @Override
+        public double getCost(WorldState state) {
+            return delegate.getCost(state);
+        }
+
+        @Override
+        public boolean isApplicable(WorldState state) {
+            return delegate.isApplicable(state);
+        }
+
+        @Override
+        public ActionResult perform(WorldState currentState) {
+            Tick tick = currentTick[0];
+            int index = nextResult[0]++;
+            if (index < tick.results.size() && delegate.getName().equals(tick.actionNames.get(index))) {
+                return tick.results.get(index);
+            }
+            diverged[0] = true;
+            return ActionResult.SUCCESS;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -1,55 +1,125 @@
 package Core.GOAP; // Or your preferred package structure
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * Represents the current state of the game world as perceived by the GOAP agent.
- * It uses a Map with WorldStateKey enums as keys for type safety and consistency.
+ * Values are stored in primitive arrays indexed by WorldStateKey.ordinal():
+ * booleans in a long[] bitset, integers in an int[], strings as interned symbol ids in the same int[].
+ * Any other value type (Tile, ActionResult, ...) falls back to an Object[] slot.
+ * A separate "is set" mask keeps the difference between a missing key and a false/0 value,
+ * so copy() is an array clone and equals() is an array compare.
+ *
+ * A 64-bit Zobrist-style hash is maintained incrementally: every key/value pair contributes
+ * a mixed 64-bit value that is XORed in when set and XORed out when cleared, so hashing a
+ * successor state only costs the number of changed keys. Values stored via setObject()
+ * must not change their own hashCode() while they are in a WorldState.
  */
 public class WorldState {
 
-    private final Map<WorldStateKey, Object> state;
+    private static final WorldStateKey[] KEYS = WorldStateKey.values();
+    private static final int WORDS = (KEYS.length + 63) >>> 6;
+    private static final long[] KEY_SEEDS = createKeySeeds(); // Random 64-bit seed per key (fixed across runs)
+
+    // Kind of value stored for a key
+    private static final byte UNSET = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INTEGER = 2;
+    private static final byte STRING = 3;
+    private static final byte OBJECT = 4;
+
+    private final long[] setMask;     // Bit per key: the key has a value
+    private final long[] booleanBits; // Bit per key: the boolean value (always 0 unless kind is BOOLEAN)
+    private final long[] booleanMask; // Bit per key: kind is BOOLEAN
+    private final byte[] kinds;       // Value kind per key
+    private final int[] values;       // INTEGER value or STRING symbol id per key (0 otherwise)
+    private Object[] objects;         // OBJECT values per key, allocated on first use
+    private long zobrist;             // XOR of contribution() over all set keys
 
     public WorldState() {
-        this.state = new HashMap<>();
+        this.setMask = new long[WORDS];
+        this.booleanBits = new long[WORDS];
+        this.booleanMask = new long[WORDS];
+        this.kinds = new byte[KEYS.length];
+        this.values = new int[KEYS.length];
+        this.objects = null;
+    }
+
+    private WorldState(WorldState other) {
+        this.setMask = other.setMask.clone();
+        this.booleanBits = other.booleanBits.clone();
+        this.booleanMask = other.booleanMask.clone();
+        this.kinds = other.kinds.clone();
+        this.values = other.values.clone();
+        this.objects = (other.objects != null) ? other.objects.clone() : null;
+        this.zobrist = other.zobrist;
+    }
+
+    private static long[] createKeySeeds() {
+        SplittableRandom random = new SplittableRandom(0x60A9L);
+        long[] seeds = new long[KEYS.length];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
     }
 
     // --- Boolean Accessors ---
 
     public boolean getBoolean(WorldStateKey key) {
         // Return false if key doesn't exist or is not a Boolean
-        return (boolean) state.getOrDefault(key, false);
+        int i = key.ordinal();
+        return (booleanBits[i >>> 6] & (1L << i)) != 0;
     }
 
     public void setBoolean(WorldStateKey key, boolean value) {
-        state.put(key, value);
+        int i = key.ordinal();
+        clear(i);
+        kinds[i] = BOOLEAN;
+        setMask[i >>> 6] |= 1L << i;
+        booleanMask[i >>> 6] |= 1L << i;
+        if (value) {
+            booleanBits[i >>> 6] |= 1L << i;
+        }
+        zobrist ^= contribution(i);
     }
 
     // --- Integer Accessors ---
 
     public int getInteger(WorldStateKey key) {
         // Return 0 if key doesn't exist or is not an Integer
-        return (int) state.getOrDefault(key, 0);
+        int i = key.ordinal();
+        return (kinds[i] == INTEGER) ? values[i] : 0;
     }
 
     public void setInteger(WorldStateKey key, int value) {
-        state.put(key, value);
+        int i = key.ordinal();
+        clear(i);
+        kinds[i] = INTEGER;
+        setMask[i >>> 6] |= 1L << i;
+        values[i] = value;
+        zobrist ^= contribution(i);
     }
 
     // --- String Accessors ---
 
     public String getString(WorldStateKey key) {
         // Return null if key doesn't exist or is not a String
-        return (String) state.get(key); // Allow null for strings
+        int i = key.ordinal();
+        return (kinds[i] == STRING) ? SymbolTable.name(values[i]) : null; // Allow null for strings
     }
 
     public void setString(WorldStateKey key, String value) {
-        if (value == null) {
-            state.remove(key); // Or handle nulls as needed
-        } else {
-            state.put(key, value);
+        int i = key.ordinal();
+        clear(i);
+        if (value != null) { // Null removes the key
+            kinds[i] = STRING;
+            setMask[i >>> 6] |= 1L << i;
+            values[i] = SymbolTable.intern(value);
+            zobrist ^= contribution(i);
         }
     }
 
@@ -57,15 +127,105 @@ public class WorldState {
     // Useful for complex types like Tile, Area, or custom Enums if needed
 
     public Object getObject(WorldStateKey key) {
-        return state.get(key);
+        int i = key.ordinal();
+        switch (kinds[i]) {
+            case BOOLEAN: return getBoolean(key);
+            case INTEGER: return values[i];
+            case STRING: return SymbolTable.name(values[i]);
+            case OBJECT: return objects[i];
+            default: return null;
+        }
     }
 
     public void setObject(WorldStateKey key, Object value) {
-        if (value == null) {
-            state.remove(key);
+        // Route known types to their compact storage so equality does not depend on which setter was used
+        if (value instanceof Boolean) {
+            setBoolean(key, (Boolean) value);
+        } else if (value instanceof Integer) {
+            setInteger(key, (Integer) value);
+        } else if (value instanceof String) {
+            setString(key, (String) value);
         } else {
-            state.put(key, value);
+            int i = key.ordinal();
+            clear(i);
+            if (value != null) {
+                if (objects == null) {
+                    objects = new Object[KEYS.length];
+                }
+                kinds[i] = OBJECT;
+                setMask[i >>> 6] |= 1L << i;
+                objects[i] = value;
+                zobrist ^= contribution(i);
+            }
+        }
+    }
+
+    /**
+     * Checks if a value is stored for the given key.
+     */
+    public boolean has(WorldStateKey key) {
+        int i = key.ordinal();
+        return (setMask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** Resets a key slot to "missing". */
+    private void clear(int i) {
+        if (kinds[i] == UNSET) {
+            return;
+        }
+        zobrist ^= contribution(i); // Remove the old value from the hash
+        long bit = 1L << i;
+        setMask[i >>> 6] &= ~bit;
+        booleanBits[i >>> 6] &= ~bit;
+        booleanMask[i >>> 6] &= ~bit;
+        kinds[i] = UNSET;
+        values[i] = 0;
+        if (objects != null) {
+            objects[i] = null;
+        }
+    }
+
+    // --- Hashing ---
+
+    /**
+     * Hash contribution of the key slot i with its current value.
+     * Only meaningful for set keys.
+     */
+    private long contribution(int i) {
+        long valueBits;
+        switch (kinds[i]) {
+            case BOOLEAN: valueBits = getBoolean(KEYS[i]) ? 1L : 0L; break;
+            case INTEGER:
+            case STRING: valueBits = values[i]; break;
+            case OBJECT: valueBits = objects[i].hashCode(); break;
+            default: return 0L;
         }
+        long z = KEY_SEEDS[i] + kinds[i] * 0x9E3779B97F4A7C15L + valueBits * 0xC2B2AE3D27D4EB4FL;
+        // SplitMix64 finalizer
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the incrementally maintained 64-bit hash of this state. O(1).
+     */
+    public long longHash() {
+        return zobrist;
+    }
+
+    /**
+     * Recomputes the 64-bit hash from scratch over all set keys.
+     * Always equal to longHash(); exists for verification and benchmarking.
+     */
+    public long computeFullHash() {
+        long hash = 0L;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (kinds[i] != UNSET) {
+                hash ^= contribution(i);
+            }
+        }
+        return hash;
     }
 
     // --- State Management ---
@@ -82,46 +242,148 @@ public class WorldState {
             return true; // No conditions means it's satisfied
         }
         for (Map.Entry<WorldStateKey, Object> entry : conditions.entrySet()) {
-            WorldStateKey key = entry.getKey();
-            Object requiredValue = entry.getValue();
-            Object actualValue = state.get(key);
-
-            // If the key doesn't exist in the current state, it cannot satisfy the condition
-            // unless the required value is specifically null (which is less common).
-            // For simplicity, we often assume keys must exist and match.
-            // Let's refine this: if a condition requires a specific value, the key must exist and match.
-            // If a condition requires a key *not* to exist, that's harder to model directly here,
-            // often handled by checking for a default value (like false for boolean, 0 for int).
-
-            if (!state.containsKey(key)) {
-                // Special case: if the condition requires 'false' and the key is missing, treat as false.
-                if (requiredValue instanceof Boolean && !((Boolean) requiredValue)) {
-                    continue; // Condition satisfied (key missing implies false)
-                }
-                // Special case: if the condition requires 0 and the key is missing, treat as 0.
-                if (requiredValue instanceof Integer && ((Integer) requiredValue) == 0) {
-                    continue; // Condition satisfied (key missing implies 0)
-                }
-                return false; // Key required by condition is missing
+            if (!conditionMet(entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true; // All conditions were met
+    }
+
+    /**
+     * Counts how many of the given conditions are NOT met in this WorldState.
+     * Uses the same matching rules as satisfies(). Used by planner heuristics.
+     *
+     * @param conditions A map representing the conditions to check.
+     * @return The number of unmet conditions (0 if all are met or the map is empty).
+     */
+    public int countUnsatisfied(Map<WorldStateKey, Object> conditions) {
+        if (conditions == null || conditions.isEmpty()) {
+            return 0;
+        }
+        int unsatisfied = 0;
+        for (Map.Entry<WorldStateKey, Object> entry : conditions.entrySet()) {
+            if (!conditionMet(entry.getKey(), entry.getValue())) {
+                unsatisfied++;
             }
+        }
+        return unsatisfied;
+    }
 
+    /**
+     * Checks a compiled condition set against this WorldState.
+     * Same result as satisfies(conditions.asMap()), without walking a map.
+     *
+     * @param conditions The compiled conditions (e.g., Goal.getConditionSet() or Action.getPreconditionSet()).
+     * @return true if all conditions are met in this WorldState, false otherwise.
+     */
+    public boolean satisfies(ConditionSet conditions) {
+        if (conditions == null) {
+            return true;
+        }
+        for (int w = 0; w < WORDS; w++) {
+            // Required true: must be a boolean holding true (booleanBits is only set for BOOLEAN kinds)
+            if ((booleanBits[w] & conditions.requireTrue[w]) != conditions.requireTrue[w]) return false;
+            // Required false: missing is fine, a set key must be a boolean holding false
+            long setNonFalse = booleanBits[w] | (setMask[w] & ~booleanMask[w]);
+            if ((setNonFalse & conditions.requireFalse[w]) != 0) return false;
+        }
+        int[] intKeys = conditions.intKeys;
+        for (int n = 0; n < intKeys.length; n++) {
+            int i = intKeys[n];
+            int expected = conditions.intValues[n];
+            if (kinds[i] == INTEGER ? values[i] != expected : (kinds[i] != UNSET || expected != 0)) return false;
+        }
+        int[] stringKeys = conditions.stringKeys;
+        for (int n = 0; n < stringKeys.length; n++) {
+            int i = stringKeys[n];
+            if (kinds[i] != STRING || values[i] != conditions.stringSymbols[n]) return false;
+        }
+        WorldStateKey[] objectKeys = conditions.objectKeys;
+        for (int n = 0; n < objectKeys.length; n++) {
+            if (!conditionMet(objectKeys[n], conditions.objectValues[n])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts how many of the compiled conditions are NOT met in this WorldState.
+     * Same result as countUnsatisfied(conditions.asMap()).
+     *
+     * @param conditions The compiled conditions.
+     * @return The number of unmet conditions.
+     */
+    public int countUnsatisfied(ConditionSet conditions) {
+        if (conditions == null) {
+            return 0;
+        }
+        int unsatisfied = 0;
+        for (int w = 0; w < WORDS; w++) {
+            unsatisfied += Long.bitCount(conditions.requireTrue[w] & ~booleanBits[w]);
+            long setNonFalse = booleanBits[w] | (setMask[w] & ~booleanMask[w]);
+            unsatisfied += Long.bitCount(conditions.requireFalse[w] & setNonFalse);
+        }
+        int[] intKeys = conditions.intKeys;
+        for (int n = 0; n < intKeys.length; n++) {
+            int i = intKeys[n];
+            int expected = conditions.intValues[n];
+            if (kinds[i] == INTEGER ? values[i] != expected : (kinds[i] != UNSET || expected != 0)) unsatisfied++;
+        }
+        int[] stringKeys = conditions.stringKeys;
+        for (int n = 0; n < stringKeys.length; n++) {
+            int i = stringKeys[n];
+            if (kinds[i] != STRING || values[i] != conditions.stringSymbols[n]) unsatisfied++;
+        }
+        WorldStateKey[] objectKeys = conditions.objectKeys;
+        for (int n = 0; n < objectKeys.length; n++) {
+            if (!conditionMet(objectKeys[n], conditions.objectValues[n])) unsatisfied++;
+        }
+        return unsatisfied;
+    }
 
-            if (!Objects.equals(actualValue, requiredValue)) {
-                return false; // Values don't match
+    /**
+     * Checks a single condition against this WorldState.
+     */
+    private boolean conditionMet(WorldStateKey key, Object requiredValue) {
+        int i = key.ordinal();
+        byte kind = kinds[i];
+        // If the key doesn't exist in the current state, it cannot satisfy the condition
+        // unless the required value is a default (false for boolean, 0 for int).
+        // If a condition requires a key *not* to exist, that's harder to model directly here,
+        // often handled by checking for a default value (like false for boolean, 0 for int).
+        if (kind == UNSET) {
+            // Special case: if the condition requires 'false' and the key is missing, treat as false.
+            if (requiredValue instanceof Boolean && !((Boolean) requiredValue)) {
+                return true; // Condition satisfied (key missing implies false)
+            }
+            // Special case: if the condition requires 0 and the key is missing, treat as 0.
+            if (requiredValue instanceof Integer && ((Integer) requiredValue) == 0) {
+                return true; // Condition satisfied (key missing implies 0)
             }
+            return false; // Key required by condition is missing
         }
-        return true; // All conditions were met
+        if (requiredValue instanceof Boolean) {
+            return kind == BOOLEAN && getBoolean(key) == (Boolean) requiredValue;
+        }
+        if (requiredValue instanceof Integer) {
+            return kind == INTEGER && values[i] == (Integer) requiredValue;
+        }
+        if (requiredValue instanceof String) {
+            return kind == STRING && values[i] == SymbolTable.lookup((String) requiredValue);
+        }
+        return kind == OBJECT && Objects.equals(objects[i], requiredValue);
     }
 
     /**
      * Applies the effects (changes) defined in a map to this WorldState.
-     * Used by the Planner during state expansion.
+     * Used by the Planner during state expansion. A null value removes the key.
      *
      * @param effects A map representing the changes to apply.
      */
     public void applyEffects(Map<WorldStateKey, Object> effects) {
         if (effects != null) {
-            state.putAll(effects);
+            for (Map.Entry<WorldStateKey, Object> entry : effects.entrySet()) {
+                setObject(entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -129,13 +391,10 @@ public class WorldState {
      * Creates a deep copy of this WorldState. Necessary for the planner
      * to explore different state branches without modifying the original state.
      *
-     * @return A new WorldState instance with a copy of the internal map.
+     * @return A new WorldState instance with copies of the internal arrays.
      */
     public WorldState copy() {
-        WorldState newState = new WorldState();
-        // Create a new HashMap by copying the entries from the current state
-        newState.state.putAll(this.state);
-        return newState;
+        return new WorldState(this);
     }
 
 
@@ -146,14 +405,29 @@ public class WorldState {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         WorldState that = (WorldState) o;
-        // Two world states are equal if their internal maps are equal.
-        return Objects.equals(state, that.state);
+        if (zobrist != that.zobrist) return false; // Cheap reject before comparing arrays
+        // Two world states are equal if the same keys hold the same values.
+        return Arrays.equals(setMask, that.setMask)
+                && Arrays.equals(booleanBits, that.booleanBits)
+                && Arrays.equals(kinds, that.kinds)
+                && Arrays.equals(values, that.values)
+                && objectsEqual(that);
+    }
+
+    private boolean objectsEqual(WorldState that) {
+        if (objects == null && that.objects == null) return true;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (kinds[i] == OBJECT && !Objects.equals(objects[i], that.objects[i])) {
+                return false; // Kinds already match here, so that.objects is allocated
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        // Hash code is based on the internal map's hash code.
-        return Objects.hash(state);
+        // Folded incremental hash, no iteration over keys
+        return (int) (zobrist ^ (zobrist >>> 32));
     }
 
     // --- Debugging ---
@@ -161,8 +435,10 @@ public class WorldState {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("WorldState{\\n");
-        for (Map.Entry<WorldStateKey, Object> entry : state.entrySet()) {
-            sb.append("  ").append(entry.getKey()).append(" = ").append(entry.getValue()).append("\\n");
+        for (WorldStateKey key : KEYS) {
+            if (has(key)) {
+                sb.append("  ").append(key).append(" = ").append(getObject(key)).append("\\n");
+            }
         }
         sb.append("}");
         return sb.toString();
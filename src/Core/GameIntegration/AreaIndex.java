@@ -0,0 +1,165 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.map.Area;
+import org.dreambot.api.methods.map.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index answering "which named area contains this tile" without scanning every area.
+ * The map is divided into a uniform grid of 16x16 tile cells per plane; each cell lists
+ * the areas whose bounding box overlaps it, so a lookup is one hash probe plus Area.contains() on the
+ * few candidates of that cell. Lookups allocate nothing.
+ *
+ * Built once from a name -> Area map (e.g., TUTORIAL_AREAS or the WalkerNode destinations) and immutable
+ * afterwards, so it can be shared between threads. When areas overlap, the one that came first in the map wins.
+ */
+public class AreaIndex {
+
+    private static final int CELL_SHIFT = 4; // 16x16 tile cells
+
+    private final String[] names;
+    private final Area[] areas;
+    private final Map<Area, String> namesByArea = new IdentityHashMap<>();
+
+    // Open-addressing table: cell key -> candidate areas (indices into names/areas, in map order)
+    private final long[] cellKeys;
+    private final int[][] cellAreas;
+    private final int cellMask;
+
+    /**
+     * Builds the index.
+     *
+     * @param namedAreas The areas to index, by name. Iteration order decides which area wins on overlap.
+     */
+    public AreaIndex(Map<String, Area> namedAreas) {
+        int count = namedAreas.size();
+        this.names = new String[count];
+        this.areas = new Area[count];
+
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<String, Area> entry : namedAreas.entrySet()) {
+            names[i] = entry.getKey();
+            areas[i] = entry.getValue();
+            namesByArea.put(entry.getValue(), entry.getKey());
+            addToCells(cells, entry.getValue(), i);
+            i++;
+        }
+
+        // Power of two capacity, at most half full
+        int capacity = Integer.highestOneBit(Math.max(cells.size(), 1) * 2) * 2;
+        this.cellKeys = new long[capacity];
+        this.cellAreas = new int[capacity][];
+        this.cellMask = capacity - 1;
+        for (Map.Entry<Long, List<Integer>> cell : cells.entrySet()) {
+            List<Integer> indices = cell.getValue();
+            int[] candidates = new int[indices.size()];
+            for (int c = 0; c < candidates.length; c++) {
+                candidates[c] = indices.get(c);
+            }
+            int slot = slotOf(cell.getKey());
+            cellKeys[slot] = cell.getKey();
+            cellAreas[slot] = candidates;
+        }
+    }
+
+    // Registers the area in every cell overlapped by its bounding box (per plane it covers)
+    private static void addToCells(Map<Long, List<Integer>> cells, Area area, int index) {
+        Tile[] tiles = area.getTiles();
+        if (tiles == null || tiles.length == 0) {
+            return;
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        boolean[] planes = new boolean[4];
+        for (Tile tile : tiles) {
+            minX = Math.min(minX, tile.getX());
+            minY = Math.min(minY, tile.getY());
+            maxX = Math.max(maxX, tile.getX());
+            maxY = Math.max(maxY, tile.getY());
+            planes[tile.getZ() & 3] = true;
+        }
+        for (int z = 0; z < planes.length; z++) {
+            if (!planes[z]) continue;
+            for (int cx = minX >> CELL_SHIFT; cx <= maxX >> CELL_SHIFT; cx++) {
+                for (int cy = minY >> CELL_SHIFT; cy <= maxY >> CELL_SHIFT; cy++) {
+                    List<Integer> list = cells.get(cellKey(cx, cy, z));
+                    if (list == null) {
+                        list = new ArrayList<>(2);
+                        cells.put(cellKey(cx, cy, z), list);
+                    }
+                    list.add(index);
+                }
+            }
+        }
+    }
+
+    // Non-zero for every valid cell, so 0 can mark an empty slot
+    private static long cellKey(int cellX, int cellY, int plane) {
+        return ((long) (plane + 1) << 48) | ((long) (cellX & 0xFFFFFF) << 24) | (cellY & 0xFFFFFF);
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h >>> 32) & cellMask;
+        while (cellKeys[slot] != 0 && cellKeys[slot] != key) {
+            slot = (slot + 1) & cellMask; // Linear probing
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the named area containing the tile.
+     *
+     * @param tile The tile (plane-aware).
+     * @return The area name, or null if no indexed area contains the tile.
+     */
+    public String nameAt(Tile tile) {
+        if (tile == null) {
+            return null;
+        }
+        int[] candidates = candidatesAt(tile);
+        if (candidates == null) {
+            return null;
+        }
+        for (int index : candidates) {
+            if (areas[index].contains(tile)) {
+                return names[index];
+            }
+        }
+        return null;
+    }
+
+    private int[] candidatesAt(Tile tile) {
+        long key = cellKey(tile.getX() >> CELL_SHIFT, tile.getY() >> CELL_SHIFT, tile.getZ() & 3);
+        int slot = slotOf(key);
+        return cellKeys[slot] == key ? cellAreas[slot] : null;
+    }
+
+    /**
+     * Reverse lookup: the name an Area instance was registered under.
+     *
+     * @param area An Area instance from the source map.
+     * @return The name, or null if the area is not indexed.
+     */
+    public String nameOf(Area area) {
+        return area != null ? namesByArea.get(area) : null;
+    }
+
+    /**
+     * @return The number of indexed areas.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AreaIndex{areas=" + Arrays.toString(names) + '}';
+    }
+}
@@ -0,0 +1,387 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.input.Keyboard;
+import org.dreambot.api.methods.container.impl.Inventory;
+import org.dreambot.api.methods.container.impl.bank.Bank;
+import org.dreambot.api.methods.container.impl.equipment.Equipment;
+import org.dreambot.api.methods.dialogues.Dialogues;
+import org.dreambot.api.methods.interactive.GameObjects;
+import org.dreambot.api.methods.interactive.NPCs;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.magic.Magic;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.prayer.Prayer;
+import org.dreambot.api.methods.prayer.Prayers;
+import org.dreambot.api.methods.settings.PlayerSettings;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.api.methods.skills.Skills;
+import org.dreambot.api.methods.tabs.Tab;
+import org.dreambot.api.methods.tabs.Tabs;
+import org.dreambot.api.methods.walking.impl.Walking;
+import org.dreambot.api.methods.widget.Widgets;
+import org.dreambot.api.methods.widget.helpers.Smithing;
+import org.dreambot.api.utilities.Sleep;
+import org.dreambot.api.wrappers.interactive.Character;
+import org.dreambot.api.wrappers.interactive.Entity;
+import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.api.wrappers.interactive.NPC;
+import org.dreambot.api.wrappers.interactive.Player;
+import org.dreambot.api.wrappers.items.Item;
+import org.dreambot.api.wrappers.widgets.Widget;
+import org.dreambot.api.wrappers.widgets.WidgetChild;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * GameApi backed by the live DreamBot client (the static DreamBot APIs).
+ * Call it from the script thread, like the APIs it wraps (closest() reuses one wrapper while filtering).
+ */
+public class DreamBotGameApi implements GameApi {
+
+    /**
+     * EntityRef over a DreamBot GameObject or NPC. getEntity() gives actions access to the wrapped instance.
+     */
+    public static final class DreamBotEntity implements EntityRef {
+        private Entity entity;
+
+        DreamBotEntity(Entity entity) {
+            this.entity = entity;
+        }
+
+        public Entity getEntity() {
+            return entity;
+        }
+
+        @Override
+        public int getId() {
+            return entity.getID();
+        }
+
+        @Override
+        public String getName() {
+            return entity.getName();
+        }
+
+        @Override
+        public Tile getTile() {
+            return entity.getTile();
+        }
+
+        @Override
+        public boolean hasAction(String action) {
+            return entity.hasAction(action);
+        }
+
+        @Override
+        public boolean exists() {
+            return entity.exists();
+        }
+
+        @Override
+        public boolean isOnScreen() {
+            return entity.isOnScreen();
+        }
+
+        @Override
+        public boolean isInCombat() {
+            return entity instanceof Character && ((Character) entity).isInCombat();
+        }
+
+        @Override
+        public int getHealthPercent() {
+            return (entity instanceof Character) ? ((Character) entity).getHealthPercent() : 100;
+        }
+
+        @Override
+        public boolean interact(String action) {
+            return entity.interact(action);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DreamBotEntity && entity.equals(((DreamBotEntity) o).entity);
+        }
+
+        @Override
+        public int hashCode() {
+            return entity.hashCode();
+        }
+    }
+
+    private static Entity unwrap(EntityRef ref) {
+        return (ref instanceof DreamBotEntity) ? ((DreamBotEntity) ref).getEntity() : null;
+    }
+
+    private final PlayerApi player = new PlayerApi() {
+        @Override
+        public Tile getTile() {
+            Player local = Players.getLocal();
+            return local != null ? local.getTile() : null;
+        }
+
+        @Override
+        public boolean isMoving() {
+            Player local = Players.getLocal();
+            return local != null && local.isMoving();
+        }
+
+        @Override
+        public boolean isAnimating() {
+            Player local = Players.getLocal();
+            return local != null && local.isAnimating();
+        }
+
+        @Override
+        public int getAnimation() {
+            Player local = Players.getLocal();
+            return local != null ? local.getAnimation() : -1;
+        }
+
+        @Override
+        public boolean isInCombat() {
+            Player local = Players.getLocal();
+            return local != null && local.isInCombat();
+        }
+
+        @Override
+        public EntityRef getInteracting() {
+            Player local = Players.getLocal();
+            Character interacting = (local != null) ? local.getInteractingCharacter() : null;
+            return (interacting != null) ? new DreamBotEntity(interacting) : null;
+        }
+
+        @Override
+        public int getVarp(int varpId) {
+            return PlayerSettings.getConfig(varpId);
+        }
+
+        @Override
+        public int getRealLevel(Skill skill) {
+            return Skills.getRealLevel(skill);
+        }
+
+        @Override
+        public int getBoostedLevel(Skill skill) {
+            return Skills.getBoostedLevel(skill);
+        }
+
+        @Override
+        public boolean isAnyPrayerActive() {
+            for (Prayer prayer : Prayer.values()) {
+                if (Prayers.isActive(prayer)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private final InventoryApi inventory = new InventoryApi() {
+        @Override
+        public void readSlots(SlotVisitor visitor) {
+            List<Item> items = Inventory.all();
+            if (items == null) {
+                return;
+            }
+            for (Item item : items) {
+                if (item != null) {
+                    visitor.visit(item.getSlot(), item.getID(), item.getName(), item.getAmount());
+                }
+            }
+        }
+
+        @Override
+        public String getEquippedName(int equipmentSlot) {
+            Item item = Equipment.getItemInSlot(equipmentSlot);
+            return item != null ? item.getName() : null;
+        }
+
+        @Override
+        public boolean isEquipped(String itemName) {
+            return Equipment.contains(itemName);
+        }
+
+        @Override
+        public boolean interact(String itemName, String action) {
+            Item item = Inventory.get(itemName);
+            return item != null && item.interact(action);
+        }
+
+        @Override
+        public boolean useOn(String itemName, String targetItemName) {
+            Item item = Inventory.get(itemName);
+            Item target = Inventory.get(targetItemName);
+            return item != null && target != null && item.useOn(target);
+        }
+
+        @Override
+        public boolean useOn(String itemName, EntityRef target) {
+            Item item = Inventory.get(itemName);
+            Entity entity = unwrap(target);
+            return item != null && entity != null && item.useOn(entity);
+        }
+
+        @Override
+        public int count(String itemName) {
+            return Inventory.count(itemName);
+        }
+
+        @Override
+        public boolean contains(String itemName) {
+            return Inventory.contains(itemName);
+        }
+
+        @Override
+        public boolean isFull() {
+            return Inventory.isFull();
+        }
+    };
+
+    private final EntitiesApi objects = new EntitiesApi() {
+        private final DreamBotEntity candidate = new DreamBotEntity(null); // Reused while filtering
+
+        @Override
+        public EntityRef closest(Predicate<EntityRef> filter) {
+            GameObject match = GameObjects.closest(o -> o != null && test(candidate, o, filter));
+            return match != null ? new DreamBotEntity(match) : null;
+        }
+    };
+
+    private final EntitiesApi npcs = new EntitiesApi() {
+        private final DreamBotEntity candidate = new DreamBotEntity(null); // Reused while filtering
+
+        @Override
+        public EntityRef closest(Predicate<EntityRef> filter) {
+            NPC match = NPCs.closest(n -> n != null && test(candidate, n, filter));
+            return match != null ? new DreamBotEntity(match) : null;
+        }
+    };
+
+    private static boolean test(DreamBotEntity candidate, Entity entity, Predicate<EntityRef> filter) {
+        candidate.entity = entity;
+        return filter.test(candidate);
+    }
+
+    private final WidgetsApi widgets = new WidgetsApi() {
+        @Override
+        public boolean isTabOpen(Tab tab) {
+            return Tabs.isOpen(tab);
+        }
+
+        @Override
+        public boolean openTab(Tab tab) {
+            return Tabs.open(tab);
+        }
+
+        @Override
+        public boolean isWidgetVisible(int widgetId) {
+            Widget widget = Widgets.getWidget(widgetId);
+            return widget != null && widget.isVisible();
+        }
+
+        @Override
+        public boolean isChildVisible(int[] path) {
+            WidgetChild child = Widgets.get(path);
+            return child != null && child.isVisible();
+        }
+
+        @Override
+        public boolean interactChild(int[] path, String action) {
+            WidgetChild child = Widgets.get(path);
+            return child != null && child.isVisible() && child.interact(action);
+        }
+
+        @Override
+        public boolean smith(String itemName, int amount) {
+            return amount == -1 ? Smithing.makeAll(itemName) : Smithing.make(itemName, amount);
+        }
+
+        @Override
+        public boolean isBankOpen() {
+            return Bank.isOpen();
+        }
+
+        @Override
+        public boolean inDialogue() {
+            return Dialogues.inDialogue();
+        }
+
+        @Override
+        public boolean canContinueDialogue() {
+            return Dialogues.canContinue();
+        }
+
+        @Override
+        public boolean continueDialogue() {
+            return Dialogues.continueDialogue();
+        }
+    };
+
+    private final WalkingApi walking = Walking::walk;
+
+    private final InputApi input = Keyboard::type;
+
+    private final MagicApi magic = (spell, target) -> {
+        Entity entity = unwrap(target);
+        return entity != null && Magic.castSpellOn(spell, entity);
+    };
+
+    private final SleepApi sleep = new SleepApi() {
+        @Override
+        public void sleep(long millis) {
+            Sleep.sleep(millis);
+        }
+
+        @Override
+        public boolean sleepUntil(BooleanSupplier condition, long timeoutMillis) {
+            return Sleep.sleepUntil(condition::getAsBoolean, timeoutMillis);
+        }
+    };
+
+    @Override
+    public PlayerApi player() {
+        return player;
+    }
+
+    @Override
+    public InventoryApi inventory() {
+        return inventory;
+    }
+
+    @Override
+    public EntitiesApi objects() {
+        return objects;
+    }
+
+    @Override
+    public EntitiesApi npcs() {
+        return npcs;
+    }
+
+    @Override
+    public WidgetsApi widgets() {
+        return widgets;
+    }
+
+    @Override
+    public WalkingApi walking() {
+        return walking;
+    }
+
+    @Override
+    public InputApi input() {
+        return input;
+    }
+
+    @Override
+    public MagicApi magic() {
+        return magic;
+    }
+
+    @Override
+    public SleepApi sleep() {
+        return sleep;
+    }
+}
@@ -0,0 +1,37 @@
+package Core.GameIntegration;
+
+import Core.GOAP.GoapLog;
+import Core.GOAP.LogSink;
+import Utils.CustomLogger;
+import org.dreambot.api.utilities.Logger;
+
+/**
+ * Bridges GoapLog to the DreamBot client log. By default messages go through CustomLogger, which
+ * forwards them to DreamBot's Logger and keeps the last message for the paint.
+ * Wrap it in an AsyncLogSink so the script thread does not wait on the client logger.
+ */
+public class DreamBotLogSink implements LogSink {
+
+    private final boolean viaCustomLogger;
+
+    public DreamBotLogSink() {
+        this(true);
+    }
+
+    /**
+     * @param viaCustomLogger true to log through CustomLogger, false to call DreamBot's Logger directly.
+     */
+    public DreamBotLogSink(boolean viaCustomLogger) {
+        this.viaCustomLogger = viaCustomLogger;
+    }
+
+    @Override
+    public void write(GoapLog.Level level, String message) {
+        String line = (level.compareTo(GoapLog.Level.WARN) >= 0) ? "[" + level + "] " + message : message;
+        if (viaCustomLogger) {
+            CustomLogger.log(line);
+        } else {
+            Logger.log(line);
+        }
+    }
+}
@@ -1,43 +1,39 @@
 package Core.GameIntegration;
 
+import Core.GOAP.GoapLog;
 import Core.GOAP.WorldState;
 import Core.GOAP.WorldStateKey;
-import org.dreambot.api.methods.container.impl.Inventory;
-import org.dreambot.api.methods.container.impl.bank.Bank;
-import org.dreambot.api.methods.container.impl.equipment.Equipment;
-import org.dreambot.api.methods.container.impl.equipment.EquipmentSlot;
-import org.dreambot.api.methods.dialogues.Dialogues;
-import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.Players;
 import org.dreambot.api.methods.map.Area;
 import org.dreambot.api.methods.map.Tile;
-import org.dreambot.api.methods.prayer.Prayer;
-import org.dreambot.api.methods.prayer.Prayers;
-import org.dreambot.api.methods.settings.PlayerSettings;
 import org.dreambot.api.methods.skills.Skill;
-import org.dreambot.api.methods.skills.Skills;
 import org.dreambot.api.methods.tabs.Tab;
-import org.dreambot.api.methods.tabs.Tabs;
-import org.dreambot.api.methods.widget.Widgets;
 import org.dreambot.api.script.AbstractScript;
-import org.dreambot.api.wrappers.interactive.GameObject;
-import org.dreambot.api.wrappers.items.Item;
 import org.dreambot.api.wrappers.widgets.WidgetChild; // Keep for potential future use
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
 
 /**
- * Responsible for observing the live OSRS game state via the DreamBot API
+ * Responsible for observing the live OSRS game state through a GameApi (the DreamBot API by default)
  * and updating the GOAP agent's WorldState accordingly.
  * Uses data derived from research for Tutorial Island specifics.
  */
 public class DreamBotWorldObserver {
 
     private final AbstractScript script;
+    private final GameApi api; // All game reads go through this port
+    private final InventorySnapshot inventory = new InventorySnapshot(); // Re-captured every update
+    private final ProbeScheduler probes = new ProbeScheduler(); // Decides which key groups are read each update
     private static final int TUTORIAL_ISLAND_VARP = 281;
+    private static final int WEAPON_SLOT = 3; // Equipment slot index
+    private static final String EVENT_STAGE_CHANGED = "STAGE_CHANGED"; // Signalled when varp 281 changes
 
     // --- Object IDs (from research - VERIFY IN GAME) ---
     private static final int STARTING_DOOR_ID = 2;   // Research suggests ID 2
@@ -58,6 +54,11 @@ public class DreamBotWorldObserver {
 
     // --- Areas (Loaded from your verified definitions - ENSURE THESE ARE ACCURATE) ---
     public static final Map<String, Area> TUTORIAL_AREAS = loadTutorialAreas();
+    public static final AreaIndex TUTORIAL_AREA_INDEX = new AreaIndex(TUTORIAL_AREAS); // Tile -> area name lookups
+
+    // --- Inventory item flags (key is true when the inventory holds the item) ---
+    private static final Map<WorldStateKey, String> INVENTORY_ITEM_FLAGS = createInventoryItemMap();
+    private static final Set<WorldStateKey> INVENTORY_KEYS = createInventoryKeys(); // Every key the inventory probe writes
 
     // --- VarPlayer Mapping (Using TreeMap and specific values - VALIDATE TRIGGER POINTS) ---
     private static final TreeMap<Integer, String> VARP_TO_STAGE_NAME = createVarpMap();
@@ -65,12 +66,24 @@ public class DreamBotWorldObserver {
 
     // --- Constructor ---
     public DreamBotWorldObserver(AbstractScript script) {
-        this.script = script;
+        this(script, new DreamBotGameApi());
         if (this.script == null) {
             System.err.println("CRITICAL: DreamBotWorldObserver initialized without a valid script reference!");
         }
     }
 
+    /**
+     * Creates an observer reading the game through the given port (e.g., an InMemoryGameApi for headless runs).
+     *
+     * @param script The running script, or null when not running inside the client.
+     * @param api    The game access port.
+     */
+    public DreamBotWorldObserver(AbstractScript script, GameApi api) {
+        this.script = script;
+        this.api = api;
+        registerProbes();
+    }
+
     // --- Area Definitions ---
     private static Map<String, Area> loadTutorialAreas() {
         Map<String, Area> areas = new HashMap<>();
@@ -91,6 +104,40 @@ public class DreamBotWorldObserver {
         return Collections.unmodifiableMap(areas);
     }
 
+    // --- Inventory Item Mapping ---
+    private static Map<WorldStateKey, String> createInventoryItemMap() {
+        Map<WorldStateKey, String> map = new EnumMap<>(WorldStateKey.class);
+        map.put(WorldStateKey.S1_HAS_AXE, "Bronze axe");
+        map.put(WorldStateKey.S1_HAS_TINDERBOX, "Tinderbox");
+        map.put(WorldStateKey.S1_HAS_LOGS, "Logs");
+        map.put(WorldStateKey.S1_HAS_FISHING_NET, "Small fishing net");
+        map.put(WorldStateKey.S1_HAS_RAW_SHRIMP, "Raw shrimps");
+        map.put(WorldStateKey.S1_HAS_COOKED_SHRIMP, "Shrimps");
+        map.put(WorldStateKey.S2_HAS_POT, "Pot");
+        map.put(WorldStateKey.S2_HAS_FLOUR, "Pot of flour");
+        map.put(WorldStateKey.S2_HAS_BUCKET, "Bucket");
+        map.put(WorldStateKey.S2_HAS_BUCKET_OF_WATER, "Bucket of water");
+        map.put(WorldStateKey.S2_HAS_DOUGH, "Bread dough");
+        map.put(WorldStateKey.S2_HAS_BREAD, "Bread");
+        map.put(WorldStateKey.S3_HAS_PICKAXE, "Bronze pickaxe");
+        map.put(WorldStateKey.S3_HAS_TIN_ORE, "Tin ore");
+        map.put(WorldStateKey.S3_HAS_COPPER_ORE, "Copper ore");
+        map.put(WorldStateKey.S3_HAS_BRONZE_BAR, "Bronze bar");
+        map.put(WorldStateKey.S3_HAS_HAMMER, "Hammer");
+        map.put(WorldStateKey.S3_HAS_DAGGER, "Bronze dagger");
+        map.put(WorldStateKey.S4_HAS_BOW, "Shortbow");
+        map.put(WorldStateKey.S4_HAS_ARROWS, "Bronze arrow");
+        map.put(WorldStateKey.S7_HAS_AIR_RUNE, "Air rune");
+        map.put(WorldStateKey.S7_HAS_MIND_RUNE, "Mind rune");
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static Set<WorldStateKey> createInventoryKeys() {
+        Set<WorldStateKey> keys = EnumSet.of(WorldStateKey.INV_SPACE, WorldStateKey.INV_COINS);
+        keys.addAll(INVENTORY_ITEM_FLAGS.keySet());
+        return Collections.unmodifiableSet(keys);
+    }
+
     // --- VarPlayer Mapping ---
     private static TreeMap<Integer, String> createVarpMap() {
         TreeMap<Integer, String> map = new TreeMap<>();
@@ -165,147 +212,210 @@ public class DreamBotWorldObserver {
 
     // --- Main Update Method ---
     public void updateWorldState(WorldState worldState) {
-        if (script == null || worldState == null) return;
+        if (api == null || worldState == null) return;
+        probes.runDue(worldState); // Runs the probes that are due this tick (see registerProbes)
+    }
+
+    /**
+     * Cheap fingerprint of the fast-changing game state (tutorial progress, moving, animating, combat,
+     * dialogue, inventory contents), taken by the script once per game tick so it can wake up from its
+     * sleep as soon as something changes. The player's tile is left out so a walk does not wake the script on every step.
+     *
+     * @return A value that changes when any of the above changes (collisions aside).
+     */
+    public long quickSignature() {
+        if (api == null) return 0;
+        PlayerApi player = api.player();
+        long signature = player.getVarp(TUTORIAL_ISLAND_VARP);
+        signature = signature * 31 + (player.isMoving() ? 1 : 0)
+                + (player.isAnimating() ? 2 : 0)
+                + (player.isInCombat() ? 4 : 0)
+                + (api.widgets().inDialogue() ? 8 : 0)
+                + (api.widgets().canContinueDialogue() ? 16 : 0);
+        long[] inventoryHash = {0};
+        api.inventory().readSlots((slot, itemId, itemName, amount) ->
+                inventoryHash[0] = (inventoryHash[0] * 31 + slot) * 31 * 31 + itemId * 31L + amount);
+        return signature * 31 + inventoryHash[0];
+    }
+
+    /**
+     * Marks every probe as due, so the next update reads the whole game state
+     * (e.g., after an action failed and rarely refreshed keys may be stale).
+     */
+    public void requestFullRefresh() {
+        probes.requestFullRefresh();
+    }
 
+    /**
+     * Restricts observation to the probes that write at least one of the given keys.
+     * The core probes (location, progress, interaction) always run. Probes that were off and become
+     * relevant are read right away, so the state handed to the planner has no stale goal keys.
+     *
+     * @param relevantKeys The keys that can influence planning/execution of the current goal, or null to observe everything.
+     * @param worldState   The state to fill in for newly relevant probes.
+     */
+    public void focusOn(Set<WorldStateKey> relevantKeys, WorldState worldState) {
+        int active = probes.setRelevantKeys(relevantKeys);
+        if (worldState != null) {
+            probes.runPending(worldState);
+        }
+        if (GoapLog.isDebugEnabled()) {
+            GoapLog.debug("OBSERVER: Observing " + active + " goal-relevant probes" + (relevantKeys == null ? " (all)" : ""));
+        }
+    }
+
+    // --- Probe Registration (order matters: location and progress are read first, later probes use them) ---
+    private void registerProbes() {
+        // Always-on core: goal determination, logging and action execution read these every tick
+        probes.register("location", RefreshPolicy.everyTick(), this::updateLocation);
+        probes.register("progress", RefreshPolicy.everyTick(), this::updateProgress);
+        probes.register("interaction", RefreshPolicy.everyTick(), this::updateInteraction);
+
+        // Object states (each only checked near the object, otherwise derived from the stage)
+        registerObject(WorldStateKey.S0_DOOR_OPEN, STARTING_DOOR_ID, "Door", "Guide_Start_Area", 10);
+        probes.register("fire", RefreshPolicy.everyTick(), Collections.singleton(WorldStateKey.S1_IS_FIRE_LIT), this::updateFire);
+        registerObject(WorldStateKey.S2_CHEF_DOOR_EXIT_OPEN, CHEF_EXIT_DOOR_ID, "Door", "Cooking_Range_Area", 170);
+        registerObject(WorldStateKey.S3_MINE_GATE_OPEN, MINE_EXIT_GATE_ID, "Gate", "Mining_Smithing_Area", 360);
+        registerObject(WorldStateKey.S4_RAT_GATE_OPEN, RAT_PEN_GATE_ID, "Gate", "Combat_Area", 440);
+        registerObject(WorldStateKey.S5_FINANCIAL_DOOR_IN_OPEN, FIN_DOOR_IN_ID, "Door", "Bank_Area", 460);
+        registerObject(WorldStateKey.S5_FINANCIAL_DOOR_OUT_OPEN, FIN_DOOR_OUT_ID, "Door", "Financial_Advisor_Area", 540);
+        registerObject(WorldStateKey.S6_CHURCH_DOOR_OUT_OPEN, CHURCH_EXIT_DOOR_ID, "Door", "Prayer_Area", 610);
+
+        // UI Checks
+        registerFlag(WorldStateKey.UI_INVENTORY_OPEN, () -> api.widgets().isTabOpen(Tab.INVENTORY));
+        registerFlag(WorldStateKey.UI_SKILLS_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.SKILLS));
+        registerFlag(WorldStateKey.UI_MUSIC_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.MUSIC));
+        registerFlag(WorldStateKey.UI_EQUIPMENT_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.EQUIPMENT));
+        registerFlag(WorldStateKey.UI_EQUIPMENT_STATS_OPEN, () -> isWidgetVisible(WIDGET_ID_EQUIP_STATS));
+        registerFlag(WorldStateKey.UI_COMBAT_OPTIONS_OPEN, () -> api.widgets().isTabOpen(Tab.COMBAT));
+        registerFlag(WorldStateKey.UI_QUEST_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.QUEST));
+        registerFlag(WorldStateKey.UI_PRAYER_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.PRAYER));
+        registerFlag(WorldStateKey.UI_FRIENDS_TAB_OPEN, () -> api.widgets().isTabOpen(Tab.FRIENDS));
+        registerFlag(WorldStateKey.UI_MAGIC_SPELLBOOK_OPEN, () -> api.widgets().isTabOpen(Tab.MAGIC));
+        registerFlag(WorldStateKey.UI_BANK_OPEN, () -> api.widgets().isBankOpen());
+        registerFlag(WorldStateKey.UI_POLL_BOOTH_OPEN, () -> isWidgetVisible(WIDGET_ID_POLL_BOOTH));
+        // TODO: Add check for Account Management (Widget 109) if needed
+
+        probes.register("inventory", RefreshPolicy.everyTick(), INVENTORY_KEYS, this::updateInventory);
+        probes.register("combat", RefreshPolicy.everyTick(), Collections.singleton(WorldStateKey.COMBAT_IS_IN_COMBAT), this::updateCombat);
+
+        // Equipment and skills only change through actions that also advance the tutorial stage
+        RefreshPolicy rarely = RefreshPolicy.everyTicks(25).orOn(EVENT_STAGE_CHANGED);
+        probes.register("equipment", RefreshPolicy.everyTicks(5).orOn(EVENT_STAGE_CHANGED),
+                Arrays.asList(WorldStateKey.S4_DAGGER_EQUIPPED, WorldStateKey.COMBAT_WEAPON_EQUIPPED), this::updateEquipment);
+        registerLevel(WorldStateKey.SKILL_WOODCUTTING_LEVEL, Skill.WOODCUTTING, rarely);
+        registerLevel(WorldStateKey.SKILL_FIREMAKING_LEVEL, Skill.FIREMAKING, rarely);
+        registerLevel(WorldStateKey.SKILL_FISHING_LEVEL, Skill.FISHING, rarely);
+        registerLevel(WorldStateKey.SKILL_COOKING_LEVEL, Skill.COOKING, rarely);
+        registerLevel(WorldStateKey.SKILL_MINING_LEVEL, Skill.MINING, rarely);
+        registerLevel(WorldStateKey.SKILL_SMITHING_LEVEL, Skill.SMITHING, rarely);
+        registerLevel(WorldStateKey.SKILL_ATTACK_LEVEL, Skill.ATTACK, rarely);
+        registerLevel(WorldStateKey.SKILL_STRENGTH_LEVEL, Skill.STRENGTH, rarely);
+        registerLevel(WorldStateKey.SKILL_DEFENCE_LEVEL, Skill.DEFENCE, rarely);
+        registerLevel(WorldStateKey.SKILL_RANGED_LEVEL, Skill.RANGED, rarely);
+        registerLevel(WorldStateKey.SKILL_MAGIC_LEVEL, Skill.MAGIC, rarely);
+        probes.register("prayer", RefreshPolicy.everyTicks(5).orOn(EVENT_STAGE_CHANGED),
+                Arrays.asList(WorldStateKey.SKILL_PRAYER_POINTS, WorldStateKey.SKILL_PRAYER_ACTIVE), this::updatePrayer);
+    }
+
+    // One probe per boolean key, read every tick while relevant
+    private void registerFlag(WorldStateKey key, BooleanSupplier reader) {
+        probes.register(key.name(), RefreshPolicy.everyTick(), Collections.singleton(key),
+                worldState -> worldState.setBoolean(key, reader.getAsBoolean()));
+    }
+
+    private void registerLevel(WorldStateKey key, Skill skill, RefreshPolicy policy) {
+        probes.register(key.name(), policy, Collections.singleton(key),
+                worldState -> worldState.setInteger(key, api.player().getRealLevel(skill)));
+    }
+
+    private void registerObject(WorldStateKey key, int objectId, String objectName, String areaName, int openStageIdThreshold) {
+        probes.register(key.name(), RefreshPolicy.everyTick(), Collections.singleton(key),
+                worldState -> updateSingleObjectState(worldState, key, objectId, objectName, null,
+                        areaName.equals(worldState.getString(WorldStateKey.LOC_CURRENT_AREA_NAME)), openStageIdThreshold));
+    }
+
+    private boolean isWidgetVisible(int widgetId) {
+        return widgetId != -1 && api.widgets().isWidgetVisible(widgetId);
+    }
+
+    private void updateLocation(WorldState worldState) {
         // Determine Location FIRST
-        Tile playerTile = Players.getLocal().getTile();
-        String currentAreaName = "Unknown";
-        for (Map.Entry<String, Area> entry : TUTORIAL_AREAS.entrySet()) {
-            if (entry.getValue().contains(playerTile)) {
-                currentAreaName = entry.getKey();
-                break;
-            }
+        Tile playerTile = api.player().getTile();
+        String currentAreaName = TUTORIAL_AREA_INDEX.nameAt(playerTile);
+        if (currentAreaName == null) {
+            currentAreaName = "Unknown";
         }
         worldState.setString(WorldStateKey.LOC_CURRENT_AREA_NAME, currentAreaName);
-        worldState.setBoolean(WorldStateKey.LOC_IS_WALKING, Players.getLocal().isMoving());
+        worldState.setBoolean(WorldStateKey.LOC_IS_WALKING, api.player().isMoving());
+    }
 
+    private void updateProgress(WorldState worldState) {
         // Determine Tutorial Progress SECOND
-        int tutorialProgressVar = PlayerSettings.getConfig(TUTORIAL_ISLAND_VARP);
+        int tutorialProgressVar = api.player().getVarp(TUTORIAL_ISLAND_VARP);
+        if (!worldState.has(WorldStateKey.TUT_STAGE_ID) || worldState.getInteger(WorldStateKey.TUT_STAGE_ID) != tutorialProgressVar) {
+            probes.signal(EVENT_STAGE_CHANGED);
+        }
         worldState.setInteger(WorldStateKey.TUT_STAGE_ID, tutorialProgressVar);
         Map.Entry<Integer, String> stageEntry = VARP_TO_STAGE_NAME.floorEntry(tutorialProgressVar);
         String stageName = (stageEntry != null) ? stageEntry.getValue() : "UnknownStage_" + tutorialProgressVar;
         worldState.setString(WorldStateKey.TUT_STAGE_NAME, stageName);
         worldState.setBoolean(WorldStateKey.TUT_ISLAND_COMPLETED, tutorialProgressVar == 1000);
+    }
 
-        // Update Object States THIRD
-        updateObjectStates(worldState, stageName, currentAreaName);
-
-        // Update Other States
-
-        // Interaction
-        boolean npcDialogueActive = Dialogues.inDialogue() && Dialogues.canContinue();
+    private void updateInteraction(WorldState worldState) {
+        boolean npcDialogueActive = api.widgets().inDialogue() && api.widgets().canContinueDialogue();
         worldState.setBoolean(WorldStateKey.INTERACT_IS_DIALOGUE_OPEN, npcDialogueActive);
         if (!npcDialogueActive) {
             worldState.setString(WorldStateKey.INTERACT_NPC_NAME, null);
         }
-        worldState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, Players.getLocal().isAnimating());
-
-        // UI Checks
-        worldState.setBoolean(WorldStateKey.UI_INVENTORY_OPEN, Tabs.isOpen(Tab.INVENTORY));
-        worldState.setBoolean(WorldStateKey.UI_SKILLS_TAB_OPEN, Tabs.isOpen(Tab.SKILLS));
-        worldState.setBoolean(WorldStateKey.UI_MUSIC_TAB_OPEN, Tabs.isOpen(Tab.MUSIC));
-        worldState.setBoolean(WorldStateKey.UI_EQUIPMENT_TAB_OPEN, Tabs.isOpen(Tab.EQUIPMENT));
-        worldState.setBoolean(WorldStateKey.UI_EQUIPMENT_STATS_OPEN, WIDGET_ID_EQUIP_STATS != -1 && Widgets.getWidget(WIDGET_ID_EQUIP_STATS) != null && Widgets.getWidget(WIDGET_ID_EQUIP_STATS).isVisible());
-        worldState.setBoolean(WorldStateKey.UI_COMBAT_OPTIONS_OPEN, Tabs.isOpen(Tab.COMBAT));
-        worldState.setBoolean(WorldStateKey.UI_QUEST_TAB_OPEN, Tabs.isOpen(Tab.QUEST));
-        worldState.setBoolean(WorldStateKey.UI_PRAYER_TAB_OPEN, Tabs.isOpen(Tab.PRAYER));
-        worldState.setBoolean(WorldStateKey.UI_FRIENDS_TAB_OPEN, Tabs.isOpen(Tab.FRIENDS));
-        worldState.setBoolean(WorldStateKey.UI_MAGIC_SPELLBOOK_OPEN, Tabs.isOpen(Tab.MAGIC));
-        worldState.setBoolean(WorldStateKey.UI_BANK_OPEN, Bank.isOpen());
-        worldState.setBoolean(WorldStateKey.UI_POLL_BOOTH_OPEN, WIDGET_ID_POLL_BOOTH != -1 && Widgets.getWidget(WIDGET_ID_POLL_BOOTH) != null && Widgets.getWidget(WIDGET_ID_POLL_BOOTH).isVisible());
-        // TODO: Add check for Account Management (Widget 109) if needed
+        worldState.setBoolean(WorldStateKey.INTERACT_IS_ANIMATING, api.player().isAnimating());
+    }
 
-        // Inventory
-        worldState.setInteger(WorldStateKey.INV_SPACE, Inventory.getEmptySlots());
-        worldState.setInteger(WorldStateKey.INV_COINS, Inventory.count("Coins"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_AXE, Inventory.contains("Bronze axe"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_TINDERBOX, Inventory.contains("Tinderbox"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_LOGS, Inventory.contains("Logs"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_FISHING_NET, Inventory.contains("Small fishing net"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_RAW_SHRIMP, Inventory.contains("Raw shrimps"));
-        worldState.setBoolean(WorldStateKey.S1_HAS_COOKED_SHRIMP, Inventory.contains("Shrimps"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_POT, Inventory.contains("Pot"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_FLOUR, Inventory.contains("Pot of flour"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_BUCKET, Inventory.contains("Bucket"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_BUCKET_OF_WATER, Inventory.contains("Bucket of water"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_DOUGH, Inventory.contains("Bread dough"));
-        worldState.setBoolean(WorldStateKey.S2_HAS_BREAD, Inventory.contains("Bread"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_PICKAXE, Inventory.contains("Bronze pickaxe"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_TIN_ORE, Inventory.contains("Tin ore"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_COPPER_ORE, Inventory.contains("Copper ore"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_BRONZE_BAR, Inventory.contains("Bronze bar"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_HAMMER, Inventory.contains("Hammer"));
-        worldState.setBoolean(WorldStateKey.S3_HAS_DAGGER, Inventory.contains("Bronze dagger"));
-        worldState.setBoolean(WorldStateKey.S4_HAS_BOW, Inventory.contains("Shortbow"));
-        worldState.setBoolean(WorldStateKey.S4_HAS_ARROWS, Inventory.contains("Bronze arrow"));
-        worldState.setBoolean(WorldStateKey.S7_HAS_AIR_RUNE, Inventory.contains("Air rune"));
-        worldState.setBoolean(WorldStateKey.S7_HAS_MIND_RUNE, Inventory.contains("Mind rune"));
-
-        // Equipment
-        worldState.setBoolean(WorldStateKey.S4_DAGGER_EQUIPPED, isEquipped(EquipmentSlot.WEAPON, "Bronze dagger"));
-        Item weapon = Equipment.getItemInSlot(EquipmentSlot.WEAPON.getSlot());
-        worldState.setString(WorldStateKey.COMBAT_WEAPON_EQUIPPED, weapon != null ? weapon.getName() : null);
-
-        // Skills
-        worldState.setInteger(WorldStateKey.SKILL_WOODCUTTING_LEVEL, Skills.getRealLevel(Skill.WOODCUTTING));
-        worldState.setInteger(WorldStateKey.SKILL_FIREMAKING_LEVEL, Skills.getRealLevel(Skill.FIREMAKING));
-        worldState.setInteger(WorldStateKey.SKILL_FISHING_LEVEL, Skills.getRealLevel(Skill.FISHING));
-        worldState.setInteger(WorldStateKey.SKILL_COOKING_LEVEL, Skills.getRealLevel(Skill.COOKING));
-        worldState.setInteger(WorldStateKey.SKILL_MINING_LEVEL, Skills.getRealLevel(Skill.MINING));
-        worldState.setInteger(WorldStateKey.SKILL_SMITHING_LEVEL, Skills.getRealLevel(Skill.SMITHING));
-        worldState.setInteger(WorldStateKey.SKILL_ATTACK_LEVEL, Skills.getRealLevel(Skill.ATTACK));
-        worldState.setInteger(WorldStateKey.SKILL_STRENGTH_LEVEL, Skills.getRealLevel(Skill.STRENGTH));
-        worldState.setInteger(WorldStateKey.SKILL_DEFENCE_LEVEL, Skills.getRealLevel(Skill.DEFENCE));
-        worldState.setInteger(WorldStateKey.SKILL_RANGED_LEVEL, Skills.getRealLevel(Skill.RANGED));
-        worldState.setInteger(WorldStateKey.SKILL_PRAYER_POINTS, Skills.getBoostedLevel(Skill.PRAYER));
-        boolean anyPrayerActive = false;
-        for (Prayer prayer : Prayer.values()) {
-            if (Prayers.isActive(prayer)) {
-                anyPrayerActive = true;
-                break;
-            }
+    private void updateInventory(WorldState worldState) {
+        // Inventory (one pass over the slots, every key below is derived from the snapshot)
+        inventory.capture(api.inventory());
+        worldState.setInteger(WorldStateKey.INV_SPACE, inventory.getEmptySlots());
+        worldState.setInteger(WorldStateKey.INV_COINS, inventory.count("Coins"));
+        for (Map.Entry<WorldStateKey, String> item : INVENTORY_ITEM_FLAGS.entrySet()) {
+            worldState.setBoolean(item.getKey(), inventory.contains(item.getValue()));
         }
-        worldState.setBoolean(WorldStateKey.SKILL_PRAYER_ACTIVE, anyPrayerActive);
-        worldState.setInteger(WorldStateKey.SKILL_MAGIC_LEVEL, Skills.getRealLevel(Skill.MAGIC));
+    }
 
-        // Combat State
-        worldState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, Players.getLocal().isInCombat());
+    private void updateEquipment(WorldState worldState) {
+        String weapon = api.inventory().getEquippedName(WEAPON_SLOT);
+        worldState.setBoolean(WorldStateKey.S4_DAGGER_EQUIPPED, "Bronze dagger".equals(weapon));
+        worldState.setString(WorldStateKey.COMBAT_WEAPON_EQUIPPED, weapon);
+    }
 
-        // System States (Placeholders)
-        // ...
+    private void updatePrayer(WorldState worldState) {
+        worldState.setInteger(WorldStateKey.SKILL_PRAYER_POINTS, api.player().getBoostedLevel(Skill.PRAYER));
+        worldState.setBoolean(WorldStateKey.SKILL_PRAYER_ACTIVE, api.player().isAnyPrayerActive());
     }
 
-    // --- Object State Helper ---
-    private void updateObjectStates(WorldState worldState, String currentStageName, String currentAreaName) {
-        // TODO: Replace null Tiles with verified coordinates for each object
-        updateSingleObjectState(worldState, WorldStateKey.S0_DOOR_OPEN, STARTING_DOOR_ID, "Door", null, currentAreaName.equals("Guide_Start_Area"), 10);
+    private void updateCombat(WorldState worldState) {
+        worldState.setBoolean(WorldStateKey.COMBAT_IS_IN_COMBAT, api.player().isInCombat());
+    }
 
-        boolean fireCheckRelevant = currentAreaName.equals("Survival_Cooking_Area");
+    // --- Object State Helper ---
+    private void updateFire(WorldState worldState) {
+        boolean fireCheckRelevant = "Survival_Cooking_Area".equals(worldState.getString(WorldStateKey.LOC_CURRENT_AREA_NAME));
         if (fireCheckRelevant) {
-            GameObject litFire = GameObjects.closest(fire -> fire != null && fire.getName().equals("Fire") && fire.hasAction("Cook") && TUTORIAL_AREAS.get("Survival_Cooking_Area").contains(fire.getTile()));
+            EntityRef litFire = api.objects().closest(fire -> "Fire".equals(fire.getName()) && fire.hasAction("Cook") && TUTORIAL_AREAS.get("Survival_Cooking_Area").contains(fire.getTile()));
             worldState.setBoolean(WorldStateKey.S1_IS_FIRE_LIT, litFire != null);
         } else {
             worldState.setBoolean(WorldStateKey.S1_IS_FIRE_LIT, false);
         }
-
-        updateSingleObjectState(worldState, WorldStateKey.S2_CHEF_DOOR_EXIT_OPEN, CHEF_EXIT_DOOR_ID, "Door", null, currentAreaName.equals("Cooking_Range_Area"), 170);
-        updateSingleObjectState(worldState, WorldStateKey.S3_MINE_GATE_OPEN, MINE_EXIT_GATE_ID, "Gate", null, currentAreaName.equals("Mining_Smithing_Area"), 360);
-        updateSingleObjectState(worldState, WorldStateKey.S4_RAT_GATE_OPEN, RAT_PEN_GATE_ID, "Gate", null, currentAreaName.equals("Combat_Area"), 440);
-        updateSingleObjectState(worldState, WorldStateKey.S5_FINANCIAL_DOOR_IN_OPEN, FIN_DOOR_IN_ID, "Door", null, currentAreaName.equals("Bank_Area"), 460);
-        updateSingleObjectState(worldState, WorldStateKey.S5_FINANCIAL_DOOR_OUT_OPEN, FIN_DOOR_OUT_ID, "Door", null, currentAreaName.equals("Financial_Advisor_Area"), 540);
-        updateSingleObjectState(worldState, WorldStateKey.S6_CHURCH_DOOR_OUT_OPEN, CHURCH_EXIT_DOOR_ID, "Door", null, currentAreaName.equals("Prayer_Area"), 610);
     }
 
     // --- Object State Helper ---
     private void updateSingleObjectState(WorldState worldState, WorldStateKey key, int objectId, String objectName, Tile objectTile, boolean checkRelevant, int openStageIdThreshold) {
         if (checkRelevant) {
-            GameObject obj = GameObjects.closest(o -> o != null
-                    && (o.getID() == objectId) // Prioritize ID if valid (>0)
+            EntityRef obj = api.objects().closest(o -> (o.getId() == objectId) // Prioritize ID if valid (>0)
                     && (objectTile == null || o.getTile().equals(objectTile))); // Use Tile if provided
 
             if (obj == null && objectId <= 0) { // Fallback to name if ID invalid or not found
-                obj = GameObjects.closest(o -> o != null
-                        && (o.getName().equals(objectName))
+                obj = api.objects().closest(o -> objectName.equals(o.getName())
                         && (objectTile == null || o.getTile().equals(objectTile)));
             }
             // State is OPEN if the object exists and does NOT have the "Open" action
@@ -315,11 +425,4 @@ public class DreamBotWorldObserver {
             worldState.setBoolean(key, currentStageId >= openStageIdThreshold); // Fallback based on progress
         }
     }
-
-    // --- Equipment Helper ---
-    private enum EquipmentSlot { WEAPON(3); private final int slot; EquipmentSlot(int s) {this.slot=s;} public int getSlot(){return slot;} }
-    private boolean isEquipped(EquipmentSlot slot, String itemName) {
-        Item item = Equipment.getItemInSlot(slot.getSlot());
-        return item != null && item.getName().equals(itemName);
-    }
 }
\ No newline at end of file
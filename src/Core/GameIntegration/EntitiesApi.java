@@ -0,0 +1,15 @@
+package Core.GameIntegration;
+
+import java.util.function.Predicate;
+
+/**
+ * Lookup of game objects or NPCs around the player.
+ */
+public interface EntitiesApi {
+
+    /**
+     * @param filter Selects the candidates.
+     * @return The candidate closest to the player, or null if none matches.
+     */
+    EntityRef closest(Predicate<EntityRef> filter);
+}
@@ -0,0 +1,40 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.map.Tile;
+
+/**
+ * A game object or NPC as seen through the GameApi.
+ * Two refs to the same entity are equal, even if they came from different lookups.
+ */
+public interface EntityRef {
+
+    int getId();
+
+    String getName();
+
+    Tile getTile();
+
+    boolean hasAction(String action);
+
+    /**
+     * @return false once the entity has despawned (e.g., a depleted rock or a killed NPC).
+     */
+    boolean exists();
+
+    boolean isOnScreen();
+
+    /**
+     * @return true if the NPC is fighting (always false for objects).
+     */
+    boolean isInCombat();
+
+    /**
+     * @return The NPC's health in percent (100 for objects and for NPCs whose health bar is not shown).
+     */
+    int getHealthPercent();
+
+    /**
+     * @return true if the interaction was sent.
+     */
+    boolean interact(String action);
+}
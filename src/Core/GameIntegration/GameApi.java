@@ -0,0 +1,29 @@
+package Core.GameIntegration;
+
+/**
+ * Port through which the observer and the actions reach the game, instead of calling
+ * DreamBot's static APIs (Players, Inventory, GameObjects, Widgets, Walking, Sleep, ...) directly.
+ * DreamBotGameApi is the live implementation; InMemoryGameApi is a scriptable stand-in that runs
+ * without a client, for headless tests and benchmarks.
+ * Value types (Tile, Skill, Tab) are still DreamBot's: they are plain classes that work without a client.
+ */
+public interface GameApi {
+
+    PlayerApi player();
+
+    InventoryApi inventory();
+
+    EntitiesApi objects();
+
+    EntitiesApi npcs();
+
+    WidgetsApi widgets();
+
+    WalkingApi walking();
+
+    InputApi input();
+
+    MagicApi magic();
+
+    SleepApi sleep();
+}
@@ -0,0 +1,51 @@
+package Core.GameIntegration;
+
+/**
+ * Time base for action timeouts. With a TickClock installed (the script installs its GameTickClock),
+ * millis() is the start time of the current game tick, so timeouts advance in whole ticks; without one
+ * it is System.currentTimeMillis(). Both are on the same scale, so values stay comparable if the clock
+ * is installed or removed between calls.
+ */
+public final class GameClock {
+
+    private static volatile TickClock clock;
+
+    private GameClock() {
+    }
+
+    /**
+     * @param tickClock The clock to use, or null for wall time.
+     */
+    public static void setClock(TickClock tickClock) {
+        clock = tickClock;
+    }
+
+    /**
+     * @return The installed clock, or null if none.
+     */
+    public static TickClock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return The current tick-level timestamp in milliseconds (never 0, so 0 can mean "not started").
+     */
+    public static long millis() {
+        TickClock current = clock;
+        return (current != null) ? current.getTickStartMillis() : System.currentTimeMillis();
+    }
+
+    /**
+     * The time left until a timeout started at startMillis expires (for Action.getWakeUpHint()).
+     *
+     * @param startMillis   The millis() at which the wait started, or 0 if it has not started.
+     * @param timeoutMillis The timeout.
+     * @return The remaining milliseconds (at least 0), or -1 if the wait has not started.
+     */
+    public static long remainingMillis(long startMillis, long timeoutMillis) {
+        if (startMillis == 0) {
+            return -1;
+        }
+        return Math.max(0, startMillis + timeoutMillis - millis());
+    }
+}
@@ -0,0 +1,57 @@
+package Core.GameIntegration;
+
+/**
+ * TickClock driven by the client: the script forwards DreamBot's GameTickListener.onGameTick() to
+ * onGameTick(), which runs on the client thread once per game tick.
+ * Until the first tick arrives, the current time stands in for the tick start. When ticks stop arriving
+ * for more than MAX_MISSED_TICKS tick lengths (logged out, client frozen), the tick start is projected
+ * forward on the last tick's grid, so timeouts based on GameClock.millis() keep running.
+ */
+public class GameTickClock implements TickClock {
+
+    /** Ticks that may be late (client jitter) before the tick start is projected from wall time. */
+    public static final int MAX_MISSED_TICKS = 2;
+
+    private volatile long tick = 0;
+    private volatile long tickStartMillis = 0; // 0 = no tick seen yet
+
+    /**
+     * Records the start of a new game tick. Call from GameTickListener.onGameTick().
+     */
+    public void onGameTick() {
+        tickStartMillis = System.currentTimeMillis();
+        tick++;
+    }
+
+    /**
+     * @return The number of ticks received (missed ticks are not counted).
+     */
+    @Override
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public long getTickStartMillis() {
+        long start = tickStartMillis;
+        long now = System.currentTimeMillis();
+        if (start == 0) {
+            return now;
+        }
+        long elapsed = now - start;
+        if (elapsed > MAX_MISSED_TICKS * TICK_MILLIS) {
+            return start + (elapsed / TICK_MILLIS) * TICK_MILLIS; // Start of the tick that would be running now
+        }
+        return start;
+    }
+
+    @Override
+    public long getMillisUntilNextTick() {
+        return (tickStartMillis != 0) ? TickClock.super.getMillisUntilNextTick() : 0; // Unknown phase, don't wait
+    }
+
+    @Override
+    public String toString() {
+        return "GameTickClock{tick=" + tick + ", nextIn=" + getMillisUntilNextTick() + "ms}";
+    }
+}
@@ -0,0 +1,564 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.api.methods.tabs.Tab;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * GameApi stand-in that keeps the game state in plain fields, for running the observer and actions
+ * without a client: tests, simulations and headless benchmarks. The state is set directly through
+ * the public setters; interactions are recorded and can be answered by an optional handler
+ * (e.g., a simulator advancing the tutorial).
+ *
+ * No time passes inside the api: sleep() returns at once and sleepUntil() checks its condition once,
+ * against the state the handler left behind. Whatever should take game time (walks, animations) is
+ * up to the caller, which changes the state between ticks.
+ */
+public class InMemoryGameApi implements GameApi {
+
+    /**
+     * Reacts to an interaction issued through the api (entity/item interact, item use, walk, dialogue
+     * continue, tab open, widget click, smithing, spell cast, typing).
+     */
+    public interface InteractionHandler {
+        /**
+         * @param kind   "interact", "interactItem", "useOn", "walk", "continue", "openTab", "widget", "smith", "cast" or "type".
+         * @param target The entity, item name ("interactItem", item-on-item "useOn", "smith"), Tile, Tab, widget path
+         *               (int[]) or text involved (null for "continue").
+         * @param action The interaction action ("interact", "interactItem", "widget"), the used item's name
+         *               ("useOn"), the amount ("smith", -1 for Make All) or the spell ("cast"); otherwise null.
+         * @return true if the interaction succeeded.
+         */
+        boolean handle(String kind, Object target, String action);
+    }
+
+    /**
+     * A mutable object/NPC.
+     */
+    public static class Entity implements EntityRef {
+        private final int id;
+        private final String name;
+        private Tile tile;
+        private final Set<String> actions = new HashSet<>();
+        private boolean inCombat = false;
+        private int healthPercent = 100;
+        private InMemoryGameApi owner;
+
+        public Entity(int id, String name, Tile tile, String... actions) {
+            this.id = id;
+            this.name = name;
+            this.tile = tile;
+            for (String action : actions) {
+                this.actions.add(action);
+            }
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Tile getTile() {
+            return tile;
+        }
+
+        public void setTile(Tile tile) {
+            this.tile = tile;
+        }
+
+        @Override
+        public boolean hasAction(String action) {
+            return actions.contains(action);
+        }
+
+        public void setActions(String... newActions) {
+            actions.clear();
+            for (String action : newActions) {
+                actions.add(action);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return owner != null && (owner.objectList.contains(this) || owner.npcList.contains(this));
+        }
+
+        @Override
+        public boolean isOnScreen() {
+            return exists();
+        }
+
+        @Override
+        public boolean isInCombat() {
+            return inCombat;
+        }
+
+        public void setInCombat(boolean inCombat) {
+            this.inCombat = inCombat;
+        }
+
+        @Override
+        public int getHealthPercent() {
+            return healthPercent;
+        }
+
+        public void setHealthPercent(int healthPercent) {
+            this.healthPercent = healthPercent;
+        }
+
+        @Override
+        public boolean interact(String action) {
+            return hasAction(action) && owner != null && owner.dispatch("interact", this, action);
+        }
+
+        @Override
+        public String toString() {
+            return name + "#" + id + "@" + tile;
+        }
+    }
+
+    // --- State ---
+    private Tile playerTile = new Tile(0, 0, 0);
+    private boolean moving = false;
+    private boolean animating = false;
+    private int animation = -1;
+    private boolean inCombat = false;
+    private Entity interacting;
+    private final Map<Integer, Integer> varps = new HashMap<>();
+    private final Map<Skill, Integer> realLevels = new EnumMap<>(Skill.class);
+    private final Map<Skill, Integer> boostedLevels = new EnumMap<>(Skill.class);
+    private boolean prayerActive = false;
+    private final String[] slotNames = new String[28];
+    private final int[] slotIds = new int[28];
+    private final int[] slotAmounts = new int[28];
+    private final Map<Integer, String> equipment = new HashMap<>();
+    private final List<Entity> objectList = new ArrayList<>();
+    private final List<Entity> npcList = new ArrayList<>();
+    private final Set<Tab> openTabs = EnumSet.noneOf(Tab.class);
+    private final Set<Integer> visibleWidgets = new HashSet<>();
+    private final Set<String> visibleChildren = new HashSet<>(); // Widget paths, as Arrays.toString(path)
+    private boolean bankOpen = false;
+    private boolean inDialogue = false;
+    private boolean canContinue = false;
+    private InteractionHandler handler;
+    private long interactions = 0;
+
+    // --- Setup ---
+    public void setHandler(InteractionHandler handler) {
+        this.handler = handler;
+    }
+
+    public void setPlayerTile(Tile tile) {
+        this.playerTile = tile;
+    }
+
+    public void setMoving(boolean moving) {
+        this.moving = moving;
+    }
+
+    public void setAnimating(boolean animating) {
+        this.animating = animating;
+        if (!animating) {
+            this.animation = -1;
+        }
+    }
+
+    /**
+     * Starts an animation (isAnimating() is true until setAnimating(false)).
+     */
+    public void setAnimation(int animationId) {
+        this.animation = animationId;
+        this.animating = animationId != -1;
+    }
+
+    public void setInCombat(boolean inCombat) {
+        this.inCombat = inCombat;
+    }
+
+    public void setInteracting(Entity interacting) {
+        this.interacting = interacting;
+    }
+
+    public void setVarp(int varpId, int value) {
+        varps.put(varpId, value);
+    }
+
+    public void setLevel(Skill skill, int real, int boosted) {
+        realLevels.put(skill, real);
+        boostedLevels.put(skill, boosted);
+    }
+
+    public void setPrayerActive(boolean prayerActive) {
+        this.prayerActive = prayerActive;
+    }
+
+    /**
+     * Adds items to the first stack with the same ID, or to the first free slot.
+     *
+     * @return false if the inventory is full.
+     */
+    public boolean addItem(int itemId, String itemName, int amount) {
+        int free = -1;
+        for (int slot = 0; slot < slotNames.length; slot++) {
+            if (slotNames[slot] != null && slotIds[slot] == itemId) {
+                slotAmounts[slot] += amount;
+                return true;
+            }
+            if (slotNames[slot] == null && free < 0) {
+                free = slot;
+            }
+        }
+        if (free < 0) {
+            return false;
+        }
+        slotNames[free] = itemName;
+        slotIds[free] = itemId;
+        slotAmounts[free] = amount;
+        return true;
+    }
+
+    /**
+     * Removes the first stack of the named item.
+     *
+     * @return false if the item was not in the inventory.
+     */
+    public boolean removeItem(String itemName) {
+        for (int slot = 0; slot < slotNames.length; slot++) {
+            if (itemName.equals(slotNames[slot])) {
+                slotNames[slot] = null;
+                slotAmounts[slot] = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setEquipped(int equipmentSlot, String itemName) {
+        if (itemName == null) {
+            equipment.remove(equipmentSlot);
+        } else {
+            equipment.put(equipmentSlot, itemName);
+        }
+    }
+
+    public Entity addObject(Entity object) {
+        object.owner = this;
+        objectList.add(object);
+        return object;
+    }
+
+    public Entity addNpc(Entity npc) {
+        npc.owner = this;
+        npcList.add(npc);
+        return npc;
+    }
+
+    public void removeEntity(Entity entity) {
+        objectList.remove(entity);
+        npcList.remove(entity);
+    }
+
+    public void setTabOpen(Tab tab, boolean open) {
+        if (open) {
+            openTabs.add(tab);
+        } else {
+            openTabs.remove(tab);
+        }
+    }
+
+    public void setWidgetVisible(int widgetId, boolean visible) {
+        if (visible) {
+            visibleWidgets.add(widgetId);
+        } else {
+            visibleWidgets.remove(widgetId);
+        }
+    }
+
+    public void setChildVisible(int[] path, boolean visible) {
+        if (visible) {
+            visibleChildren.add(Arrays.toString(path));
+        } else {
+            visibleChildren.remove(Arrays.toString(path));
+        }
+    }
+
+    public void setBankOpen(boolean bankOpen) {
+        this.bankOpen = bankOpen;
+    }
+
+    public void setDialogue(boolean inDialogue, boolean canContinue) {
+        this.inDialogue = inDialogue;
+        this.canContinue = canContinue;
+    }
+
+    /**
+     * @return The number of interactions issued through the api so far.
+     */
+    public long getInteractionCount() {
+        return interactions;
+    }
+
+    private boolean dispatch(String kind, Object target, String action) {
+        interactions++;
+        return handler == null || handler.handle(kind, target, action);
+    }
+
+    private static EntityRef closest(List<Entity> entities, Tile from, Predicate<EntityRef> filter) {
+        Entity best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!filter.test(entity)) {
+                continue;
+            }
+            double distance = from == null || entity.getTile() == null ? 0 : distance(from, entity.getTile());
+            if (distance < bestDistance) {
+                best = entity;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static double distance(Tile a, Tile b) {
+        if (a.getZ() != b.getZ()) {
+            return Double.MAX_VALUE / 2; // Other plane: only picked if nothing else matches
+        }
+        int dx = a.getX() - b.getX();
+        int dy = a.getY() - b.getY();
+        return Math.sqrt((double) dx * dx + (double) dy * dy);
+    }
+
+    // --- Ports ---
+    private final PlayerApi player = new PlayerApi() {
+        @Override
+        public Tile getTile() {
+            return playerTile;
+        }
+
+        @Override
+        public boolean isMoving() {
+            return moving;
+        }
+
+        @Override
+        public boolean isAnimating() {
+            return animating;
+        }
+
+        @Override
+        public int getAnimation() {
+            return animating ? animation : -1;
+        }
+
+        @Override
+        public boolean isInCombat() {
+            return inCombat;
+        }
+
+        @Override
+        public EntityRef getInteracting() {
+            return (interacting != null && interacting.exists()) ? interacting : null;
+        }
+
+        @Override
+        public int getVarp(int varpId) {
+            Integer value = varps.get(varpId);
+            return value != null ? value : 0;
+        }
+
+        @Override
+        public int getRealLevel(Skill skill) {
+            Integer level = realLevels.get(skill);
+            return level != null ? level : 1;
+        }
+
+        @Override
+        public int getBoostedLevel(Skill skill) {
+            Integer level = boostedLevels.get(skill);
+            return level != null ? level : getRealLevel(skill);
+        }
+
+        @Override
+        public boolean isAnyPrayerActive() {
+            return prayerActive;
+        }
+    };
+
+    private final InventoryApi inventory = new InventoryApi() {
+        @Override
+        public void readSlots(SlotVisitor visitor) {
+            for (int slot = 0; slot < slotNames.length; slot++) {
+                if (slotNames[slot] != null) {
+                    visitor.visit(slot, slotIds[slot], slotNames[slot], slotAmounts[slot]);
+                }
+            }
+        }
+
+        @Override
+        public String getEquippedName(int equipmentSlot) {
+            return equipment.get(equipmentSlot);
+        }
+
+        @Override
+        public boolean isEquipped(String itemName) {
+            return equipment.containsValue(itemName);
+        }
+
+        @Override
+        public boolean interact(String itemName, String action) {
+            return contains(itemName) && dispatch("interactItem", itemName, action);
+        }
+
+        @Override
+        public boolean useOn(String itemName, String targetItemName) {
+            return contains(itemName) && contains(targetItemName) && dispatch("useOn", targetItemName, itemName);
+        }
+
+        @Override
+        public boolean useOn(String itemName, EntityRef target) {
+            return contains(itemName) && target != null && target.exists() && dispatch("useOn", target, itemName);
+        }
+    };
+
+    private final EntitiesApi objects = filter -> closest(objectList, playerTile, filter);
+
+    private final EntitiesApi npcs = filter -> closest(npcList, playerTile, filter);
+
+    private final WidgetsApi widgets = new WidgetsApi() {
+        @Override
+        public boolean isTabOpen(Tab tab) {
+            return openTabs.contains(tab);
+        }
+
+        @Override
+        public boolean openTab(Tab tab) {
+            if (dispatch("openTab", tab, null)) {
+                openTabs.add(tab);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isWidgetVisible(int widgetId) {
+            return visibleWidgets.contains(widgetId);
+        }
+
+        @Override
+        public boolean isChildVisible(int[] path) {
+            return visibleChildren.contains(Arrays.toString(path));
+        }
+
+        @Override
+        public boolean interactChild(int[] path, String action) {
+            return isChildVisible(path) && dispatch("widget", path, action);
+        }
+
+        @Override
+        public boolean smith(String itemName, int amount) {
+            return dispatch("smith", itemName, String.valueOf(amount));
+        }
+
+        @Override
+        public boolean isBankOpen() {
+            return bankOpen;
+        }
+
+        @Override
+        public boolean inDialogue() {
+            return inDialogue;
+        }
+
+        @Override
+        public boolean canContinueDialogue() {
+            return canContinue;
+        }
+
+        @Override
+        public boolean continueDialogue() {
+            return canContinue && dispatch("continue", null, null);
+        }
+    };
+
+    private final WalkingApi walking = tile -> dispatch("walk", tile, null);
+
+    private final InputApi input = (text, pressEnter) -> dispatch("type", text, null);
+
+    private final MagicApi magic = (spell, target) -> target != null && target.exists() && dispatch("cast", target, String.valueOf(spell));
+
+    private final SleepApi sleep = new SleepApi() {
+        @Override
+        public void sleep(long millis) {
+            // No time passes in memory
+        }
+
+        @Override
+        public boolean sleepUntil(BooleanSupplier condition, long timeoutMillis) {
+            return condition.getAsBoolean();
+        }
+    };
+
+    @Override
+    public PlayerApi player() {
+        return player;
+    }
+
+    @Override
+    public InventoryApi inventory() {
+        return inventory;
+    }
+
+    @Override
+    public EntitiesApi objects() {
+        return objects;
+    }
+
+    @Override
+    public EntitiesApi npcs() {
+        return npcs;
+    }
+
+    @Override
+    public WidgetsApi widgets() {
+        return widgets;
+    }
+
+    @Override
+    public WalkingApi walking() {
+        return walking;
+    }
+
+    @Override
+    public InputApi input() {
+        return input;
+    }
+
+    @Override
+    public MagicApi magic() {
+        return magic;
+    }
+
+    @Override
+    public SleepApi sleep() {
+        return sleep;
+    }
+}
@@ -0,0 +1,13 @@
+package Core.GameIntegration;
+
+/**
+ * Raw keyboard input.
+ */
+public interface InputApi {
+
+    /**
+     * @param text       The text to type.
+     * @param pressEnter Whether to press enter afterwards.
+     */
+    void type(String text, boolean pressEnter);
+}
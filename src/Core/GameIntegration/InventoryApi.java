@@ -0,0 +1,73 @@
+package Core.GameIntegration;
+
+/**
+ * Inventory and equipment contents, and item interactions.
+ */
+public interface InventoryApi {
+
+    int INVENTORY_SIZE = 28;
+
+    /**
+     * Receives the occupied inventory slots, one call per slot.
+     */
+    interface SlotVisitor {
+        void visit(int slot, int itemId, String itemName, int amount);
+    }
+
+    /**
+     * Walks the occupied inventory slots once, in slot order.
+     *
+     * @param visitor Called for every occupied slot.
+     */
+    void readSlots(SlotVisitor visitor);
+
+    /**
+     * @param equipmentSlot The equipment slot index (e.g., 3 = weapon).
+     * @return The name of the item in the slot, or null if empty.
+     */
+    String getEquippedName(int equipmentSlot);
+
+    boolean isEquipped(String itemName);
+
+    /**
+     * @return true if the interaction (e.g., "Wield") was sent to the first stack of the named item.
+     */
+    boolean interact(String itemName, String action);
+
+    /**
+     * Uses one inventory item on another (e.g., tinderbox on logs).
+     *
+     * @return true if both items were found and the interaction was sent.
+     */
+    boolean useOn(String itemName, String targetItemName);
+
+    /**
+     * Uses an inventory item on a game object or NPC (e.g., raw shrimps on a fire).
+     *
+     * @return true if the item was found and the interaction was sent.
+     */
+    boolean useOn(String itemName, EntityRef target);
+
+    /**
+     * @return The total amount of the named item (stack sizes added up).
+     */
+    default int count(String itemName) {
+        int[] total = {0};
+        readSlots((slot, itemId, name, amount) -> {
+            if (itemName.equals(name)) {
+                total[0] += Math.max(amount, 1);
+            }
+        });
+        return total[0];
+    }
+
+    default boolean contains(String itemName) {
+        return count(itemName) > 0;
+    }
+
+    default boolean isFull() {
+        int[] used = {0};
+        readSlots((slot, itemId, name, amount) -> used[0]++);
+        return used[0] >= INVENTORY_SIZE;
+    }
+}
@@ -0,0 +1,85 @@
+package Core.GameIntegration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One read of the inventory per tick. capture() walks the occupied slots once and tallies the item amounts
+ * by name and by ID; contains()/count()/getEmptySlots() then answer from those tables instead of
+ * calling into the client (each Inventory.contains()/count() call walks the inventory again).
+ * The tables are reused between captures.
+ */
+public class InventorySnapshot {
+
+    private static final int INVENTORY_SIZE = 28;
+
+    private final Map<String, int[]> countsByName = new HashMap<>(); // int[1] holders, reused between captures
+    private final Map<Integer, int[]> countsById = new HashMap<>();
+    private int usedSlots = 0;
+
+    private final InventoryApi.SlotVisitor tally = (slot, itemId, itemName, amount) -> {
+        usedSlots++;
+        int count = Math.max(amount, 1);
+        if (itemName != null) {
+            holder(countsByName, itemName)[0] += count;
+        }
+        holder(countsById, itemId)[0] += count;
+    };
+
+    /**
+     * Reads the inventory, replacing the previous snapshot.
+     *
+     * @param inventory The inventory port to read from.
+     */
+    public void capture(InventoryApi inventory) {
+        resetCounts(countsByName);
+        resetCounts(countsById);
+        usedSlots = 0;
+        inventory.readSlots(tally); // Visits the occupied slots only
+    }
+
+    private static <K> void resetCounts(Map<K, int[]> counts) {
+        for (int[] count : counts.values()) {
+            count[0] = 0;
+        }
+    }
+
+    private static <K> int[] holder(Map<K, int[]> counts, K key) {
+        int[] count = counts.get(key);
+        if (count == null) {
+            count = new int[1];
+            counts.put(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the inventory held at least one item with this exact name at the last capture.
+     */
+    public boolean contains(String itemName) {
+        return count(itemName) > 0;
+    }
+
+    /**
+     * @return The total amount of items with this exact name (stack sizes summed) at the last capture.
+     */
+    public int count(String itemName) {
+        int[] count = countsByName.get(itemName);
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * @return The total amount of items with this ID (stack sizes summed) at the last capture.
+     */
+    public int count(int itemId) {
+        int[] count = countsById.get(itemId);
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * @return The number of free inventory slots at the last capture.
+     */
+    public int getEmptySlots() {
+        return INVENTORY_SIZE - usedSlots;
+    }
+}
@@ -0,0 +1,14 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.magic.Spell;
+
+/**
+ * Spell casting.
+ */
+public interface MagicApi {
+
+    /**
+     * @return true if the spell was selected and cast on the target.
+     */
+    boolean castSpellOn(Spell spell, EntityRef target);
+}
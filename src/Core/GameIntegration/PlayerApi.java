@@ -0,0 +1,59 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.map.Area;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.Skill;
+
+/**
+ * Local player, skills and player settings (varps).
+ */
+public interface PlayerApi {
+
+    /**
+     * @return The player's tile, or null if the player is not loaded.
+     */
+    Tile getTile();
+
+    boolean isMoving();
+
+    boolean isAnimating();
+
+    /**
+     * @return The current animation ID, or -1 if not animating.
+     */
+    int getAnimation();
+
+    boolean isInCombat();
+
+    /**
+     * @return The NPC (or other character) the player is interacting with, or null if none.
+     */
+    EntityRef getInteracting();
+
+    /**
+     * @return The value of the VarPlayer (e.g., 281 for Tutorial Island progress).
+     */
+    int getVarp(int varpId);
+
+    int getRealLevel(Skill skill);
+
+    int getBoostedLevel(Skill skill);
+
+    boolean isAnyPrayerActive();
+
+    /**
+     * @return The distance from the player to the tile, or Double.MAX_VALUE if either is unknown.
+     */
+    default double distanceTo(Tile tile) {
+        Tile playerTile = getTile();
+        return (playerTile != null && tile != null) ? playerTile.distance(tile) : Double.MAX_VALUE;
+    }
+
+    /**
+     * @return true if the player is loaded and stands in the area.
+     */
+    default boolean isIn(Area area) {
+        Tile playerTile = getTile();
+        return playerTile != null && area.contains(playerTile);
+    }
+}
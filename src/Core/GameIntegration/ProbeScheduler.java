@@ -0,0 +1,209 @@
+package Core.GameIntegration;
+
+import Core.GOAP.WorldState;
+import Core.GOAP.WorldStateKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Runs the observer's probes (groups of WorldState keys read together) according to their RefreshPolicy,
+ * so hot keys are read every tick while rarely changing ones are only read when they may have changed.
+ * Probes run in registration order; an event signalled by a probe during a tick is seen by the probes
+ * registered after it in the same tick (e.g., a stage change refreshing skills right away).
+ * Keys of a probe that does not run keep their previous value in the WorldState.
+ *
+ * Probes registered with the keys they write can be switched off by setRelevantKeys(): a probe none of
+ * whose keys is relevant is skipped entirely, so observation cost follows the active goal. Probes registered
+ * without keys are the always-on core. A probe that becomes relevant again runs on the next tick.
+ */
+public class ProbeScheduler {
+
+    private static final class Probe {
+        final String name;
+        final RefreshPolicy policy;
+        final Consumer<WorldState> reader;
+        final Set<WorldStateKey> keys; // Keys written by the probe (null = always-on core probe)
+        boolean active = true;
+        boolean dirty = true; // First tick always runs
+        long lastRunTick = 0;
+        long runs = 0;
+
+        Probe(String name, RefreshPolicy policy, Set<WorldStateKey> keys, Consumer<WorldState> reader) {
+            this.name = name;
+            this.policy = policy;
+            this.keys = keys;
+            this.reader = reader;
+        }
+    }
+
+    private final List<Probe> probes = new ArrayList<>();
+    private long tick = 0;
+
+    /**
+     * Registers an always-on probe (never switched off by setRelevantKeys()).
+     *
+     * @param name   Unique name, used by requestRefresh().
+     * @param policy When to run the probe.
+     * @param reader Reads the game and writes the probe's keys into the WorldState.
+     */
+    public void register(String name, RefreshPolicy policy, Consumer<WorldState> reader) {
+        add(name, policy, null, reader);
+    }
+
+    /**
+     * Registers a probe that only runs while at least one of its keys is relevant.
+     *
+     * @param name   Unique name, used by requestRefresh().
+     * @param policy When to run the probe.
+     * @param keys   The keys the probe writes.
+     * @param reader Reads the game and writes the probe's keys into the WorldState.
+     */
+    public void register(String name, RefreshPolicy policy, Collection<WorldStateKey> keys, Consumer<WorldState> reader) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("Probe keys cannot be empty (use the always-on register())");
+        }
+        add(name, policy, EnumSet.copyOf(keys), reader);
+    }
+
+    private void add(String name, RefreshPolicy policy, Set<WorldStateKey> keys, Consumer<WorldState> reader) {
+        Objects.requireNonNull(name, "Probe name cannot be null");
+        if (find(name) != null) {
+            throw new IllegalArgumentException("Probe already registered: " + name);
+        }
+        probes.add(new Probe(name, Objects.requireNonNull(policy), keys, Objects.requireNonNull(reader)));
+    }
+
+    /**
+     * Restricts observation to the probes writing at least one of the given keys (plus the always-on probes).
+     *
+     * @param relevantKeys The keys that can influence planning/execution, or null to run every probe.
+     * @return The number of keyed probes that are active afterwards.
+     */
+    public int setRelevantKeys(Set<WorldStateKey> relevantKeys) {
+        int active = 0;
+        for (int i = 0; i < probes.size(); i++) {
+            Probe probe = probes.get(i);
+            if (probe.keys == null) {
+                continue;
+            }
+            boolean nowActive = relevantKeys == null || !Collections.disjoint(probe.keys, relevantKeys);
+            if (nowActive && !probe.active) {
+                probe.dirty = true; // Its keys may be stale after being skipped
+            }
+            probe.active = nowActive;
+            if (nowActive) active++;
+        }
+        return active;
+    }
+
+    /**
+     * Advances one tick and runs every probe that is due.
+     *
+     * @param worldState The state to update.
+     * @return The number of probes that ran.
+     */
+    public int runDue(WorldState worldState) {
+        tick++;
+        int ran = 0;
+        for (int i = 0; i < probes.size(); i++) {
+            Probe probe = probes.get(i);
+            if (!probe.active) {
+                continue;
+            }
+            int interval = probe.policy.getInterval();
+            boolean due = probe.dirty || (interval > 0 && tick - probe.lastRunTick >= interval);
+            if (due) {
+                run(probe, worldState);
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Runs the active probes that are marked as due (refresh requested, event signalled or just switched on)
+     * without advancing the tick, e.g., to fill in newly relevant keys before planning.
+     *
+     * @param worldState The state to update.
+     * @return The number of probes that ran.
+     */
+    public int runPending(WorldState worldState) {
+        int ran = 0;
+        for (int i = 0; i < probes.size(); i++) {
+            Probe probe = probes.get(i);
+            if (probe.active && probe.dirty) {
+                run(probe, worldState);
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private void run(Probe probe, WorldState worldState) {
+        probe.dirty = false;
+        probe.lastRunTick = tick;
+        probe.runs++;
+        probe.reader.accept(worldState);
+    }
+
+    /**
+     * Marks every probe listening for the event as due. Probes registered after the caller still run this tick.
+     */
+    public void signal(String event) {
+        for (int i = 0; i < probes.size(); i++) {
+            Probe probe = probes.get(i);
+            if (probe.policy.getEvents().contains(event)) {
+                probe.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Marks one probe as due on the next tick (the way to run ON_DEMAND probes).
+     */
+    public void requestRefresh(String name) {
+        Probe probe = find(name);
+        if (probe == null) {
+            throw new IllegalArgumentException("Unknown probe: " + name);
+        }
+        probe.dirty = true;
+    }
+
+    /**
+     * Marks every probe as due on the next tick, e.g., after an action failed and the state may be stale.
+     */
+    public void requestFullRefresh() {
+        for (int i = 0; i < probes.size(); i++) {
+            probes.get(i).dirty = true;
+        }
+    }
+
+    private Probe find(String name) {
+        for (int i = 0; i < probes.size(); i++) {
+            if (probes.get(i).name.equals(name)) {
+                return probes.get(i);
+            }
+        }
+        return null;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ProbeScheduler{tick=").append(tick);
+        for (Probe probe : probes) {
+            sb.append(", ").append(probe.name).append("=").append(probe.runs).append(probe.active ? "" : " (off)");
+        }
+        return sb.append('}').toString();
+    }
+}
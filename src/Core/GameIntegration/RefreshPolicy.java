@@ -0,0 +1,71 @@
+package Core.GameIntegration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * When an observer probe must be re-run (see ProbeScheduler).
+ * A probe always runs on the first tick and after an explicit refresh request; besides that it runs
+ * every 'interval' ticks (0 = never on a timer) and whenever one of its events is signalled.
+ *
+ * Usage:
+ * <pre>
+ * RefreshPolicy.everyTick()                            // Hot keys (location, animation)
+ * RefreshPolicy.everyTicks(25).orOn("STAGE_CHANGED")   // Rarely changing keys (skills)
+ * RefreshPolicy.onDemand()                             // Only when requested
+ * RefreshPolicy.onEvent("AREA_CHANGED")
+ * </pre>
+ */
+public final class RefreshPolicy {
+
+    private final int interval;       // Ticks between timed refreshes (0 = no timer)
+    private final Set<String> events; // Events that trigger a refresh
+
+    private RefreshPolicy(int interval, Set<String> events) {
+        this.interval = interval;
+        this.events = events;
+    }
+
+    public static RefreshPolicy everyTick() {
+        return new RefreshPolicy(1, Collections.<String>emptySet());
+    }
+
+    public static RefreshPolicy everyTicks(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1 tick, got " + interval);
+        }
+        return new RefreshPolicy(interval, Collections.<String>emptySet());
+    }
+
+    public static RefreshPolicy onDemand() {
+        return new RefreshPolicy(0, Collections.<String>emptySet());
+    }
+
+    public static RefreshPolicy onEvent(String... events) {
+        return onDemand().orOn(events);
+    }
+
+    /**
+     * @return A copy of this policy that additionally refreshes when one of the given events is signalled.
+     */
+    public RefreshPolicy orOn(String... moreEvents) {
+        Set<String> combined = new HashSet<>(events);
+        combined.addAll(Arrays.asList(moreEvents));
+        return new RefreshPolicy(interval, Collections.unmodifiableSet(combined));
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Set<String> getEvents() {
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshPolicy{interval=" + interval + ", events=" + events + '}';
+    }
+}
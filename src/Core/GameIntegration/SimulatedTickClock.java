@@ -0,0 +1,47 @@
+package Core.GameIntegration;
+
+/**
+ * Stand-in TickClock for runs without a client (e.g., with InMemoryGameApi): ticks advance with wall
+ * time at a fixed length from the moment the clock is created. A shorter tick length speeds up
+ * simulations that wait for ticks.
+ */
+public class SimulatedTickClock implements TickClock {
+
+    private final long originMillis;
+    private final long tickMillis;
+
+    public SimulatedTickClock() {
+        this(TICK_MILLIS);
+    }
+
+    /**
+     * @param tickMillis The simulated tick length in milliseconds.
+     */
+    public SimulatedTickClock(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive: " + tickMillis);
+        }
+        this.originMillis = System.currentTimeMillis();
+        this.tickMillis = tickMillis;
+    }
+
+    @Override
+    public long getTick() {
+        return Math.max(0, System.currentTimeMillis() - originMillis) / tickMillis;
+    }
+
+    @Override
+    public long getTickStartMillis() {
+        return originMillis + getTick() * tickMillis;
+    }
+
+    @Override
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedTickClock{tick=" + getTick() + ", tickMillis=" + tickMillis + "}";
+    }
+}
@@ -0,0 +1,18 @@
+package Core.GameIntegration;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waiting inside an action, e.g., for an animation to start after an interaction.
+ */
+public interface SleepApi {
+
+    void sleep(long millis);
+
+    /**
+     * Waits until the condition holds or the timeout passes.
+     *
+     * @return true if the condition held before the timeout.
+     */
+    boolean sleepUntil(BooleanSupplier condition, long timeoutMillis);
+}
@@ -0,0 +1,38 @@
+package Core.GameIntegration;
+
+/**
+ * Game tick time source. The game advances in 600 ms ticks; GameTickClock follows the client's tick
+ * events, SimulatedTickClock derives ticks from wall time for headless runs.
+ * Tick-level timestamps (getTickStartMillis) are what GameClock hands to action timeouts, so a timeout
+ * counts whole ticks instead of drifting with the script's loop timing.
+ */
+public interface TickClock {
+
+    long TICK_MILLIS = 600;
+
+    /**
+     * @return The number of ticks seen so far.
+     */
+    long getTick();
+
+    /**
+     * @return System.currentTimeMillis() at the start of the current tick.
+     */
+    long getTickStartMillis();
+
+    /**
+     * @return The tick length in milliseconds.
+     */
+    default long getTickMillis() {
+        return TICK_MILLIS;
+    }
+
+    /**
+     * @return The estimated milliseconds until the next tick starts (0 < result <= getTickMillis()).
+     *         Missed ticks are extrapolated from the tick length.
+     */
+    default long getMillisUntilNextTick() {
+        long elapsed = Math.max(0, System.currentTimeMillis() - getTickStartMillis());
+        return getTickMillis() - (elapsed % getTickMillis());
+    }
+}
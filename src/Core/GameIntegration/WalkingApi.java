@@ -0,0 +1,14 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.map.Tile;
+
+/**
+ * Web/minimap walking.
+ */
+public interface WalkingApi {
+
+    /**
+     * @return true if a walk step was taken towards the tile.
+     */
+    boolean walk(Tile tile);
+}
@@ -0,0 +1,47 @@
+package Core.GameIntegration;
+
+import org.dreambot.api.methods.tabs.Tab;
+
+/**
+ * Interface state: tabs, widgets, bank and dialogues.
+ */
+public interface WidgetsApi {
+
+    boolean isTabOpen(Tab tab);
+
+    boolean openTab(Tab tab);
+
+    /**
+     * @return true if the root widget exists and is visible.
+     */
+    boolean isWidgetVisible(int widgetId);
+
+    /**
+     * @param path Widget IDs from the root down to the child (e.g., {parent, child}).
+     * @return true if the child exists and is visible.
+     */
+    boolean isChildVisible(int[] path);
+
+    /**
+     * @param path   Widget IDs from the root down to the child.
+     * @param action The interaction, e.g., "Click".
+     * @return true if the child was found and the interaction was sent.
+     */
+    boolean interactChild(int[] path, String action);
+
+    /**
+     * Makes an item from the open smithing interface.
+     *
+     * @param amount How many to make, or -1 for Make All.
+     * @return true if the command was sent.
+     */
+    boolean smith(String itemName, int amount);
+
+    boolean isBankOpen();
+
+    boolean inDialogue();
+
+    boolean canContinueDialogue();
+
+    boolean continueDialogue();
+}
@@ -0,0 +1,254 @@
+package Main;
+
+import Core.Actions.*;
+import Core.GOAP.Action;
+import Core.GOAP.WorldStateKey;
+import Core.GameIntegration.GameApi;
+import org.dreambot.api.methods.magic.Normal;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.tabs.Tab;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static Core.GameIntegration.DreamBotWorldObserver.TUTORIAL_AREAS;
+
+/**
+ * The Tutorial Island action set, built against a GameApi so the same actions run on the live client
+ * (DreamBotGameApi) and headless (InMemoryGameApi, see Core.GOAP.Tools.HeadlessScriptDriver).
+ */
+public final class TutorialIslandActions {
+
+    /** Most actions the engine runs per loop (see ExecutionEngine.setStepBudget). */
+    public static final int STEP_BUDGET_ACTIONS = 5;
+    /** Most time the engine spends per loop, in ms. */
+    public static final long STEP_BUDGET_MILLIS = 300;
+
+    private TutorialIslandActions() {
+    }
+
+    /**
+     * Creates all actions, sharing one game access port.
+     *
+     * @param api The game access port the actions use.
+     * @return A new, mutable list.
+     */
+    public static List<Action> create(GameApi api) {
+        List<Action> actions = new ArrayList<>();
+
+        // --- Define Tiles (VERIFY ALL OF THESE!) ---
+        Tile guideTile = new Tile(3094, 3107, 0);
+        Tile startingDoorTile = new Tile(3097, 3107, 0);
+        Tile survivalExpertTile = new Tile(3098, 3106, 0);
+        Tile treeTile = new Tile(3101, 3098, 0);
+        Tile firemakingTile = new Tile(3099, 3102, 0);
+        Tile fishingSpotTile = new Tile(3103, 3093, 0);
+        Tile gate1Tile = new Tile(3108, 3096, 0);
+        Tile gate2Tile = new Tile(3111, 3090, 0);
+        Tile chefTile = new Tile(3076, 3084, 0);
+        Tile rangeTile = new Tile(3079, 3084, 0);
+        Tile chefDoorExitTile = new Tile(3074, 3081, 0);
+        Tile questGuideTile = new Tile(3076, 3079, 0);
+        Tile ladderTile = new Tile(3088, 9506, 0); // Moved declaration up
+        Tile miningInstructorTile = new Tile(3080, 9505, 0);
+        Tile tinRockTile = new Tile(3077, 9502, 0);
+        Tile copperRockTile = new Tile(3083, 9502, 0);
+        Tile furnaceTile = new Tile(3081, 9498, 0);
+        Tile anvilTile = new Tile(3081, 9499, 0);
+        Tile mineGateTile = new Tile(3092, 9503, 0); // Moved declaration up
+        Tile combatInstructorTile = new Tile(3095, 9503, 0);
+        Tile ratGateTile = new Tile(3097, 9509, 0); // Moved declaration up
+        Tile combatLadderTile = new Tile(3111, 9518, 0);
+        Tile bankBoothTile = new Tile(3120, 3123, 0);
+        Tile pollBoothTile = new Tile(3125, 3124, 0);
+        Tile finAdvisorDoorInTile = new Tile(3125, 3126, 0);
+        Tile finAdvisorTile = new Tile(3126, 3128, 0);
+        Tile finAdvisorDoorOutTile = new Tile(3128, 3125, 0);
+        Tile brotherBraceTile = new Tile(3124, 3118, 0);
+        Tile churchDoorOutTile = new Tile(3121, 3116, 0);
+        Tile magicInstructorTile = new Tile(3121, 3108, 0);
+        Tile chickenTile = new Tile(3139, 3106, 0);
+
+        // --- Define Object/Animation IDs (VERIFY ALL OF THESE!) ---
+        int startingDoorId = 9398;
+        int treeId = 1276;
+        int firemakingAnim = 733;
+        int fishingSpotId = 1518;
+        int fishingAnim = 621;
+        int cookingAnim = 897;
+        int gateId = 9470; // Assuming same ID for multiple gates - VERIFY
+        int rangeId = 114;
+        int ladderDownId = 9742;
+        int tinRockId = 10080;
+        int copperRockId = 10079;
+        int miningAnim = 625;
+        int furnaceId = 24009;
+        int anvilId = 2097;
+        int smithingAnim = 898;
+        int mineGateId = 9710; // Example ID - VERIFY & Moved declaration up
+        int combatInstructorId = -1; // Find ID if needed
+        int ratGateId = 9719; // Example ID - VERIFY & Moved declaration up
+        int ratId = 2856;
+        int combatAnimMelee = 422;
+        int combatAnimRanged = 426;
+        int ladderUpId = 9743; // Example ID - VERIFY
+        int bankBoothId = 10355;
+        int pollBoothId = 26815;
+        int finDoorInId = 9721; // Example ID - VERIFY
+        int finAdvisorId = -1; // Find ID if needed
+        int finDoorOutId = 9722; // Example ID - VERIFY
+        int brotherBraceId = -1; // Find ID if needed
+        int churchDoorOutId = 9723; // Example ID - VERIFY
+        int magicInstructorId = 3309; // Example ID - VERIFY
+        int chickenId = 41;
+        int magicCastAnim = 711;
+
+        // --- Define Area Name Strings (Match keys in TUTORIAL_AREAS map) ---
+        String guideAreaName = "Guide_Start_Area";
+        String survivalAreaName = "Survival_Fishing_Area"; // Use a general name or specific if needed
+        String cookingAreaName = "Survival_Cooking_Area";
+        String chefAreaName = "Cooking_Range_Area";
+        String questGuideAreaName = "Quest_Guide_Area";
+        String miningAreaName = "Mining_Area";
+        String smithingAreaName = "Mining_Smithing_Area";
+        String combatAreaName = "Combat_Area";
+        String bankAreaName = "Bank_Area";
+        String financialAreaName = "Financial_Advisor_Area";
+        String prayerAreaName = "Prayer_Area";
+        String magicAreaName = "Magic_Area";
+
+
+        // --- Instantiate Actions ---
+
+        // S0: Start
+        actions.add(new ActionTalkToNPC(api, "Gielinor Guide", "S0_Start_OpenSettings", TUTORIAL_AREAS.get(guideAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Gielinor Guide"));
+        // TODO: Add ActionClickWidget for Settings Tab/Button if needed for stage 3
+        Map<WorldStateKey, Object> openDoorEffects = createEffectsMap(WorldStateKey.S0_DOOR_OPEN, true, WorldStateKey.TUT_STAGE_NAME, "S1_Survival_TalkToExpert");
+        actions.add(new ActionClickObject(api, startingDoorId, startingDoorTile, "Open", openDoorEffects, -1));
+
+        // S1: Survival
+        actions.add(new ActionWalkToTile(api, survivalExpertTile, 2, survivalAreaName));
+        actions.add(new ActionTalkToNPC(api, "Survival Expert", "S1_Survival_OpenInventory", TUTORIAL_AREAS.get(survivalAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Survival Expert"));
+        actions.add(new ActionOpenTab(api, Tab.INVENTORY, WorldStateKey.UI_INVENTORY_OPEN));
+        actions.add(new ActionOpenTab(api, Tab.SKILLS, WorldStateKey.UI_SKILLS_TAB_OPEN));
+        actions.add(new ActionCutTree(api, TUTORIAL_AREAS.get(cookingAreaName))); // Cut tree near fire area
+        actions.add(new ActionMakeFire(api));
+        actions.add(new ActionFishShrimp(api));
+        actions.add(new ActionCookShrimp(api));
+        Map<WorldStateKey, Object> openGate1Effects = createEffectsMap(WorldStateKey.TUT_STAGE_NAME, "S2_Cooking_EnterChefHouse");
+        actions.add(new ActionClickObject(api, gateId, gate1Tile, "Open", openGate1Effects, -1)); // Open Gate 1
+
+        // S2: Cooking
+        Map<WorldStateKey, Object> openGate2Effects = createEffectsMap(WorldStateKey.TUT_STAGE_NAME, "S2_Cooking_TalkToChef");
+        actions.add(new ActionClickObject(api, gateId, gate2Tile, "Open", openGate2Effects, -1)); // Open Gate 2
+        actions.add(new ActionWalkToTile(api, chefTile, 2, chefAreaName));
+        actions.add(new ActionTalkToNPC(api, "Master Chef", "S2_Cooking_MakeDough", TUTORIAL_AREAS.get(chefAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Master Chef"));
+        actions.add(new ActionUseItemOnItem(api, "Bucket of water", WorldStateKey.S2_HAS_BUCKET_OF_WATER, "Pot of flour", WorldStateKey.S2_HAS_FLOUR, "Bread dough", WorldStateKey.S2_HAS_DOUGH));
+        Map<WorldStateKey, Object> bakeEffects = createEffectsMap(WorldStateKey.S2_HAS_DOUGH, false, WorldStateKey.S2_HAS_BREAD, true, WorldStateKey.TUT_STAGE_NAME, "S2_Cooking_ExitChefHouse");
+        actions.add(new ActionUseItemOnObject(api, "Bread dough", WorldStateKey.S2_HAS_DOUGH, rangeId, "Cook", "Bread", WorldStateKey.S2_HAS_BREAD, cookingAnim));
+        actions.add(new ActionOpenTab(api, Tab.MUSIC, WorldStateKey.UI_MUSIC_TAB_OPEN));
+        Map<WorldStateKey, Object> openChefDoorEffects = createEffectsMap(WorldStateKey.S2_CHEF_DOOR_EXIT_OPEN, true, WorldStateKey.TUT_STAGE_NAME, "S3_Quest_EnterQuestHouse");
+        actions.add(new ActionClickObject(api, "Door", chefDoorExitTile, "Open", openChefDoorEffects, -1));
+
+        // S3: Quest/Mining/Smithing
+        actions.add(new ActionWalkToTile(api, questGuideTile, 2, questGuideAreaName));
+        actions.add(new ActionTalkToNPC(api, "Quest Guide", "S3_Quest_OpenQuestTab", TUTORIAL_AREAS.get(questGuideAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Quest Guide"));
+        actions.add(new ActionOpenTab(api, Tab.QUEST, WorldStateKey.UI_QUEST_TAB_OPEN));
+        Map<WorldStateKey, Object> climbLadderEffects = createEffectsMap(WorldStateKey.LOC_CURRENT_AREA_NAME, miningAreaName, WorldStateKey.TUT_STAGE_NAME, "S3_Mining_TalkToInstructor");
+        actions.add(new ActionClickObject(api, ladderDownId, ladderTile, "Climb-down", climbLadderEffects, -1));
+        actions.add(new ActionWalkToTile(api, miningInstructorTile, 2, miningAreaName));
+        actions.add(new ActionTalkToNPC(api, "Mining Instructor", "S3_Mining_MineTin", TUTORIAL_AREAS.get(miningAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Mining Instructor"));
+        // *** CORRECTED ActionMineOre Instantiation ***
+        actions.add(new ActionMineOre(api, new int[]{tinRockId}, "Tin ore", WorldStateKey.S3_HAS_TIN_ORE, WorldStateKey.S3_HAS_PICKAXE, TUTORIAL_AREAS.get(miningAreaName)));
+        actions.add(new ActionMineOre(api, new int[]{copperRockId}, "Copper ore", WorldStateKey.S3_HAS_COPPER_ORE, WorldStateKey.S3_HAS_PICKAXE, TUTORIAL_AREAS.get(miningAreaName)));
+        Map<WorldStateKey, Object> smeltEffects = createEffectsMap(WorldStateKey.S3_HAS_TIN_ORE, false, WorldStateKey.S3_HAS_COPPER_ORE, false, WorldStateKey.S3_HAS_BRONZE_BAR, true, WorldStateKey.TUT_STAGE_NAME, "S3_Smithing_TalkAfterSmelting");
+        actions.add(new ActionUseItemOnObject(api, "Tin ore", WorldStateKey.S3_HAS_TIN_ORE, furnaceId, "Use", "Bronze bar", WorldStateKey.S3_HAS_BRONZE_BAR, -1));
+        Map<WorldStateKey, Object> clickAnvilEffects = createEffectsMap(WorldStateKey.TUT_STAGE_NAME, "S3_Smithing_SmithDagger");
+        actions.add(new ActionClickObject(api, anvilId, anvilTile, "Smith", clickAnvilEffects, -1));
+        actions.add(new ActionSmithItem(api, "Bronze dagger", "Bronze bar", WorldStateKey.S3_HAS_BRONZE_BAR, WorldStateKey.S3_HAS_HAMMER, WorldStateKey.S3_HAS_DAGGER, 1));
+        Map<WorldStateKey, Object> openMineGateEffects = createEffectsMap(WorldStateKey.S3_MINE_GATE_OPEN, true, WorldStateKey.TUT_STAGE_NAME, "S4_Combat_TalkToInstructor");
+        actions.add(new ActionClickObject(api, mineGateId, mineGateTile, "Open", openMineGateEffects, -1)); // Use corrected variable name
+
+        // S4: Combat
+        actions.add(new ActionWalkToTile(api, combatInstructorTile, 2, combatAreaName));
+        actions.add(new ActionTalkToNPC(api, "Combat Instructor", "S4_Combat_OpenEquipTab", TUTORIAL_AREAS.get(combatAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Combat Instructor"));
+        actions.add(new ActionOpenTab(api, Tab.EQUIPMENT, WorldStateKey.UI_EQUIPMENT_TAB_OPEN));
+        // TODO: Add ActionClickWidget for Equip Stats Button (ID 84) - Need path
+        actions.add(new ActionEquipItem(api, "Bronze dagger", WorldStateKey.S3_HAS_DAGGER, WorldStateKey.S4_DAGGER_EQUIPPED));
+        actions.add(new ActionTalkToNPC(api, "Combat Instructor", "S4_Combat_EquipSwordShield", TUTORIAL_AREAS.get(combatAreaName))); // Talk again after dagger equip
+        // TODO: Add ActionEquipItem for Sword and Shield (Need WorldStateKeys & item names confirmed)
+        actions.add(new ActionOpenTab(api, Tab.COMBAT, WorldStateKey.UI_COMBAT_OPTIONS_OPEN));
+        Map<WorldStateKey, Object> openRatGateEffects = createEffectsMap(WorldStateKey.S4_RAT_GATE_OPEN, true, WorldStateKey.TUT_STAGE_NAME, "S4_Combat_AttackRatMelee");
+        actions.add(new ActionClickObject(api, ratGateId, ratGateTile, "Open", openRatGateEffects, -1)); // Use corrected variable name
+        Map<WorldStateKey, Object> killRatMeleeEffects = createEffectsMap(WorldStateKey.S4_KILLED_RAT_MELEE, true, WorldStateKey.TUT_STAGE_NAME, "S4_Combat_TalkAfterMelee");
+        actions.add(new ActionAttackNPC(api, "Giant rat", TUTORIAL_AREAS.get(combatAreaName), killRatMeleeEffects));
+        actions.add(new ActionTalkToNPC(api, "Combat Instructor", "S4_Combat_EquipRangedAttackRat", TUTORIAL_AREAS.get(combatAreaName))); // Talk again after melee kill
+        // TODO: Add ActionEquipItem for Bow and Arrows (Need WorldStateKeys)
+        Map<WorldStateKey, Object> killRatRangedEffects = createEffectsMap(WorldStateKey.S4_KILLED_RAT_RANGED, true, WorldStateKey.TUT_STAGE_NAME, "S4_Combat_ExitArea");
+        actions.add(new ActionAttackNPC(api, "Giant rat", TUTORIAL_AREAS.get(combatAreaName), killRatRangedEffects));
+        Map<WorldStateKey, Object> climbCombatLadderEffects = createEffectsMap(WorldStateKey.LOC_CURRENT_AREA_NAME, bankAreaName, WorldStateKey.TUT_STAGE_NAME, "S5_Financial_OpenBank");
+        actions.add(new ActionClickObject(api, ladderUpId, combatLadderTile, "Climb-up", climbCombatLadderEffects, -1));
+
+        // S5: Financial
+        actions.add(new ActionWalkToTile(api, bankBoothTile, 1, bankAreaName));
+        // TODO: Add ActionClickObject for Bank Booth (ID 10355?) - Need effects (UI_BANK_OPEN=true)
+        // TODO: Add ActionClickObject for Poll Booth (ID 26815?) - Need effects (UI_POLL_BOOTH_OPEN=true)
+        // TODO: Add ActionClickObject for Financial Door In (ID 450?) - Need effects
+        actions.add(new ActionWalkToTile(api, finAdvisorTile, 1, financialAreaName));
+        actions.add(new ActionTalkToNPC(api, "Financial Advisor", "S5_Financial_OpenAccountTab", TUTORIAL_AREAS.get(financialAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Financial Advisor"));
+        // TODO: Add ActionOpenTab for Account Management (Widget 109?) - Need key
+        actions.add(new ActionTalkToNPC(api, "Financial Advisor", "S5_Financial_ExitRoom", TUTORIAL_AREAS.get(financialAreaName))); // Talk again after tab
+        // TODO: Add ActionClickObject for Financial Door Out (ID 470?) - Need effects
+
+        // S6: Prayer
+        actions.add(new ActionWalkToTile(api, brotherBraceTile, 1, prayerAreaName));
+        actions.add(new ActionTalkToNPC(api, "Brother Brace", "S6_Prayer_OpenPrayerTab", TUTORIAL_AREAS.get(prayerAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Brother Brace"));
+        actions.add(new ActionOpenTab(api, Tab.PRAYER, WorldStateKey.UI_PRAYER_TAB_OPEN));
+        actions.add(new ActionTalkToNPC(api, "Brother Brace", "S6_Prayer_OpenFriendsList", TUTORIAL_AREAS.get(prayerAreaName))); // Talk again after tab
+        actions.add(new ActionOpenTab(api, Tab.FRIENDS, WorldStateKey.UI_FRIENDS_TAB_OPEN)); // Covers friends/ignore
+        actions.add(new ActionTalkToNPC(api, "Brother Brace", "S6_Prayer_ExitChapel", TUTORIAL_AREAS.get(prayerAreaName))); // Talk again after lists
+        // TODO: Add ActionClickObject for Church Door Out (ID 530?) - Need effects
+
+        // S7: Magic
+        actions.add(new ActionWalkToTile(api, magicInstructorTile, 1, magicAreaName));
+        actions.add(new ActionTalkToNPC(api, "Magic Instructor", "S7_Magic_OpenSpellbook", TUTORIAL_AREAS.get(magicAreaName)));
+        actions.add(new ActionContinueDialogue(api, "Magic Instructor"));
+        actions.add(new ActionOpenTab(api, Tab.MAGIC, WorldStateKey.UI_MAGIC_SPELLBOOK_OPEN));
+        actions.add(new ActionTalkToNPC(api, "Magic Instructor", "S7_Magic_KillChicken", TUTORIAL_AREAS.get(magicAreaName))); // Talk again after spellbook
+        Map<WorldStateKey, Object> killChickenEffects = createEffectsMap(WorldStateKey.S7_KILLED_CHICKEN, true, WorldStateKey.TUT_STAGE_NAME, "S7_Magic_ReadyToLeave");
+        actions.add(new ActionCastSpellOnNPC(api, Normal.WIND_STRIKE, "Chicken", TUTORIAL_AREAS.get(magicAreaName), killChickenEffects));
+        actions.add(new ActionTalkToNPC(api, "Magic Instructor", "S8_Mainland", TUTORIAL_AREAS.get(magicAreaName))); // Talk again after kill (Ready to leave)
+        actions.add(new ActionContinueDialogue(api, "Magic Instructor")); // Final confirmation dialogue
+
+        return actions;
+    }
+
+    // Helper to quickly create effects maps
+    private static Map<WorldStateKey, Object> createEffectsMap(Object... keyValues) {
+        Map<WorldStateKey, Object> map = new HashMap<>();
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Must provide key-value pairs for effects map.");
+        }
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (!(keyValues[i] instanceof WorldStateKey)) {
+                throw new IllegalArgumentException("Effect map keys must be WorldStateKey enums.");
+            }
+            map.put((WorldStateKey) keyValues[i], keyValues[i+1]);
+        }
+        // Always anticipate animation stopping unless explicitly set otherwise
+        if (!map.containsKey(WorldStateKey.INTERACT_IS_ANIMATING)) {
+            map.put(WorldStateKey.INTERACT_IS_ANIMATING, false);
+        }
+        return map;
+    }
+}
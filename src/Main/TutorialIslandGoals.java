@@ -0,0 +1,161 @@
+package Main;
+
+import Core.GOAP.Goal;
+import Core.GOAP.StageGoalTable;
+import Core.GOAP.WorldStateKey;
+
+import java.util.Collections;
+
+/**
+ * The Tutorial Island goals, created once and shared.
+ * Each goal targets the state that moves the tutorial past the current stage (varp 281);
+ * createStageTable() maps the stage ranges to these goals.
+ */
+public final class TutorialIslandGoals {
+
+    private TutorialIslandGoals() {
+    }
+
+    private static Goal goal(String name, WorldStateKey key, Object value) {
+        return new Goal(name, Collections.singletonMap(key, value));
+    }
+
+    public static final Goal TALK_TO_GUIDE = goal("Goal_TalkToGuide", WorldStateKey.TUT_STAGE_ID, 1); // Target next stage ID
+    public static final Goal TALK_TO_GUIDE_POST_NAME = goal("Goal_TalkToGuidePostName", WorldStateKey.TUT_STAGE_ID, 2);
+    public static final Goal OPEN_SETTINGS = goal("Goal_OpenSettings", WorldStateKey.TUT_STAGE_ID, 3);
+    public static final Goal TALK_AFTER_SETTINGS = goal("Goal_TalkAfterSettings", WorldStateKey.TUT_STAGE_ID, 7);
+    public static final Goal OPEN_START_DOOR = goal("Goal_OpenStartDoor", WorldStateKey.S0_DOOR_OPEN, true); // Target door state
+    public static final Goal TALK_TO_SURVIVAL_EXPERT = goal("Goal_TalkToSurvivalExpert", WorldStateKey.TUT_STAGE_ID, 20);
+    public static final Goal OPEN_INVENTORY = goal("Goal_OpenInventory", WorldStateKey.UI_INVENTORY_OPEN, true); // Target UI state
+    public static final Goal FISH_SHRIMP = goal("Goal_FishShrimp", WorldStateKey.S1_HAS_RAW_SHRIMP, true); // Target item state
+    public static final Goal OPEN_SKILLS_TAB = goal("Goal_OpenSkillsTab", WorldStateKey.UI_SKILLS_TAB_OPEN, true);
+    public static final Goal TALK_AFTER_SKILLS = goal("Goal_TalkAfterSkills", WorldStateKey.TUT_STAGE_ID, 60);
+    public static final Goal CUT_TREE = goal("Goal_CutTree", WorldStateKey.S1_HAS_LOGS, true);
+    public static final Goal MAKE_FIRE = goal("Goal_MakeFire", WorldStateKey.S1_IS_FIRE_LIT, true);
+    public static final Goal COOK_SHRIMP = goal("Goal_CookShrimp", WorldStateKey.S1_HAS_COOKED_SHRIMP, true);
+    public static final Goal EXIT_SURVIVAL_AREA = goal("Goal_ExitSurvivalArea", WorldStateKey.TUT_STAGE_ID, 120);
+    public static final Goal ENTER_CHEF_HOUSE = goal("Goal_EnterChefHouse", WorldStateKey.TUT_STAGE_ID, 130);
+    public static final Goal TALK_TO_CHEF = goal("Goal_TalkToChef", WorldStateKey.TUT_STAGE_ID, 140);
+    public static final Goal MAKE_DOUGH = goal("Goal_MakeDough", WorldStateKey.S2_HAS_DOUGH, true);
+    public static final Goal COOK_BREAD = goal("Goal_CookBread", WorldStateKey.S2_HAS_BREAD, true);
+    public static final Goal EXIT_CHEF_HOUSE = goal("Goal_ExitChefHouse", WorldStateKey.TUT_STAGE_ID, 170);
+    public static final Goal TALK_TO_QUEST_GUIDE = goal("Goal_TalkToQuestGuide", WorldStateKey.TUT_STAGE_ID, 220);
+    public static final Goal OPEN_QUEST_TAB = goal("Goal_OpenQuestTab", WorldStateKey.UI_QUEST_TAB_OPEN, true);
+    public static final Goal TALK_AFTER_QUEST_TAB = goal("Goal_TalkAfterQuestTab", WorldStateKey.TUT_STAGE_ID, 240);
+    public static final Goal CLIMB_LADDER = goal("Goal_ClimbLadder", WorldStateKey.LOC_CURRENT_AREA_NAME, "Mining_Area"); // Reaching the mining area signifies success
+    public static final Goal TALK_TO_MINING_INSTRUCTOR = goal("Goal_TalkToMiningInstructor", WorldStateKey.TUT_STAGE_ID, 260); // Covers prospecting dialogue too
+    public static final Goal MINE_TIN = goal("Goal_MineTin", WorldStateKey.S3_HAS_TIN_ORE, true);
+    public static final Goal MINE_COPPER = goal("Goal_MineCopper", WorldStateKey.S3_HAS_COPPER_ORE, true);
+    public static final Goal SMELT_BAR = goal("Goal_SmeltBar", WorldStateKey.S3_HAS_BRONZE_BAR, true);
+    public static final Goal TALK_AFTER_SMELTING = goal("Goal_TalkAfterSmelting", WorldStateKey.TUT_STAGE_ID, 330);
+    public static final Goal CLICK_ANVIL = goal("Goal_ClickAnvil", WorldStateKey.TUT_STAGE_ID, 340);
+    public static final Goal SMITH_DAGGER = goal("Goal_SmithDagger", WorldStateKey.S3_HAS_DAGGER, true);
+    public static final Goal ENTER_COMBAT_CAVE = goal("Goal_EnterCombatCave", WorldStateKey.TUT_STAGE_ID, 360);
+    public static final Goal TALK_TO_COMBAT_INSTRUCTOR = goal("Goal_TalkToCombatInstructor", WorldStateKey.TUT_STAGE_ID, 370);
+    public static final Goal OPEN_EQUIP_TAB = goal("Goal_OpenEquipTab", WorldStateKey.UI_EQUIPMENT_TAB_OPEN, true);
+    public static final Goal OPEN_EQUIP_STATS = goal("Goal_OpenEquipStats", WorldStateKey.UI_EQUIPMENT_STATS_OPEN, true);
+    public static final Goal EQUIP_DAGGER = goal("Goal_EquipDagger", WorldStateKey.S4_DAGGER_EQUIPPED, true);
+    public static final Goal TALK_AFTER_DAGGER = goal("Goal_TalkAfterDagger", WorldStateKey.TUT_STAGE_ID, 410);
+    public static final Goal EQUIP_SWORD_SHIELD = goal("Goal_EquipSwordShield", WorldStateKey.TUT_STAGE_ID, 420); // Rely on stage ID for now
+    public static final Goal OPEN_COMBAT_STYLES = goal("Goal_OpenCombatStyles", WorldStateKey.UI_COMBAT_OPTIONS_OPEN, true);
+    public static final Goal ENTER_RAT_CAGE = goal("Goal_EnterRatCage", WorldStateKey.S4_RAT_GATE_OPEN, true);
+    public static final Goal ATTACK_RAT_MELEE = goal("Goal_AttackRatMelee", WorldStateKey.S4_KILLED_RAT_MELEE, true); // Goal is killing the rat
+    public static final Goal WAIT_FOR_RAT_MELEE_DEATH = goal("Goal_WaitForRatMeleeDeath", WorldStateKey.TUT_STAGE_ID, 460);
+    public static final Goal TALK_AFTER_MELEE = goal("Goal_TalkAfterMelee", WorldStateKey.TUT_STAGE_ID, 470);
+    public static final Goal EQUIP_RANGED_ATTACK_RAT = goal("Goal_EquipRangedAttackRat", WorldStateKey.S4_KILLED_RAT_RANGED, true); // Goal is killing the rat
+    public static final Goal WAIT_FOR_RAT_RANGED_DEATH = goal("Goal_WaitForRatRangedDeath", WorldStateKey.TUT_STAGE_ID, 490);
+    public static final Goal EXIT_COMBAT_AREA = goal("Goal_ExitCombatArea", WorldStateKey.TUT_STAGE_ID, 500);
+    public static final Goal OPEN_BANK = goal("Goal_OpenBank", WorldStateKey.UI_BANK_OPEN, true);
+    public static final Goal OPEN_POLL_BOOTH = goal("Goal_OpenPollBooth", WorldStateKey.UI_POLL_BOOTH_OPEN, true);
+    public static final Goal TALK_TO_ADVISOR = goal("Goal_TalkToAdvisor", WorldStateKey.TUT_STAGE_ID, 530);
+    public static final Goal OPEN_ACCOUNT_TAB = goal("Goal_OpenAccountTab", WorldStateKey.TUT_STAGE_ID, 531);
+    public static final Goal TALK_AFTER_ACCOUNT_TAB = goal("Goal_TalkAfterAccountTab", WorldStateKey.TUT_STAGE_ID, 532);
+    public static final Goal EXIT_ADVISOR_ROOM = goal("Goal_ExitAdvisorRoom", WorldStateKey.TUT_STAGE_ID, 540);
+    public static final Goal TALK_TO_BROTHER = goal("Goal_TalkToBrother", WorldStateKey.TUT_STAGE_ID, 550);
+    public static final Goal OPEN_PRAYER_TAB = goal("Goal_OpenPrayerTab", WorldStateKey.UI_PRAYER_TAB_OPEN, true);
+    public static final Goal TALK_AFTER_PRAYER_TAB = goal("Goal_TalkAfterPrayerTab", WorldStateKey.TUT_STAGE_ID, 570);
+    public static final Goal OPEN_FRIENDS_LIST = goal("Goal_OpenFriendsList", WorldStateKey.UI_FRIENDS_TAB_OPEN, true); // Includes ignore list
+    public static final Goal TALK_AFTER_FRIENDS_LIST = goal("Goal_TalkAfterFriendsList", WorldStateKey.TUT_STAGE_ID, 600);
+    public static final Goal EXIT_CHAPEL = goal("Goal_ExitChapel", WorldStateKey.TUT_STAGE_ID, 610);
+    public static final Goal TALK_TO_MAGIC_INSTRUCTOR = goal("Goal_TalkToMagicInstructor", WorldStateKey.TUT_STAGE_ID, 620);
+    public static final Goal OPEN_SPELLBOOK = goal("Goal_OpenSpellbook", WorldStateKey.UI_MAGIC_SPELLBOOK_OPEN, true);
+    public static final Goal TALK_AFTER_SPELLBOOK = goal("Goal_TalkAfterSpellbook", WorldStateKey.TUT_STAGE_ID, 640);
+    public static final Goal KILL_CHICKEN = goal("Goal_KillChicken", WorldStateKey.S7_KILLED_CHICKEN, true);
+    public static final Goal READY_TO_LEAVE = goal("Goal_ReadyToLeave", WorldStateKey.TUT_STAGE_ID, 670);
+    public static final Goal LEAVE_TUTORIAL = goal("Goal_LeaveTutorial", WorldStateKey.TUT_ISLAND_COMPLETED, true); // Final goal state
+
+    /**
+     * Builds the stage -> goal table for varp 281. The goal for a stage is the one that
+     * completes it (the condition checks the *current* stage ID to determine the *next* goal).
+     *
+     * @return The immutable table. Stage 1000 (tutorial complete) and above have no goal.
+     */
+    public static StageGoalTable createStageTable() {
+        return StageGoalTable.builder()
+                .from(Integer.MIN_VALUE, TALK_TO_GUIDE) // Start -> Talk to Guide
+                .from(1, TALK_TO_GUIDE_POST_NAME) // Post Name -> Open Settings? (Needs confirmation)
+                .from(2, OPEN_SETTINGS) // Talked -> Open Settings
+                .from(3, TALK_AFTER_SETTINGS) // Settings Open -> Talk Again
+                .from(7, OPEN_START_DOOR) // Talked -> Open Door
+                .from(10, TALK_TO_SURVIVAL_EXPERT) // Door Open -> Talk to Expert
+                .from(20, OPEN_INVENTORY) // Talked -> Open Inventory
+                .from(30, FISH_SHRIMP) // Inventory Open -> Fish
+                .from(40, OPEN_SKILLS_TAB) // Fished -> Open Skills
+                .from(50, TALK_AFTER_SKILLS) // Skills Open -> Talk Again
+                .from(60, CUT_TREE) // Talked -> Cut Tree
+                .from(70, MAKE_FIRE) // Cut Tree -> Make Fire
+                .from(80, COOK_SHRIMP) // Made Fire -> Cook Shrimp
+                .from(90, EXIT_SURVIVAL_AREA) // Cooked -> Exit Area (Open Gate)
+                .from(120, ENTER_CHEF_HOUSE) // Past Gate 1 -> Open Gate 2
+                .from(130, TALK_TO_CHEF) // Entered Area -> Talk to Chef
+                .from(140, MAKE_DOUGH) // Talked -> Make Dough
+                .from(150, COOK_BREAD) // Made Dough -> Cook Bread
+                .from(160, EXIT_CHEF_HOUSE) // Cooked Bread -> Exit House
+                .from(170, TALK_TO_QUEST_GUIDE) // Exited Chef -> Talk to Quest Guide (Needs walk action first)
+                .from(220, OPEN_QUEST_TAB) // Talked -> Open Quest Tab
+                .from(230, TALK_AFTER_QUEST_TAB) // Tab Open -> Talk Again
+                .from(240, CLIMB_LADDER) // Talked -> Climb Ladder
+                .from(250, TALK_TO_MINING_INSTRUCTOR) // Climbed -> Talk to Instructor
+                .from(260, MINE_TIN) // Talked -> Mine Tin
+                .from(300, MINE_COPPER) // Mined Tin -> Mine Copper
+                .from(310, SMELT_BAR) // Mined Copper -> Smelt Bar
+                .from(320, TALK_AFTER_SMELTING) // Smelted -> Talk Again
+                .from(330, CLICK_ANVIL) // Talked -> Click Anvil
+                .from(340, SMITH_DAGGER) // Clicked Anvil -> Smith Dagger
+                .from(350, ENTER_COMBAT_CAVE) // Smithed -> Open Gate
+                .from(360, TALK_TO_COMBAT_INSTRUCTOR) // Entered Cave -> Talk Instructor
+                .from(370, OPEN_EQUIP_TAB) // Talked -> Open Equip Tab
+                .from(390, OPEN_EQUIP_STATS) // Equip Tab Open -> Open Stats
+                .from(400, EQUIP_DAGGER) // Stats Viewed -> Equip Dagger
+                .from(405, TALK_AFTER_DAGGER) // Dagger Equipped -> Talk Again
+                .from(410, EQUIP_SWORD_SHIELD) // Talked -> Equip Sword/Shield
+                .from(420, OPEN_COMBAT_STYLES) // Equipped -> Open Combat Styles
+                .from(430, ENTER_RAT_CAGE) // Styles Open -> Enter Cage
+                .from(440, ATTACK_RAT_MELEE) // Entered Cage -> Attack Rat
+                .from(450, WAIT_FOR_RAT_MELEE_DEATH) // Attacking -> Wait for kill
+                .from(460, TALK_AFTER_MELEE) // Killed Rat -> Exit cage & Talk
+                .from(470, EQUIP_RANGED_ATTACK_RAT) // Talked -> Equip Ranged & Attack
+                .from(480, WAIT_FOR_RAT_RANGED_DEATH) // Attacking Ranged -> Wait for kill
+                .from(490, EXIT_COMBAT_AREA) // Killed Ranged -> Climb Ladder
+                .from(500, OPEN_BANK) // Climbed -> Open Bank
+                .from(510, OPEN_POLL_BOOTH) // Banked -> Open Poll Booth
+                .from(520, TALK_TO_ADVISOR) // Polled -> Open Door & Talk
+                .from(530, OPEN_ACCOUNT_TAB) // Talked -> Open Account Tab
+                .from(531, TALK_AFTER_ACCOUNT_TAB) // Tab Open -> Talk Again
+                .from(532, EXIT_ADVISOR_ROOM) // Talked -> Exit Room
+                .from(540, TALK_TO_BROTHER) // Exited -> Talk to Brother
+                .from(550, OPEN_PRAYER_TAB) // Talked -> Open Prayer Tab
+                .from(560, TALK_AFTER_PRAYER_TAB) // Tab Open -> Talk Again
+                .from(570, OPEN_FRIENDS_LIST) // Talked -> Open Friends
+                .from(580, TALK_AFTER_FRIENDS_LIST) // Lists Open -> Talk Again
+                .from(600, EXIT_CHAPEL) // Talked -> Exit Chapel
+                .from(610, TALK_TO_MAGIC_INSTRUCTOR) // Exited -> Talk to Instructor
+                .from(620, OPEN_SPELLBOOK) // Talked -> Open Spellbook
+                .from(630, TALK_AFTER_SPELLBOOK) // Spellbook Open -> Talk Again
+                .from(640, KILL_CHICKEN) // Talked -> Kill Chicken
+                .from(650, READY_TO_LEAVE) // Killed Chicken -> Talk Again
+                .from(670, LEAVE_TUTORIAL) // Talked -> Confirm Departure
+                .none(1000) // Tutorial Complete
+                .build();
+    }
+}